@@ -0,0 +1,5 @@
+#!/bin/sh
+# Lets the read replica of docker-compose.yml stream WAL from this primary.
+# Runs once, when the data directory is first initialised.
+set -e
+echo "host replication all all scram-sha-256" >> "$PGDATA/pg_hba.conf"
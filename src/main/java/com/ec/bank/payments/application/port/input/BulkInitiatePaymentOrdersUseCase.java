@@ -0,0 +1,56 @@
+package com.ec.bank.payments.application.port.input;
+
+import com.ec.bank.payments.application.port.input.InitiatePaymentOrderUseCase.InitiatePaymentOrderCommand;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import reactor.core.publisher.Flux;
+
+/**
+ * Use Case: Initiate a stream of payment orders in bulk (e.g. a payroll run).
+ * Driving port (exposed to external actors).
+ */
+public interface BulkInitiatePaymentOrdersUseCase {
+
+    /**
+     * Validates and creates every order of the stream, emitting one result
+     * per line in input order. Lines are validated one by one with the same
+     * rules as a single initiation; valid orders are persisted in chunks,
+     * so memory stays bounded whatever the length of the stream.
+     * Idempotency keys are ignored.
+     *
+     * @param lines Numbered lines, each holding a command or the reason it could not be read
+     * @return Flux emitting the result of each line, in input order
+     */
+    Flux<BulkInitiationResult> initiateAll(Flux<BulkInitiationLine> lines);
+
+    /**
+     * One line of a bulk request: a command, or the reason it could not be read.
+     */
+    record BulkInitiationLine(long lineNumber, InitiatePaymentOrderCommand command, String error) {
+
+        public static BulkInitiationLine parsed(long lineNumber, InitiatePaymentOrderCommand command) {
+            return new BulkInitiationLine(lineNumber, command, null);
+        }
+
+        public static BulkInitiationLine unreadable(long lineNumber, String error) {
+            return new BulkInitiationLine(lineNumber, null, error);
+        }
+    }
+
+    /**
+     * Result of one line: the created order, or why it was rejected.
+     */
+    record BulkInitiationResult(long lineNumber, PaymentOrder paymentOrder, String error) {
+
+        public static BulkInitiationResult accepted(long lineNumber, PaymentOrder paymentOrder) {
+            return new BulkInitiationResult(lineNumber, paymentOrder, null);
+        }
+
+        public static BulkInitiationResult rejected(long lineNumber, String error) {
+            return new BulkInitiationResult(lineNumber, null, error);
+        }
+
+        public boolean isAccepted() {
+            return paymentOrder != null;
+        }
+    }
+}
@@ -5,7 +5,9 @@ package com.ec.bank.payments.application.port.input;
 import com.ec.bank.payments.domain.model.PaymentOrder;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.function.Function;
 
 /**
  * Use Case: Initiate a new payment order.
@@ -21,6 +23,21 @@ public interface InitiatePaymentOrderUseCase {
      */
     Mono<PaymentOrder> initiate(InitiatePaymentOrderCommand command);
 
+    /**
+     * Initiates a new payment order, replaying the original response for a
+     * retry of the same request instead of failing it as a duplicate.
+     * The response is rendered once, when the order is created, and stored
+     * with the idempotency key. Reusing a key with a different payload fails
+     * with IdempotencyKeyReusedException.
+     *
+     * @param command          Contains all required data to create a payment order
+     * @param responseRenderer Renders the response to store for the created order
+     * @return Mono emitting the created order, or the response replayed for a retry
+     */
+    Mono<InitiationOutcome> initiate(
+            InitiatePaymentOrderCommand command,
+            Function<PaymentOrder, byte[]> responseRenderer);
+
     /**
      * Command object encapsulating payment order creation data.
      */
@@ -28,10 +45,29 @@ public interface InitiatePaymentOrderUseCase {
             String paymentOrderReference,
             String debtorAccount,
             String creditorAccount,
-            Double amount,
+            BigDecimal amount,
             String currency,
             String remittanceInformation,
             LocalDate requestedExecutionDateTime,
             String idempotencyKey
     ) {}
+
+    /**
+     * Result of an initiation: either a newly created order, or the response
+     * stored by the original request, replayed for a retry.
+     */
+    record InitiationOutcome(PaymentOrder paymentOrder, byte[] replayedResponse) {
+
+        public static InitiationOutcome created(PaymentOrder paymentOrder) {
+            return new InitiationOutcome(paymentOrder, null);
+        }
+
+        public static InitiationOutcome replayed(byte[] response) {
+            return new InitiationOutcome(null, response);
+        }
+
+        public boolean isReplay() {
+            return replayedResponse != null;
+        }
+    }
 }
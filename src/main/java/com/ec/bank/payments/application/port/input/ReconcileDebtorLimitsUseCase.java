@@ -0,0 +1,26 @@
+package com.ec.bank.payments.application.port.input;
+
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Use Case: Bring the per-debtor limit counters of this instance in line
+ * with the payment orders stored by every instance.
+ * Driven periodically; the first run rebuilds the counters from scratch.
+ */
+public interface ReconcileDebtorLimitsUseCase {
+
+    /**
+     * Counts the payment orders created since the last run that this
+     * instance has not counted yet.
+     *
+     * @return Mono emitting the number of payment orders newly counted
+     */
+    Mono<Long> reconcile();
+
+    /**
+     * Drops what the counters no longer need: orders the next run will not
+     * read again and debtors with no order left in any window.
+     */
+    void prune();
+}
@@ -2,9 +2,13 @@ package com.ec.bank.payments.application.port.input;
 
 
 import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderField;
 import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderView;
 import reactor.core.publisher.Mono;
 
+import java.util.Set;
+
 /**
  * Use Case: Retrieve payment order details.
  */
@@ -17,4 +21,13 @@ public interface RetrievePaymentOrderUseCase {
      * @return Mono emitting the PaymentOrder or empty if not found
      */
     Mono<PaymentOrder> retrieve(PaymentOrderId paymentOrderId);
+
+    /**
+     * Retrieves only the given fields of a payment order (sparse fieldset).
+     *
+     * @param paymentOrderId The unique identifier
+     * @param fields         The fields to retrieve
+     * @return Mono emitting the projection of the order
+     */
+    Mono<PaymentOrderView> retrieve(PaymentOrderId paymentOrderId, Set<PaymentOrderField> fields);
 }
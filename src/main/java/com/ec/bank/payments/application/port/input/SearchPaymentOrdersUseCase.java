@@ -0,0 +1,22 @@
+package com.ec.bank.payments.application.port.input;
+
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Hit;
+import reactor.core.publisher.Flux;
+
+/**
+ * Use Case: Search payment orders by status, accounts, currency and creation time.
+ * Driving port (exposed to external actors).
+ */
+public interface SearchPaymentOrdersUseCase {
+
+    /**
+     * Streams the orders matching the criteria, oldest first. Orders are read
+     * as they are requested, so arbitrarily large results can be consumed with
+     * bounded memory. To continue a search, pass the cursor of the last hit seen.
+     *
+     * @param criteria Filters, cursor and limit of the search
+     * @return Flux emitting each matching order with its cursor
+     */
+    Flux<Hit> search(PaymentOrderSearchCriteria criteria);
+}
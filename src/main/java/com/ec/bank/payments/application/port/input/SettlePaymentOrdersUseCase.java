@@ -0,0 +1,53 @@
+package com.ec.bank.payments.application.port.input;
+
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Use Case: Settle due payment orders against the clearing system.
+ * Driven by the settlement worker; safe to run from any number of instances
+ * at once, as each batch is claimed exclusively.
+ */
+public interface SettlePaymentOrdersUseCase {
+
+    /**
+     * Claims up to limit payment orders, moving them to PROCESSING, submits
+     * each to clearing and moves it on to SETTLED or REJECTED.
+     *
+     * @param limit Maximum number of orders to claim
+     * @return Mono emitting how the orders of the batch ended
+     */
+    Mono<SettlementBatchResult> settleBatch(int limit);
+
+    /**
+     * Outcome of a settlement batch.
+     *
+     * @param limit      Maximum number of orders the batch could claim
+     * @param settled    Orders accepted by clearing and now SETTLED
+     * @param rejected   Orders refused by clearing and now REJECTED
+     * @param superseded Orders whose claim was taken over before they finished
+     * @param failed     Orders left in PROCESSING for lack of an answer from clearing
+     */
+    record SettlementBatchResult(
+            int limit,
+            int settled,
+            int rejected,
+            int superseded,
+            int failed
+    ) {
+
+        /**
+         * Number of orders the batch claimed.
+         */
+        public int claimed() {
+            return settled + rejected + superseded + failed;
+        }
+
+        /**
+         * Whether the batch claimed as many orders as it could, so more may be due.
+         */
+        public boolean full() {
+            return claimed() >= limit;
+        }
+    }
+}
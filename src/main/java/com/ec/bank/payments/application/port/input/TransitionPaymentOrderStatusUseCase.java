@@ -0,0 +1,44 @@
+package com.ec.bank.payments.application.port.input;
+
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.model.StatusTransition;
+import reactor.core.publisher.Mono;
+
+/**
+ * Use Case: Move payment orders through their lifecycle (see PaymentStatus.canTransitionTo).
+ * Driving port (exposed to external actors).
+ */
+public interface TransitionPaymentOrderStatusUseCase {
+
+    /**
+     * Moves a payment order to the target status, if its lifecycle allows it and
+     * it still is what the caller expects. Cancelling is the transition to CANCELLED.
+     *
+     * @param paymentOrderId  The unique identifier
+     * @param target          The status to move to
+     * @param expectedStatus  Status the order must have, or null for any that may move to the target
+     * @param expectedVersion Version the order must have, or null for any
+     * @return Mono emitting the applied transition; fails with InvalidStatusTransitionException
+     *         when the lifecycle forbids it and StatusTransitionConflictException when the
+     *         order is not as expected
+     */
+    Mono<StatusTransition> transition(
+            PaymentOrderId paymentOrderId,
+            PaymentStatus target,
+            PaymentStatus expectedStatus,
+            Long expectedVersion);
+
+    /**
+     * Moves every payment order matching the filters to the target status, as one
+     * set-based operation, such as cancelling all pending orders of a debtor.
+     * Orders whose lifecycle forbids the transition are left alone. The criteria
+     * must name a debtor or creditor account, and carry neither cursor nor limit.
+     *
+     * @param criteria Filters selecting the orders
+     * @param target   The status to move to
+     * @return Mono emitting the number of orders moved
+     */
+    Mono<Long> transitionAll(PaymentOrderSearchCriteria criteria, PaymentStatus target);
+}
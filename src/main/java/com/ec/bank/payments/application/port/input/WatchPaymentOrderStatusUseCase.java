@@ -0,0 +1,39 @@
+package com.ec.bank.payments.application.port.input;
+
+
+import com.ec.bank.payments.application.port.input.RetrievePaymentOrderStatusUseCase.PaymentOrderStatusInfo;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Use Case: Follow the status of payment orders as it changes, instead of polling.
+ */
+public interface WatchPaymentOrderStatusUseCase {
+
+    /**
+     * Streams the status of the given orders, starting with their current
+     * status, and the status changes of every order of the given debtor.
+     *
+     * @param paymentOrderIds Orders to watch, may be empty
+     * @param debtorAccount   Debtor whose orders to watch, or null
+     * @return Flux of statuses, oldest first per order, until cancelled
+     */
+    Flux<PaymentOrderStatusInfo> watch(Set<PaymentOrderId> paymentOrderIds, IBAN debtorAccount);
+
+    /**
+     * Waits until a payment order reaches one of the given statuses.
+     *
+     * @param paymentOrderId The unique identifier
+     * @param waitFor        Statuses to wait for
+     * @param timeout        How long to wait at most
+     * @return Mono emitting the status once it is one of waitFor, or the
+     *         current status when the timeout elapses first
+     */
+    Mono<PaymentOrderStatusInfo> awaitStatus(PaymentOrderId paymentOrderId, Set<PaymentStatus> waitFor, Duration timeout);
+}
@@ -0,0 +1,252 @@
+package com.ec.bank.payments.application.service;
+
+
+import com.ec.bank.payments.application.port.input.ReconcileDebtorLimitsUseCase;
+import com.ec.bank.payments.domain.exception.InvalidPaymentOrderException;
+import com.ec.bank.payments.domain.exception.PaymentLimitExceededException;
+import com.ec.bank.payments.domain.exception.PaymentLimitExceededException.Limit;
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Hit;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Application service enforcing the payment limits of each debtor: the
+ * largest single amount, the total of a UTC day and the orders in a sliding
+ * minute, per currency.
+ * Checks run against in-memory counters, never against payment_orders.
+ * Each instance counts the orders it creates as it creates them, and
+ * periodically reconciles with the orders created by the others; a debtor
+ * spreading orders over instances can therefore overshoot by what the other
+ * instances accepted since the last reconciliation.
+ */
+@Slf4j
+@Service
+public class DebtorLimitService implements ReconcileDebtorLimitsUseCase {
+
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final BigDecimal maxAmount;
+    private final BigDecimal maxDailyTotal;
+    private final int maxOrdersPerMinute;
+    private final Set<Currency> supportedCurrencies;
+    private final Duration reconcileOverlap;
+
+    private final DebtorVelocityCounters counters = new DebtorVelocityCounters();
+    private final Map<Currency, long[]> limitsByCurrency = new ConcurrentHashMap<>();
+    // Orders already counted, by creation time, so overlapping reconciliations count each once
+    private final Map<PaymentOrderId, Instant> counted = new ConcurrentHashMap<>();
+    private volatile Instant reconciledUpTo;
+    private volatile long prunedAtMinute;
+
+    private final Map<Limit, Counter> rejectedCounters = new EnumMap<>(Limit.class);
+    private final Counter reconciledCounter;
+    private final Timer checkTimer;
+
+    public DebtorLimitService(
+            PaymentOrderRepository paymentOrderRepository,
+            MeterRegistry meterRegistry,
+            @Value("${application.payment.max-amount:1000000}") BigDecimal maxAmount,
+            @Value("${application.payment.supported-currencies:EUR,USD,GBP}") Set<String> supportedCurrencies,
+            @Value("${application.payment.limits.daily-total:5000000}") BigDecimal maxDailyTotal,
+            @Value("${application.payment.limits.orders-per-minute:60}") int maxOrdersPerMinute,
+            @Value("${application.payment.limits.reconcile-overlap:1m}") Duration reconcileOverlap) {
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.maxAmount = maxAmount;
+        this.maxDailyTotal = maxDailyTotal;
+        this.maxOrdersPerMinute = maxOrdersPerMinute;
+        this.supportedCurrencies = supportedCurrencies.stream()
+                .map(String::trim)
+                .filter(code -> !code.isEmpty())
+                .map(Currency::getInstance)
+                .collect(Collectors.toUnmodifiableSet());
+        this.reconcileOverlap = reconcileOverlap;
+
+        for (Limit limit : Limit.values()) {
+            rejectedCounters.put(limit, Counter.builder("payment.limits.rejected")
+                    .description("Payment orders refused by a debtor limit, by limit")
+                    .tag("limit", limit.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        this.reconciledCounter = Counter.builder("payment.limits.reconciled")
+                .description("Payment orders of other instances counted by reconciliation")
+                .register(meterRegistry);
+
+        this.checkTimer = Timer.builder("payment.limits.check")
+                .description("Time taken to check and count a payment order against the debtor limits")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        Gauge.builder("payment.limits.debtors", counters, DebtorVelocityCounters::size)
+                .description("Debtors with orders in the current limit windows")
+                .register(meterRegistry);
+
+        Gauge.builder("payment.limits.counted", counted, Map::size)
+                .description("Orders remembered so that reconciliation counts each once")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Counts a new order against the limits of its debtor.
+     * The order stays counted unless given back with {@link #release(PaymentOrder)}.
+     *
+     * @throws InvalidPaymentOrderException  if its currency is not supported
+     * @throws PaymentLimitExceededException if it would exceed a limit
+     */
+    public void reserve(PaymentOrder order) {
+        long start = System.nanoTime();
+        try {
+            Amount amount = order.getInstructedAmount();
+            if (!supportedCurrencies.isEmpty() && !supportedCurrencies.contains(amount.currency())) {
+                throw new InvalidPaymentOrderException("Currency " + amount.currencyCode() + " is not supported");
+            }
+            long[] limits = limitsByCurrency.computeIfAbsent(amount.currency(), this::limitsOf);
+            if (amount.minorUnits() > limits[0]) {
+                throw rejected(order, Limit.MAX_AMOUNT, "amount above " + maxAmount.toPlainString()
+                        + " " + amount.currencyCode());
+            }
+
+            Limit exceeded = counters.tryAcquire(order.getDebtorAccount(), amount.currency(), amount.minorUnits(),
+                    order.getCreatedAt().toEpochMilli(), maxOrdersPerMinute, limits[1]);
+            if (exceeded == Limit.ORDERS_PER_MINUTE) {
+                throw rejected(order, exceeded, "more than " + maxOrdersPerMinute + " orders in a minute");
+            }
+            if (exceeded == Limit.DAILY_TOTAL) {
+                throw rejected(order, exceeded, "daily total above " + maxDailyTotal.toPlainString()
+                        + " " + amount.currencyCode());
+            }
+            counted.put(order.getPaymentOrderId(), order.getCreatedAt());
+        } finally {
+            checkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Gives back what {@link #reserve(PaymentOrder)} counted for an order that
+     * was not created after all.
+     */
+    public void release(PaymentOrder order) {
+        if (counted.remove(order.getPaymentOrderId()) == null) {
+            return;
+        }
+        Amount amount = order.getInstructedAmount();
+        counters.add(order.getDebtorAccount(), amount.currency(), order.getCreatedAt().toEpochMilli(),
+                -1, -amount.minorUnits());
+    }
+
+    /**
+     * Counts the orders created since the previous run minus the overlap, so
+     * orders committed a little after their creation time are not missed;
+     * orders already counted are skipped. The first run counts everything
+     * the limit windows still cover, and so does a run following failures
+     * that outlasted the windows.
+     */
+    @Override
+    public Mono<Long> reconcile() {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            Instant since = nextReconcileFrom(now);
+            PaymentOrderSearchCriteria criteria =
+                    new PaymentOrderSearchCriteria(null, null, null, null, since, null, null, null);
+
+            return paymentOrderRepository.search(criteria)
+                    .map(Hit::paymentOrder)
+                    .filter(order -> counted.putIfAbsent(order.getPaymentOrderId(), order.getCreatedAt()) == null)
+                    .doOnNext(order -> counters.add(order.getDebtorAccount(), order.getInstructedAmount().currency(),
+                            order.getCreatedAt().toEpochMilli(), 1, order.getInstructedAmount().minorUnits()))
+                    .count()
+                    .doOnNext(newlyCounted -> {
+                        if (reconciledUpTo == null) {
+                            log.info("Debtor limits rebuilt from {} payment orders since {}", newlyCounted, since);
+                        } else {
+                            reconciledCounter.increment(newlyCounted);
+                        }
+                        reconciledUpTo = now;
+                    });
+        });
+    }
+
+    /**
+     * Forgets the orders the next reconciliation will not read again and the
+     * debtors idle in every window. Driven on its own schedule, so memory
+     * stays bounded by the limit windows even while reconciliation fails.
+     */
+    @Override
+    public void prune() {
+        prune(Instant.now());
+    }
+
+    void prune(Instant now) {
+        Instant cutoff = nextReconcileFrom(now);
+        counted.values().removeIf(createdAt -> createdAt.isBefore(cutoff));
+
+        long minute = now.toEpochMilli() / DebtorVelocityCounters.MINUTE_MILLIS;
+        if (minute != prunedAtMinute) {
+            prunedAtMinute = minute;
+            int dropped = counters.prune(now.toEpochMilli());
+            log.debug("Dropped {} idle debtors from the limit counters", dropped);
+        }
+    }
+
+    /**
+     * Creation time the next reconciliation reads from. Orders created before
+     * the windows no longer count, however long ago the last run succeeded.
+     */
+    private Instant nextReconcileFrom(Instant now) {
+        Instant windowStart = windowStart(now);
+        if (reconciledUpTo == null) {
+            return windowStart;
+        }
+        Instant since = reconciledUpTo.minus(reconcileOverlap);
+        return since.isAfter(windowStart) ? since : windowStart;
+    }
+
+    private PaymentLimitExceededException rejected(PaymentOrder order, Limit limit, String detail) {
+        rejectedCounters.get(limit).increment();
+        return new PaymentLimitExceededException(order.getDebtorAccount(), limit, detail);
+    }
+
+    /**
+     * Largest single amount and daily total in minor units of the currency.
+     */
+    private long[] limitsOf(Currency currency) {
+        return new long[]{toMinorUnits(maxAmount, currency), toMinorUnits(maxDailyTotal, currency)};
+    }
+
+    private static long toMinorUnits(BigDecimal value, Currency currency) {
+        BigDecimal minorUnits = value.movePointRight(Math.max(0, currency.getDefaultFractionDigits()));
+        return minorUnits.compareTo(BigDecimal.valueOf(Long.MAX_VALUE)) >= 0 ? Long.MAX_VALUE : minorUnits.longValue();
+    }
+
+    /**
+     * Start of the oldest window the counters hold: today, or the previous
+     * minute when the day has just begun.
+     */
+    private static Instant windowStart(Instant now) {
+        long millis = now.toEpochMilli();
+        long day = millis / DebtorVelocityCounters.DAY_MILLIS * DebtorVelocityCounters.DAY_MILLIS;
+        long minute = (millis / DebtorVelocityCounters.MINUTE_MILLIS - 1) * DebtorVelocityCounters.MINUTE_MILLIS;
+        return Instant.ofEpochMilli(Math.min(day, minute));
+    }
+}
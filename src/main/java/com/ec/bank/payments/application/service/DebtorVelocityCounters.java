@@ -0,0 +1,192 @@
+package com.ec.bank.payments.application.service;
+
+
+import com.ec.bank.payments.domain.exception.PaymentLimitExceededException.Limit;
+import com.ec.bank.payments.domain.model.IBAN;
+
+import java.util.Currency;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Per-debtor counters behind the payment limits: the orders of a debtor in a
+ * sliding minute and its total of the current UTC day, per currency.
+ * Each counter is packed into one long and updated by compare-and-set, so a
+ * check takes no lock and, once a debtor has been seen, allocates nothing.
+ * The minute is a sliding window counter: the orders of the previous minute
+ * are weighted by how much of it still falls within the last 60 seconds.
+ * An order counted while its idle debtor is being pruned may go uncounted.
+ */
+final class DebtorVelocityCounters {
+
+    static final long MINUTE_MILLIS = 60_000;
+    static final long DAY_MILLIS = 86_400_000;
+
+    // rate: minute (32 bits) | orders this minute (16) | orders previous minute (16)
+    private static final long COUNT_MASK = 0xFFFF;
+    // daily: day (20 bits) | total in minor units (44)
+    private static final int TOTAL_BITS = 44;
+    private static final long TOTAL_MASK = (1L << TOTAL_BITS) - 1;
+
+    private final ConcurrentHashMap<Key, Counters> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Counts an order if it keeps its debtor within both limits.
+     *
+     * @return the limit the order would exceed, or null if it was counted
+     */
+    Limit tryAcquire(IBAN debtorAccount, Currency currency, long minorUnits, long nowMillis,
+                      int maxOrdersPerMinute, long maxDailyTotal) {
+        Counters entry = counters.computeIfAbsent(new Key(debtorAccount, currency), key -> new Counters());
+        long minute = nowMillis / MINUTE_MILLIS;
+
+        long rate;
+        long updatedRate;
+        do {
+            rate = entry.rate;
+            // Orders counted from another instance may carry a slightly later clock
+            long rolled = rollRate(rate, Math.max(minute, minute(rate)));
+            long elapsed = Math.max(0, nowMillis - minute(rolled) * MINUTE_MILLIS);
+            double estimate = current(rolled)
+                    + previous(rolled) * (double) Math.max(0, MINUTE_MILLIS - elapsed) / MINUTE_MILLIS;
+            if (estimate + 1 > maxOrdersPerMinute) {
+                return Limit.ORDERS_PER_MINUTE;
+            }
+            updatedRate = packRate(minute(rolled), clamp(current(rolled) + 1), previous(rolled));
+        } while (!Counters.RATE.compareAndSet(entry, rate, updatedRate));
+
+        long day = nowMillis / DAY_MILLIS;
+        long daily;
+        long updatedDaily;
+        do {
+            daily = entry.daily;
+            long counted = Math.max(day, day(daily));
+            long total = day(daily) == counted ? total(daily) : 0;
+            if (total + minorUnits > maxDailyTotal) {
+                add(entry, nowMillis, -1, 0);
+                return Limit.DAILY_TOTAL;
+            }
+            updatedDaily = packDaily(counted, Math.min(total + minorUnits, TOTAL_MASK));
+        } while (!Counters.DAILY.compareAndSet(entry, daily, updatedDaily));
+
+        return null;
+    }
+
+    /**
+     * Adds orders and an amount created at the given time, without checking
+     * the limits; negative values give back what tryAcquire counted.
+     * Orders older than the windows still held are ignored.
+     */
+    void add(IBAN debtorAccount, Currency currency, long createdAtMillis, int orders, long minorUnits) {
+        Key key = new Key(debtorAccount, currency);
+        Counters entry = orders > 0 ? counters.computeIfAbsent(key, k -> new Counters()) : counters.get(key);
+        if (entry != null) {
+            add(entry, createdAtMillis, orders, minorUnits);
+        }
+    }
+
+    /**
+     * Drops the debtors with no order in the sliding minute nor today.
+     *
+     * @return the number of debtors dropped
+     */
+    int prune(long nowMillis) {
+        long minute = nowMillis / MINUTE_MILLIS;
+        long day = nowMillis / DAY_MILLIS;
+        int before = counters.size();
+        counters.values().removeIf(entry -> minute(entry.rate) < minute - 1 && day(entry.daily) < day);
+        return before - counters.size();
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private static void add(Counters entry, long atMillis, int orders, long minorUnits) {
+        long minute = atMillis / MINUTE_MILLIS;
+        long rate;
+        long updatedRate;
+        do {
+            rate = entry.rate;
+            long rolled = rollRate(rate, Math.max(minute, minute(rate)));
+            long current = current(rolled);
+            long previous = previous(rolled);
+            if (minute == minute(rolled)) {
+                current = clamp(current + orders);
+            } else if (minute == minute(rolled) - 1) {
+                previous = clamp(previous + orders);
+            } else {
+                break;
+            }
+            updatedRate = packRate(minute(rolled), current, previous);
+        } while (!Counters.RATE.compareAndSet(entry, rate, updatedRate));
+
+        long day = atMillis / DAY_MILLIS;
+        long daily;
+        long updatedDaily;
+        do {
+            daily = entry.daily;
+            if (day < day(daily)) {
+                return;
+            }
+            long total = day(daily) == day ? total(daily) : 0;
+            updatedDaily = packDaily(day, Math.max(0, Math.min(total + minorUnits, TOTAL_MASK)));
+        } while (!Counters.DAILY.compareAndSet(entry, daily, updatedDaily));
+    }
+
+    /**
+     * Moves a rate counter forward to the given minute.
+     */
+    private static long rollRate(long rate, long minute) {
+        long last = minute(rate);
+        if (minute == last) {
+            return rate;
+        }
+        return packRate(minute, 0, minute == last + 1 ? current(rate) : 0);
+    }
+
+    private static long clamp(long count) {
+        return Math.max(0, Math.min(count, COUNT_MASK));
+    }
+
+    private static long packRate(long minute, long current, long previous) {
+        return minute << 32 | current << 16 | previous;
+    }
+
+    private static long minute(long rate) {
+        return rate >>> 32;
+    }
+
+    private static long current(long rate) {
+        return rate >>> 16 & COUNT_MASK;
+    }
+
+    private static long previous(long rate) {
+        return rate & COUNT_MASK;
+    }
+
+    private static long packDaily(long day, long total) {
+        return day << TOTAL_BITS | total;
+    }
+
+    private static long day(long daily) {
+        return daily >>> TOTAL_BITS;
+    }
+
+    private static long total(long daily) {
+        return daily & TOTAL_MASK;
+    }
+
+    private record Key(IBAN debtorAccount, Currency currency) {}
+
+    private static final class Counters {
+
+        static final AtomicLongFieldUpdater<Counters> RATE =
+                AtomicLongFieldUpdater.newUpdater(Counters.class, "rate");
+        static final AtomicLongFieldUpdater<Counters> DAILY =
+                AtomicLongFieldUpdater.newUpdater(Counters.class, "daily");
+
+        private volatile long rate;
+        private volatile long daily;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ec.bank.payments.application.service;
+
+
+import com.ec.bank.payments.domain.exception.SuspectedDuplicatePaymentException;
+import com.ec.bank.payments.domain.model.PaymentFingerprint;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.port.output.IdempotencyRepository;
+import com.ec.bank.payments.domain.port.output.PaymentFingerprintIndex;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Application service spotting payments re-sent under a new idempotency key,
+ * or with none: new orders with the content of one created within the window.
+ * A new order is looked up by fingerprint in memory, which answers almost
+ * every order without a query; only a possible match is confirmed against
+ * the stored orders with the same reference. Confirmed duplicates are flagged
+ * in logs and metrics, or refused when so configured.
+ */
+@Slf4j
+@Service
+public class DuplicatePaymentDetector {
+
+    private final PaymentFingerprintIndex fingerprintIndex;
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final IdempotencyRepository idempotencyRepository;
+    private final Duration window;
+    private final boolean reject;
+
+    private final Counter flaggedCounter;
+    private final Counter rejectedCounter;
+    private final Counter falsePositiveCounter;
+
+    public DuplicatePaymentDetector(
+            PaymentFingerprintIndex fingerprintIndex,
+            PaymentOrderRepository paymentOrderRepository,
+            IdempotencyRepository idempotencyRepository,
+            MeterRegistry meterRegistry,
+            @Value("${application.payment.duplicates.window:24h}") Duration window,
+            @Value("${application.payment.duplicates.reject:false}") boolean reject) {
+        this.fingerprintIndex = fingerprintIndex;
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.idempotencyRepository = idempotencyRepository;
+        this.window = window;
+        this.reject = reject;
+
+        this.flaggedCounter = Counter.builder("payment.order.duplicate.suspected")
+                .description("Payment orders repeating the content of a recent order, by action taken")
+                .tag("action", "flagged")
+                .register(meterRegistry);
+
+        this.rejectedCounter = Counter.builder("payment.order.duplicate.suspected")
+                .description("Payment orders repeating the content of a recent order, by action taken")
+                .tag("action", "rejected")
+                .register(meterRegistry);
+
+        this.falsePositiveCounter = Counter.builder("payment.order.duplicate.false.positive")
+                .description("Possible duplicates from the fingerprint index that the stored orders did not confirm")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Checks a new order, not yet saved, against the orders created within
+     * the window. A retry under the idempotency key of the matching order is
+     * no duplicate: the key answers it.
+     *
+     * @param order          The new order
+     * @param idempotencyKey The key sent with it, or null
+     * @return Mono completing when the order is no duplicate or only flagged,
+     * or erroring with SuspectedDuplicatePaymentException when refused
+     */
+    public Mono<Void> check(PaymentOrder order, String idempotencyKey) {
+        PaymentFingerprint fingerprint = PaymentFingerprint.of(order);
+        if (!fingerprintIndex.mightContain(fingerprint)) {
+            return Mono.empty();
+        }
+
+        Instant since = order.getCreatedAt().minus(window);
+        return paymentOrderRepository.findByReference(order.getPaymentOrderReference(), since)
+                .filter(existing -> !existing.getPaymentOrderId().equals(order.getPaymentOrderId())
+                        && fingerprint.matches(existing))
+                .next()
+                .switchIfEmpty(Mono.fromRunnable(falsePositiveCounter::increment))
+                .filterWhen(existing -> isRetryOf(existing, idempotencyKey).map(retry -> !retry))
+                .flatMap(existing -> suspected(order, existing));
+    }
+
+    /**
+     * Remembers the content of an order once saved.
+     */
+    public void record(PaymentOrder order) {
+        fingerprintIndex.put(PaymentFingerprint.of(order), order.getCreatedAt());
+    }
+
+    private Mono<Boolean> isRetryOf(PaymentOrder existing, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank()) {
+            return Mono.just(false);
+        }
+        return idempotencyRepository.findPaymentOrderId(idempotencyKey)
+                .map(paymentOrderId -> paymentOrderId.equals(existing.getPaymentOrderId().value()))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<Void> suspected(PaymentOrder order, PaymentOrder existing) {
+        if (reject) {
+            rejectedCounter.increment();
+            log.warn("Refusing payment order with reference {}: repeats existing order {}",
+                    order.getPaymentOrderReference(), existing.getPaymentOrderId().value());
+            return Mono.error(new SuspectedDuplicatePaymentException(existing.getPaymentOrderId()));
+        }
+        flaggedCounter.increment();
+        log.warn("Suspected duplicate payment order {}: repeats existing order {}",
+                order.getPaymentOrderId().value(), existing.getPaymentOrderId().value());
+        return Mono.empty();
+    }
+}
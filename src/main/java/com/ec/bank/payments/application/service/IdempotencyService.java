@@ -2,6 +2,8 @@ package com.ec.bank.payments.application.service;
 
 
 import com.ec.bank.payments.domain.exception.DuplicatePaymentOrderException;
+import com.ec.bank.payments.domain.exception.IdempotencyKeyReusedException;
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
 import com.ec.bank.payments.domain.port.output.IdempotencyRepository;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
@@ -21,6 +23,8 @@ public class IdempotencyService {
 
     private final IdempotencyRepository idempotencyRepository;
     private final Counter duplicateRequestCounter;
+    private final Counter replayedRequestCounter;
+    private final Counter reusedKeyCounter;
 
     public IdempotencyService(
             IdempotencyRepository idempotencyRepository,
@@ -30,56 +34,69 @@ public class IdempotencyService {
                 .description("Number of duplicate payment requests detected")
                 .tag("type", "payment-order")
                 .register(meterRegistry);
+
+        this.replayedRequestCounter = Counter.builder("payment.idempotency.replayed")
+                .description("Retried payment requests answered with the stored response")
+                .tag("type", "payment-order")
+                .register(meterRegistry);
+
+        this.reusedKeyCounter = Counter.builder("payment.idempotency.key.reused")
+                .description("Idempotency keys reused with a different request payload")
+                .tag("type", "payment-order")
+                .register(meterRegistry);
     }
 
     /**
-     * Checks if an idempotency key already exists.
-     * If it exists, retrieves the existing payment order ID and throws exception.
+     * Returns the claim on the key if it is already known locally, without
+     * a round trip to the store. Unknown keys complete empty; the claim made
+     * when the order is saved remains the authority.
      *
      * @param idempotencyKey The unique idempotency key
-     * @return Mono that completes if key is unique, or errors if duplicate
+     * @return Mono emitting the known claim, or empty
      */
-    public Mono<Void> checkIdempotency(String idempotencyKey) {
+    public Mono<IdempotencyClaim> peekClaim(String idempotencyKey) {
         if (Objects.isNull(idempotencyKey) || idempotencyKey.isBlank()) {
-            log.warn("Idempotency key is null or blank, skipping check");
             return Mono.empty();
         }
 
-        return idempotencyRepository.exists(idempotencyKey)
-                .flatMap(exists -> {
-                    if (exists) {
-                        log.warn("Duplicate payment order detected with idempotency key: {}",
-                                idempotencyKey);
-                        duplicateRequestCounter.increment();
+        return idempotencyRepository.peekClaim(idempotencyKey);
+    }
 
-                        return idempotencyRepository.findPaymentOrderId(idempotencyKey)
-                                .flatMap(existingId -> Mono.error(
-                                        new DuplicatePaymentOrderException(idempotencyKey, existingId)
-                                ));
-                    }
-                    return Mono.empty();
-                })
-                .doOnSuccess(v -> log.debug("Idempotency check passed for key: {}", idempotencyKey))
-                .then();
+    /**
+     * Records a duplicate request whose key is already held by an existing order.
+     *
+     * @param idempotencyKey         The duplicated key
+     * @param existingPaymentOrderId The payment order ID holding the key
+     * @return Mono erroring with DuplicatePaymentOrderException
+     */
+    public <T> Mono<T> rejectDuplicate(String idempotencyKey, String existingPaymentOrderId) {
+        log.warn("Duplicate payment order detected with idempotency key: {}", idempotencyKey);
+        duplicateRequestCounter.increment();
+        return Mono.error(new DuplicatePaymentOrderException(idempotencyKey, existingPaymentOrderId));
     }
 
     /**
-     * Saves the idempotency key with associated payment order ID.
+     * Records a retry answered with the response stored by the original request.
      *
-     * @param idempotencyKey The unique key
-     * @param paymentOrderId The payment order ID
-     * @return Mono that completes when saved
+     * @param idempotencyKey The retried key
+     * @param response       The stored response
+     * @return Mono emitting the response
      */
-    public Mono<Void> saveIdempotencyKey(String idempotencyKey, String paymentOrderId) {
-        if (Objects.isNull(idempotencyKey) || idempotencyKey.isBlank()) {
-            log.debug("Idempotency key is null or blank, skipping save");
-            return Mono.empty();
-        }
+    public Mono<byte[]> replay(String idempotencyKey, byte[] response) {
+        log.info("Replaying stored response for idempotency key: {}", idempotencyKey);
+        replayedRequestCounter.increment();
+        return Mono.just(response);
+    }
 
-        return idempotencyRepository.save(idempotencyKey, paymentOrderId)
-                .doOnSuccess(v -> log.debug("Saved idempotency key: {} -> {}",
-                        idempotencyKey, paymentOrderId))
-                .doOnError(e -> log.error("Failed to save idempotency key: {}",
-                        idempotencyKey, e));
+    /**
+     * Records a key reused with a payload other than the one that claimed it.
+     *
+     * @param idempotencyKey The reused key
+     * @return Mono erroring with IdempotencyKeyReusedException
+     */
+    public <T> Mono<T> rejectReusedKey(String idempotencyKey) {
+        log.warn("Idempotency key reused with a different payload: {}", idempotencyKey);
+        reusedKeyCounter.increment();
+        return Mono.error(new IdempotencyKeyReusedException(idempotencyKey));
     }
 }
@@ -1,47 +1,91 @@
 package com.ec.bank.payments.application.service;
 
 import com.ec.bank.payments.domain.exception.InvalidPaymentOrderException;
+import com.ec.bank.payments.domain.exception.InvalidStatusTransitionException;
+import com.ec.bank.payments.domain.exception.PaymentLimitExceededException;
 import com.ec.bank.payments.domain.exception.PaymentOrderNotFoundException;
+import com.ec.bank.payments.domain.exception.StatusTransitionConflictException;
+import com.ec.bank.payments.domain.exception.SuspectedDuplicatePaymentException;
 import com.ec.bank.payments.domain.model.Amount;
 import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
 import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderField;
 import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Hit;
+import com.ec.bank.payments.domain.model.PaymentOrderView;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.model.StatusTransition;
+import com.ec.bank.payments.application.port.input.BulkInitiatePaymentOrdersUseCase;
 import com.ec.bank.payments.application.port.input.InitiatePaymentOrderUseCase;
 import com.ec.bank.payments.application.port.input.RetrievePaymentOrderStatusUseCase;
 import com.ec.bank.payments.application.port.input.RetrievePaymentOrderUseCase;
+import com.ec.bank.payments.application.port.input.SearchPaymentOrdersUseCase;
+import com.ec.bank.payments.application.port.input.TransitionPaymentOrderStatusUseCase;
 import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 public class PaymentOrderService implements
         InitiatePaymentOrderUseCase,
+        BulkInitiatePaymentOrdersUseCase,
         RetrievePaymentOrderUseCase,
-        RetrievePaymentOrderStatusUseCase {
+        RetrievePaymentOrderStatusUseCase,
+        SearchPaymentOrdersUseCase,
+        TransitionPaymentOrderStatusUseCase {
+
+    private static final int MAX_IN_FLIGHT_KEYS = 10_000;
+    private static final int BULK_CHUNK_SIZE = 1_000;
+    private static final Duration BULK_CHUNK_MAX_WAIT = Duration.ofMillis(500);
 
     private final PaymentOrderRepository paymentOrderRepository;
     private final IdempotencyService idempotencyService;
+    private final DebtorLimitService debtorLimitService;
+    private final DuplicatePaymentDetector duplicatePaymentDetector;
+    private final PaymentOrderIdGenerator idGenerator;
+    private final SingleFlight<InitiationOutcome> inFlightInitiations = new SingleFlight<>(MAX_IN_FLIGHT_KEYS);
 
     private final Counter paymentInitiatedCounter;
     private final Counter paymentRetrievedCounter;
     private final Counter paymentNotFoundCounter;
     private final Timer paymentInitiationTimer;
+    private final Counter coalescedInitiationCounter;
+    private final Counter bulkAcceptedCounter;
+    private final Counter bulkRejectedCounter;
+    private final Counter searchCounter;
+    private final Counter searchResultCounter;
+    private final Counter transitionCounter;
+    private final Counter transitionRejectedCounter;
+    private final Counter bulkTransitionCounter;
 
     public PaymentOrderService(
             PaymentOrderRepository paymentOrderRepository,
             IdempotencyService idempotencyService,
+            DebtorLimitService debtorLimitService,
+            DuplicatePaymentDetector duplicatePaymentDetector,
+            PaymentOrderIdGenerator idGenerator,
             MeterRegistry meterRegistry) {
         this.paymentOrderRepository = paymentOrderRepository;
         this.idempotencyService = idempotencyService;
+        this.debtorLimitService = debtorLimitService;
+        this.duplicatePaymentDetector = duplicatePaymentDetector;
+        this.idGenerator = idGenerator;
 
         this.paymentInitiatedCounter = Counter.builder("payment.order.initiated")
                 .description("Number of payment orders initiated")
@@ -58,30 +102,93 @@ public class PaymentOrderService implements
         this.paymentInitiationTimer = Timer.builder("payment.order.initiation.duration")
                 .description("Time taken to initiate a payment order")
                 .register(meterRegistry);
+
+        this.coalescedInitiationCounter = Counter.builder("payment.order.initiation.coalesced")
+                .description("Concurrent initiations that joined one already in flight for the same idempotency key")
+                .register(meterRegistry);
+
+        this.bulkAcceptedCounter = Counter.builder("payment.order.bulk.accepted")
+                .description("Payment orders created by bulk initiation")
+                .register(meterRegistry);
+
+        this.bulkRejectedCounter = Counter.builder("payment.order.bulk.rejected")
+                .description("Bulk initiation lines rejected as invalid or not persisted")
+                .register(meterRegistry);
+
+        this.searchCounter = Counter.builder("payment.order.search")
+                .description("Payment order searches run")
+                .register(meterRegistry);
+
+        this.searchResultCounter = Counter.builder("payment.order.search.results")
+                .description("Payment orders returned by searches")
+                .register(meterRegistry);
+
+        this.transitionCounter = Counter.builder("payment.order.status.transitioned")
+                .description("Payment orders moved to another status one by one")
+                .register(meterRegistry);
+
+        this.transitionRejectedCounter = Counter.builder("payment.order.status.transition.rejected")
+                .description("Status transitions refused by the lifecycle rules or the expected status or version")
+                .register(meterRegistry);
+
+        this.bulkTransitionCounter = Counter.builder("payment.order.status.transitioned.bulk")
+                .description("Payment orders moved to another status by bulk transitions")
+                .register(meterRegistry);
+
+        Gauge.builder("payment.order.initiation.in.flight", inFlightInitiations, SingleFlight::size)
+                .description("Idempotency keys with an initiation currently in flight")
+                .register(meterRegistry);
     }
 
 
     @Override
-    @Transactional
     public Mono<PaymentOrder> initiate(InitiatePaymentOrderCommand command) {
+        return initiateCoalesced(command, null)
+                .map(InitiationOutcome::paymentOrder);
+    }
+
+    @Override
+    public Mono<InitiationOutcome> initiate(
+            InitiatePaymentOrderCommand command,
+            Function<PaymentOrder, byte[]> responseRenderer) {
+        Objects.requireNonNull(responseRenderer, "Response renderer cannot be null");
+        return initiateCoalesced(command, responseRenderer);
+    }
+
+    private Mono<InitiationOutcome> initiateCoalesced(
+            InitiatePaymentOrderCommand command,
+            Function<PaymentOrder, byte[]> responseRenderer) {
         log.info("Initiating payment order with reference: {}, idempotency key: {}",
                 command != null ? command.paymentOrderReference() : "null",
                 command != null ? command.idempotencyKey() : "null");
 
-        return validateCommand(command)
-                .then(Mono.defer(() -> {
-                    if (command != null && command.idempotencyKey() != null) {
-                        return idempotencyService.checkIdempotency(command.idempotencyKey());
+        // Concurrent retries of the same request share the first one's outcome
+        // instead of racing each other to the database. A different payload under
+        // the same key runs on its own and is resolved by the claim. The write is a
+        // single statement that commits on its own, without a transaction around it,
+        // so a caller cancelling, even the first one, leaves it to complete for the
+        // callers still waiting.
+        String coalescingKey = command != null && command.idempotencyKey() != null
+                ? String.join("|", command.idempotencyKey(), RequestHash.of(command),
+                        responseRenderer != null ? "replay" : "reject")
+                : null;
+
+        return inFlightInitiations.execute(coalescingKey,
+                        () -> initiateOnce(command, responseRenderer),
+                        () -> {
+                            coalescedInitiationCounter.increment();
+                            log.info("Joining in-flight initiation for idempotency key: {}",
+                                    command.idempotencyKey());
+                        })
+                .doOnSuccess(outcome -> {
+                    if (outcome.isReplay()) {
+                        log.info("Payment order initiation replayed for idempotency key: {}",
+                                command.idempotencyKey());
+                        return;
                     }
-                    return Mono.empty();
-                }))
-                .then(Mono.defer(() -> createPaymentOrder(command)))
-                .flatMap(paymentOrderRepository::save)
-                .flatMap(savedOrder -> saveIdempotencyAndReturn(command, savedOrder))
-                .doOnSuccess(order -> {
                     paymentInitiatedCounter.increment();
                     log.info("Payment order initiated successfully: {}",
-                            order.getPaymentOrderId().value());
+                            outcome.paymentOrder().getPaymentOrderId().value());
                 })
                 .doOnError(e -> {
                     log.error("Failed to initiate payment order - reference: {}, idempotency key: {}, error type: {}",
@@ -92,36 +199,211 @@ public class PaymentOrderService implements
                 });
     }
 
-    
+    /**
+     * Validates each line as it arrives and persists the valid orders in chunks
+     * of up to BULK_CHUNK_SIZE, flushing a partial chunk after BULK_CHUNK_MAX_WAIT.
+     * Chunks are persisted one at a time and only requested from upstream as the
+     * previous one completes, so at most about one chunk is held in memory.
+     */
+    @Override
+    public Flux<BulkInitiationResult> initiateAll(Flux<BulkInitiationLine> lines) {
+        return lines
+                .concatMap(this::validateLine)
+                .bufferTimeout(BULK_CHUNK_SIZE, BULK_CHUNK_MAX_WAIT, true)
+                .concatMap(this::persistChunk, 1)
+                .doOnNext(result -> (result.isAccepted() ? bulkAcceptedCounter : bulkRejectedCounter).increment());
+    }
+
+    /**
+     * Applies the rules of a single initiation to one line. A valid line yields
+     * an accepted result holding the order still to be persisted, already
+     * counted against the limits of its debtor.
+     */
+    private Mono<BulkInitiationResult> validateLine(BulkInitiationLine line) {
+        if (line.command() == null) {
+            return Mono.just(BulkInitiationResult.rejected(line.lineNumber(), line.error()));
+        }
+        return validateCommand(line.command())
+                .then(Mono.defer(() -> createPaymentOrder(line.command())))
+                .flatMap(order -> duplicatePaymentDetector.check(order, null).thenReturn(order))
+                .doOnNext(debtorLimitService::reserve)
+                .map(order -> BulkInitiationResult.accepted(line.lineNumber(), order))
+                .onErrorResume(e -> e instanceof InvalidPaymentOrderException
+                                || e instanceof PaymentLimitExceededException
+                                || e instanceof SuspectedDuplicatePaymentException,
+                        e -> Mono.just(BulkInitiationResult.rejected(line.lineNumber(), e.getMessage())));
+    }
+
+    /**
+     * Persists the valid orders of a chunk in one bulk insert. If it fails,
+     * every order of the chunk is reported as rejected.
+     */
+    private Flux<BulkInitiationResult> persistChunk(List<BulkInitiationResult> chunk) {
+        List<PaymentOrder> orders = chunk.stream()
+                .filter(BulkInitiationResult::isAccepted)
+                .map(BulkInitiationResult::paymentOrder)
+                .toList();
+        if (orders.isEmpty()) {
+            return Flux.fromIterable(chunk);
+        }
+
+        return paymentOrderRepository.bulkInsert(orders)
+                .doOnNext(inserted -> {
+                    log.info("Bulk initiation persisted {} payment orders", inserted);
+                    orders.forEach(duplicatePaymentDetector::record);
+                })
+                .thenMany(Flux.fromIterable(chunk))
+                .onErrorResume(e -> {
+                    log.error("Failed to persist bulk initiation chunk of {} payment orders", orders.size(), e);
+                    orders.forEach(debtorLimitService::release);
+                    return Flux.fromIterable(chunk)
+                            .map(result -> result.isAccepted()
+                                    ? BulkInitiationResult.rejected(result.lineNumber(),
+                                            "Payment order could not be persisted")
+                                    : result);
+                });
+    }
+
     public Mono<PaymentOrder> retrieve(PaymentOrderId paymentOrderId) {
         log.debug("Retrieving payment order: {}", paymentOrderId.value());
 
-        return paymentOrderRepository.findById(paymentOrderId)
-                .switchIfEmpty(Mono.defer(() -> {
-                    paymentNotFoundCounter.increment();
-                    log.warn("Payment order not found: {}", paymentOrderId.value());
-                    return Mono.error(new PaymentOrderNotFoundException(paymentOrderId));
-                }))
-                .doOnSuccess(order -> {
-                    paymentRetrievedCounter.increment();
-                    log.debug("Payment order retrieved successfully: {}", paymentOrderId.value());
-                });
+        return found(paymentOrderId, paymentOrderRepository.findById(paymentOrderId))
+                .doOnSuccess(order -> log.debug("Payment order retrieved successfully: {}", paymentOrderId.value()));
     }
 
+    @Override
+    public Mono<PaymentOrderView> retrieve(PaymentOrderId paymentOrderId, Set<PaymentOrderField> fields) {
+        log.debug("Retrieving payment order fields {}: {}", fields, paymentOrderId.value());
+
+        return found(paymentOrderId, paymentOrderRepository.findProjectedById(paymentOrderId, fields));
+    }
+
+    /**
+     * Reads only the status columns instead of loading and rebuilding the whole order.
+     */
     @Override
     public Mono<PaymentOrderStatusInfo> retrieveStatus(PaymentOrderId paymentOrderId) {
         log.debug("Retrieving payment order status: {}", paymentOrderId.value());
 
-        return retrieve(paymentOrderId)
-                .map(order -> new PaymentOrderStatusInfo(
-                        order.getPaymentOrderId(),
-                        order.getStatus(),
-                        order.getLastUpdatedAt()
+        return found(paymentOrderId, paymentOrderRepository.findStatusById(paymentOrderId))
+                .map(view -> new PaymentOrderStatusInfo(
+                        view.paymentOrderId(),
+                        view.status(),
+                        view.lastUpdatedAt()
                 ))
                 .doOnSuccess(status -> log.debug("Payment order status retrieved: {} -> {}",
                         paymentOrderId.value(), status.status()));
     }
 
+    @Override
+    public Flux<Hit> search(PaymentOrderSearchCriteria criteria) {
+        Objects.requireNonNull(criteria, "Search criteria cannot be null");
+        log.debug("Searching payment orders: {}", criteria);
+
+        return paymentOrderRepository.search(criteria)
+                .doOnSubscribe(subscription -> searchCounter.increment())
+                .doOnNext(hit -> searchResultCounter.increment());
+    }
+
+    /**
+     * Runs as one conditional update. When it does not apply, the order as found
+     * by that same statement tells whether the lifecycle forbids the transition
+     * or the order is not what the caller expected.
+     */
+    @Override
+    public Mono<StatusTransition> transition(
+            PaymentOrderId paymentOrderId,
+            PaymentStatus target,
+            PaymentStatus expectedStatus,
+            Long expectedVersion) {
+        Objects.requireNonNull(target, "Target status cannot be null");
+        log.info("Transitioning payment order {} to {} (expected status: {}, version: {})",
+                paymentOrderId.value(), target, expectedStatus, expectedVersion);
+
+        if (expectedStatus != null && !expectedStatus.canTransitionTo(target)) {
+            transitionRejectedCounter.increment();
+            return Mono.error(new InvalidStatusTransitionException(paymentOrderId, expectedStatus, target));
+        }
+
+        return paymentOrderRepository.transitionStatus(paymentOrderId, target, expectedStatus, expectedVersion)
+                .switchIfEmpty(Mono.error(() -> new PaymentOrderNotFoundException(paymentOrderId)))
+                .flatMap(transition -> {
+                    if (transition.applied()) {
+                        return Mono.just(transition);
+                    }
+                    transitionRejectedCounter.increment();
+                    return Mono.error(transitionRefused(paymentOrderId, target, expectedStatus, expectedVersion, transition));
+                })
+                .doOnSuccess(transition -> {
+                    transitionCounter.increment();
+                    log.info("Payment order {} moved from {} to {}",
+                            paymentOrderId.value(), transition.previousStatus(), target);
+                });
+    }
+
+    @Override
+    public Mono<Long> transitionAll(PaymentOrderSearchCriteria criteria, PaymentStatus target) {
+        Objects.requireNonNull(criteria, "Transition criteria cannot be null");
+        Objects.requireNonNull(target, "Target status cannot be null");
+        // Guards against moving every order of the bank with one request
+        if (criteria.debtorAccount() == null && criteria.creditorAccount() == null) {
+            return Mono.error(new IllegalArgumentException(
+                    "Bulk transitions must be limited to a debtor or creditor account"));
+        }
+        if (criteria.after() != null || criteria.limit() != null) {
+            return Mono.error(new IllegalArgumentException("Bulk transitions support neither cursor nor limit"));
+        }
+        log.info("Transitioning payment orders matching {} to {}", criteria, target);
+
+        return paymentOrderRepository.transitionStatusAll(criteria, target)
+                .doOnNext(bulkTransitionCounter::increment);
+    }
+
+    private RuntimeException transitionRefused(
+            PaymentOrderId paymentOrderId,
+            PaymentStatus target,
+            PaymentStatus expectedStatus,
+            Long expectedVersion,
+            StatusTransition found) {
+        PaymentStatus current = found.previousStatus();
+        if (!current.canTransitionTo(target)) {
+            return new InvalidStatusTransitionException(paymentOrderId, current, target);
+        }
+        if (expectedStatus != null && current != expectedStatus) {
+            return new StatusTransitionConflictException(
+                    String.format("Payment order %s is %s, not %s", paymentOrderId.value(), current, expectedStatus),
+                    paymentOrderId, current, found.version(), false);
+        }
+        if (expectedVersion != null && found.version() != expectedVersion) {
+            return new StatusTransitionConflictException(
+                    String.format("Payment order %s is at version %d, not %d",
+                            paymentOrderId.value(), found.version(), expectedVersion),
+                    paymentOrderId, current, found.version(), true);
+        }
+        // The order matched when read but another transition changed it first
+        return new StatusTransitionConflictException(
+                String.format("Payment order %s was changed concurrently", paymentOrderId.value()),
+                paymentOrderId, current, found.version(), false);
+    }
+
+    private <T> Mono<T> found(PaymentOrderId paymentOrderId, Mono<T> lookup) {
+        return lookup
+                .switchIfEmpty(Mono.defer(() -> {
+                    paymentNotFoundCounter.increment();
+                    log.warn("Payment order not found: {}", paymentOrderId.value());
+                    return Mono.error(new PaymentOrderNotFoundException(paymentOrderId));
+                }))
+                .doOnSuccess(found -> paymentRetrievedCounter.increment());
+    }
+
+    private Mono<InitiationOutcome> initiateOnce(
+            InitiatePaymentOrderCommand command,
+            Function<PaymentOrder, byte[]> responseRenderer) {
+        return validateCommand(command)
+                .then(Mono.defer(() -> createPaymentOrder(command)))
+                .flatMap(order -> persist(command, order, responseRenderer));
+    }
+
     private Mono<Void> validateCommand(InitiatePaymentOrderCommand command) {
         try {
             Objects.requireNonNull(command, "Command cannot be null");
@@ -142,7 +424,7 @@ public class PaymentOrderService implements
                 throw new InvalidPaymentOrderException("Payment order reference cannot be blank");
             }
 
-            if (command.amount() <= 0) {
+            if (command.amount().signum() <= 0) {
                 throw new InvalidPaymentOrderException("Amount must be positive");
             }
 
@@ -159,12 +441,10 @@ public class PaymentOrderService implements
         return Mono.fromCallable(() -> {
             IBAN debtorIban = IBAN.of(command.debtorAccount());
             IBAN creditorIban = IBAN.of(command.creditorAccount());
-            Amount amount = Amount.of(
-                    BigDecimal.valueOf(command.amount()),
-                    command.currency()
-            );
+            Amount amount = Amount.ofExact(command.amount(), command.currency());
 
             return PaymentOrder.create(
+                    idGenerator,
                     command.paymentOrderReference(),
                     debtorIban,
                     creditorIban,
@@ -182,18 +462,80 @@ public class PaymentOrderService implements
         });
     }
 
-    private Mono<PaymentOrder> saveIdempotencyAndReturn(
+    /**
+     * Persists the order. With an idempotency key, the order row and the key
+     * are written by one statement, which also reports an existing claim.
+     * A claim already known locally is resolved without that round trip.
+     * Only an order about to be written is checked for duplicate content and
+     * counted against the debtor limits; the count is given back if the write
+     * fails or finds the key claimed.
+     */
+    private Mono<InitiationOutcome> persist(
             InitiatePaymentOrderCommand command,
-            PaymentOrder savedOrder) {
+            PaymentOrder order,
+            Function<PaymentOrder, byte[]> responseRenderer) {
+        String idempotencyKey = command.idempotencyKey();
+        if (Objects.isNull(idempotencyKey) || idempotencyKey.isBlank()) {
+            return duplicatePaymentDetector.check(order, null)
+                    .then(withinLimits(order, paymentOrderRepository.save(order)))
+                    .doOnNext(saved -> duplicatePaymentDetector.record(order))
+                    .map(InitiationOutcome::created);
+        }
+
+        String requestHash = RequestHash.of(command);
+
+        return idempotencyService.peekClaim(idempotencyKey)
+                .switchIfEmpty(Mono.defer(() -> duplicatePaymentDetector.check(order, idempotencyKey))
+                        .then(withinLimits(order, Mono.defer(() -> paymentOrderRepository.saveWithIdempotencyKey(
+                                order,
+                                idempotencyKey,
+                                requestHash,
+                                responseRenderer != null ? responseRenderer.apply(order) : null))))
+                        .doOnNext(claim -> {
+                            if (claim.claimed()) {
+                                duplicatePaymentDetector.record(order);
+                            } else {
+                                debtorLimitService.release(order);
+                            }
+                        }))
+                .flatMap(claim -> claim.claimed()
+                        ? Mono.just(InitiationOutcome.created(order))
+                        : resolveExistingClaim(claim, requestHash, responseRenderer));
+    }
 
-        if (command == null || command.idempotencyKey() == null) {
-            return Mono.just(savedOrder);
+    private <T> Mono<T> withinLimits(PaymentOrder order, Mono<T> write) {
+        return Mono.defer(() -> {
+            debtorLimitService.reserve(order);
+            return write.doOnError(e -> debtorLimitService.release(order));
+        });
+    }
+
+    /**
+     * Answers a request whose key is already claimed: a retry of the same
+     * payload gets the stored response, anything else is rejected.
+     * The response is never rendered again from the order, which may have
+     * moved on since; a claim with nothing stored is reported as a duplicate.
+     */
+    private Mono<InitiationOutcome> resolveExistingClaim(
+            IdempotencyClaim claim,
+            String requestHash,
+            Function<PaymentOrder, byte[]> responseRenderer) {
+        String idempotencyKey = claim.idempotencyKey();
+
+        // Callers without a renderer, and claims recorded before payloads were
+        // hashed, keep the duplicate contract: there is nothing to compare or replay.
+        if (responseRenderer == null || claim.requestHash() == null) {
+            return idempotencyService.rejectDuplicate(idempotencyKey, claim.paymentOrderId().value());
+        }
+        if (!claim.matches(requestHash)) {
+            return idempotencyService.rejectReusedKey(idempotencyKey);
+        }
+        // Claimed by a caller that did not render a response
+        if (claim.response() == null) {
+            return idempotencyService.rejectDuplicate(idempotencyKey, claim.paymentOrderId().value());
         }
 
-        return idempotencyService.saveIdempotencyKey(
-                        command.idempotencyKey(),
-                        savedOrder.getPaymentOrderId().value()
-                )
-                .thenReturn(savedOrder);
+        return idempotencyService.replay(idempotencyKey, claim.response())
+                .map(InitiationOutcome::replayed);
     }
-}
\ No newline at end of file
+}
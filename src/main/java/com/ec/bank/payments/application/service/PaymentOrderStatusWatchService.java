@@ -0,0 +1,142 @@
+package com.ec.bank.payments.application.service;
+
+
+import com.ec.bank.payments.application.port.input.RetrievePaymentOrderStatusUseCase;
+import com.ec.bank.payments.application.port.input.RetrievePaymentOrderStatusUseCase.PaymentOrderStatusInfo;
+import com.ec.bank.payments.application.port.input.WatchPaymentOrderStatusUseCase;
+import com.ec.bank.payments.domain.exception.PaymentOrderNotFoundException;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderStatusChange;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentOrderStatusFeed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Application service for status subscriptions and long polls.
+ * Both subscribe to the status feed before reading the current status, so a
+ * change landing in between is not missed, and drop whatever is not newer
+ * than what the subscriber already got: a replica read may trail a change
+ * already announced by the feed.
+ */
+@Slf4j
+@Service
+public class PaymentOrderStatusWatchService implements WatchPaymentOrderStatusUseCase {
+
+    private final RetrievePaymentOrderStatusUseCase retrievePaymentOrderStatusUseCase;
+    private final PaymentOrderStatusFeed statusFeed;
+    private final int maxWatchedOrders;
+    private final Duration maxWait;
+
+    private final Counter reachedCounter;
+    private final Counter timedOutCounter;
+
+    public PaymentOrderStatusWatchService(
+            RetrievePaymentOrderStatusUseCase retrievePaymentOrderStatusUseCase,
+            PaymentOrderStatusFeed statusFeed,
+            MeterRegistry meterRegistry,
+            @Value("${application.status-feed.max-watched-orders:100}") int maxWatchedOrders,
+            @Value("${application.status-feed.max-wait:60s}") Duration maxWait) {
+        this.retrievePaymentOrderStatusUseCase = retrievePaymentOrderStatusUseCase;
+        this.statusFeed = statusFeed;
+        this.maxWatchedOrders = maxWatchedOrders;
+        this.maxWait = maxWait;
+
+        this.reachedCounter = Counter.builder("payment.order.status.wait")
+                .description("Status long polls, by whether the awaited status was reached in time")
+                .tag("outcome", "reached")
+                .register(meterRegistry);
+
+        this.timedOutCounter = Counter.builder("payment.order.status.wait")
+                .description("Status long polls, by whether the awaited status was reached in time")
+                .tag("outcome", "timeout")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Flux<PaymentOrderStatusInfo> watch(Set<PaymentOrderId> paymentOrderIds, IBAN debtorAccount) {
+        Objects.requireNonNull(paymentOrderIds, "Payment order IDs cannot be null");
+        if (paymentOrderIds.isEmpty() && debtorAccount == null) {
+            return Flux.error(new IllegalArgumentException("Watch at least one payment order or a debtor account"));
+        }
+        if (paymentOrderIds.size() > maxWatchedOrders) {
+            return Flux.error(new IllegalArgumentException(
+                    "At most " + maxWatchedOrders + " payment orders can be watched at once"));
+        }
+        log.debug("Watching status of {} payment orders, debtor: {}", paymentOrderIds.size(), debtorAccount != null);
+
+        return Flux.defer(() -> {
+            // Emissions of merge are serialized, so a plain map is enough
+            Map<PaymentOrderId, Instant> latest = new HashMap<>();
+            Flux<PaymentOrderStatusInfo> current = Flux.fromIterable(paymentOrderIds)
+                    .flatMap(id -> retrievePaymentOrderStatusUseCase.retrieveStatus(id)
+                            .onErrorResume(PaymentOrderNotFoundException.class, e -> Mono.empty()));
+
+            return Flux.merge(statusFeed.watch(paymentOrderIds, debtorAccount).map(this::toInfo), current)
+                    .filter(info -> isNewer(latest, info));
+        });
+    }
+
+    @Override
+    public Mono<PaymentOrderStatusInfo> awaitStatus(
+            PaymentOrderId paymentOrderId,
+            Set<PaymentStatus> waitFor,
+            Duration timeout) {
+        Objects.requireNonNull(paymentOrderId, "Payment order ID cannot be null");
+        if (waitFor == null || waitFor.isEmpty()) {
+            return retrievePaymentOrderStatusUseCase.retrieveStatus(paymentOrderId);
+        }
+        Duration wait = timeout == null || timeout.compareTo(maxWait) > 0 ? maxWait : timeout;
+
+        return Mono.defer(() -> {
+            Map<PaymentOrderId, Instant> latest = new HashMap<>();
+            AtomicReference<PaymentOrderStatusInfo> lastSeen = new AtomicReference<>();
+
+            return Flux.merge(
+                            statusFeed.watch(Set.of(paymentOrderId), null).map(this::toInfo),
+                            retrievePaymentOrderStatusUseCase.retrieveStatus(paymentOrderId))
+                    .filter(info -> isNewer(latest, info))
+                    .doOnNext(lastSeen::set)
+                    .filter(info -> waitFor.contains(info.status()))
+                    .next()
+                    .doOnNext(info -> reachedCounter.increment())
+                    .timeout(wait, Mono.defer(() -> {
+                        timedOutCounter.increment();
+                        log.debug("Payment order {} not in {} after {}", paymentOrderId.value(), waitFor, wait);
+                        PaymentOrderStatusInfo seen = lastSeen.get();
+                        return seen != null
+                                ? Mono.just(seen)
+                                : retrievePaymentOrderStatusUseCase.retrieveStatus(paymentOrderId);
+                    }));
+        });
+    }
+
+    private PaymentOrderStatusInfo toInfo(PaymentOrderStatusChange change) {
+        return new PaymentOrderStatusInfo(change.paymentOrderId(), change.status(), change.lastUpdatedAt());
+    }
+
+    private static boolean isNewer(Map<PaymentOrderId, Instant> latest, PaymentOrderStatusInfo info) {
+        Instant seen = latest.get(info.paymentOrderId());
+        if (seen != null && info.lastUpdatedAt() != null && !info.lastUpdatedAt().isAfter(seen)) {
+            return false;
+        }
+        if (info.lastUpdatedAt() != null) {
+            latest.put(info.paymentOrderId(), info.lastUpdatedAt());
+        }
+        return true;
+    }
+}
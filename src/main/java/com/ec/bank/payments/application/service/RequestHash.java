@@ -0,0 +1,55 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.application.port.input.InitiatePaymentOrderUseCase.InitiatePaymentOrderCommand;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * SHA-256 hash of the payload of an initiation request, used to tell a retry
+ * of a request from a different request reusing its idempotency key.
+ * Hashes the command rather than the raw body, so formatting differences
+ * (whitespace, field order, 1500 vs 1500.00) do not count as a different payload.
+ */
+final class RequestHash {
+
+    private static final char SEPARATOR = '\u001F';
+    private static final String NULL = "\u0000";
+
+    private RequestHash() {
+    }
+
+    /**
+     * Hashes every field of the command except the idempotency key.
+     *
+     * @param command The initiation command
+     * @return Lowercase hex SHA-256 of the canonical payload
+     */
+    static String of(InitiatePaymentOrderCommand command) {
+        String canonical = String.join(String.valueOf(SEPARATOR),
+                field(command.paymentOrderReference()),
+                field(command.debtorAccount()),
+                field(command.creditorAccount()),
+                command.amount() != null ? command.amount().stripTrailingZeros().toPlainString() : NULL,
+                field(command.currency()),
+                field(command.remittanceInformation()),
+                field(command.requestedExecutionDateTime()));
+
+        return HexFormat.of().formatHex(sha256().digest(canonical.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String field(Object value) {
+        return Objects.isNull(value) ? NULL : value.toString();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
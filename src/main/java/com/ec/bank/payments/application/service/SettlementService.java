@@ -0,0 +1,161 @@
+package com.ec.bank.payments.application.service;
+
+
+import com.ec.bank.payments.application.port.input.SettlePaymentOrdersUseCase;
+import com.ec.bank.payments.domain.model.ClearingResult;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.model.StatusTransition;
+import com.ec.bank.payments.domain.port.output.ClearingPort;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Application service settling payment orders.
+ * A batch is claimed in one statement that moves the orders to PROCESSING;
+ * each order is then cleared and moved to its final status with a
+ * compare-and-set on the version left by the claim. An instance that dies
+ * mid-batch leaves its orders in PROCESSING until the claim timeout, after
+ * which any instance claims them again. Should the first instance come back
+ * and finish late, its transition no longer matches the version and is dropped.
+ * Settlement needs a ClearingPort: when it is enabled and none is provided,
+ * the application refuses to start.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "application.settlement.enabled", havingValue = "true", matchIfMissing = true)
+public class SettlementService implements SettlePaymentOrdersUseCase {
+
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final ClearingPort clearingPort;
+    private final Duration claimTimeout;
+    private final Duration clearingTimeout;
+    private final int clearingConcurrency;
+
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+    private final Counter reclaimedCounter;
+    private final Timer clearingTimer;
+
+    public SettlementService(
+            PaymentOrderRepository paymentOrderRepository,
+            ClearingPort clearingPort,
+            MeterRegistry meterRegistry,
+            @Value("${application.settlement.claim-timeout:5m}") Duration claimTimeout,
+            @Value("${application.settlement.clearing-timeout:30s}") Duration clearingTimeout,
+            @Value("${application.settlement.clearing-concurrency:32}") int clearingConcurrency) {
+        if (claimTimeout.compareTo(clearingTimeout) <= 0) {
+            // Otherwise claims would be taken over while clearing may still answer them
+            throw new IllegalArgumentException("The claim timeout must exceed the clearing timeout");
+        }
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.clearingPort = clearingPort;
+        this.claimTimeout = claimTimeout;
+        this.clearingTimeout = clearingTimeout;
+        this.clearingConcurrency = clearingConcurrency;
+
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("payment.settlement.orders")
+                    .description("Payment orders handled by settlement, by how they ended")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        this.reclaimedCounter = Counter.builder("payment.settlement.reclaimed")
+                .description("PROCESSING orders claimed again after their claim went stale")
+                .register(meterRegistry);
+
+        this.clearingTimer = Timer.builder("payment.settlement.clearing")
+                .description("Time taken by the clearing system to answer a payment order")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<SettlementBatchResult> settleBatch(int limit) {
+        Instant staleBefore = Instant.now().minus(claimTimeout);
+
+        return paymentOrderRepository.claimForProcessing(LocalDate.now(), staleBefore, limit)
+                .flatMap(this::settle, clearingConcurrency)
+                .collect(() -> new EnumMap<Outcome, Integer>(Outcome.class),
+                        (tally, outcome) -> tally.merge(outcome, 1, Integer::sum))
+                .map(tally -> new SettlementBatchResult(
+                        limit,
+                        tally.getOrDefault(Outcome.SETTLED, 0),
+                        tally.getOrDefault(Outcome.REJECTED, 0),
+                        tally.getOrDefault(Outcome.SUPERSEDED, 0),
+                        tally.getOrDefault(Outcome.FAILED, 0)))
+                .doOnNext(result -> {
+                    if (result.claimed() > 0) {
+                        log.info("Settlement batch: {}", result);
+                    }
+                });
+    }
+
+    private Mono<Outcome> settle(StatusTransition claim) {
+        PaymentOrderId paymentOrderId = claim.paymentOrder().getPaymentOrderId();
+        if (claim.previousStatus() == PaymentStatus.PROCESSING) {
+            reclaimedCounter.increment();
+            log.warn("Payment order {} claimed again after a stale claim", paymentOrderId.value());
+        }
+
+        return Mono.defer(() -> {
+                    Timer.Sample sample = Timer.start();
+                    return clearingPort.clear(claim.paymentOrder())
+                            .timeout(clearingTimeout)
+                            .doOnSuccess(result -> sample.stop(clearingTimer));
+                })
+                .flatMap(result -> complete(claim, result))
+                .onErrorResume(e -> {
+                    // Left in PROCESSING: claimed again once the claim goes stale
+                    log.error("Settlement of payment order {} failed, left for a later claim", paymentOrderId.value(), e);
+                    return Mono.just(Outcome.FAILED);
+                })
+                .doOnNext(outcome -> outcomeCounters.get(outcome).increment());
+    }
+
+    private Mono<Outcome> complete(StatusTransition claim, ClearingResult result) {
+        PaymentOrderId paymentOrderId = claim.paymentOrder().getPaymentOrderId();
+        PaymentStatus target = result.settlementStatus();
+
+        return paymentOrderRepository.transitionStatus(
+                        paymentOrderId, target, PaymentStatus.PROCESSING, claim.version())
+                .map(transition -> {
+                    if (!transition.applied()) {
+                        log.warn("Payment order {} was claimed again before clearing answered; {} dropped",
+                                paymentOrderId.value(), target);
+                        return Outcome.SUPERSEDED;
+                    }
+                    if (result.accepted()) {
+                        log.debug("Payment order {} settled", paymentOrderId.value());
+                        return Outcome.SETTLED;
+                    }
+                    log.info("Payment order {} rejected by clearing: {}",
+                            paymentOrderId.value(), result.rejectionReason());
+                    return Outcome.REJECTED;
+                })
+                .defaultIfEmpty(Outcome.SUPERSEDED);
+    }
+
+    /**
+     * How a claimed order ended within its batch.
+     */
+    private enum Outcome {
+        SETTLED,
+        REJECTED,
+        SUPERSEDED,
+        FAILED
+    }
+}
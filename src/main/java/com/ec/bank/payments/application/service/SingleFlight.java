@@ -0,0 +1,74 @@
+package com.ec.bank.payments.application.service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls sharing a key into a single execution.
+ * The first caller runs the call; callers arriving while it is in flight
+ * subscribe to the same cached result. The entry is removed as soon as the
+ * call terminates, so later callers start a fresh execution.
+ * Memory is bounded: past {@code maxInFlight} keys, calls run uncoalesced.
+ */
+class SingleFlight<T> {
+
+    private final Map<String, Mono<T>> inFlight = new ConcurrentHashMap<>();
+    private final int maxInFlight;
+
+    SingleFlight(int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("Max in-flight must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Runs the call, or joins the execution already in flight for the key.
+     *
+     * @param key        Coalescing key; null runs the call uncoalesced
+     * @param call       Supplier of the call to execute
+     * @param onCoalesce Invoked when a caller joins an existing execution
+     * @return Mono emitting the shared result
+     */
+    Mono<T> execute(String key, Supplier<Mono<T>> call, Runnable onCoalesce) {
+        return Mono.defer(() -> {
+            if (key == null) {
+                return call.get();
+            }
+
+            Mono<T> existing = inFlight.get(key);
+            if (existing != null) {
+                onCoalesce.run();
+                return existing;
+            }
+            if (inFlight.size() >= maxInFlight) {
+                return call.get();
+            }
+
+            AtomicReference<Mono<T>> self = new AtomicReference<>();
+            // cache() keeps the source running even if the first caller cancels,
+            // so joined callers still get the outcome of the single execution.
+            // The entry is removed before the result is delivered, so a caller
+            // retrying right after seeing it never joins the finished execution.
+            Mono<T> shared = Mono.defer(call)
+                    .doOnTerminate(() -> inFlight.remove(key, self.get()))
+                    .cache();
+            self.set(shared);
+
+            Mono<T> winner = inFlight.putIfAbsent(key, shared);
+            if (winner != null) {
+                onCoalesce.run();
+                return winner;
+            }
+            return shared;
+        });
+    }
+
+    int size() {
+        return inFlight.size();
+    }
+}
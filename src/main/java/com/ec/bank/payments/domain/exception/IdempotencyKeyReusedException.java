@@ -0,0 +1,20 @@
+package com.ec.bank.payments.domain.exception;
+
+
+/**
+ * Exception thrown when an idempotency key is reused with a different request payload.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    private final String idempotencyKey;
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super(String.format("Idempotency key %s was already used with a different request payload",
+                idempotencyKey));
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -0,0 +1,39 @@
+package com.ec.bank.payments.domain.exception;
+
+
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+
+/**
+ * Exception thrown when a payment order cannot move from its current status
+ * to the requested one.
+ */
+public class InvalidStatusTransitionException extends RuntimeException {
+
+    private final PaymentOrderId paymentOrderId;
+    private final PaymentStatus currentStatus;
+    private final PaymentStatus targetStatus;
+
+    public InvalidStatusTransitionException(
+            PaymentOrderId paymentOrderId,
+            PaymentStatus currentStatus,
+            PaymentStatus targetStatus) {
+        super(String.format("Cannot transition payment order %s from status %s to %s",
+                paymentOrderId.value(), currentStatus, targetStatus));
+        this.paymentOrderId = paymentOrderId;
+        this.currentStatus = currentStatus;
+        this.targetStatus = targetStatus;
+    }
+
+    public PaymentOrderId getPaymentOrderId() {
+        return paymentOrderId;
+    }
+
+    public PaymentStatus getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public PaymentStatus getTargetStatus() {
+        return targetStatus;
+    }
+}
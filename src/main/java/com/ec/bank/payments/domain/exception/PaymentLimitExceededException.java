@@ -0,0 +1,37 @@
+package com.ec.bank.payments.domain.exception;
+
+
+import com.ec.bank.payments.domain.model.IBAN;
+
+/**
+ * Exception thrown when a payment order would take its debtor beyond one of
+ * the payment limits.
+ */
+public class PaymentLimitExceededException extends RuntimeException {
+
+    private final IBAN debtorAccount;
+    private final Limit limit;
+
+    public PaymentLimitExceededException(IBAN debtorAccount, Limit limit, String detail) {
+        super(String.format("Payment limit %s exceeded for debtor %s: %s", limit, debtorAccount.value(), detail));
+        this.debtorAccount = debtorAccount;
+        this.limit = limit;
+    }
+
+    public IBAN getDebtorAccount() {
+        return debtorAccount;
+    }
+
+    public Limit getLimit() {
+        return limit;
+    }
+
+    /**
+     * The limits checked for every new payment order.
+     */
+    public enum Limit {
+        MAX_AMOUNT,
+        DAILY_TOTAL,
+        ORDERS_PER_MINUTE
+    }
+}
@@ -0,0 +1,50 @@
+package com.ec.bank.payments.domain.exception;
+
+
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+
+/**
+ * Exception thrown when a status transition finds the payment order other than
+ * the caller expected: in another status, at another version, or changed by a
+ * concurrent transition while this one was applied.
+ */
+public class StatusTransitionConflictException extends RuntimeException {
+
+    private final PaymentOrderId paymentOrderId;
+    private final PaymentStatus currentStatus;
+    private final long currentVersion;
+    private final boolean versionMismatch;
+
+    public StatusTransitionConflictException(
+            String message,
+            PaymentOrderId paymentOrderId,
+            PaymentStatus currentStatus,
+            long currentVersion,
+            boolean versionMismatch) {
+        super(message);
+        this.paymentOrderId = paymentOrderId;
+        this.currentStatus = currentStatus;
+        this.currentVersion = currentVersion;
+        this.versionMismatch = versionMismatch;
+    }
+
+    public PaymentOrderId getPaymentOrderId() {
+        return paymentOrderId;
+    }
+
+    public PaymentStatus getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+
+    /**
+     * Whether the conflict is a version other than the one the caller expected.
+     */
+    public boolean isVersionMismatch() {
+        return versionMismatch;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ec.bank.payments.domain.exception;
+
+
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+
+/**
+ * Exception thrown when a new payment order repeats the content of a recent
+ * one under another idempotency key, or none.
+ */
+public class SuspectedDuplicatePaymentException extends RuntimeException {
+
+    private final PaymentOrderId existingPaymentOrderId;
+
+    public SuspectedDuplicatePaymentException(PaymentOrderId existingPaymentOrderId) {
+        super(String.format("Payment order repeats the content of existing order %s",
+                existingPaymentOrderId.value()));
+        this.existingPaymentOrderId = existingPaymentOrderId;
+    }
+
+    public PaymentOrderId getExistingPaymentOrderId() {
+        return existingPaymentOrderId;
+    }
+}
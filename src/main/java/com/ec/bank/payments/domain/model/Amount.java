@@ -8,27 +8,68 @@ import java.util.Objects;
 /**
  * Value Object representing a monetary amount with currency.
  * Immutable and ensures positive amounts.
+ * Held as a count of minor units of the currency (cents for EUR, yen for
+ * JPY, fils for KWD), so comparison and sums are plain long arithmetic.
+ * BigDecimal only appears where amounts cross the edges of the domain.
  */
-public record Amount(BigDecimal value, Currency currency) {
+public record Amount(long minorUnits, Currency currency) {
 
     public Amount {
-        Objects.requireNonNull(value, "Amount value cannot be null");
         Objects.requireNonNull(currency, "Currency cannot be null");
 
-        if (value.compareTo(BigDecimal.ZERO) <= 0) {
+        if (currency.getDefaultFractionDigits() < 0) {
+            throw new IllegalArgumentException("Currency has no minor unit: " + currency);
+        }
+        if (minorUnits <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
-
-        // Normalize to 2 decimal places
-        value = value.setScale(2, RoundingMode.HALF_UP);
     }
 
     /**
      * Creates an Amount from value and currency code.
      */
     public static Amount of(BigDecimal value, String currencyCode) {
-        Currency currency = Currency.getInstance(currencyCode);
-        return new Amount(value, currency);
+        return of(value, Currency.getInstance(currencyCode));
+    }
+
+    /**
+     * Creates an Amount from value and currency, rounded half up to the
+     * minor unit of the currency.
+     */
+    public static Amount of(BigDecimal value, Currency currency) {
+        return of(value, currency, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Creates an Amount from an exact decimal value, refusing values with more
+     * decimals than the minor unit of the currency instead of rounding them.
+     */
+    public static Amount ofExact(BigDecimal value, String currencyCode) {
+        return of(value, Currency.getInstance(currencyCode), RoundingMode.UNNECESSARY);
+    }
+
+    private static Amount of(BigDecimal value, Currency currency, RoundingMode rounding) {
+        Objects.requireNonNull(value, "Amount value cannot be null");
+        Objects.requireNonNull(currency, "Currency cannot be null");
+
+        if (value.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        int fractionDigits = currency.getDefaultFractionDigits();
+        if (fractionDigits < 0) {
+            throw new IllegalArgumentException("Currency has no minor unit: " + currency);
+        }
+        BigDecimal scaled;
+        try {
+            scaled = value.setScale(fractionDigits, rounding);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(String.format("Amount %s has more decimals than %s allows (%d)",
+                    value.toPlainString(), currency, fractionDigits), e);
+        }
+        if (scaled.precision() > 18) {
+            throw new IllegalArgumentException("Amount out of range: " + value.toPlainString());
+        }
+        return new Amount(scaled.unscaledValue().longValue(), currency);
     }
 
     /**
@@ -38,6 +79,13 @@ public record Amount(BigDecimal value, Currency currency) {
         return of(BigDecimal.valueOf(value), currencyCode);
     }
 
+    /**
+     * Creates an Amount from a count of minor units and currency code.
+     */
+    public static Amount ofMinorUnits(long minorUnits, String currencyCode) {
+        return new Amount(minorUnits, Currency.getInstance(currencyCode));
+    }
+
     /**
      * Returns the currency code (e.g., "EUR", "USD").
      */
@@ -45,12 +93,36 @@ public record Amount(BigDecimal value, Currency currency) {
         return currency.getCurrencyCode();
     }
 
+    /**
+     * Returns the number of decimal places of the currency (2 for EUR, 0 for JPY, 3 for KWD).
+     */
+    public int fractionDigits() {
+        return currency.getDefaultFractionDigits();
+    }
+
+    /**
+     * Returns the decimal value, scaled to the minor unit of the currency.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, fractionDigits());
+    }
+
     /**
      * Checks if this amount is greater than another.
      */
     public boolean isGreaterThan(Amount other) {
         ensureSameCurrency(other);
-        return this.value.compareTo(other.value) > 0;
+        return this.minorUnits > other.minorUnits;
+    }
+
+    /**
+     * Returns the sum of this amount and another.
+     *
+     * @throws ArithmeticException if the sum overflows
+     */
+    public Amount plus(Amount other) {
+        ensureSameCurrency(other);
+        return new Amount(Math.addExact(this.minorUnits, other.minorUnits), currency);
     }
 
     private void ensureSameCurrency(Amount other) {
@@ -61,4 +133,4 @@ public record Amount(BigDecimal value, Currency currency) {
             );
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.util.Objects;
+
+/**
+ * Value Object describing how the clearing system answered a payment order:
+ * accepted, so the order settles, or rejected for the given reason.
+ */
+public record ClearingResult(
+        PaymentOrderId paymentOrderId,
+        boolean accepted,
+        String rejectionReason) {
+
+    public ClearingResult {
+        Objects.requireNonNull(paymentOrderId, "Payment Order ID cannot be null");
+        if (!accepted && (rejectionReason == null || rejectionReason.isBlank())) {
+            throw new IllegalArgumentException("A rejection requires a reason");
+        }
+    }
+
+    /**
+     * The clearing system accepted the order for settlement.
+     */
+    public static ClearingResult accepted(PaymentOrderId paymentOrderId) {
+        return new ClearingResult(paymentOrderId, true, null);
+    }
+
+    /**
+     * The clearing system refused the order.
+     */
+    public static ClearingResult rejected(PaymentOrderId paymentOrderId, String rejectionReason) {
+        return new ClearingResult(paymentOrderId, false, rejectionReason);
+    }
+
+    /**
+     * Final status the order takes after this answer.
+     */
+    public PaymentStatus settlementStatus() {
+        return accepted ? PaymentStatus.SETTLED : PaymentStatus.REJECTED;
+    }
+}
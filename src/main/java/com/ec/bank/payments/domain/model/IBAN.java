@@ -2,38 +2,169 @@ package com.ec.bank.payments.domain.model;
 
 
 import java.util.Objects;
-import java.util.regex.Pattern;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Value Object representing an International Bank Account Number (IBAN).
  * Validates format according to ISO 13616.
+ * Values already in normalized form (the stored form) are checked with a
+ * single pass over the characters; only other input is normalized first,
+ * into one new String, without regex.
+ * The constructor checks the shape only, which is all the store needs to
+ * rebuild values it already holds; {@link #of(String)}, the entry point for
+ * input, also checks the length registered for the country and the ISO 7064
+ * mod-97 check digits.
  */
 public record IBAN(String value) {
 
-    private static final Pattern IBAN_PATTERN = Pattern.compile("^[A-Z]{2}[0-9]{2}[A-Z0-9]{1,30}$");
+    private static final int MIN_LENGTH = 5;
+    private static final int MAX_LENGTH = 34;
+
+    /**
+     * IBAN lengths by country, from the SWIFT IBAN registry.
+     */
+    private static final String REGISTRY =
+            "AD24 AE23 AL28 AT20 AZ28 BA20 BE16 BG22 BH22 BI27 BR29 BY28 CH21 CR22 CY28 CZ24 "
+            + "DE22 DJ27 DK18 DO28 EE20 EG29 ES24 FI18 FK18 FO18 FR27 GB22 GE22 GI23 GL18 GR27 "
+            + "GT28 HR21 HU28 IE22 IL23 IQ23 IS26 IT27 JO30 KW30 KZ20 LB28 LC32 LI21 LT20 LU20 "
+            + "LV21 LY25 MC27 MD24 ME22 MK19 MN20 MR27 MT31 MU30 NI28 NL18 NO15 OM23 PK24 PL28 "
+            + "PS29 PT25 QA29 RO24 RS22 RU33 SA24 SC31 SD18 SE24 SI19 SK24 SM27 SO23 ST25 SV28 "
+            + "TL23 TN24 TR26 UA29 VA22 VG24 XK20 YE30";
+
+    private static final byte[] LENGTH_BY_COUNTRY = new byte[26 * 26];
+
+    /**
+     * Direct-mapped cache of accounts validated by of(), indexed by the hash of
+     * the input. Payments repeat the same accounts; a hit skips the checks and
+     * the allocation, and a collision simply replaces the slot.
+     */
+    private static final int CACHE_SIZE = 4096;
+    private static final AtomicReferenceArray<IBAN> CACHE = new AtomicReferenceArray<>(CACHE_SIZE);
+
+    static {
+        for (String entry : REGISTRY.split(" ")) {
+            LENGTH_BY_COUNTRY[countryIndex(entry.charAt(0), entry.charAt(1))] =
+                    (byte) Integer.parseInt(entry.substring(2));
+        }
+    }
 
     public IBAN {
         Objects.requireNonNull(value, "IBAN cannot be null");
-        String normalized = value.replaceAll("\\s+", "").toUpperCase();
 
-        if (!IBAN_PATTERN.matcher(normalized).matches()) {
-            throw new IllegalArgumentException("Invalid IBAN format: " + value);
+        if (!isNormalized(value)) {
+            value = normalize(value); // Use normalized value
         }
-
-        value = normalized; // Use normalized value
     }
 
     /**
-     * Creates an IBAN from string value.
+     * Creates an IBAN from string value, checking its country length and
+     * check digits.
+     *
+     * @throws IllegalArgumentException if the value is not a valid IBAN
      */
     public static IBAN of(String value) {
-        return new IBAN(value);
+        Objects.requireNonNull(value, "IBAN cannot be null");
+        int slot = value.hashCode() & (CACHE_SIZE - 1);
+        IBAN cached = CACHE.get(slot);
+        if (cached != null && cached.value.equals(value)) {
+            return cached;
+        }
+
+        IBAN iban = new IBAN(value);
+        iban.validateCountryAndCheckDigits();
+        CACHE.set(slot, iban);
+        return iban;
     }
 
     /**
      * Returns the formatted IBAN with spaces every 4 characters.
      */
     public String formatted() {
-        return value.replaceAll("(.{4})", "$1 ").trim();
+        int length = value.length();
+        char[] formatted = new char[length + (length - 1) / 4];
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            if (i > 0 && i % 4 == 0) {
+                formatted[position++] = ' ';
+            }
+            formatted[position++] = value.charAt(i);
+        }
+        return new String(formatted);
+    }
+
+    private void validateCountryAndCheckDigits() {
+        int expectedLength = LENGTH_BY_COUNTRY[countryIndex(value.charAt(0), value.charAt(1))];
+        if (expectedLength == 0) {
+            throw new IllegalArgumentException("Invalid IBAN country: " + value);
+        }
+        if (value.length() != expectedLength) {
+            throw new IllegalArgumentException("Invalid IBAN length for country " + value.substring(0, 2)
+                    + ", expected " + expectedLength + ": " + value);
+        }
+        if (mod97(value) != 1) {
+            throw new IllegalArgumentException("Invalid IBAN check digits: " + value);
+        }
+    }
+
+    /**
+     * ISO 7064 MOD 97-10 over the IBAN with its first four characters moved
+     * to the end and letters read as 10 to 35, computed digit by digit.
+     */
+    private static int mod97(String value) {
+        int length = value.length();
+        int remainder = 0;
+        for (int i = 4; i < length + 4; i++) {
+            char c = value.charAt(i < length ? i : i - length);
+            remainder = c <= '9'
+                    ? (remainder * 10 + (c - '0')) % 97
+                    : (remainder * 100 + (c - 'A' + 10)) % 97;
+        }
+        return remainder;
+    }
+
+    /**
+     * Drops whitespace and upper-cases in one pass, into a single new String.
+     */
+    private static String normalize(String value) {
+        char[] normalized = new char[MAX_LENGTH];
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            if (length == MAX_LENGTH) {
+                throw new IllegalArgumentException("Invalid IBAN format: " + value);
+            }
+            normalized[length++] = c >= 'a' && c <= 'z' ? (char) (c - ('a' - 'A')) : c;
+        }
+        String result = new String(normalized, 0, length);
+        if (!isNormalized(result)) {
+            throw new IllegalArgumentException("Invalid IBAN format: " + value);
+        }
+        return result;
+    }
+
+    /**
+     * Checks the shape [A-Z]{2}[0-9]{2}[A-Z0-9]{1,30} without allocating.
+     */
+    private static boolean isNormalized(String value) {
+        int length = value.length();
+        if (length < MIN_LENGTH || length > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            boolean letter = c >= 'A' && c <= 'Z';
+            boolean digit = c >= '0' && c <= '9';
+            if (i < 2 ? !letter : i < 4 ? !digit : !(letter || digit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int countryIndex(char first, char second) {
+        return (first - 'A') * 26 + (second - 'A');
     }
 }
@@ -0,0 +1,58 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.util.Objects;
+
+/**
+ * Value Object describing the outcome of claiming an idempotency key.
+ * Either the key was claimed for a new payment order, or it already
+ * belonged to an existing one. A claim may carry the hash of the request
+ * that made it and the response rendered for that request, so a retry of
+ * the same request can be answered without loading the payment order.
+ */
+public record IdempotencyClaim(
+        String idempotencyKey,
+        PaymentOrderId paymentOrderId,
+        boolean claimed,
+        String requestHash,
+        byte[] response) {
+
+    public IdempotencyClaim {
+        Objects.requireNonNull(idempotencyKey, "Idempotency key cannot be null");
+        Objects.requireNonNull(paymentOrderId, "Payment Order ID cannot be null");
+    }
+
+    /**
+     * The key was free and now belongs to the given payment order.
+     */
+    public static IdempotencyClaim claimed(String idempotencyKey, PaymentOrderId paymentOrderId) {
+        return new IdempotencyClaim(idempotencyKey, paymentOrderId, true, null, null);
+    }
+
+    /**
+     * The key was already claimed by an existing payment order.
+     */
+    public static IdempotencyClaim existing(String idempotencyKey, PaymentOrderId paymentOrderId) {
+        return existing(idempotencyKey, paymentOrderId, null, null);
+    }
+
+    /**
+     * The key was already claimed by an existing payment order, for the
+     * request with the given hash, which was answered with the given response.
+     */
+    public static IdempotencyClaim existing(
+            String idempotencyKey,
+            PaymentOrderId paymentOrderId,
+            String requestHash,
+            byte[] response) {
+        return new IdempotencyClaim(idempotencyKey, paymentOrderId, false, requestHash, response);
+    }
+
+    /**
+     * Whether the claim was made by a request with the given hash.
+     * Claims recorded without a hash never match.
+     */
+    public boolean matches(String requestHash) {
+        return this.requestHash != null && this.requestHash.equals(requestHash);
+    }
+}
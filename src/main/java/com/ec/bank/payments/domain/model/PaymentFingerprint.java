@@ -0,0 +1,42 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.util.Objects;
+
+/**
+ * Content fingerprint of a payment order: what a client re-sending the same
+ * payment repeats, whatever idempotency key it sends. Two orders share a
+ * fingerprint exactly when they share debtor, creditor, amount, currency,
+ * requested execution date and reference. The reference goes last, so a
+ * separator inside it cannot make two different orders look alike.
+ */
+public record PaymentFingerprint(String value) {
+
+    private static final char SEPARATOR = '|';
+
+    public PaymentFingerprint {
+        Objects.requireNonNull(value, "Fingerprint cannot be null");
+    }
+
+    /**
+     * Returns the fingerprint of the content of an order.
+     */
+    public static PaymentFingerprint of(PaymentOrder order) {
+        Amount amount = order.getInstructedAmount();
+        return new PaymentFingerprint(new StringBuilder(96)
+                .append(order.getDebtorAccount().value()).append(SEPARATOR)
+                .append(order.getCreditorAccount().value()).append(SEPARATOR)
+                .append(amount.minorUnits()).append(SEPARATOR)
+                .append(amount.currencyCode()).append(SEPARATOR)
+                .append(order.getRequestedExecutionDateTime()).append(SEPARATOR)
+                .append(order.getPaymentOrderReference())
+                .toString());
+    }
+
+    /**
+     * Checks whether an order has exactly the content this fingerprint was taken from.
+     */
+    public boolean matches(PaymentOrder order) {
+        return value.equals(of(order).value);
+    }
+}
@@ -32,7 +32,7 @@ public class PaymentOrder {
     private final Instant lastUpdatedAt;
 
     /**
-     * Creates a new Payment Order (factory method).
+     * Creates a new Payment Order (factory method) with a time-ordered ID.
      */
     public static PaymentOrder create(
             String paymentOrderReference,
@@ -42,12 +42,28 @@ public class PaymentOrder {
             String remittanceInformation,
             LocalDate requestedExecutionDateTime) {
 
+        return create(PaymentOrderIdGenerator.timeOrdered(), paymentOrderReference, debtorAccount,
+                creditorAccount, instructedAmount, remittanceInformation, requestedExecutionDateTime);
+    }
+
+    /**
+     * Creates a new Payment Order (factory method) with an ID from the given generator.
+     */
+    public static PaymentOrder create(
+            PaymentOrderIdGenerator idGenerator,
+            String paymentOrderReference,
+            IBAN debtorAccount,
+            IBAN creditorAccount,
+            Amount instructedAmount,
+            String remittanceInformation,
+            LocalDate requestedExecutionDateTime) {
+
         validateCreation(debtorAccount, creditorAccount, requestedExecutionDateTime);
 
         Instant now = Instant.now();
 
         return PaymentOrder.builder()
-                .paymentOrderId(PaymentOrderId.generate())
+                .paymentOrderId(idGenerator.generate())
                 .paymentOrderReference(paymentOrderReference)
                 .debtorAccount(debtorAccount)
                 .creditorAccount(creditorAccount)
@@ -111,7 +127,7 @@ public class PaymentOrder {
      * Cancels the payment order if allowed.
      */
     public PaymentOrder cancel() {
-        if (!status.canBeCancelled()) {
+        if (!status.canTransitionTo(PaymentStatus.CANCELLED)) {
             throw new IllegalStateException(
                     String.format("Cannot cancel payment order in status: %s", status));
         }
@@ -122,7 +138,7 @@ public class PaymentOrder {
      * Validates if status transition is allowed.
      */
     private void validateStatusTransition(PaymentStatus newStatus) {
-        if (status.isFinal()) {
+        if (!status.canTransitionTo(newStatus)) {
             throw new IllegalStateException(
                     String.format("Cannot transition from final status %s to %s", status, newStatus));
         }
@@ -0,0 +1,48 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Domain event published to downstream systems when a payment order is
+ * created or changes status. Delivery is at least once: consumers may see an
+ * event again, and deduplicate on eventId or on the order ID and version.
+ *
+ * @param eventId        Position of the event in the outbox, increasing per order
+ * @param type           What happened to the order
+ * @param paymentOrderId The order concerned
+ * @param status         Status of the order after the change
+ * @param previousStatus Status before the change, null for CREATED
+ * @param version        Version of the order after the change
+ * @param occurredAt     When the change was made
+ */
+public record PaymentOrderEvent(
+        long eventId,
+        Type type,
+        PaymentOrderId paymentOrderId,
+        PaymentStatus status,
+        PaymentStatus previousStatus,
+        long version,
+        Instant occurredAt
+) {
+
+    public PaymentOrderEvent {
+        Objects.requireNonNull(type, "Event type cannot be null");
+        Objects.requireNonNull(paymentOrderId, "Payment Order ID cannot be null");
+        Objects.requireNonNull(status, "Status cannot be null");
+        Objects.requireNonNull(occurredAt, "Occurrence time cannot be null");
+    }
+
+    public enum Type {
+        /**
+         * The order was initiated.
+         */
+        CREATED,
+
+        /**
+         * The order moved to another status.
+         */
+        STATUS_CHANGED
+    }
+}
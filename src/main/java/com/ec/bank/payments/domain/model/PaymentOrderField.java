@@ -0,0 +1,60 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Fields of a payment order that can be read on their own, without loading
+ * the whole aggregate. Each field has the name it is published under.
+ */
+public enum PaymentOrderField {
+
+    PAYMENT_ORDER_ID("paymentOrderId"),
+    PAYMENT_ORDER_REFERENCE("paymentOrderReference"),
+    DEBTOR_ACCOUNT("debtorAccount"),
+    CREDITOR_ACCOUNT("creditorAccount"),
+    INSTRUCTED_AMOUNT("instructedAmount"),
+    REMITTANCE_INFORMATION("remittanceInformation"),
+    REQUESTED_EXECUTION_DATE("requestedExecutionDateTime"),
+    STATUS("paymentOrderStatus"),
+    CREATED_AT("createdAt"),
+    LAST_UPDATED_AT("lastUpdatedAt");
+
+    /**
+     * Every field: the whole payment order.
+     */
+    public static final Set<PaymentOrderField> ALL =
+            Collections.unmodifiableSet(EnumSet.allOf(PaymentOrderField.class));
+
+    /**
+     * The fields of a status check.
+     */
+    public static final Set<PaymentOrderField> STATUS_FIELDS =
+            Collections.unmodifiableSet(EnumSet.of(PAYMENT_ORDER_ID, STATUS, LAST_UPDATED_AT));
+
+    private final String fieldName;
+
+    PaymentOrderField(String fieldName) {
+        this.fieldName = fieldName;
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Finds a field by its published name.
+     *
+     * @throws IllegalArgumentException if no field has that name
+     */
+    public static PaymentOrderField fromFieldName(String fieldName) {
+        for (PaymentOrderField field : values()) {
+            if (field.fieldName.equals(fieldName)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payment order field: " + fieldName);
+    }
+}
@@ -2,7 +2,6 @@ package com.ec.bank.payments.domain.model;
 
 
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * Value Object representing a unique Payment Order identifier.
@@ -18,10 +17,12 @@ public record PaymentOrderId(String value) {
     }
 
     /**
-     * Generates a new unique Payment Order ID.
+     * Generates a new unique, time-ordered Payment Order ID.
+     *
+     * @see PaymentOrderIdGenerator#timeOrdered()
      */
     public static PaymentOrderId generate() {
-        return new PaymentOrderId("PO-" + UUID.randomUUID().toString());
+        return PaymentOrderIdGenerator.timeOrdered().generate();
     }
 
     /**
@@ -0,0 +1,38 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.util.UUID;
+
+/**
+ * Source of new Payment Order identifiers.
+ * Every generator issues "PO-" followed by a UUID, the only form the store
+ * accepts, so the choice of generator never changes how IDs are stored.
+ */
+@FunctionalInterface
+public interface PaymentOrderIdGenerator {
+
+    String PREFIX = "PO-";
+
+    PaymentOrderId generate();
+
+    /**
+     * Time-ordered IDs (UUID version 7): a millisecond timestamp, a per-thread
+     * counter and 62 random bits. IDs issued close in time sort close
+     * together, so inserts land on the right edge of the payment_order_id
+     * index instead of on random pages. State is per thread and randomness
+     * comes from ThreadLocalRandom, so generation takes no lock.
+     * The creation time can be read back from an ID and IDs are not
+     * unguessable; they must not be used as access tokens.
+     */
+    static PaymentOrderIdGenerator timeOrdered() {
+        return TimeOrderedPaymentOrderIdGenerator.INSTANCE;
+    }
+
+    /**
+     * Random IDs (UUID version 4) drawn from the shared SecureRandom of
+     * UUID.randomUUID(), as issued before time-ordered IDs.
+     */
+    static PaymentOrderIdGenerator random() {
+        return () -> PaymentOrderId.of(PREFIX + UUID.randomUUID());
+    }
+}
@@ -0,0 +1,53 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.time.Instant;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * Filters for searching payment orders. Every filter is optional; null means
+ * "any". Results are ordered by creation time, oldest first, and resume after
+ * the given cursor (keyset pagination) rather than skipping an offset.
+ *
+ * @param createdFrom Inclusive lower bound on the creation time
+ * @param createdTo   Exclusive upper bound on the creation time
+ * @param after       Position of the last order already seen, or null to start from the beginning
+ * @param limit       Maximum number of orders to return, or null for all of them
+ */
+public record PaymentOrderSearchCriteria(
+        PaymentStatus status,
+        IBAN debtorAccount,
+        IBAN creditorAccount,
+        Currency currency,
+        Instant createdFrom,
+        Instant createdTo,
+        Cursor after,
+        Integer limit
+) {
+
+    public PaymentOrderSearchCriteria {
+        if (createdFrom != null && createdTo != null && !createdFrom.isBefore(createdTo)) {
+            throw new IllegalArgumentException("createdFrom must be before createdTo");
+        }
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+    }
+
+    /**
+     * Position of a payment order in search order: its creation time, with the
+     * storage sequence of the order breaking ties between equal timestamps.
+     */
+    public record Cursor(Instant createdAt, long sequence) {
+
+        public Cursor {
+            Objects.requireNonNull(createdAt, "Cursor creation time cannot be null");
+        }
+    }
+
+    /**
+     * A payment order found by a search, with the cursor to resume after it.
+     */
+    public record Hit(PaymentOrder paymentOrder, Cursor cursor) {}
+}
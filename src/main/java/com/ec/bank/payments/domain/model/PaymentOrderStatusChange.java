@@ -0,0 +1,23 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Value Object announcing that a payment order changed, with the status it
+ * was left in. Versions order the changes of one order.
+ */
+public record PaymentOrderStatusChange(
+        PaymentOrderId paymentOrderId,
+        PaymentStatus status,
+        long version,
+        Instant lastUpdatedAt
+) {
+
+    public PaymentOrderStatusChange {
+        Objects.requireNonNull(paymentOrderId, "Payment Order ID cannot be null");
+        Objects.requireNonNull(status, "Status cannot be null");
+        Objects.requireNonNull(lastUpdatedAt, "Last update time cannot be null");
+    }
+}
@@ -0,0 +1,54 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Read-only projection of a payment order onto a set of fields.
+ * Fields outside the projection are null. Unlike PaymentOrder, a view
+ * carries no invariants: it is only ever read, never changed or persisted.
+ */
+public record PaymentOrderView(
+        Set<PaymentOrderField> fields,
+        PaymentOrderId paymentOrderId,
+        String paymentOrderReference,
+        IBAN debtorAccount,
+        IBAN creditorAccount,
+        Amount instructedAmount,
+        String remittanceInformation,
+        LocalDate requestedExecutionDateTime,
+        PaymentStatus status,
+        Instant createdAt,
+        Instant lastUpdatedAt
+) {
+
+    public PaymentOrderView {
+        Objects.requireNonNull(fields, "Fields cannot be null");
+        fields = Set.copyOf(fields);
+    }
+
+    /**
+     * Projects a loaded payment order onto the given fields.
+     */
+    public static PaymentOrderView of(PaymentOrder order, Set<PaymentOrderField> fields) {
+        return new PaymentOrderView(
+                fields,
+                fields.contains(PaymentOrderField.PAYMENT_ORDER_ID) ? order.getPaymentOrderId() : null,
+                fields.contains(PaymentOrderField.PAYMENT_ORDER_REFERENCE) ? order.getPaymentOrderReference() : null,
+                fields.contains(PaymentOrderField.DEBTOR_ACCOUNT) ? order.getDebtorAccount() : null,
+                fields.contains(PaymentOrderField.CREDITOR_ACCOUNT) ? order.getCreditorAccount() : null,
+                fields.contains(PaymentOrderField.INSTRUCTED_AMOUNT) ? order.getInstructedAmount() : null,
+                fields.contains(PaymentOrderField.REMITTANCE_INFORMATION) ? order.getRemittanceInformation() : null,
+                fields.contains(PaymentOrderField.REQUESTED_EXECUTION_DATE) ? order.getRequestedExecutionDateTime() : null,
+                fields.contains(PaymentOrderField.STATUS) ? order.getStatus() : null,
+                fields.contains(PaymentOrderField.CREATED_AT) ? order.getCreatedAt() : null,
+                fields.contains(PaymentOrderField.LAST_UPDATED_AT) ? order.getLastUpdatedAt() : null);
+    }
+
+    public boolean has(PaymentOrderField field) {
+        return fields.contains(field);
+    }
+}
@@ -1,5 +1,8 @@
 package com.ec.bank.payments.domain.model;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
 
 /**
  * Represents the lifecycle status of a payment order.
@@ -44,4 +47,27 @@ public enum PaymentStatus {
     public boolean canBeCancelled() {
         return this == PENDING;
     }
+
+    /**
+     * Checks if an order in this status may move to the target status.
+     * Only pending orders can be cancelled; any other target except PENDING
+     * is reachable from every status that is not final.
+     */
+    public boolean canTransitionTo(PaymentStatus target) {
+        if (target == CANCELLED) {
+            return canBeCancelled();
+        }
+        return target != PENDING && !isFinal();
+    }
+
+    /**
+     * Statuses from which an order may move to the target status.
+     */
+    public static Set<PaymentStatus> sourcesOf(PaymentStatus target) {
+        Set<PaymentStatus> sources = EnumSet.noneOf(PaymentStatus.class);
+        Arrays.stream(values())
+                .filter(status -> status.canTransitionTo(target))
+                .forEach(sources::add);
+        return sources;
+    }
 }
@@ -0,0 +1,27 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.util.Objects;
+
+/**
+ * Outcome of a compare-and-set status transition of a payment order.
+ * When applied, the order is as left by the transition; otherwise it is as
+ * found, unchanged, and previousStatus is its current status.
+ *
+ * @param paymentOrder   The order after the transition, or as found when not applied
+ * @param previousStatus Status of the order before the transition
+ * @param version        Version of the order row after the transition, or as found
+ * @param applied        Whether the order was moved to the target status
+ */
+public record StatusTransition(
+        PaymentOrder paymentOrder,
+        PaymentStatus previousStatus,
+        long version,
+        boolean applied
+) {
+
+    public StatusTransition {
+        Objects.requireNonNull(paymentOrder, "Payment order cannot be null");
+        Objects.requireNonNull(previousStatus, "Previous status cannot be null");
+    }
+}
@@ -0,0 +1,58 @@
+package com.ec.bank.payments.domain.model;
+
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * UUID version 7 generator (RFC 9562), monotonic within each thread.
+ * The 12 bits after the version hold a counter, started at a random point
+ * in its lower half every millisecond, so IDs of one thread keep increasing
+ * within a millisecond; once it runs out the thread borrows the next
+ * millisecond. Threads do not coordinate: IDs of different threads within
+ * one millisecond are told apart by their random bits.
+ */
+final class TimeOrderedPaymentOrderIdGenerator implements PaymentOrderIdGenerator {
+
+    static final TimeOrderedPaymentOrderIdGenerator INSTANCE = new TimeOrderedPaymentOrderIdGenerator();
+
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_MAX = (1 << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000_0000_0000_0000L;
+    private static final long RANDOM_MASK = 0x3FFF_FFFF_FFFF_FFFFL;
+
+    private final ThreadLocal<State> state = ThreadLocal.withInitial(State::new);
+
+    private TimeOrderedPaymentOrderIdGenerator() {
+    }
+
+    @Override
+    public PaymentOrderId generate() {
+        return PaymentOrderId.of(PREFIX + nextUuid(System.currentTimeMillis()));
+    }
+
+    UUID nextUuid(long nowMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        State current = state.get();
+        if (nowMillis > current.millis) {
+            current.millis = nowMillis;
+            current.counter = random.nextInt(COUNTER_MAX >> 1);
+        } else if (current.counter < COUNTER_MAX) {
+            // Same millisecond, or the clock stepped back: keep counting from the last ID
+            current.counter++;
+        } else {
+            current.millis++;
+            current.counter = random.nextInt(COUNTER_MAX >> 1);
+        }
+
+        long mostSignificant = (current.millis << 16) | VERSION | current.counter;
+        long leastSignificant = (random.nextLong() & RANDOM_MASK) | VARIANT;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    private static final class State {
+        private long millis = Long.MIN_VALUE;
+        private int counter;
+    }
+}
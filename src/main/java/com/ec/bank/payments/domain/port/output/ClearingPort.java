@@ -0,0 +1,26 @@
+package com.ec.bank.payments.domain.port.output;
+
+
+import com.ec.bank.payments.domain.model.ClearingResult;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Output port to the clearing system that settles payment orders.
+ * To be implemented by infrastructure layer (a clearing network client, or
+ * the local simulator).
+ */
+public interface ClearingPort {
+
+    /**
+     * Submits a payment order for clearing.
+     * An order may be submitted more than once when the claim of a settlement
+     * worker goes stale before it finished, so implementations must treat a
+     * resubmission of the same payment order ID as the original submission.
+     *
+     * @param paymentOrder The order to clear, in PROCESSING status
+     * @return Mono emitting the answer of the clearing system; an error means
+     *         no answer, and the order is submitted again later
+     */
+    Mono<ClearingResult> clear(PaymentOrder paymentOrder);
+}
@@ -1,6 +1,7 @@
 package com.ec.bank.payments.domain.port.output;
 
 
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
 import reactor.core.publisher.Mono;
 
 /**
@@ -18,19 +19,19 @@ public interface IdempotencyRepository {
     Mono<Boolean> exists(String idempotencyKey);
 
     /**
-     * Saves an idempotency key with associated payment order ID.
+     * Retrieves the payment order ID associated with an idempotency key.
      *
      * @param idempotencyKey The unique key
-     * @param paymentOrderId The payment order ID
-     * @return Mono emitting void when complete
+     * @return Mono emitting the payment order ID or empty
      */
-    Mono<Void> save(String idempotencyKey, String paymentOrderId);
+    Mono<String> findPaymentOrderId(String idempotencyKey);
 
     /**
-     * Retrieves the payment order ID associated with an idempotency key.
+     * Retrieves the claim on a key only if it is known locally, without a
+     * round trip to the store. An empty result does not mean the key is free.
      *
      * @param idempotencyKey The unique key
-     * @return Mono emitting the payment order ID or empty
+     * @return Mono emitting the existing claim or empty if not known locally
      */
-    Mono<String> findPaymentOrderId(String idempotencyKey);
+    Mono<IdempotencyClaim> peekClaim(String idempotencyKey);
 }
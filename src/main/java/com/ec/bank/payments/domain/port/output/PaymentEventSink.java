@@ -0,0 +1,25 @@
+package com.ec.bank.payments.domain.port.output;
+
+
+import com.ec.bank.payments.domain.model.PaymentOrderEvent;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Output port delivering payment order events to downstream systems.
+ * To be implemented by infrastructure layer (a message broker client, or
+ * the logging sink).
+ */
+public interface PaymentEventSink {
+
+    /**
+     * Publishes a batch of events, in the given order. Completing means every
+     * event of the batch was accepted downstream; an error means some may not
+     * have been, and the whole batch is published again later.
+     *
+     * @param events Events in outbox order
+     * @return Mono completing once the batch is accepted
+     */
+    Mono<Void> publish(List<PaymentOrderEvent> events);
+}
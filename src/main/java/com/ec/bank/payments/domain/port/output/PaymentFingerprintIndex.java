@@ -0,0 +1,30 @@
+package com.ec.bank.payments.domain.port.output;
+
+
+import com.ec.bank.payments.domain.model.PaymentFingerprint;
+
+import java.time.Instant;
+
+/**
+ * Output port remembering the fingerprints of recently created payment orders.
+ * To be implemented by infrastructure layer (in-memory probabilistic filter).
+ */
+public interface PaymentFingerprintIndex {
+
+    /**
+     * Returns false if no order with this fingerprint was created within the
+     * window. True may be a false positive, to be confirmed against the store.
+     *
+     * @param fingerprint The fingerprint of a new order
+     * @return Whether an order with this fingerprint may exist
+     */
+    boolean mightContain(PaymentFingerprint fingerprint);
+
+    /**
+     * Remembers the fingerprint of an order until its creation time leaves the window.
+     *
+     * @param fingerprint The fingerprint of the order
+     * @param createdAt   When the order was created
+     */
+    void put(PaymentFingerprint fingerprint, Instant createdAt);
+}
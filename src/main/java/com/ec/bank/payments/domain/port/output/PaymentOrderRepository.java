@@ -1,10 +1,22 @@
 package com.ec.bank.payments.domain.port.output;
 
 
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
 import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderField;
 import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentOrderView;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.model.StatusTransition;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Output port for payment order persistence.
  * To be implemented by infrastructure layer (R2DBC adapter).
@@ -19,6 +31,77 @@ public interface PaymentOrderRepository {
      */
     Mono<PaymentOrder> save(PaymentOrder paymentOrder);
 
+    /**
+     * Saves a payment order and claims its idempotency key atomically,
+     * in a single round trip. If the key is already claimed, nothing is
+     * inserted and the existing claim is returned instead, with the request
+     * hash and response stored by the request that made it.
+     *
+     * @param paymentOrder   The order to save
+     * @param idempotencyKey The unique key to claim
+     * @param requestHash    Hash of the request payload, or null
+     * @param response       Response to replay for retries of this request, or null
+     * @return Mono emitting the outcome of the claim
+     */
+    Mono<IdempotencyClaim> saveWithIdempotencyKey(
+            PaymentOrder paymentOrder,
+            String idempotencyKey,
+            String requestHash,
+            byte[] response);
+
+    /**
+     * Inserts new payment orders in bulk, all or none.
+     * Meant for chunks of a bulk initiation; the orders carry no idempotency key.
+     *
+     * @param paymentOrders The orders to insert
+     * @return Mono emitting the number of orders inserted
+     */
+    Mono<Long> bulkInsert(List<PaymentOrder> paymentOrders);
+
+    /**
+     * Moves a payment order to the target status in a single conditional
+     * statement. It applies only if the current status may move there (see
+     * PaymentStatus.canTransitionTo) and matches the expected status and
+     * version, when given. Nothing is read beforehand: when a condition fails,
+     * the order is returned as found and the transition as not applied.
+     *
+     * @param paymentOrderId  The unique identifier
+     * @param target          The status to move to
+     * @param expectedStatus  Status the order must have, or null for any that may move to the target
+     * @param expectedVersion Version the order must have, or null for any
+     * @return Mono emitting the outcome, or empty if not found
+     */
+    Mono<StatusTransition> transitionStatus(
+            PaymentOrderId paymentOrderId,
+            PaymentStatus target,
+            PaymentStatus expectedStatus,
+            Long expectedVersion);
+
+    /**
+     * Moves every payment order matching the filters of the criteria to the
+     * target status, in a single statement. Orders whose status may not move
+     * there are left alone. The cursor and limit of the criteria are not supported.
+     *
+     * @param criteria Filters selecting the orders
+     * @param target   The status to move to
+     * @return Mono emitting the number of orders moved
+     */
+    Mono<Long> transitionStatusAll(PaymentOrderSearchCriteria criteria, PaymentStatus target);
+
+    /**
+     * Claims a batch of orders for settlement, moving them to PROCESSING:
+     * PENDING orders due for execution, and PROCESSING orders whose claim went
+     * stale because the claimer never finished them. Orders claimed by a
+     * concurrent caller are skipped rather than waited for, so any number of
+     * callers claim disjoint batches.
+     *
+     * @param dueBy       Latest requested execution date to claim
+     * @param staleBefore Claims last updated before this instant are taken over
+     * @param limit       Maximum number of orders to claim
+     * @return Flux emitting each claimed order with its status before the claim
+     */
+    Flux<StatusTransition> claimForProcessing(LocalDate dueBy, Instant staleBefore, int limit);
+
     /**
      * Finds a payment order by its ID.
      *
@@ -28,12 +111,42 @@ public interface PaymentOrderRepository {
     Mono<PaymentOrder> findById(PaymentOrderId paymentOrderId);
 
     /**
-     * Finds a payment order by reference.
+     * Reads only the given fields of a payment order, without loading the aggregate.
      *
-     * @param reference The external reference
-     * @return Mono emitting the order or empty if not found
+     * @param paymentOrderId The unique identifier
+     * @param fields         The fields to read
+     * @return Mono emitting the projection or empty if not found
+     */
+    Mono<PaymentOrderView> findProjectedById(PaymentOrderId paymentOrderId, Set<PaymentOrderField> fields);
+
+    /**
+     * Reads the status fields of a payment order (see PaymentOrderField.STATUS_FIELDS).
+     * Meant for status polling, so implementations should serve it from an index alone.
+     *
+     * @param paymentOrderId The unique identifier
+     * @return Mono emitting the projection or empty if not found
+     */
+    Mono<PaymentOrderView> findStatusById(PaymentOrderId paymentOrderId);
+
+    /**
+     * Finds the payment orders carrying a reference, created since a given
+     * time. References are chosen by the debtor and are not unique.
+     *
+     * @param reference   The external reference
+     * @param createdFrom Earliest creation time, inclusive
+     * @return Flux emitting every such order, oldest first
+     */
+    Flux<PaymentOrder> findByReference(String reference, Instant createdFrom);
+
+    /**
+     * Streams the payment orders matching the criteria, ordered by creation
+     * time and then storage sequence, resuming after the criteria cursor.
+     * Rows are fetched as downstream demand arrives.
+     *
+     * @param criteria Filters, cursor and limit of the search
+     * @return Flux emitting each matching order with its cursor
      */
-    Mono<PaymentOrder> findByReference(String reference);
+    Flux<PaymentOrderSearchCriteria.Hit> search(PaymentOrderSearchCriteria criteria);
 
     /**
      * Checks if a payment order exists.
@@ -0,0 +1,28 @@
+package com.ec.bank.payments.domain.port.output;
+
+
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderStatusChange;
+import reactor.core.publisher.Flux;
+
+import java.util.Set;
+
+/**
+ * Output port streaming the changes of payment orders as they happen.
+ * To be implemented by infrastructure layer (database change notifications).
+ */
+public interface PaymentOrderStatusFeed {
+
+    /**
+     * Streams the changes made from now on to the given orders, or to any
+     * order of the given debtor. Delivery is best effort: a change may be
+     * missed, for instance while the feed reconnects, so subscribers that
+     * must not miss one read the current status when in doubt.
+     *
+     * @param paymentOrderIds Orders to watch, may be empty
+     * @param debtorAccount   Debtor whose orders to watch, or null
+     * @return Hot Flux of changes, never completing on its own
+     */
+    Flux<PaymentOrderStatusChange> watch(Set<PaymentOrderId> paymentOrderIds, IBAN debtorAccount);
+}
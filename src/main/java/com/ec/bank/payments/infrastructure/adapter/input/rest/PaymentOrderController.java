@@ -1,26 +1,51 @@
 
 package com.ec.bank.payments.infrastructure.adapter.input.rest;
 
+import com.ec.bank.payments.domain.model.IBAN;
 import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.model.StatusTransition;
+import com.ec.bank.payments.application.port.input.BulkInitiatePaymentOrdersUseCase;
 import com.ec.bank.payments.application.port.input.InitiatePaymentOrderUseCase;
-import com.ec.bank.payments.application.port.input.RetrievePaymentOrderStatusUseCase;
+import com.ec.bank.payments.application.port.input.InitiatePaymentOrderUseCase.InitiationOutcome;
 import com.ec.bank.payments.application.port.input.RetrievePaymentOrderUseCase;
+import com.ec.bank.payments.application.port.input.SearchPaymentOrdersUseCase;
+import com.ec.bank.payments.application.port.input.TransitionPaymentOrderStatusUseCase;
+import com.ec.bank.payments.application.port.input.WatchPaymentOrderStatusUseCase;
 import com.ec.bank.payments.infrastructure.adapter.input.rest.api.PaymentOrdersApi;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.BulkInitiationResultDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.BulkStatusTransitionRequestDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.BulkStatusTransitionResultDto;
 import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.InitiatePaymentOrderRequestDto;
 import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.InitiatePaymentOrderResponseDto;
 import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.PaymentOrderDetailsDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.PaymentOrderSearchResultDto;
 import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.PaymentOrderStatusDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.PaymentStatusDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.StatusTransitionRequestDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.StatusTransitionResultDto;
 import com.ec.bank.payments.infrastructure.adapter.input.rest.mapper.PaymentOrderMapper;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.routing.ReadRoute;
 import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * REST Controller que implementa PaymentOrdersApi generada por OpenAPI.
@@ -32,9 +57,18 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class PaymentOrderController implements PaymentOrdersApi {
 
+    static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int DEFAULT_STATUS_WAIT_SECONDS = 30;
+
+    private static final StringDecoder NDJSON_LINES = StringDecoder.textPlainOnly(List.of("\n"), true);
+
     private final InitiatePaymentOrderUseCase initiatePaymentOrderUseCase;
+    private final BulkInitiatePaymentOrdersUseCase bulkInitiatePaymentOrdersUseCase;
     private final RetrievePaymentOrderUseCase retrievePaymentOrderUseCase;
-    private final RetrievePaymentOrderStatusUseCase retrievePaymentOrderStatusUseCase;
+    private final SearchPaymentOrdersUseCase searchPaymentOrdersUseCase;
+    private final TransitionPaymentOrderStatusUseCase transitionPaymentOrderStatusUseCase;
+    private final WatchPaymentOrderStatusUseCase watchPaymentOrderStatusUseCase;
     private final PaymentOrderMapper mapper;
 
     /**
@@ -58,51 +92,262 @@ public class PaymentOrderController implements PaymentOrdersApi {
                         req.getDebtorAccount(),
                         req.getInstructedAmount().getAmount()))
                 .map(req -> mapper.toCommand(req, idempotencyKeyStr))
-                .flatMap(initiatePaymentOrderUseCase::initiate)
-                .map(mapper::toInitiateResponse)
-                .map(response -> ResponseEntity
-                        .status(HttpStatus.CREATED)
-                        .body(response))
+                .flatMap(command -> initiatePaymentOrderUseCase.initiate(command, mapper::toInitiateResponseBody))
+                .map(this::toInitiateResponseEntity)
                 .doOnSuccess(res -> log.info("Payment order created: {}",
                         res.getBody().getPaymentOrderId()))
                 .doOnError(e -> log.error("Failed to initiate payment", e));
     }
 
+    /**
+     * POST /payment-initiation/payment-orders/bulk
+     * Inicia órdenes de pago en bloque a partir de un cuerpo NDJSON.
+     * El argumento body generado acumularía el cuerpo completo en memoria, así que
+     * no se suscribe: las líneas se leen del flujo de la petición a medida que llegan
+     * y los resultados se devuelven también en streaming.
+     */
+    @Override
+    @Timed(value = "api.payment.initiate.bulk", description = "Time taken to initiate payments in bulk")
+    public Mono<ResponseEntity<Flux<BulkInitiationResultDto>>> initiatePaymentOrdersBulk(
+            Mono<Resource> body,
+            ServerWebExchange exchange) {
+
+        log.info("Received bulk initiate payment orders request");
+
+        Flux<String> lines = NDJSON_LINES.decode(exchange.getRequest().getBody(), null, null, null);
+
+        Flux<BulkInitiationResultDto> results = bulkInitiatePaymentOrdersUseCase
+                .initiateAll(lines
+                        .index()
+                        .filter(line -> !line.getT2().isBlank())
+                        .map(line -> mapper.toBulkLine(line.getT1() + 1, line.getT2())))
+                .map(mapper::toBulkInitiationResult)
+                .doOnError(e -> log.error("Bulk initiation failed", e));
+
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(results));
+    }
+
+    /**
+     * GET /payment-initiation/payment-orders
+     * Busca órdenes de pago por estado, cuentas, divisa y fecha de creación.
+     * Los resultados se devuelven en streaming NDJSON a medida que el cliente los
+     * consume; cada uno lleva el cursor para continuar la búsqueda tras él.
+     */
+    @Override
+    @Timed(value = "api.payment.search", description = "Time taken to search payments")
+    public Mono<ResponseEntity<Flux<PaymentOrderSearchResultDto>>> searchPaymentOrders(
+            PaymentStatusDto status,
+            String debtorAccount,
+            String creditorAccount,
+            String currency,
+            OffsetDateTime createdFrom,
+            OffsetDateTime createdTo,
+            String after,
+            Integer limit,
+            ServerWebExchange exchange) {
+
+        log.info("Searching payment orders: status={}, currency={}, createdFrom={}, createdTo={}, limit={}",
+                status, currency, createdFrom, createdTo, limit);
+
+        return Mono.fromCallable(() -> mapper.toSearchCriteria(
+                        status, debtorAccount, creditorAccount, currency, createdFrom, createdTo, after, limit))
+                .map(criteria -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .body(searchPaymentOrdersUseCase.search(criteria)
+                                .map(mapper::toSearchResult)
+                                .doOnError(e -> log.error("Payment order search failed", e))));
+    }
+
     /**
      * GET /payment-initiation/payment-orders/{paymentOrderId}
-     * Recupera los detalles de una orden de pago.
+     * Recupera los detalles de una orden de pago, o solo los campos indicados en fields.
+     * La lectura puede servirse desde una réplica.
      */
     @Override
     public Mono<ResponseEntity<PaymentOrderDetailsDto>> retrievePaymentOrder(
             String paymentOrderId,
+            List<String> fields,
             ServerWebExchange exchange) {
 
         log.info("Retrieving payment order: {}", paymentOrderId);
 
-        return retrievePaymentOrderUseCase
-                .retrieve(PaymentOrderId.of(paymentOrderId))
-                .map(mapper::toPaymentOrderDetails)
+        Mono<PaymentOrderDetailsDto> details = fields == null || fields.isEmpty()
+                ? retrievePaymentOrderUseCase
+                        .retrieve(PaymentOrderId.of(paymentOrderId))
+                        .map(mapper::toPaymentOrderDetails)
+                : Mono.fromCallable(() -> mapper.toFields(fields))
+                        .flatMap(selected -> retrievePaymentOrderUseCase
+                                .retrieve(PaymentOrderId.of(paymentOrderId), selected))
+                        .map(mapper::toPaymentOrderDetails);
+
+        return details
+                .contextWrite(ReadRoute.replica())
                 .map(ResponseEntity::ok)
                 .doOnSuccess(res -> log.info("Payment order retrieved: {}", paymentOrderId));
     }
 
     /**
      * GET /payment-initiation/payment-orders/{paymentOrderId}/status
-     * Recupera el estado de una orden de pago.
+     * Recupera el estado de una orden de pago. La lectura puede servirse desde una réplica.
+     * Con waitFor, la petición queda a la espera (long polling) hasta que la orden llega
+     * a uno de esos estados o vence el timeout, sin ocupar ningún hilo mientras tanto.
      */
     @Override
     public Mono<ResponseEntity<PaymentOrderStatusDto>> retrievePaymentOrderStatus(
             String paymentOrderId,
+            List<PaymentStatusDto> waitFor,
+            Integer timeout,
             ServerWebExchange exchange) {
 
-        log.info("Retrieving payment order status: {}", paymentOrderId);
+        log.info("Retrieving payment order status: {} (waitFor: {}, timeout: {})", paymentOrderId, waitFor, timeout);
+
+        Set<PaymentStatus> awaited = waitFor == null ? Set.of() : waitFor.stream()
+                .map(mapper::toPaymentStatus)
+                .collect(Collectors.toCollection(() -> EnumSet.noneOf(PaymentStatus.class)));
 
-        return retrievePaymentOrderStatusUseCase
-                .retrieveStatus(PaymentOrderId.of(paymentOrderId))
+        return watchPaymentOrderStatusUseCase
+                .awaitStatus(PaymentOrderId.of(paymentOrderId), awaited,
+                        Duration.ofSeconds(timeout != null ? timeout : DEFAULT_STATUS_WAIT_SECONDS))
+                .contextWrite(ReadRoute.replica())
                 .map(mapper::toPaymentOrderStatus)
                 .map(ResponseEntity::ok)
                 .doOnSuccess(res -> log.info("Status retrieved: {} -> {}",
                         paymentOrderId,
                         res.getBody().getPaymentOrderStatus()));
     }
-}
\ No newline at end of file
+
+    /**
+     * GET /payment-initiation/payment-orders/status-events
+     * Suscripción Server-Sent Events a los cambios de estado de las órdenes indicadas
+     * o de todas las órdenes de un deudor. Las suscripciones inactivas no consultan la
+     * base de datos: se alimentan de las notificaciones LISTEN/NOTIFY de la instancia.
+     */
+    @Override
+    public Mono<ResponseEntity<Flux<PaymentOrderStatusDto>>> watchPaymentOrderStatus(
+            List<String> paymentOrderId,
+            String debtorAccount,
+            ServerWebExchange exchange) {
+
+        log.info("Watching payment order status: orders={}, debtor={}",
+                paymentOrderId != null ? paymentOrderId.size() : 0, debtorAccount != null);
+
+        Set<PaymentOrderId> paymentOrderIds = paymentOrderId == null ? Set.of() : paymentOrderId.stream()
+                .map(PaymentOrderId::of)
+                .collect(Collectors.toSet());
+
+        // Validado antes de abrir el stream, para responder 400 y no un stream cortado
+        if (paymentOrderIds.isEmpty() && debtorAccount == null) {
+            return Mono.error(new IllegalArgumentException("Watch at least one payment order or a debtor account"));
+        }
+
+        Flux<PaymentOrderStatusDto> statuses = watchPaymentOrderStatusUseCase
+                .watch(paymentOrderIds, debtorAccount != null ? IBAN.of(debtorAccount) : null)
+                .contextWrite(ReadRoute.replica())
+                .map(mapper::toPaymentOrderStatus)
+                .doOnCancel(() -> log.debug("Status subscription closed by the client"));
+
+        return Mono.just(ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(statuses));
+    }
+
+    /**
+     * POST /payment-initiation/payment-orders/{paymentOrderId}/status-transitions
+     * Mueve una orden de pago al estado indicado con una única actualización
+     * condicional. Si llega If-Match, la orden debe seguir en esa versión.
+     */
+    @Override
+    @Timed(value = "api.payment.transition", description = "Time taken to transition a payment order status")
+    public Mono<ResponseEntity<StatusTransitionResultDto>> transitionPaymentOrderStatus(
+            String paymentOrderId,
+            Mono<StatusTransitionRequestDto> statusTransitionRequestDto,
+            String ifMatch,
+            ServerWebExchange exchange) {
+
+        log.info("Transitioning payment order: {}", paymentOrderId);
+
+        return statusTransitionRequestDto
+                .flatMap(req -> transitionPaymentOrderStatusUseCase.transition(
+                        PaymentOrderId.of(paymentOrderId),
+                        mapper.toPaymentStatus(req.getTargetStatus()),
+                        req.getExpectedStatus() != null ? mapper.toPaymentStatus(req.getExpectedStatus()) : null,
+                        mapper.fromIfMatch(ifMatch)))
+                .map(this::toTransitionResponseEntity)
+                .doOnSuccess(res -> log.info("Payment order {} transitioned to {}",
+                        paymentOrderId, res.getBody().getPaymentOrderStatus()));
+    }
+
+    /**
+     * POST /payment-initiation/payment-orders/{paymentOrderId}/cancellation
+     * Cancela una orden de pago pendiente con una única actualización condicional.
+     */
+    @Override
+    @Timed(value = "api.payment.cancel", description = "Time taken to cancel a payment order")
+    public Mono<ResponseEntity<StatusTransitionResultDto>> cancelPaymentOrder(
+            String paymentOrderId,
+            String ifMatch,
+            ServerWebExchange exchange) {
+
+        log.info("Cancelling payment order: {}", paymentOrderId);
+
+        return Mono.defer(() -> transitionPaymentOrderStatusUseCase.transition(
+                        PaymentOrderId.of(paymentOrderId),
+                        PaymentStatus.CANCELLED,
+                        null,
+                        mapper.fromIfMatch(ifMatch)))
+                .map(this::toTransitionResponseEntity)
+                .doOnSuccess(res -> log.info("Payment order cancelled: {}", paymentOrderId));
+    }
+
+    /**
+     * POST /payment-initiation/payment-orders/status-transitions
+     * Mueve al estado indicado todas las órdenes que cumplen los filtros, con una
+     * sola actualización sobre el conjunto.
+     */
+    @Override
+    @Timed(value = "api.payment.transition.bulk", description = "Time taken to transition payment orders in bulk")
+    public Mono<ResponseEntity<BulkStatusTransitionResultDto>> transitionPaymentOrdersBulk(
+            Mono<BulkStatusTransitionRequestDto> bulkStatusTransitionRequestDto,
+            ServerWebExchange exchange) {
+
+        return bulkStatusTransitionRequestDto
+                .flatMap(req -> {
+                    log.info("Transitioning payment orders in bulk to {}", req.getTargetStatus());
+                    PaymentStatus target = mapper.toPaymentStatus(req.getTargetStatus());
+                    return transitionPaymentOrderStatusUseCase
+                            .transitionAll(mapper.toTransitionCriteria(req), target)
+                            .map(transitioned -> mapper.toBulkStatusTransitionResult(target, transitioned));
+                })
+                .map(ResponseEntity::ok)
+                .doOnSuccess(res -> log.info("{} payment orders transitioned to {}",
+                        res.getBody().getTransitioned(), res.getBody().getTargetStatus()));
+    }
+
+    /**
+     * La versión resultante viaja también como ETag, para usarla en el If-Match
+     * de la siguiente transición.
+     */
+    private ResponseEntity<StatusTransitionResultDto> toTransitionResponseEntity(StatusTransition transition) {
+        return ResponseEntity.ok()
+                .eTag(mapper.toETag(transition.version()))
+                .body(mapper.toStatusTransitionResult(transition));
+    }
+
+    /**
+     * Un reintento recibe la misma respuesta 201 que la petición original,
+     * marcada con la cabecera Idempotent-Replayed.
+     */
+    private ResponseEntity<InitiatePaymentOrderResponseDto> toInitiateResponseEntity(InitiationOutcome outcome) {
+        if (outcome.isReplay()) {
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .header(IDEMPOTENT_REPLAYED_HEADER, "true")
+                    .body(mapper.fromInitiateResponseBody(outcome.replayedResponse()));
+        }
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(mapper.toInitiateResponse(outcome.paymentOrder()));
+    }
+}
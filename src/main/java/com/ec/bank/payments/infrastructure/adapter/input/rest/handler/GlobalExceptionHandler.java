@@ -1,8 +1,13 @@
 package com.ec.bank.payments.infrastructure.adapter.input.rest.handler;
 
 import com.ec.bank.payments.domain.exception.DuplicatePaymentOrderException;
+import com.ec.bank.payments.domain.exception.IdempotencyKeyReusedException;
 import com.ec.bank.payments.domain.exception.InvalidPaymentOrderException;
+import com.ec.bank.payments.domain.exception.InvalidStatusTransitionException;
+import com.ec.bank.payments.domain.exception.PaymentLimitExceededException;
 import com.ec.bank.payments.domain.exception.PaymentOrderNotFoundException;
+import com.ec.bank.payments.domain.exception.StatusTransitionConflictException;
+import com.ec.bank.payments.domain.exception.SuspectedDuplicatePaymentException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -70,6 +75,123 @@ public class GlobalExceptionHandler {
                 .body(problem));
     }
 
+    /**
+     * Handles SuspectedDuplicatePaymentException (409 Conflict).
+     */
+    @ExceptionHandler(SuspectedDuplicatePaymentException.class)
+    public Mono<ResponseEntity<ProblemDetail>> handleSuspectedDuplicate(SuspectedDuplicatePaymentException ex) {
+        log.warn("Suspected duplicate of payment order: {}", ex.getExistingPaymentOrderId().value());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT,
+                ex.getMessage()
+        );
+        problem.setTitle("Suspected Duplicate Payment");
+        problem.setType(URI.create("https://api.bank.com/problems/suspected-duplicate-payment"));
+        problem.setProperty("existingPaymentOrderId", ex.getExistingPaymentOrderId().value());
+        problem.setProperty("timestamp", Instant.now());
+
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problem));
+    }
+
+    /**
+     * Handles IdempotencyKeyReusedException (422 Unprocessable Entity).
+     */
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public Mono<ResponseEntity<ProblemDetail>> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        log.warn("Idempotency key reused with a different payload: {}", ex.getIdempotencyKey());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                ex.getMessage()
+        );
+        problem.setTitle("Idempotency Key Reused");
+        problem.setType(URI.create("https://api.bank.com/problems/idempotency-key-reused"));
+        problem.setProperty("idempotencyKey", ex.getIdempotencyKey());
+        problem.setProperty("timestamp", Instant.now());
+
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problem));
+    }
+
+    /**
+     * Handles PaymentLimitExceededException (422 Unprocessable Entity).
+     */
+    @ExceptionHandler(PaymentLimitExceededException.class)
+    public Mono<ResponseEntity<ProblemDetail>> handlePaymentLimitExceeded(PaymentLimitExceededException ex) {
+        log.warn("Payment limit {} exceeded for debtor: {}", ex.getLimit(), ex.getDebtorAccount().value());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                ex.getMessage()
+        );
+        problem.setTitle("Payment Limit Exceeded");
+        problem.setType(URI.create("https://api.bank.com/problems/payment-limit-exceeded"));
+        problem.setProperty("limit", ex.getLimit());
+        problem.setProperty("debtorAccount", ex.getDebtorAccount().value());
+        problem.setProperty("timestamp", Instant.now());
+
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problem));
+    }
+
+    /**
+     * Handles InvalidStatusTransitionException (409 Conflict).
+     */
+    @ExceptionHandler(InvalidStatusTransitionException.class)
+    public Mono<ResponseEntity<ProblemDetail>> handleInvalidStatusTransition(InvalidStatusTransitionException ex) {
+        log.warn("Invalid status transition: {}", ex.getMessage());
+
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                HttpStatus.CONFLICT,
+                ex.getMessage()
+        );
+        problem.setTitle("Invalid Status Transition");
+        problem.setType(URI.create("https://api.bank.com/problems/invalid-status-transition"));
+        problem.setProperty("paymentOrderId", ex.getPaymentOrderId().value());
+        problem.setProperty("currentStatus", ex.getCurrentStatus());
+        problem.setProperty("targetStatus", ex.getTargetStatus());
+        problem.setProperty("timestamp", Instant.now());
+
+        return Mono.just(ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problem));
+    }
+
+    /**
+     * Handles StatusTransitionConflictException: 412 Precondition Failed when the
+     * If-Match version is stale, 409 Conflict otherwise.
+     */
+    @ExceptionHandler(StatusTransitionConflictException.class)
+    public Mono<ResponseEntity<ProblemDetail>> handleStatusTransitionConflict(StatusTransitionConflictException ex) {
+        log.warn("Status transition conflict: {}", ex.getMessage());
+
+        HttpStatus status = ex.isVersionMismatch() ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT;
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                status,
+                ex.getMessage()
+        );
+        problem.setTitle("Status Transition Conflict");
+        problem.setType(URI.create("https://api.bank.com/problems/status-transition-conflict"));
+        problem.setProperty("paymentOrderId", ex.getPaymentOrderId().value());
+        problem.setProperty("currentStatus", ex.getCurrentStatus());
+        problem.setProperty("currentVersion", ex.getCurrentVersion());
+        problem.setProperty("timestamp", Instant.now());
+
+        return Mono.just(ResponseEntity
+                .status(status)
+                .contentType(MediaType.APPLICATION_PROBLEM_JSON)
+                .body(problem));
+    }
+
     /**
      * Handles InvalidPaymentOrderException (400 Bad Request).
      */
@@ -1,25 +1,52 @@
 package com.ec.bank.payments.infrastructure.adapter.input.rest.mapper;
 
 import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
 import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderField;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Cursor;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Hit;
+import com.ec.bank.payments.domain.model.PaymentOrderView;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.model.StatusTransition;
+import com.ec.bank.payments.application.port.input.BulkInitiatePaymentOrdersUseCase.BulkInitiationLine;
+import com.ec.bank.payments.application.port.input.BulkInitiatePaymentOrdersUseCase.BulkInitiationResult;
 import com.ec.bank.payments.application.port.input.InitiatePaymentOrderUseCase.InitiatePaymentOrderCommand;
 import com.ec.bank.payments.application.port.input.RetrievePaymentOrderStatusUseCase.PaymentOrderStatusInfo;
 import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.*;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Currency;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Mapper entre DTOs REST (generados por OpenAPI) y modelos de Dominio.
  * Parte del adaptador de entrada en arquitectura hexagonal.
  */
 @Component
+@RequiredArgsConstructor
 public class PaymentOrderMapper {
 
+    private static final int CURSOR_TOKEN_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private final ObjectMapper objectMapper;
+
     /**
      * Convierte InitiatePaymentOrderRequestDto a InitiatePaymentOrderCommand.
      */
@@ -39,6 +66,40 @@ public class PaymentOrderMapper {
         );
     }
 
+    /**
+     * Convierte una línea de una petición NDJSON en una línea de iniciación masiva.
+     * Una línea ilegible no corta el flujo: se devuelve con el motivo del rechazo.
+     */
+    public BulkInitiationLine toBulkLine(long lineNumber, String json) {
+        InitiatePaymentOrderRequestDto request;
+        try {
+            request = objectMapper.readValue(json, InitiatePaymentOrderRequestDto.class);
+        } catch (JsonProcessingException e) {
+            return BulkInitiationLine.unreadable(lineNumber,
+                    "Line is not a valid payment order request: " + e.getOriginalMessage());
+        }
+        if (request == null || request.getInstructedAmount() == null) {
+            return BulkInitiationLine.unreadable(lineNumber, "Instructed amount is required");
+        }
+        return BulkInitiationLine.parsed(lineNumber, toCommand(request, null));
+    }
+
+    /**
+     * Convierte el resultado de una línea de iniciación masiva a BulkInitiationResultDto.
+     */
+    public BulkInitiationResultDto toBulkInitiationResult(BulkInitiationResult result) {
+        BulkInitiationResultDto dto = new BulkInitiationResultDto();
+        dto.setLine(result.lineNumber());
+        dto.setAccepted(result.isAccepted());
+        if (result.isAccepted()) {
+            dto.setPaymentOrderId(result.paymentOrder().getPaymentOrderId().value());
+            dto.setPaymentOrderStatus(toPaymentStatusDto(result.paymentOrder().getStatus()));
+        } else {
+            dto.setError(result.error());
+        }
+        return dto;
+    }
+
     /**
      * Convierte PaymentOrder de dominio a InitiatePaymentOrderResponseDto.
      */
@@ -50,6 +111,28 @@ public class PaymentOrderMapper {
         return response;
     }
 
+    /**
+     * Serializa la respuesta de iniciación que se guarda con la clave de idempotencia.
+     */
+    public byte[] toInitiateResponseBody(PaymentOrder paymentOrder) {
+        try {
+            return objectMapper.writeValueAsBytes(toInitiateResponse(paymentOrder));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize initiate response", e);
+        }
+    }
+
+    /**
+     * Reconstruye la respuesta de iniciación guardada para reenviarla en un reintento.
+     */
+    public InitiatePaymentOrderResponseDto fromInitiateResponseBody(byte[] body) {
+        try {
+            return objectMapper.readValue(body, InitiatePaymentOrderResponseDto.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read stored initiate response", e);
+        }
+    }
+
     /**
      * Convierte PaymentOrder de dominio a PaymentOrderDetailsDto.
      */
@@ -68,6 +151,115 @@ public class PaymentOrderMapper {
         return details;
     }
 
+    /**
+     * Convierte el parámetro fields (sparse fieldset) en los campos a leer.
+     * Un nombre desconocido produce IllegalArgumentException (400).
+     */
+    public Set<PaymentOrderField> toFields(List<String> fields) {
+        Set<PaymentOrderField> result = EnumSet.noneOf(PaymentOrderField.class);
+        for (String field : fields) {
+            result.add(PaymentOrderField.fromFieldName(field.trim()));
+        }
+        return result;
+    }
+
+    /**
+     * Convierte una proyección de PaymentOrder a PaymentOrderDetailsDto.
+     * Solo se serializan los campos de la proyección.
+     */
+    public PaymentOrderDetailsDto toPaymentOrderDetails(PaymentOrderView view) {
+        PaymentOrderDetailsDto details = new SparsePaymentOrderDetailsDto();
+        if (view.has(PaymentOrderField.PAYMENT_ORDER_ID)) {
+            details.setPaymentOrderId(view.paymentOrderId().value());
+        }
+        details.setPaymentOrderReference(view.paymentOrderReference());
+        if (view.has(PaymentOrderField.DEBTOR_ACCOUNT)) {
+            details.setDebtorAccount(view.debtorAccount().value());
+        }
+        if (view.has(PaymentOrderField.CREDITOR_ACCOUNT)) {
+            details.setCreditorAccount(view.creditorAccount().value());
+        }
+        if (view.has(PaymentOrderField.INSTRUCTED_AMOUNT)) {
+            details.setInstructedAmount(toAmountDto(view.instructedAmount()));
+        }
+        details.setRemittanceInformation(view.remittanceInformation());
+        details.setRequestedExecutionDateTime(view.requestedExecutionDateTime());
+        if (view.has(PaymentOrderField.STATUS)) {
+            details.setPaymentOrderStatus(toPaymentStatusDto(view.status()));
+        }
+        if (view.has(PaymentOrderField.CREATED_AT)) {
+            details.setCreatedAt(toOffsetDateTime(view.createdAt()));
+        }
+        if (view.has(PaymentOrderField.LAST_UPDATED_AT)) {
+            details.setLastUpdatedAt(toOffsetDateTime(view.lastUpdatedAt()));
+        }
+        return details;
+    }
+
+    /**
+     * Convierte los parámetros de búsqueda en criterios de dominio.
+     * Un IBAN, divisa, estado o cursor no válido produce IllegalArgumentException (400).
+     */
+    public PaymentOrderSearchCriteria toSearchCriteria(
+            PaymentStatusDto status,
+            String debtorAccount,
+            String creditorAccount,
+            String currency,
+            OffsetDateTime createdFrom,
+            OffsetDateTime createdTo,
+            String after,
+            Integer limit) {
+
+        return new PaymentOrderSearchCriteria(
+                status != null ? toPaymentStatus(status) : null,
+                debtorAccount != null ? IBAN.of(debtorAccount) : null,
+                creditorAccount != null ? IBAN.of(creditorAccount) : null,
+                currency != null ? Currency.getInstance(currency) : null,
+                createdFrom != null ? createdFrom.toInstant() : null,
+                createdTo != null ? createdTo.toInstant() : null,
+                after != null ? fromCursorToken(after) : null,
+                limit
+        );
+    }
+
+    /**
+     * Convierte un resultado de búsqueda a PaymentOrderSearchResultDto.
+     */
+    public PaymentOrderSearchResultDto toSearchResult(Hit hit) {
+        PaymentOrderSearchResultDto result = new PaymentOrderSearchResultDto();
+        result.setCursor(toCursorToken(hit.cursor()));
+        result.setPaymentOrder(toPaymentOrderDetails(hit.paymentOrder()));
+        return result;
+    }
+
+    /**
+     * Codifica un cursor como token opaco: instante y secuencia en base64url.
+     */
+    String toCursorToken(Cursor cursor) {
+        ByteBuffer token = ByteBuffer.allocate(CURSOR_TOKEN_BYTES)
+                .putLong(cursor.createdAt().getEpochSecond())
+                .putInt(cursor.createdAt().getNano())
+                .putLong(cursor.sequence());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.array());
+    }
+
+    /**
+     * Decodifica un token de cursor generado por toCursorToken.
+     */
+    Cursor fromCursorToken(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + token, e);
+        }
+        if (bytes.length != CURSOR_TOKEN_BYTES) {
+            throw new IllegalArgumentException("Invalid search cursor: " + token);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new Cursor(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()), buffer.getLong());
+    }
+
     /**
      * Convierte PaymentOrderStatusInfo a PaymentOrderStatusDto.
      */
@@ -79,12 +271,81 @@ public class PaymentOrderMapper {
         return status;
     }
 
+    /**
+     * Convierte una transición de estado aplicada a StatusTransitionResultDto.
+     */
+    public StatusTransitionResultDto toStatusTransitionResult(StatusTransition transition) {
+        StatusTransitionResultDto result = new StatusTransitionResultDto();
+        result.setPaymentOrderId(transition.paymentOrder().getPaymentOrderId().value());
+        result.setPreviousStatus(toPaymentStatusDto(transition.previousStatus()));
+        result.setPaymentOrderStatus(toPaymentStatusDto(transition.paymentOrder().getStatus()));
+        result.setVersion(transition.version());
+        result.setLastUpdatedAt(toOffsetDateTime(transition.paymentOrder().getLastUpdatedAt()));
+        return result;
+    }
+
+    /**
+     * Convierte los filtros de una transición en bloque en criterios de dominio,
+     * con las mismas reglas que los de búsqueda.
+     */
+    public PaymentOrderSearchCriteria toTransitionCriteria(BulkStatusTransitionRequestDto request) {
+        return toSearchCriteria(
+                request.getStatus(),
+                request.getDebtorAccount(),
+                request.getCreditorAccount(),
+                request.getCurrency(),
+                request.getCreatedFrom(),
+                request.getCreatedTo(),
+                null,
+                null);
+    }
+
+    /**
+     * Construye el resultado de una transición en bloque.
+     */
+    public BulkStatusTransitionResultDto toBulkStatusTransitionResult(PaymentStatus target, long transitioned) {
+        BulkStatusTransitionResultDto result = new BulkStatusTransitionResultDto();
+        result.setTargetStatus(toPaymentStatusDto(target));
+        result.setTransitioned(transitioned);
+        return result;
+    }
+
+    /**
+     * Codifica la versión de una orden como ETag fuerte.
+     */
+    public String toETag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Decodifica la versión de una cabecera If-Match generada por toETag; se
+     * aceptan también la forma débil y sin comillas. Null si no hay cabecera.
+     * Cualquier otro valor produce IllegalArgumentException (400).
+     */
+    public Long fromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String tag = ifMatch.strip();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid If-Match version: " + ifMatch, e);
+        }
+    }
+
     /**
      * Convierte Amount de dominio a AmountDto.
      */
     private AmountDto toAmountDto(Amount domainAmount) {
         AmountDto dto = new AmountDto();
-        dto.setAmount(domainAmount.value().doubleValue());
+        dto.setAmount(domainAmount.toBigDecimal());
         dto.setCurrency(domainAmount.currencyCode());
         return dto;
     }
@@ -97,10 +358,30 @@ public class PaymentOrderMapper {
         return PaymentStatusDto.fromValue(domainStatus.name());
     }
 
+    /**
+     * Convierte PaymentStatusDto a PaymentStatus de dominio. Los estados del
+     * contrato que el dominio no usa producen IllegalArgumentException (400).
+     */
+    public PaymentStatus toPaymentStatus(PaymentStatusDto status) {
+        try {
+            return PaymentStatus.valueOf(status.getValue());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported payment status: " + status.getValue(), e);
+        }
+    }
+
     /**
      * Convierte Instant a OffsetDateTime en UTC.
      */
     private OffsetDateTime toOffsetDateTime(Instant instant) {
         return instant.atOffset(ZoneOffset.UTC);
     }
-}
\ No newline at end of file
+
+    /**
+     * PaymentOrderDetailsDto que omite los campos nulos al serializarse,
+     * para que una respuesta parcial contenga solo los campos pedidos.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class SparsePaymentOrderDetailsDto extends PaymentOrderDetailsDto {
+    }
+}
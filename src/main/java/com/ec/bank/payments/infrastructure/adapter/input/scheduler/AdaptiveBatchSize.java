@@ -0,0 +1,56 @@
+package com.ec.bank.payments.infrastructure.adapter.input.scheduler;
+
+import java.time.Duration;
+
+/**
+ * Settlement batch size tuned from the observed batch latency, additive
+ * increase and multiplicative decrease. A full batch finishing within the
+ * target grows the size by a fixed step; a batch over the target halves it,
+ * so a slow clearing system or database quickly gets smaller batches, and
+ * claims never approach the claim timeout. Partial batches say nothing about
+ * capacity and leave the size alone.
+ */
+final class AdaptiveBatchSize {
+
+    private final int minSize;
+    private final int maxSize;
+    private final int increment;
+    private final long targetLatencyNanos;
+
+    private volatile int current;
+
+    AdaptiveBatchSize(int minSize, int maxSize, int initialSize, int increment, Duration targetLatency) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Batch size bounds must satisfy 1 <= min <= max");
+        }
+        if (increment < 1) {
+            throw new IllegalArgumentException("Batch size increment must be positive");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.increment = increment;
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.current = Math.max(minSize, Math.min(maxSize, initialSize));
+    }
+
+    int current() {
+        return current;
+    }
+
+    /**
+     * Adjusts the size after a batch.
+     *
+     * @param limit   Size the batch was run with
+     * @param claimed Orders the batch actually claimed
+     * @param elapsed Time the batch took, claim to last transition
+     * @return The size for the next batch
+     */
+    synchronized int observe(int limit, int claimed, Duration elapsed) {
+        if (elapsed.toNanos() > targetLatencyNanos) {
+            current = Math.max(minSize, Math.min(current, limit) / 2);
+        } else if (claimed >= limit && limit >= current) {
+            current = Math.min(maxSize, current + increment);
+        }
+        return current;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ec.bank.payments.infrastructure.adapter.input.scheduler;
+
+import com.ec.bank.payments.application.port.input.ReconcileDebtorLimitsUseCase;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Keeps the debtor limit counters of this replica in step with the orders
+ * created by the others. The first run, at startup, rebuilds the counters
+ * from the orders still inside the limit windows. Pruning runs on a schedule
+ * of its own, so a reconciliation failing or stuck does not hold it back.
+ */
+@Slf4j
+@Component
+public class DebtorLimitReconciler {
+
+    private final ReconcileDebtorLimitsUseCase reconcileDebtorLimitsUseCase;
+    private final Duration interval;
+
+    private Disposable schedule;
+    private Disposable pruning;
+
+    public DebtorLimitReconciler(
+            ReconcileDebtorLimitsUseCase reconcileDebtorLimitsUseCase,
+            @Value("${application.payment.limits.reconcile-interval:5s}") Duration interval) {
+        this.reconcileDebtorLimitsUseCase = reconcileDebtorLimitsUseCase;
+        this.interval = interval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        schedule = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> reconcileDebtorLimitsUseCase.reconcile()
+                        .onErrorResume(e -> {
+                            log.error("Debtor limit reconciliation failed", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+
+        pruning = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .subscribe(tick -> {
+                    try {
+                        reconcileDebtorLimitsUseCase.prune();
+                    } catch (RuntimeException e) {
+                        log.error("Debtor limit pruning failed", e);
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+        if (pruning != null) {
+            pruning.dispose();
+        }
+    }
+}
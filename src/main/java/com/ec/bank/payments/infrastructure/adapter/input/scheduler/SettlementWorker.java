@@ -0,0 +1,110 @@
+package com.ec.bank.payments.infrastructure.adapter.input.scheduler;
+
+import com.ec.bank.payments.application.port.input.SettlePaymentOrdersUseCase;
+import com.ec.bank.payments.application.port.input.SettlePaymentOrdersUseCase.SettlementBatchResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Drives settlement on every replica. Each poll runs batches back to back
+ * while they come back full, then waits for the next poll. Replicas need no
+ * coordination: each batch is claimed exclusively in the database, so adding
+ * replicas adds settlement throughput until the database itself saturates.
+ * The batch size follows AdaptiveBatchSize.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.settlement.enabled", havingValue = "true", matchIfMissing = true)
+public class SettlementWorker {
+
+    private final SettlePaymentOrdersUseCase settlePaymentOrdersUseCase;
+    private final Duration pollInterval;
+    private final AdaptiveBatchSize batchSize;
+    private final Timer batchTimer;
+
+    private Disposable schedule;
+
+    public SettlementWorker(
+            SettlePaymentOrdersUseCase settlePaymentOrdersUseCase,
+            MeterRegistry meterRegistry,
+            @Value("${application.settlement.poll-interval:1s}") Duration pollInterval,
+            @Value("${application.settlement.batch.min-size:10}") int minBatchSize,
+            @Value("${application.settlement.batch.max-size:1000}") int maxBatchSize,
+            @Value("${application.settlement.batch.initial-size:50}") int initialBatchSize,
+            @Value("${application.settlement.batch.increment:10}") int batchIncrement,
+            @Value("${application.settlement.batch.target-latency:2s}") Duration targetLatency) {
+        this.settlePaymentOrdersUseCase = settlePaymentOrdersUseCase;
+        this.pollInterval = pollInterval;
+        this.batchSize = new AdaptiveBatchSize(
+                minBatchSize, maxBatchSize, initialBatchSize, batchIncrement, targetLatency);
+
+        this.batchTimer = Timer.builder("payment.settlement.batch")
+                .description("Time taken by a settlement batch, claim to last transition")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        Gauge.builder("payment.settlement.batch.size", batchSize, AdaptiveBatchSize::current)
+                .description("Number of orders the next settlement batch may claim")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        schedule = Flux.interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .onErrorResume(e -> {
+                            log.error("Settlement batch failed", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    /**
+     * Runs batches until one comes back partial, meaning nothing more is due,
+     * or with failures, so an unavailable clearing system is not handed the
+     * whole backlog before the next poll.
+     */
+    Mono<Void> drain() {
+        return runBatch()
+                .expand(result -> result.full() && result.failed() == 0 ? runBatch() : Mono.empty())
+                .then();
+    }
+
+    private Mono<SettlementBatchResult> runBatch() {
+        return Mono.defer(() -> {
+            int limit = batchSize.current();
+            long start = System.nanoTime();
+            return settlePaymentOrdersUseCase.settleBatch(limit)
+                    .doOnNext(result -> {
+                        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                        batchTimer.record(elapsed);
+                        int next = batchSize.observe(limit, result.claimed(), elapsed);
+                        if (next != limit) {
+                            log.debug("Settlement batch size {} -> {} after {} orders in {} ms",
+                                    limit, next, result.claimed(), elapsed.toMillis());
+                        }
+                    });
+        });
+    }
+}
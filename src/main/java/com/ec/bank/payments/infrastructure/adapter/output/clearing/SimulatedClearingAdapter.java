@@ -0,0 +1,66 @@
+package com.ec.bank.payments.infrastructure.adapter.output.clearing;
+
+import com.ec.bank.payments.domain.model.ClearingResult;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.port.output.ClearingPort;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Local stand-in for the clearing system, for development and load tests.
+ * Answers after a latency with uniform jitter and rejects a share of the
+ * orders. Both depend only on the payment order ID, so a resubmitted order
+ * gets the answer it got the first time, as a real clearing system would.
+ * Opt-in: only the dev and load-test profiles enable it, so a deployment
+ * never settles real orders against it by accident.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.settlement.clearing.simulator.enabled", havingValue = "true",
+        matchIfMissing = false)
+public class SimulatedClearingAdapter implements ClearingPort {
+
+    private final Duration latency;
+    private final Duration jitter;
+    private final double rejectionRate;
+
+    public SimulatedClearingAdapter(
+            @Value("${application.settlement.clearing.simulator.latency:20ms}") Duration latency,
+            @Value("${application.settlement.clearing.simulator.jitter:10ms}") Duration jitter,
+            @Value("${application.settlement.clearing.simulator.rejection-rate:0.02}") double rejectionRate) {
+        if (rejectionRate < 0 || rejectionRate > 1) {
+            throw new IllegalArgumentException("Rejection rate must be between 0 and 1");
+        }
+        this.latency = latency;
+        this.jitter = jitter;
+        this.rejectionRate = rejectionRate;
+        log.warn("Settling payment orders against the clearing simulator");
+    }
+
+    @Override
+    public Mono<ClearingResult> clear(PaymentOrder paymentOrder) {
+        long draw = mix(paymentOrder.getPaymentOrderId().value().hashCode());
+        // Upper bits pick the delay, lower bits the answer, so the two stay independent
+        Duration delay = latency.plusNanos(jitter.toNanos() > 0 ? Math.floorMod(draw >>> 32, jitter.toNanos()) : 0);
+        boolean rejected = (draw & 0xFFFFFFFFL) < (long) (rejectionRate * 0x1_0000_0000L);
+
+        ClearingResult result = rejected
+                ? ClearingResult.rejected(paymentOrder.getPaymentOrderId(), "Rejected by the clearing simulator")
+                : ClearingResult.accepted(paymentOrder.getPaymentOrderId());
+        return Mono.delay(delay).thenReturn(result);
+    }
+
+    /**
+     * SplitMix64 finalizer, spreading the bits of a hash over the whole long.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,29 @@
+package com.ec.bank.payments.infrastructure.adapter.output.event;
+
+import com.ec.bank.payments.domain.model.PaymentOrderEvent;
+import com.ec.bank.payments.domain.port.output.PaymentEventSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Sink writing payment order events to the log, for development until a
+ * broker is wired in. Replaced by disabling it and providing another
+ * PaymentEventSink.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.outbox.sink.logging.enabled", havingValue = "true",
+        matchIfMissing = true)
+public class LoggingPaymentEventSink implements PaymentEventSink {
+
+    @Override
+    public Mono<Void> publish(List<PaymentOrderEvent> events) {
+        return Mono.fromRunnable(() -> events.forEach(event -> log.info("Payment order event {}: {} {} {} -> {} (v{})",
+                event.eventId(), event.type(), event.paymentOrderId().value(),
+                event.previousStatus(), event.status(), event.version())));
+    }
+}
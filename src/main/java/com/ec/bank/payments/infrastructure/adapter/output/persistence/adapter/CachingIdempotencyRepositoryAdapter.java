@@ -0,0 +1,240 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
+
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.port.output.IdempotencyRepository;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.notification.PostgresNotificationListener;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Near-cache in front of the idempotency key store.
+ * Holds claimed keys only, each until the expires_at of its row, so a hit is
+ * always a true duplicate and a miss falls through to PostgreSQL. Entries keep
+ * the request hash and stored response, so retries can be replayed from memory.
+ * Replicas learn about each other's claims through LISTEN/NOTIFY on the
+ * idempotency_keys channel, fed by a trigger on the table. Entries are keyed
+ * by the stored uuid form of the key, which is what notifications carry.
+ * The cache is bounded by bytes rather than entries: a stored response can
+ * weigh many times the rest of its entry, so an entry count alone would let
+ * memory grow with response size.
+ */
+@Slf4j
+@Primary
+@Component
+public class CachingIdempotencyRepositoryAdapter implements IdempotencyRepository {
+
+    static final String CHANNEL = "idempotency_keys";
+
+    /**
+     * Approximate heap taken by an entry apart from its response: key, payment
+     * order ID, request hash, expiry and the cache's own node.
+     */
+    static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final IdempotencyRepositoryAdapter delegate;
+    private final PostgresNotificationListener notificationListener;
+    private final IdempotencyKeyFilter keyFilter;
+    private final ObjectMapper objectMapper;
+    private final Cache<UUID, CachedClaim> cache;
+
+    private final Counter cacheHitCounter;
+    private final Counter cacheMissCounter;
+    private final Counter cacheEvictionCounter;
+
+    private Disposable notifications;
+
+    public CachingIdempotencyRepositoryAdapter(
+            IdempotencyRepositoryAdapter delegate,
+            PostgresNotificationListener notificationListener,
+            IdempotencyKeyFilter keyFilter,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${application.idempotency.cache.max-weight-bytes:67108864}") long maxWeightBytes) {
+        this.delegate = delegate;
+        this.notificationListener = notificationListener;
+        this.keyFilter = keyFilter;
+        this.objectMapper = objectMapper;
+
+        this.cacheHitCounter = Counter.builder("payment.idempotency.cache.hit")
+                .description("Idempotency key lookups answered by the near-cache")
+                .register(meterRegistry);
+
+        this.cacheMissCounter = Counter.builder("payment.idempotency.cache.miss")
+                .description("Idempotency key lookups not found in the near-cache")
+                .register(meterRegistry);
+
+        this.cacheEvictionCounter = Counter.builder("payment.idempotency.cache.eviction")
+                .description("Idempotency keys evicted from the near-cache by weight or expiry")
+                .register(meterRegistry);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeightBytes)
+                .weigher(CachingIdempotencyRepositoryAdapter::weigh)
+                .expireAfter(new ClaimExpiry())
+                .evictionListener((key, value, cause) -> cacheEvictionCounter.increment())
+                .executor(Runnable::run)
+                .build();
+
+        Gauge.builder("payment.idempotency.cache.size", cache, Cache::estimatedSize)
+                .description("Idempotency keys currently held in the near-cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts following claims made by every replica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        // Entries only leave the table by expiring, which the cache tracks itself,
+        // so notifications missed while disconnected never leave stale entries.
+        // The negative filter would miss those claims, so it is rebuilt instead.
+        notifications = notificationListener.listen(CHANNEL, keyFilter::rebuild)
+                .subscribe(this::onNotification,
+                        e -> log.error("Idempotency key notifications stopped", e));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (notifications != null) {
+            notifications.dispose();
+        }
+    }
+
+    @Override
+    public Mono<Boolean> exists(String idempotencyKey) {
+        if (lookup(idempotencyKey) != null) {
+            return Mono.just(true);
+        }
+        return delegate.findActive(idempotencyKey)
+                .doOnNext(entity -> remember(entity.getIdempotencyKey(), new CachedClaim(
+                        StorageCodec.decodePaymentOrderId(entity.getPaymentOrderId()).value(),
+                        entity.getRequestHash(),
+                        entity.getResponseBody(),
+                        entity.getExpiresAt())))
+                .hasElement();
+    }
+
+    @Override
+    public Mono<String> findPaymentOrderId(String idempotencyKey) {
+        CachedClaim cached = lookup(idempotencyKey);
+        if (cached != null) {
+            return Mono.just(cached.paymentOrderId());
+        }
+        return delegate.findPaymentOrderId(idempotencyKey);
+    }
+
+    @Override
+    public Mono<IdempotencyClaim> peekClaim(String idempotencyKey) {
+        return Mono.justOrEmpty(lookup(idempotencyKey))
+                .map(cached -> IdempotencyClaim.existing(
+                        idempotencyKey,
+                        PaymentOrderId.of(cached.paymentOrderId()),
+                        cached.requestHash(),
+                        cached.response()));
+    }
+
+    /**
+     * Applies a claim published by the trigger on idempotency_keys.
+     */
+    void onNotification(String payload) {
+        try {
+            ClaimNotification notification = objectMapper.readValue(payload, ClaimNotification.class);
+            UUID idempotencyKey = StorageCodec.encodeIdempotencyKey(notification.idempotencyKey());
+            // A claim whose response did not fit is left to the store, which replays it
+            if (notification.ttlMillis() <= 0 || notification.responseOmitted()) {
+                cache.invalidate(idempotencyKey);
+                return;
+            }
+            Instant now = Instant.now();
+            keyFilter.put(notification.idempotencyKey(), now);
+            remember(idempotencyKey, new CachedClaim(
+                    StorageCodec.decodePaymentOrderId(UUID.fromString(notification.paymentOrderId())).value(),
+                    notification.requestHash(),
+                    notification.response(),
+                    now.plusMillis(notification.ttlMillis())));
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Ignoring malformed idempotency key notification: {}", payload);
+        }
+    }
+
+    private CachedClaim lookup(String idempotencyKey) {
+        CachedClaim cached = cache.getIfPresent(StorageCodec.encodeIdempotencyKey(idempotencyKey));
+        if (cached != null) {
+            cacheHitCounter.increment();
+        } else {
+            cacheMissCounter.increment();
+        }
+        return cached;
+    }
+
+    private void remember(UUID idempotencyKey, CachedClaim claim) {
+        if (claim.expiresAt().isAfter(Instant.now())) {
+            cache.put(idempotencyKey, claim);
+        }
+    }
+
+    private static int weigh(UUID idempotencyKey, CachedClaim claim) {
+        return ENTRY_OVERHEAD_BYTES + (claim.response() == null ? 0 : claim.response().length);
+    }
+
+    /**
+     * A claimed key, the request that claimed it and the instant its row expires.
+     */
+    record CachedClaim(String paymentOrderId, String requestHash, byte[] response, Instant expiresAt) {}
+
+    /**
+     * Payload published by notify_idempotency_key_change().
+     * Key and payment order ID arrive as bare uuid text; the response arrives
+     * base64-encoded, which Jackson decodes into bytes, unless it was too large
+     * to publish.
+     */
+    record ClaimNotification(
+            String idempotencyKey,
+            String paymentOrderId,
+            long ttlMillis,
+            String requestHash,
+            byte[] response,
+            boolean responseOmitted) {}
+
+    /**
+     * Expires each entry at the expires_at of its row.
+     */
+    private static final class ClaimExpiry implements Expiry<UUID, CachedClaim> {
+
+        @Override
+        public long expireAfterCreate(UUID key, CachedClaim value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID key, CachedClaim value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID key, CachedClaim value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
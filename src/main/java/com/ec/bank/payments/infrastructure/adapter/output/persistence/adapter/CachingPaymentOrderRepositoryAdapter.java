@@ -0,0 +1,316 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
+
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderField;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Hit;
+import com.ec.bank.payments.domain.model.PaymentOrderView;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.model.StatusTransition;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter.PaymentOrderRepositoryAdapter.VersionedPaymentOrder;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.notification.PostgresNotificationListener;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.routing.ReadRoute;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache in front of the payment order store.
+ * findById is answered from memory for hot orders; concurrent misses for the
+ * same order share one load. Entries are evicted by size and after a fixed
+ * time to live, and dropped as soon as their row changes: a trigger on
+ * payment_orders publishes the new version of every updated row on the
+ * payment_orders channel, and entries holding an older version are discarded.
+ * Loads always read the primary, which publishes the notifications, so a
+ * lagging replica cannot seed an entry older than a change already applied.
+ * Projected and status reads are answered from a cached order when there is
+ * one, but a miss runs the narrow query under the read route of the caller,
+ * on a replica when it allows one, and is not cached: only full rows read
+ * from the primary are. Searches always go to the store and do not populate
+ * the cache.
+ * Writes go to group commit when it is enabled, otherwise straight to the store.
+ * A status transition applied by this instance drops its entry right away, so
+ * the next read here sees it without waiting for the notification; bulk
+ * transitions rely on the notifications alone.
+ */
+@Slf4j
+@Primary
+@Component
+public class CachingPaymentOrderRepositoryAdapter implements PaymentOrderRepository {
+
+    static final String CHANNEL = "payment_orders";
+
+    private final PaymentOrderRepositoryAdapter store;
+    private final PaymentOrderRepository writer;
+    private final PostgresNotificationListener notificationListener;
+    private final ObjectMapper objectMapper;
+    private final AsyncCache<UUID, VersionedPaymentOrder> cache;
+
+    private final Counter cacheHitCounter;
+    private final Counter cacheMissCounter;
+    private final Counter cacheEvictionCounter;
+    private final Timer cacheLoadTimer;
+
+    private Disposable notifications;
+
+    public CachingPaymentOrderRepositoryAdapter(
+            PaymentOrderRepositoryAdapter store,
+            Optional<GroupCommitPaymentOrderRepositoryAdapter> groupCommit,
+            PostgresNotificationListener notificationListener,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${application.persistence.read-cache.max-size:50000}") long maxSize,
+            @Value("${application.persistence.read-cache.ttl:5m}") Duration ttl) {
+        this.store = store;
+        this.writer = groupCommit.<PaymentOrderRepository>map(adapter -> adapter).orElse(store);
+        this.notificationListener = notificationListener;
+        this.objectMapper = objectMapper;
+
+        this.cacheHitCounter = Counter.builder("payment.order.cache.hit")
+                .description("Payment order lookups answered by the read cache")
+                .register(meterRegistry);
+
+        this.cacheMissCounter = Counter.builder("payment.order.cache.miss")
+                .description("Payment order lookups loaded from the store")
+                .register(meterRegistry);
+
+        this.cacheEvictionCounter = Counter.builder("payment.order.cache.eviction")
+                .description("Payment orders evicted from the read cache by size or expiry")
+                .register(meterRegistry);
+
+        this.cacheLoadTimer = Timer.builder("payment.order.cache.load")
+                .description("Time taken to load a payment order into the read cache")
+                .register(meterRegistry);
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((key, value, cause) -> cacheEvictionCounter.increment())
+                .executor(Runnable::run)
+                .buildAsync();
+
+        Gauge.builder("payment.order.cache.size", cache, c -> c.synchronous().estimatedSize())
+                .description("Payment orders currently held in the read cache")
+                .register(meterRegistry);
+
+        Gauge.builder("payment.order.cache.hit.ratio", this, CachingPaymentOrderRepositoryAdapter::hitRatio)
+                .description("Share of payment order lookups answered by the read cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts following changes made by every replica.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        // Changes published while disconnected are lost, so nothing cached can be trusted
+        notifications = notificationListener.listen(CHANNEL, this::invalidateAll)
+                .subscribe(this::onNotification,
+                        e -> log.error("Payment order notifications stopped", e));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (notifications != null) {
+            notifications.dispose();
+        }
+    }
+
+    @Override
+    public Mono<PaymentOrder> save(PaymentOrder paymentOrder) {
+        return writer.save(paymentOrder);
+    }
+
+    @Override
+    public Mono<IdempotencyClaim> saveWithIdempotencyKey(
+            PaymentOrder paymentOrder,
+            String idempotencyKey,
+            String requestHash,
+            byte[] response) {
+        return writer.saveWithIdempotencyKey(paymentOrder, idempotencyKey, requestHash, response);
+    }
+
+    @Override
+    public Mono<Long> bulkInsert(List<PaymentOrder> paymentOrders) {
+        return writer.bulkInsert(paymentOrders);
+    }
+
+    @Override
+    public Mono<StatusTransition> transitionStatus(
+            PaymentOrderId paymentOrderId,
+            PaymentStatus target,
+            PaymentStatus expectedStatus,
+            Long expectedVersion) {
+        return writer.transitionStatus(paymentOrderId, target, expectedStatus, expectedVersion)
+                .doOnNext(transition -> {
+                    if (transition.applied()) {
+                        StorageCodec.encodePaymentOrderId(paymentOrderId)
+                                .ifPresent(cache.synchronous()::invalidate);
+                    }
+                });
+    }
+
+    @Override
+    public Mono<Long> transitionStatusAll(PaymentOrderSearchCriteria criteria, PaymentStatus target) {
+        return writer.transitionStatusAll(criteria, target);
+    }
+
+    @Override
+    public Flux<StatusTransition> claimForProcessing(LocalDate dueBy, Instant staleBefore, int limit) {
+        return writer.claimForProcessing(dueBy, staleBefore, limit)
+                .doOnNext(claim -> StorageCodec.encodePaymentOrderId(claim.paymentOrder().getPaymentOrderId())
+                        .ifPresent(cache.synchronous()::invalidate));
+    }
+
+    @Override
+    public Mono<PaymentOrder> findById(PaymentOrderId paymentOrderId) {
+        // IDs that cannot be stored are never found, and never take a cache slot
+        return Mono.justOrEmpty(StorageCodec.encodePaymentOrderId(paymentOrderId))
+                .flatMap(this::lookup)
+                .map(VersionedPaymentOrder::paymentOrder);
+    }
+
+    @Override
+    public Mono<PaymentOrderView> findProjectedById(PaymentOrderId paymentOrderId, Set<PaymentOrderField> fields) {
+        return Mono.defer(() -> {
+            PaymentOrder cached = cachedOrder(paymentOrderId);
+            return cached != null
+                    ? Mono.just(PaymentOrderView.of(cached, fields))
+                    : store.findProjectedById(paymentOrderId, fields);
+        });
+    }
+
+    @Override
+    public Mono<PaymentOrderView> findStatusById(PaymentOrderId paymentOrderId) {
+        return Mono.defer(() -> {
+            PaymentOrder cached = cachedOrder(paymentOrderId);
+            return cached != null
+                    ? Mono.just(PaymentOrderView.of(cached, PaymentOrderField.STATUS_FIELDS))
+                    : store.findStatusById(paymentOrderId);
+        });
+    }
+
+    @Override
+    public Flux<PaymentOrder> findByReference(String reference, Instant createdFrom) {
+        return store.findByReference(reference, createdFrom);
+    }
+
+    @Override
+    public Flux<Hit> search(PaymentOrderSearchCriteria criteria) {
+        return store.search(criteria);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(PaymentOrderId paymentOrderId) {
+        return store.existsById(paymentOrderId);
+    }
+
+    /**
+     * Applies a change published by the trigger on payment_orders.
+     */
+    void onNotification(String payload) {
+        try {
+            ChangeNotification notification = objectMapper.readValue(payload, ChangeNotification.class);
+            UUID paymentOrderId = UUID.fromString(notification.paymentOrderId());
+            CompletableFuture<VersionedPaymentOrder> cached = cache.getIfPresent(paymentOrderId);
+            if (cached == null) {
+                return;
+            }
+            // A load still in flight may have read the row before the change
+            VersionedPaymentOrder current = loaded(cached);
+            if (current == null || notification.version() == null || current.version() < notification.version()) {
+                cache.synchronous().invalidate(paymentOrderId);
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Ignoring malformed payment order notification: {}", payload);
+        }
+    }
+
+    private Mono<VersionedPaymentOrder> lookup(UUID paymentOrderId) {
+        CompletableFuture<VersionedPaymentOrder> cached = cache.getIfPresent(paymentOrderId);
+        if (cached != null) {
+            cacheHitCounter.increment();
+        } else {
+            cacheMissCounter.increment();
+            cached = cache.get(paymentOrderId, (key, executor) -> load(key));
+        }
+        // Not found and failed loads complete the future without a value and are not kept;
+        // one subscriber cancelling must not cancel the load shared with the others
+        return Mono.fromFuture(cached, true);
+    }
+
+    /**
+     * Returns the cached order if it is already loaded, counting the lookup.
+     */
+    private PaymentOrder cachedOrder(PaymentOrderId paymentOrderId) {
+        VersionedPaymentOrder cached = StorageCodec.encodePaymentOrderId(paymentOrderId)
+                .map(cache::getIfPresent)
+                .map(CachingPaymentOrderRepositoryAdapter::loaded)
+                .orElse(null);
+        if (cached != null) {
+            cacheHitCounter.increment();
+            return cached.paymentOrder();
+        }
+        cacheMissCounter.increment();
+        return null;
+    }
+
+    private static VersionedPaymentOrder loaded(CompletableFuture<VersionedPaymentOrder> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    private CompletableFuture<VersionedPaymentOrder> load(UUID paymentOrderId) {
+        long start = System.nanoTime();
+        return store.findVersionedById(paymentOrderId)
+                .contextWrite(ReadRoute.primary())
+                .doOnTerminate(() -> cacheLoadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS))
+                .toFuture();
+    }
+
+    private void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    private double hitRatio() {
+        double hits = cacheHitCounter.count();
+        double total = hits + cacheMissCounter.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    /**
+     * Payload published by notify_payment_order_change(); version is absent for deletes.
+     * Fields meant for status subscriptions are ignored.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record ChangeNotification(String paymentOrderId, Long version) {}
+}
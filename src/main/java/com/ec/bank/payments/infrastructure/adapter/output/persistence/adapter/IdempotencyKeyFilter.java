@@ -0,0 +1,134 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
+
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.filter.TimeBucketedBloomFilter;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.repository.R2dbcIdempotencyKeyRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Negative filter for idempotency keys.
+ * Answers "definitely new" for keys never claimed within the expiration window,
+ * so only possible matches reach PostgreSQL. Until the filter has been rebuilt
+ * from idempotency_keys it answers nothing and every lookup falls through.
+ * Keys are held in their stored uuid form, so keys read back from the table
+ * and keys given by callers land on the same bits.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeyFilter {
+
+    private static final Duration BUCKET_WIDTH = Duration.ofHours(1);
+
+    private final R2dbcIdempotencyKeyRepository r2dbcRepository;
+    private final TimeBucketedBloomFilter filter;
+    private final AtomicBoolean ready = new AtomicBoolean(false);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicReference<Disposable> rebuild = new AtomicReference<>();
+
+    private final Counter definitelyNewCounter;
+    private final Counter falsePositiveCounter;
+
+    public IdempotencyKeyFilter(
+            R2dbcIdempotencyKeyRepository r2dbcRepository,
+            MeterRegistry meterRegistry,
+            @Value("${application.idempotency.filter.expected-keys-per-hour:50000}") int expectedKeysPerHour,
+            @Value("${application.idempotency.filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.r2dbcRepository = r2dbcRepository;
+        this.filter = new TimeBucketedBloomFilter(
+                Duration.ofHours(IdempotencyRepositoryAdapter.EXPIRATION_HOURS),
+                BUCKET_WIDTH,
+                expectedKeysPerHour,
+                falsePositiveRate);
+
+        this.definitelyNewCounter = Counter.builder("payment.idempotency.filter.negative")
+                .description("Idempotency key lookups answered as new without a database query")
+                .register(meterRegistry);
+
+        this.falsePositiveCounter = Counter.builder("payment.idempotency.filter.false.positive")
+                .description("Possible matches from the filter that the database did not confirm")
+                .register(meterRegistry);
+
+        Gauge.builder("payment.idempotency.filter.false.positive.rate", this,
+                        f -> f.filter.expectedFalsePositiveRate(Instant.now()))
+                .description("Estimated false-positive rate of the idempotency key filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns true only if the key was definitely not claimed within the window.
+     */
+    public boolean isDefinitelyNew(String idempotencyKey) {
+        if (!ready.get() || filter.mightContain(stored(idempotencyKey), Instant.now())) {
+            return false;
+        }
+        definitelyNewCounter.increment();
+        return true;
+    }
+
+    public void put(String idempotencyKey, Instant createdAt) {
+        filter.put(stored(idempotencyKey), createdAt, Instant.now());
+    }
+
+    /**
+     * Records a possible match that the database did not confirm.
+     * Ignored while rebuilding, when every lookup falls through.
+     */
+    public void recordFalsePositive() {
+        if (ready.get()) {
+            falsePositiveCounter.increment();
+        }
+    }
+
+    /**
+     * Reloads every active key. Called on startup and whenever claims from
+     * other replicas may have been missed; lookups fall through meanwhile.
+     */
+    public void rebuild() {
+        long current = generation.incrementAndGet();
+        ready.set(false);
+        log.info("Rebuilding idempotency key filter");
+
+        Disposable next = r2dbcRepository.findAllActive()
+                .doOnNext(entity -> filter.put(entity.getIdempotencyKey().toString(),
+                        entity.getCreatedAt(), Instant.now()))
+                .count()
+                .subscribe(
+                        count -> {
+                            if (generation.get() == current) {
+                                ready.set(true);
+                                log.info("Idempotency key filter rebuilt with {} keys", count);
+                            }
+                        },
+                        e -> log.error("Failed to rebuild idempotency key filter", e));
+
+        Disposable previous = rebuild.getAndSet(next);
+        if (previous != null) {
+            previous.dispose();
+        }
+    }
+
+    private static String stored(String idempotencyKey) {
+        return StorageCodec.encodeIdempotencyKey(idempotencyKey).toString();
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable current = rebuild.get();
+        if (current != null) {
+            current.dispose();
+        }
+    }
+}
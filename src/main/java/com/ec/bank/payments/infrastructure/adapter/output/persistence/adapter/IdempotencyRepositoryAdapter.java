@@ -1,6 +1,8 @@
 package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
 
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
 import com.ec.bank.payments.domain.port.output.IdempotencyRepository;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
 import com.ec.bank.payments.infrastructure.adapter.output.persistence.entity.IdempotencyKeyEntity;
 import com.ec.bank.payments.infrastructure.adapter.output.persistence.repository.R2dbcIdempotencyKeyRepository;
 import lombok.RequiredArgsConstructor;
@@ -8,51 +10,65 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
-
 /**
  * Adapter implementing IdempotencyRepository port using R2DBC.
+ * Keys and payment order IDs are stored as uuid, see StorageCodec.
+ * Read-only: keys are claimed through claim_idempotency_key, whose advisory
+ * lock is the only thing keeping a key unique (see PaymentOrderRepositoryAdapter).
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class IdempotencyRepositoryAdapter implements IdempotencyRepository {
 
-    private static final long EXPIRATION_HOURS = 24;
+    public static final long EXPIRATION_HOURS = 24;
 
     private final R2dbcIdempotencyKeyRepository r2dbcRepository;
+    private final IdempotencyKeyFilter keyFilter;
 
     @Override
     public Mono<Boolean> exists(String idempotencyKey) {
         log.debug("Checking if idempotency key exists: {}", idempotencyKey);
-        return r2dbcRepository.existsByIdempotencyKey(idempotencyKey);
+        if (keyFilter.isDefinitelyNew(idempotencyKey)) {
+            return Mono.just(false);
+        }
+        return r2dbcRepository.existsByIdempotencyKey(StorageCodec.encodeIdempotencyKey(idempotencyKey))
+                .doOnNext(exists -> {
+                    if (!exists) {
+                        keyFilter.recordFalsePositive();
+                    }
+                });
     }
 
     @Override
-    public Mono<Void> save(String idempotencyKey, String paymentOrderId) {
-        log.debug("Saving idempotency key: {} -> {}", idempotencyKey, paymentOrderId);
-
-        Instant now = Instant.now();
-        Instant expiresAt = now.plus(EXPIRATION_HOURS, ChronoUnit.HOURS);
-
-        IdempotencyKeyEntity entity = IdempotencyKeyEntity.builder()
-                .idempotencyKey(idempotencyKey)
-                .paymentOrderId(paymentOrderId)
-                .createdAt(now)
-                .expiresAt(expiresAt)
-                .build();
-
-        return r2dbcRepository.save(entity)
-                .doOnSuccess(saved -> log.debug("Idempotency key saved: {}", idempotencyKey))
-                .then();
+    public Mono<String> findPaymentOrderId(String idempotencyKey) {
+        log.debug("Finding payment order ID for idempotency key: {}", idempotencyKey);
+
+        // A key missing from the filter has no claim within the expiration window;
+        // an older one no longer answers retries, as the next request claims it anew
+        if (keyFilter.isDefinitelyNew(idempotencyKey)) {
+            return Mono.empty();
+        }
+        return r2dbcRepository.findByIdempotencyKey(StorageCodec.encodeIdempotencyKey(idempotencyKey))
+                .switchIfEmpty(Mono.fromRunnable(keyFilter::recordFalsePositive))
+                .map(entity -> StorageCodec.decodePaymentOrderId(entity.getPaymentOrderId()).value());
     }
 
     @Override
-    public Mono<String> findPaymentOrderId(String idempotencyKey) {
-        log.debug("Finding payment order ID for idempotency key: {}", idempotencyKey);
+    public Mono<IdempotencyClaim> peekClaim(String idempotencyKey) {
+        // No local view of the table; callers fall through to the store
+        return Mono.empty();
+    }
 
-        return r2dbcRepository.findByIdempotencyKey(idempotencyKey)
-                .map(IdempotencyKeyEntity::getPaymentOrderId);
+    /**
+     * Finds a claim that has not expired yet, including its expiry.
+     */
+    Mono<IdempotencyKeyEntity> findActive(String idempotencyKey) {
+        log.debug("Finding active idempotency key: {}", idempotencyKey);
+        if (keyFilter.isDefinitelyNew(idempotencyKey)) {
+            return Mono.empty();
+        }
+        return r2dbcRepository.findActiveByIdempotencyKey(StorageCodec.encodeIdempotencyKey(idempotencyKey))
+                .switchIfEmpty(Mono.fromRunnable(keyFilter::recordFalsePositive));
     }
 }
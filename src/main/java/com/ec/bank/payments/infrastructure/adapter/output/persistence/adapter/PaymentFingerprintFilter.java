@@ -0,0 +1,129 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
+
+import com.ec.bank.payments.domain.model.PaymentFingerprint;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Hit;
+import com.ec.bank.payments.domain.port.output.PaymentFingerprintIndex;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.filter.TimeBucketedBloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Fingerprints of the payment orders created within the duplicate window,
+ * held in a time-bucketed Bloom filter: memory follows the expected orders
+ * per bucket, not the orders themselves, and expired buckets are recycled.
+ * Orders saved here are put as they are saved; orders of other replicas are
+ * read back periodically, from the previous refresh minus an overlap for
+ * orders committed a little after their creation time. Until the first
+ * refresh has loaded the window, after startup, it answers nothing seen.
+ */
+@Slf4j
+@Component
+public class PaymentFingerprintFilter implements PaymentFingerprintIndex {
+
+    private static final Duration MAX_BUCKET_WIDTH = Duration.ofHours(1);
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final PaymentOrderRepository paymentOrderRepository;
+    private final TimeBucketedBloomFilter filter;
+    private final Duration window;
+    private final Duration refreshInterval;
+
+    private volatile boolean ready;
+    private volatile Instant refreshedUpTo;
+    private Disposable schedule;
+
+    public PaymentFingerprintFilter(
+            PaymentOrderRepository paymentOrderRepository,
+            MeterRegistry meterRegistry,
+            @Value("${application.payment.duplicates.window:24h}") Duration window,
+            @Value("${application.payment.duplicates.expected-orders-per-hour:50000}") int expectedOrdersPerHour,
+            @Value("${application.payment.duplicates.false-positive-rate:0.001}") double falsePositiveRate,
+            @Value("${application.payment.duplicates.refresh-interval:5s}") Duration refreshInterval) {
+        this.paymentOrderRepository = paymentOrderRepository;
+        this.window = window;
+        this.refreshInterval = refreshInterval;
+
+        Duration bucketWidth = window.compareTo(MAX_BUCKET_WIDTH) < 0 ? window : MAX_BUCKET_WIDTH;
+        int ordersPerBucket = (int) Math.max(1,
+                (long) expectedOrdersPerHour * bucketWidth.toMillis() / MAX_BUCKET_WIDTH.toMillis());
+        this.filter = new TimeBucketedBloomFilter(window, bucketWidth, ordersPerBucket, falsePositiveRate);
+
+        Gauge.builder("payment.order.duplicate.filter.false.positive.rate", this,
+                        f -> f.filter.expectedFalsePositiveRate(Instant.now()))
+                .description("Estimated false-positive rate of the payment fingerprint filter")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean mightContain(PaymentFingerprint fingerprint) {
+        return ready && filter.mightContain(fingerprint.value(), Instant.now());
+    }
+
+    @Override
+    public void put(PaymentFingerprint fingerprint, Instant createdAt) {
+        filter.put(fingerprint.value(), createdAt, Instant.now());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        schedule = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh()
+                        .onErrorResume(e -> {
+                            log.error("Failed to refresh payment fingerprint filter", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    /**
+     * Puts the orders created since the previous refresh, or within the
+     * whole window on the first one.
+     */
+    Mono<Long> refresh() {
+        return Mono.defer(() -> {
+            Instant now = Instant.now();
+            Instant since = refreshedUpTo != null ? refreshedUpTo.minus(REFRESH_OVERLAP) : now.minus(window);
+            PaymentOrderSearchCriteria criteria =
+                    new PaymentOrderSearchCriteria(null, null, null, null, since, null, null, null);
+
+            return paymentOrderRepository.search(criteria)
+                    .map(Hit::paymentOrder)
+                    .doOnNext(this::put)
+                    .count()
+                    .doOnNext(count -> {
+                        if (!ready) {
+                            ready = true;
+                            log.info("Payment fingerprint filter loaded with {} orders since {}", count, since);
+                        }
+                        refreshedUpTo = now;
+                    });
+        });
+    }
+
+    private void put(PaymentOrder order) {
+        put(PaymentFingerprint.of(order), order.getCreatedAt());
+    }
+}
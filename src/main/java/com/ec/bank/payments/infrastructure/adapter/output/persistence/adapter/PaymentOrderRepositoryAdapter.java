@@ -1,26 +1,225 @@
 package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
 
 import com.ec.bank.payments.domain.model.*;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Cursor;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Hit;
 import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
 import com.ec.bank.payments.infrastructure.adapter.output.persistence.entity.PaymentOrderEntity;
 import com.ec.bank.payments.infrastructure.adapter.output.persistence.repository.R2dbcPaymentOrderRepository;
-import lombok.RequiredArgsConstructor;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.routing.ReadRouting;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Wrapped;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.EnumMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Adapter implementing PaymentOrderRepository port using R2DBC.
- * Converts between domain models and persistence entities.
+ * Writes go through persistence entities, whose columns use the compact
+ * encodings of StorageCodec. Reads map rows straight to domain objects with
+ * the codecs of DomainCodecRegistrar, trusting values validated on write.
+ * Reads by ID may be served by a read replica when the caller allows it; see
+ * ReadRouting for when they move back to the primary.
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class PaymentOrderRepositoryAdapter implements PaymentOrderRepository {
 
     private final R2dbcPaymentOrderRepository r2dbcRepository;
+    private final IdempotencyKeyFilter idempotencyKeyFilter;
+    private final DatabaseClient databaseClient;
+    private final ReactiveTransactionManager transactionManager;
+    private final ReadRouting readRouting;
+    private final int searchFetchSize;
+
+    public PaymentOrderRepositoryAdapter(
+            R2dbcPaymentOrderRepository r2dbcRepository,
+            IdempotencyKeyFilter idempotencyKeyFilter,
+            DatabaseClient databaseClient,
+            ReactiveTransactionManager transactionManager,
+            ReadRouting readRouting,
+            @Value("${application.persistence.search.fetch-size:500}") int searchFetchSize) {
+        this.r2dbcRepository = r2dbcRepository;
+        this.idempotencyKeyFilter = idempotencyKeyFilter;
+        this.databaseClient = databaseClient;
+        this.transactionManager = transactionManager;
+        this.readRouting = readRouting;
+        this.searchFetchSize = searchFetchSize;
+    }
+
+    /**
+     * Session-local staging table for COPY. Timestamps are staged as TIMESTAMPTZ
+     * and cast on insert, the same conversion applied to bound Instant parameters.
+     */
+    private static final String BULK_STAGING_TABLE = """
+            CREATE TEMP TABLE IF NOT EXISTS payment_orders_bulk (
+                payment_order_id UUID,
+                payment_order_reference TEXT,
+                debtor_account BYTEA,
+                creditor_account BYTEA,
+                amount NUMERIC,
+                currency SMALLINT,
+                remittance_information TEXT,
+                requested_execution_date DATE,
+                status SMALLINT,
+                created_at TIMESTAMPTZ,
+                last_updated_at TIMESTAMPTZ
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String BULK_COPY = "COPY payment_orders_bulk FROM STDIN";
+
+    private static final String BULK_INSERT = """
+            INSERT INTO payment_orders (payment_order_id, payment_order_reference, debtor_account,
+                    creditor_account, amount, currency, remittance_information,
+                    requested_execution_date, status, created_at, last_updated_at, version)
+            SELECT payment_order_id, payment_order_reference, debtor_account,
+                    creditor_account, amount, currency, remittance_information,
+                    requested_execution_date, status,
+                    CAST(created_at AS TIMESTAMP), CAST(last_updated_at AS TIMESTAMP), 0
+            FROM payment_orders_bulk
+            """;
+
+    /**
+     * Columns read to rehydrate a whole order.
+     */
+    private static final String ORDER_COLUMNS = """
+            payment_order_id, payment_order_reference, debtor_account, creditor_account, \
+            amount, currency, remittance_information, requested_execution_date, \
+            status, created_at, last_updated_at""";
+
+    private static final String BY_ID = " WHERE payment_order_id = :paymentOrderId";
+
+    /**
+     * Bounds an ID lookup by the creation time a time-ordered ID carries, so
+     * the planner prunes it to the partitions around that time. The margin
+     * covers clock steps between the generator and the row's created_at.
+     */
+    private static final String CREATED_AT_AROUND_ID =
+            " AND created_at BETWEEN CAST(:createdFrom AS TIMESTAMP) AND CAST(:createdTo AS TIMESTAMP)";
+    private static final Duration CREATION_TIME_MARGIN = Duration.ofDays(1);
+
+    private static final String FIND_BY_ID = "SELECT " + ORDER_COLUMNS + ", version FROM payment_orders" + BY_ID;
+
+    private static final String EXISTS_BY_ID = "SELECT 1 FROM payment_orders" + BY_ID;
+
+    private static final String FIND_BY_REFERENCE = "SELECT " + ORDER_COLUMNS + " FROM payment_orders"
+            + " WHERE payment_order_reference = :reference AND created_at >= CAST(:createdFrom AS TIMESTAMP)"
+            + " ORDER BY created_at, id";
+
+    /**
+     * Columns read for each projectable field.
+     */
+    private static final Map<PaymentOrderField, List<String>> FIELD_COLUMNS = new EnumMap<>(Map.of(
+            PaymentOrderField.PAYMENT_ORDER_ID, List.of("payment_order_id"),
+            PaymentOrderField.PAYMENT_ORDER_REFERENCE, List.of("payment_order_reference"),
+            PaymentOrderField.DEBTOR_ACCOUNT, List.of("debtor_account"),
+            PaymentOrderField.CREDITOR_ACCOUNT, List.of("creditor_account"),
+            PaymentOrderField.INSTRUCTED_AMOUNT, List.of("amount", "currency"),
+            PaymentOrderField.REMITTANCE_INFORMATION, List.of("remittance_information"),
+            PaymentOrderField.REQUESTED_EXECUTION_DATE, List.of("requested_execution_date"),
+            PaymentOrderField.STATUS, List.of("status"),
+            PaymentOrderField.CREATED_AT, List.of("created_at"),
+            PaymentOrderField.LAST_UPDATED_AT, List.of("last_updated_at")));
+
+    /**
+     * Conditional UPDATE per target status, moving a single order. The statuses
+     * allowed to move to the target are part of the SQL text, so the transition
+     * rules are enforced by the statement itself. When the update does not
+     * apply, the second branch returns the order as found instead, so the
+     * caller learns why without another round trip.
+     */
+    private static final Map<PaymentStatus, String> TRANSITION_QUERIES = new EnumMap<>(
+            Arrays.stream(PaymentStatus.values()).collect(Collectors.toMap(
+                    Function.identity(), target -> transitionQuery(target, BY_ID))));
+
+    private static final Map<PaymentStatus, String> BOUNDED_TRANSITION_QUERIES = new EnumMap<>(
+            Arrays.stream(PaymentStatus.values()).collect(Collectors.toMap(
+                    Function.identity(), target -> transitionQuery(target, BY_ID + CREATED_AT_AROUND_ID))));
+
+    /**
+     * Claims a batch for settlement in one statement. Rows locked by another
+     * claimer are skipped, and a row committed as claimed meanwhile no longer
+     * matches when rechecked under its lock, so concurrent claimers never share
+     * an order. Stale PROCESSING claims come first so they are not starved by
+     * a backlog of due orders; due orders are claimed in execution date order,
+     * read from idx_payment_order_due.
+     * PostgreSQL refuses FOR UPDATE directly in a UNION branch, so each branch
+     * locks in a subquery of its own, bounded by the batch size.
+     */
+    private static final String CLAIM_FOR_PROCESSING = """
+            WITH claimed AS (
+                SELECT id, created_at, status FROM (
+                    SELECT id, created_at, status FROM payment_orders
+                    WHERE status = %1$d AND last_updated_at < CAST(:staleBefore AS TIMESTAMP)
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                ) stale
+                UNION ALL
+                SELECT id, created_at, status FROM (
+                    SELECT id, created_at, status FROM payment_orders
+                    WHERE status = %2$d AND requested_execution_date <= :dueBy
+                    ORDER BY requested_execution_date, created_at, id
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED
+                ) due
+                LIMIT :limit
+            )
+            UPDATE payment_orders p
+            SET status = %1$d, last_updated_at = CAST(:now AS TIMESTAMP), version = COALESCE(p.version, 0) + 1
+            FROM claimed c
+            WHERE p.id = c.id AND p.created_at = c.created_at
+            RETURNING %3$s, p.version, c.status AS previous_status
+            """.formatted(
+            StorageCodec.encodeStatus(PaymentStatus.PROCESSING),
+            StorageCodec.encodeStatus(PaymentStatus.PENDING),
+            "p." + ORDER_COLUMNS.replace(", ", ", p."));
+
+    /**
+     * Takes the claim lock of each key, as claim_idempotency_key does, in
+     * ascending lock order. Keys whose hashes collide share one lock.
+     */
+    private static final String LOCK_IDEMPOTENCY_KEYS = """
+            SELECT pg_advisory_xact_lock(2, lock_key)
+            FROM (SELECT DISTINCT hashtext(k::TEXT) AS lock_key
+                  FROM unnest(CAST(:keys AS UUID[])) AS k
+                  ORDER BY lock_key) ordered
+            """;
+
+    /**
+     * Projected SELECT per field set. Fields are listed in declaration order, so each
+     * set always yields the same SQL text and reuses one prepared statement.
+     */
+    private final Map<Set<PaymentOrderField>, String> projectedQueries = new ConcurrentHashMap<>();
 
     @Override
     public Mono<PaymentOrder> save(PaymentOrder paymentOrder) {
@@ -28,19 +227,258 @@ public class PaymentOrderRepositoryAdapter implements PaymentOrderRepository {
 
         PaymentOrderEntity entity = toEntity(paymentOrder);
 
+        // The row holds exactly what was written, so there is nothing to read back
         return r2dbcRepository.save(entity)
-                .map(this::toDomain)
+                .doOnSuccess(saved -> readRouting.recordWrite(entity.getPaymentOrderId()))
+                .thenReturn(paymentOrder)
                 .doOnSuccess(saved -> log.debug("Payment order saved: {}",
                         saved.getPaymentOrderId().value()))
                 .doOnError(e -> log.error("Failed to save payment order", e));
     }
 
+    /**
+     * Inserts new payment orders with one multi-row INSERT, so they share
+     * a single statement and commit. Used by group commit.
+     *
+     * @return The saved orders, in the order given
+     */
+    Mono<List<PaymentOrder>> insertAll(List<PaymentOrder> paymentOrders) {
+        log.debug("Saving {} payment orders in one statement", paymentOrders.size());
+
+        StringBuilder sql = new StringBuilder("""
+                INSERT INTO payment_orders (payment_order_id, payment_order_reference, debtor_account,
+                        creditor_account, amount, currency, remittance_information,
+                        requested_execution_date, status, created_at, last_updated_at, version)
+                VALUES""");
+        for (int i = 0; i < paymentOrders.size(); i++) {
+            sql.append(i == 0 ? " " : ", ")
+                    .append("(:id").append(i).append(", :reference").append(i)
+                    .append(", :debtor").append(i).append(", :creditor").append(i)
+                    .append(", :amount").append(i).append(", :currency").append(i)
+                    .append(", :remittance").append(i).append(", :executionDate").append(i)
+                    .append(", :status").append(i)
+                    .append(", CAST(:createdAt").append(i).append(" AS TIMESTAMP)")
+                    .append(", CAST(:lastUpdatedAt").append(i).append(" AS TIMESTAMP), 0)");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        for (int i = 0; i < paymentOrders.size(); i++) {
+            PaymentOrderEntity entity = toEntity(paymentOrders.get(i));
+            spec = spec.bind("id" + i, entity.getPaymentOrderId())
+                    .bind("reference" + i, entity.getPaymentOrderReference())
+                    .bind("debtor" + i, entity.getDebtorAccount())
+                    .bind("creditor" + i, entity.getCreditorAccount())
+                    .bind("amount" + i, entity.getAmount())
+                    .bind("currency" + i, entity.getCurrency())
+                    .bind("executionDate" + i, entity.getRequestedExecutionDate())
+                    .bind("status" + i, entity.getStatus())
+                    .bind("createdAt" + i, entity.getCreatedAt())
+                    .bind("lastUpdatedAt" + i, entity.getLastUpdatedAt());
+            spec = entity.getRemittanceInformation() != null
+                    ? spec.bind("remittance" + i, entity.getRemittanceInformation())
+                    : spec.bindNull("remittance" + i, String.class);
+        }
+
+        return spec.fetch()
+                .rowsUpdated()
+                .doOnSuccess(inserted -> recordWrites(paymentOrders))
+                .thenReturn(paymentOrders)
+                .doOnSuccess(saved -> log.debug("{} payment orders saved", saved.size()))
+                .doOnError(e -> log.error("Failed to save batch of payment orders", e));
+    }
+
+    /**
+     * Takes the claim locks of the given idempotency keys up front, in one
+     * order shared by every caller, so transactions claiming several keys
+     * never wait on each other in a cycle. The locks are held until the
+     * surrounding transaction ends; claiming a locked key again is reentrant.
+     * Used by group commit.
+     */
+    Mono<Void> lockIdempotencyKeys(List<String> idempotencyKeys) {
+        UUID[] keys = idempotencyKeys.stream()
+                .map(StorageCodec::encodeIdempotencyKey)
+                .toArray(UUID[]::new);
+
+        return databaseClient.sql(LOCK_IDEMPOTENCY_KEYS)
+                .bind("keys", keys)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    /**
+     * Streams the orders into a staging table with COPY FROM STDIN and moves
+     * them into payment_orders with one INSERT, all in one transaction.
+     * COPY skips per-row parsing and planning, which dominates multi-row
+     * INSERTs at bulk sizes.
+     */
+    @Override
+    public Mono<Long> bulkInsert(List<PaymentOrder> paymentOrders) {
+        if (paymentOrders.isEmpty()) {
+            return Mono.just(0L);
+        }
+        log.debug("Copying {} payment orders", paymentOrders.size());
+
+        Flux<ByteBuf> rows = Flux.fromIterable(paymentOrders)
+                .map(order -> toCopyRow(toEntity(order)));
+
+        return databaseClient.sql(BULK_STAGING_TABLE).then()
+                .then(databaseClient.inConnection(connection -> unwrap(connection).copyIn(BULK_COPY, rows)))
+                .then(databaseClient.sql(BULK_INSERT).fetch().rowsUpdated())
+                .as(TransactionalOperator.create(transactionManager)::transactional)
+                .doOnSuccess(inserted -> recordWrites(paymentOrders))
+                .doOnSuccess(inserted -> log.debug("{} payment orders copied", inserted))
+                .doOnError(e -> log.error("Failed to copy {} payment orders", paymentOrders.size(), e));
+    }
+
+    @Override
+    public Mono<IdempotencyClaim> saveWithIdempotencyKey(
+            PaymentOrder paymentOrder,
+            String idempotencyKey,
+            String requestHash,
+            byte[] response) {
+        log.debug("Saving payment order {} claiming idempotency key: {}",
+                paymentOrder.getPaymentOrderId().value(), idempotencyKey);
+
+        PaymentOrderEntity entity = toEntity(paymentOrder);
+        Instant expiresAt = entity.getCreatedAt()
+                .plus(IdempotencyRepositoryAdapter.EXPIRATION_HOURS, ChronoUnit.HOURS);
+
+        return r2dbcRepository.insertClaimingIdempotencyKey(
+                        entity.getPaymentOrderId(),
+                        entity.getPaymentOrderReference(),
+                        entity.getDebtorAccount(),
+                        entity.getCreditorAccount(),
+                        entity.getAmount(),
+                        entity.getCurrency(),
+                        entity.getRemittanceInformation(),
+                        entity.getRequestedExecutionDate(),
+                        entity.getStatus(),
+                        entity.getCreatedAt(),
+                        entity.getLastUpdatedAt(),
+                        StorageCodec.encodeIdempotencyKey(idempotencyKey),
+                        expiresAt,
+                        requestHash,
+                        response)
+                .map(row -> new IdempotencyClaim(
+                        idempotencyKey,
+                        StorageCodec.decodePaymentOrderId(row.paymentOrderId()),
+                        Boolean.TRUE.equals(row.claimed()),
+                        row.requestHash(),
+                        row.responseBody()))
+                .doOnNext(claim -> idempotencyKeyFilter.put(idempotencyKey, entity.getCreatedAt()))
+                .doOnNext(claim -> {
+                    if (claim.claimed()) {
+                        readRouting.recordWrite(entity.getPaymentOrderId());
+                    }
+                })
+                .doOnSuccess(claim -> log.debug("Idempotency key {} {} payment order {}",
+                        idempotencyKey,
+                        claim != null && claim.claimed() ? "claimed for" : "already held by",
+                        claim != null ? claim.paymentOrderId().value() : "unknown"))
+                .doOnError(e -> log.error("Failed to save payment order with idempotency key", e));
+    }
+
+    /**
+     * Compares and sets in one statement: the row is updated only if its status
+     * and version still satisfy the transition, which holds however many
+     * transitions race for the same order.
+     */
+    @Override
+    public Mono<StatusTransition> transitionStatus(
+            PaymentOrderId paymentOrderId,
+            PaymentStatus target,
+            PaymentStatus expectedStatus,
+            Long expectedVersion) {
+        log.debug("Transitioning payment order {} to {}", paymentOrderId.value(), target);
+
+        return Mono.justOrEmpty(StorageCodec.encodePaymentOrderId(paymentOrderId))
+                .flatMap(id -> {
+                    DatabaseClient.GenericExecuteSpec spec = byId(
+                                    TRANSITION_QUERIES.get(target), BOUNDED_TRANSITION_QUERIES.get(target), id)
+                            .bind("now", Instant.now());
+                    spec = expectedStatus != null
+                            ? spec.bind("expectedStatus", StorageCodec.encodeStatus(expectedStatus))
+                            : spec.bindNull("expectedStatus", Short.class);
+                    spec = expectedVersion != null
+                            ? spec.bind("expectedVersion", expectedVersion)
+                            : spec.bindNull("expectedVersion", Long.class);
+                    return spec.map((row, metadata) -> new StatusTransition(
+                                    toDomain(row),
+                                    row.get("previous_status", PaymentStatus.class),
+                                    row.get("version", Long.class),
+                                    Boolean.TRUE.equals(row.get("applied", Boolean.class))))
+                            .one()
+                            .doOnNext(transition -> {
+                                if (transition.applied()) {
+                                    readRouting.recordWrite(id);
+                                }
+                            });
+                })
+                .doOnSuccess(transition -> log.debug("Payment order {} transition to {} {}",
+                        paymentOrderId.value(), target,
+                        transition == null ? "found no order" : transition.applied() ? "applied" : "not applied"))
+                .doOnError(e -> log.error("Failed to transition payment order {}", paymentOrderId.value(), e));
+    }
+
+    /**
+     * One UPDATE over every matching order; each filter is served by the same
+     * composite indexes as search. Only the IDs of the moved orders come back.
+     */
+    @Override
+    public Mono<Long> transitionStatusAll(PaymentOrderSearchCriteria criteria, PaymentStatus target) {
+        if (criteria.after() != null || criteria.limit() != null) {
+            return Mono.error(new IllegalArgumentException("Bulk transitions support neither cursor nor limit"));
+        }
+        log.debug("Transitioning payment orders matching {} to {}", criteria, target);
+
+        StringJoiner where = filterClauses(criteria).add(sourcesClause(target, "status"));
+        String sql = "UPDATE payment_orders SET status = " + StorageCodec.encodeStatus(target)
+                + ", last_updated_at = CAST(:now AS TIMESTAMP), version = COALESCE(version, 0) + 1"
+                + where + " RETURNING payment_order_id";
+
+        return bindFilters(databaseClient.sql(sql).bind("now", Instant.now()), criteria)
+                .map((row, metadata) -> row.get("payment_order_id", UUID.class))
+                .all()
+                .doOnNext(readRouting::recordWrite)
+                .count()
+                .doOnSuccess(moved -> log.info("{} payment orders transitioned to {}", moved, target))
+                .doOnError(e -> log.error("Failed to transition payment orders to {}", target, e));
+    }
+
+    /**
+     * The claim commits on its own, so other claimers see the orders as
+     * PROCESSING as soon as the batch is returned.
+     */
+    @Override
+    public Flux<StatusTransition> claimForProcessing(LocalDate dueBy, Instant staleBefore, int limit) {
+        log.debug("Claiming up to {} payment orders due by {}", limit, dueBy);
+
+        return databaseClient.sql(CLAIM_FOR_PROCESSING)
+                .bind("staleBefore", staleBefore)
+                .bind("dueBy", dueBy)
+                .bind("limit", limit)
+                .bind("now", Instant.now())
+                .map((row, metadata) -> new StatusTransition(
+                        toDomain(row),
+                        row.get("previous_status", PaymentStatus.class),
+                        row.get("version", Long.class),
+                        true))
+                .all()
+                .doOnNext(claim -> readRouting.recordWrite(
+                        StorageCodec.requirePaymentOrderId(claim.paymentOrder().getPaymentOrderId())))
+                .doOnError(e -> log.error("Failed to claim payment orders for processing", e));
+    }
+
     @Override
     public Mono<PaymentOrder> findById(PaymentOrderId paymentOrderId) {
         log.debug("Finding payment order by ID: {}", paymentOrderId.value());
 
-        return r2dbcRepository.findByPaymentOrderId(paymentOrderId.value())
-                .map(this::toDomain)
+        // IDs not issued by a PaymentOrderIdGenerator cannot be stored, so they are never found
+        return Mono.justOrEmpty(StorageCodec.encodePaymentOrderId(paymentOrderId))
+                .flatMap(id -> readRouting.read(id, byId(FIND_BY_ID, id)
+                        .map((row, metadata) -> toDomain(row))
+                        .one()))
                 .doOnSuccess(found -> {
                     if (found != null) {
                         log.debug("Payment order found: {}", paymentOrderId.value());
@@ -50,55 +488,353 @@ public class PaymentOrderRepositoryAdapter implements PaymentOrderRepository {
                 });
     }
 
+    /**
+     * Selects only the columns behind the requested fields and builds the view
+     * straight from the row, without rebuilding the aggregate.
+     */
     @Override
-    public Mono<PaymentOrder> findByReference(String reference) {
-        log.debug("Finding payment order by reference: {}", reference);
+    public Mono<PaymentOrderView> findProjectedById(PaymentOrderId paymentOrderId, Set<PaymentOrderField> fields) {
+        if (fields.isEmpty()) {
+            return Mono.error(new IllegalArgumentException("At least one field must be requested"));
+        }
+        String sql = projectedQueries.computeIfAbsent(Set.copyOf(fields), PaymentOrderRepositoryAdapter::projectedQuery);
 
-        return r2dbcRepository.findByPaymentOrderReference(reference)
-                .map(this::toDomain);
+        return Mono.justOrEmpty(StorageCodec.encodePaymentOrderId(paymentOrderId))
+                .flatMap(id -> readRouting.read(id, byId(sql, id)
+                        .map((row, metadata) -> toView(row, fields))
+                        .one()));
+    }
+
+    /**
+     * Reads the status fields only. All three columns are held by the covering
+     * unique index on payment_order_id, so the query is an index-only scan.
+     */
+    @Override
+    public Mono<PaymentOrderView> findStatusById(PaymentOrderId paymentOrderId) {
+        return findProjectedById(paymentOrderId, PaymentOrderField.STATUS_FIELDS);
+    }
+
+    /**
+     * Finds a payment order together with the version of its row.
+     * Used by the read cache, which compares versions to discard stale entries.
+     */
+    Mono<VersionedPaymentOrder> findVersionedById(UUID paymentOrderId) {
+        return byId(FIND_BY_ID, paymentOrderId)
+                .map((row, metadata) -> {
+                    Long version = row.get("version", Long.class);
+                    return new VersionedPaymentOrder(toDomain(row), version != null ? version : 0L);
+                })
+                .one();
+    }
+
+    @Override
+    public Flux<PaymentOrder> findByReference(String reference, Instant createdFrom) {
+        log.debug("Finding payment orders by reference: {} since {}", reference, createdFrom);
+
+        // The created_at bound limits the scan to the partitions in range
+        return databaseClient.sql(FIND_BY_REFERENCE)
+                .bind("reference", reference)
+                .bind("createdFrom", createdFrom)
+                .map((row, metadata) -> toDomain(row))
+                .all();
+    }
+
+    /**
+     * Seeks past the cursor on (created_at, id) instead of skipping an offset,
+     * so every page costs the same however deep it is, and rows inserted
+     * meanwhile never shift a page. Each filter combined with the ordering is
+     * served by one of the composite indexes on payment_orders. Rows are
+     * fetched searchFetchSize at a time as downstream demand arrives, so a
+     * slow consumer holds back the query instead of buffering its result.
+     */
+    @Override
+    public Flux<Hit> search(PaymentOrderSearchCriteria criteria) {
+        log.debug("Searching payment orders: {}", criteria);
+
+        DatabaseClient.GenericExecuteSpec spec = bindFilters(databaseClient.sql(searchQuery(criteria))
+                .filter(statement -> statement.fetchSize(searchFetchSize)), criteria);
+        if (criteria.after() != null) {
+            spec = spec.bind("afterCreatedAt", criteria.after().createdAt())
+                    .bind("afterSequence", criteria.after().sequence());
+        }
+        if (criteria.limit() != null) {
+            spec = spec.bind("limit", criteria.limit());
+        }
+
+        return spec.map((row, metadata) -> {
+                    PaymentOrder order = toDomain(row);
+                    return new Hit(order, new Cursor(order.getCreatedAt(), row.get("id", Long.class)));
+                })
+                .all();
     }
 
     @Override
     public Mono<Boolean> existsById(PaymentOrderId paymentOrderId) {
-        return r2dbcRepository.existsByPaymentOrderId(paymentOrderId.value());
+        return Mono.justOrEmpty(StorageCodec.encodePaymentOrderId(paymentOrderId))
+                .flatMap(id -> byId(EXISTS_BY_ID, id).fetch().first().hasElement())
+                .defaultIfEmpty(false);
+    }
+
+    private DatabaseClient.GenericExecuteSpec byId(String sql, UUID id) {
+        return byId(sql, sql + CREATED_AT_AROUND_ID, id);
+    }
+
+    /**
+     * Binds an ID lookup, bounded to the partitions around the creation time of
+     * a time-ordered ID. Random IDs carry no time, so their lookup stays
+     * unbounded and probes every partition.
+     */
+    private DatabaseClient.GenericExecuteSpec byId(String sql, String boundedSql, UUID id) {
+        return StorageCodec.decodeCreationTime(id)
+                .map(createdAt -> databaseClient.sql(boundedSql)
+                        .bind("paymentOrderId", id)
+                        .bind("createdFrom", createdAt.minus(CREATION_TIME_MARGIN))
+                        .bind("createdTo", createdAt.plus(CREATION_TIME_MARGIN)))
+                .orElseGet(() -> databaseClient.sql(sql).bind("paymentOrderId", id));
     }
 
     // ==================== Mapping Methods ====================
 
+    private void recordWrites(List<PaymentOrder> paymentOrders) {
+        paymentOrders.forEach(order -> readRouting.recordWrite(
+                StorageCodec.requirePaymentOrderId(order.getPaymentOrderId())));
+    }
+
+    private static String projectedQuery(Set<PaymentOrderField> fields) {
+        return FIELD_COLUMNS.entrySet().stream()
+                .filter(entry -> fields.contains(entry.getKey()))
+                .flatMap(entry -> entry.getValue().stream())
+                .collect(Collectors.joining(", ", "SELECT ", " FROM payment_orders" + BY_ID));
+    }
+
+    private static String searchQuery(PaymentOrderSearchCriteria criteria) {
+        StringJoiner where = filterClauses(criteria);
+        if (criteria.after() != null) {
+            // The plain bound lets the planner prune partitions; the row comparison cannot
+            where.add("created_at >= CAST(:afterCreatedAt AS TIMESTAMP)");
+            where.add("(created_at, id) > (CAST(:afterCreatedAt AS TIMESTAMP), :afterSequence)");
+        }
+        return "SELECT id, " + ORDER_COLUMNS + " FROM payment_orders" + where
+                + " ORDER BY created_at, id"
+                + (criteria.limit() != null ? " LIMIT :limit" : "");
+    }
+
+    /**
+     * WHERE clauses for the filters of the criteria, bound by bindFilters.
+     */
+    private static StringJoiner filterClauses(PaymentOrderSearchCriteria criteria) {
+        StringJoiner where = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+        if (criteria.status() != null) {
+            where.add("status = :status");
+        }
+        if (criteria.debtorAccount() != null) {
+            where.add("debtor_account = :debtorAccount");
+        }
+        if (criteria.creditorAccount() != null) {
+            where.add("creditor_account = :creditorAccount");
+        }
+        if (criteria.currency() != null) {
+            where.add("currency = :currency");
+        }
+        if (criteria.createdFrom() != null) {
+            where.add("created_at >= CAST(:createdFrom AS TIMESTAMP)");
+        }
+        if (criteria.createdTo() != null) {
+            where.add("created_at < CAST(:createdTo AS TIMESTAMP)");
+        }
+        return where;
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindFilters(
+            DatabaseClient.GenericExecuteSpec spec, PaymentOrderSearchCriteria criteria) {
+        if (criteria.status() != null) {
+            spec = spec.bind("status", StorageCodec.encodeStatus(criteria.status()));
+        }
+        if (criteria.debtorAccount() != null) {
+            spec = spec.bind("debtorAccount", StorageCodec.encodeIban(criteria.debtorAccount()));
+        }
+        if (criteria.creditorAccount() != null) {
+            spec = spec.bind("creditorAccount", StorageCodec.encodeIban(criteria.creditorAccount()));
+        }
+        if (criteria.currency() != null) {
+            spec = spec.bind("currency", StorageCodec.encodeCurrency(criteria.currency()));
+        }
+        if (criteria.createdFrom() != null) {
+            spec = spec.bind("createdFrom", criteria.createdFrom());
+        }
+        if (criteria.createdTo() != null) {
+            spec = spec.bind("createdTo", criteria.createdTo());
+        }
+        return spec;
+    }
+
+    /**
+     * Condition holding for the statuses that may move to the target, as a literal list of codes.
+     */
+    private static String sourcesClause(PaymentStatus target, String column) {
+        Set<PaymentStatus> sources = PaymentStatus.sourcesOf(target);
+        if (sources.isEmpty()) {
+            return "FALSE";
+        }
+        return sources.stream()
+                .map(status -> String.valueOf(StorageCodec.encodeStatus(status)))
+                .collect(Collectors.joining(", ", column + " IN (", ")"));
+    }
+
+    private static String transitionQuery(PaymentStatus target, String idFilter) {
+        String columns = "p." + ORDER_COLUMNS.replace(", ", ", p.");
+        return """
+                WITH found AS (
+                    SELECT id, created_at, status FROM payment_orders%s
+                ), moved AS (
+                    UPDATE payment_orders p
+                    SET status = %d, last_updated_at = CAST(:now AS TIMESTAMP), version = COALESCE(p.version, 0) + 1
+                    FROM found f
+                    WHERE p.id = f.id AND p.created_at = f.created_at
+                        AND %s
+                        AND p.status = COALESCE(CAST(:expectedStatus AS SMALLINT), p.status)
+                        AND COALESCE(p.version, 0) = COALESCE(CAST(:expectedVersion AS BIGINT), p.version, 0)
+                    RETURNING %s, p.version, f.status AS previous_status, TRUE AS applied
+                )
+                SELECT * FROM moved
+                UNION ALL
+                SELECT %s, COALESCE(p.version, 0), p.status, FALSE
+                FROM payment_orders p JOIN found f ON p.id = f.id AND p.created_at = f.created_at
+                WHERE NOT EXISTS (SELECT 1 FROM moved)
+                """.formatted(idFilter, StorageCodec.encodeStatus(target), sourcesClause(target, "p.status"), columns, columns);
+    }
+
+    /**
+     * Converts a projected row to a view; columns outside the projection are not read.
+     */
+    private static PaymentOrderView toView(Row row, Set<PaymentOrderField> fields) {
+        return new PaymentOrderView(
+                fields,
+                fields.contains(PaymentOrderField.PAYMENT_ORDER_ID)
+                        ? row.get("payment_order_id", PaymentOrderId.class) : null,
+                fields.contains(PaymentOrderField.PAYMENT_ORDER_REFERENCE)
+                        ? row.get("payment_order_reference", String.class) : null,
+                fields.contains(PaymentOrderField.DEBTOR_ACCOUNT)
+                        ? row.get("debtor_account", IBAN.class) : null,
+                fields.contains(PaymentOrderField.CREDITOR_ACCOUNT)
+                        ? row.get("creditor_account", IBAN.class) : null,
+                fields.contains(PaymentOrderField.INSTRUCTED_AMOUNT)
+                        ? Amount.of(row.get("amount", BigDecimal.class), row.get("currency", Currency.class)) : null,
+                fields.contains(PaymentOrderField.REMITTANCE_INFORMATION)
+                        ? row.get("remittance_information", String.class) : null,
+                fields.contains(PaymentOrderField.REQUESTED_EXECUTION_DATE)
+                        ? row.get("requested_execution_date", LocalDate.class) : null,
+                fields.contains(PaymentOrderField.STATUS)
+                        ? row.get("status", PaymentStatus.class) : null,
+                fields.contains(PaymentOrderField.CREATED_AT)
+                        ? row.get("created_at", Instant.class) : null,
+                fields.contains(PaymentOrderField.LAST_UPDATED_AT)
+                        ? row.get("last_updated_at", Instant.class) : null);
+    }
+
+    /**
+     * Renders an entity as one row of COPY text format, in the column order
+     * of payment_orders_bulk.
+     */
+    private static ByteBuf toCopyRow(PaymentOrderEntity entity) {
+        StringBuilder row = new StringBuilder(256)
+                .append(entity.getPaymentOrderId()).append('\t');
+        appendCopyText(row, entity.getPaymentOrderReference()).append('\t');
+        appendCopyBytea(row, entity.getDebtorAccount()).append('\t');
+        appendCopyBytea(row, entity.getCreditorAccount()).append('\t');
+        row.append(entity.getAmount().toPlainString()).append('\t')
+                .append(entity.getCurrency()).append('\t');
+        appendCopyText(row, entity.getRemittanceInformation()).append('\t');
+        row.append(entity.getRequestedExecutionDate()).append('\t')
+                .append(entity.getStatus()).append('\t')
+                .append(entity.getCreatedAt()).append('\t')
+                .append(entity.getLastUpdatedAt()).append('\n');
+        return Unpooled.wrappedBuffer(row.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Appends a text value, escaping the characters COPY text format reserves.
+     */
+    private static StringBuilder appendCopyText(StringBuilder row, String value) {
+        if (value == null) {
+            return row.append("\\N");
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> row.append("\\\\");
+                case '\t' -> row.append("\\t");
+                case '\n' -> row.append("\\n");
+                case '\r' -> row.append("\\r");
+                default -> row.append(c);
+            }
+        }
+        return row;
+    }
+
+    /**
+     * Appends a bytea value in hex format; its leading backslash is escaped for COPY.
+     */
+    private static StringBuilder appendCopyBytea(StringBuilder row, byte[] value) {
+        return row.append("\\\\x").append(HexFormat.of().formatHex(value));
+    }
+
+    /**
+     * Reaches the driver connection behind the pool and Spring proxies, for COPY.
+     */
+    private static PostgresqlConnection unwrap(Connection connection) {
+        Object target = connection;
+        while (!(target instanceof PostgresqlConnection) && target instanceof Wrapped<?> wrapped) {
+            target = wrapped.unwrap();
+        }
+        if (target instanceof PostgresqlConnection postgresqlConnection) {
+            return postgresqlConnection;
+        }
+        throw new IllegalStateException("COPY needs a PostgreSQL connection, got "
+                + connection.getClass().getName());
+    }
+
     /**
      * Converts domain PaymentOrder to persistence entity.
      */
     private PaymentOrderEntity toEntity(PaymentOrder domain) {
         return PaymentOrderEntity.builder()
-                .paymentOrderId(domain.getPaymentOrderId().value())
+                .paymentOrderId(StorageCodec.requirePaymentOrderId(domain.getPaymentOrderId()))
                 .paymentOrderReference(domain.getPaymentOrderReference())
-                .debtorAccount(domain.getDebtorAccount().value())
-                .creditorAccount(domain.getCreditorAccount().value())
-                .amount(domain.getInstructedAmount().value())
-                .currency(domain.getInstructedAmount().currencyCode())
+                .debtorAccount(StorageCodec.encodeIban(domain.getDebtorAccount()))
+                .creditorAccount(StorageCodec.encodeIban(domain.getCreditorAccount()))
+                .amount(domain.getInstructedAmount().toBigDecimal())
+                .currency(StorageCodec.encodeCurrency(domain.getInstructedAmount().currency()))
                 .remittanceInformation(domain.getRemittanceInformation())
                 .requestedExecutionDate(domain.getRequestedExecutionDateTime())
-                .status(domain.getStatus().name())
+                .status(StorageCodec.encodeStatus(domain.getStatus()))
                 .createdAt(domain.getCreatedAt())
                 .lastUpdatedAt(domain.getLastUpdatedAt())
                 .build();
     }
 
     /**
-     * Converts persistence entity to domain PaymentOrder.
+     * Rehydrates a domain PaymentOrder straight from a row. Domain columns are
+     * decoded by the codecs of DomainCodecRegistrar; nothing is re-validated
+     * beyond what the value object constructors always check.
      */
-    private PaymentOrder toDomain(PaymentOrderEntity entity) {
+    static PaymentOrder toDomain(Row row) {
         return PaymentOrder.builder()
-                .paymentOrderId(PaymentOrderId.of(entity.getPaymentOrderId()))
-                .paymentOrderReference(entity.getPaymentOrderReference())
-                .debtorAccount(IBAN.of(entity.getDebtorAccount()))
-                .creditorAccount(IBAN.of(entity.getCreditorAccount()))
-                .instructedAmount(Amount.of(entity.getAmount(), entity.getCurrency()))
-                .remittanceInformation(entity.getRemittanceInformation())
-                .requestedExecutionDateTime(entity.getRequestedExecutionDate())
-                .status(PaymentStatus.valueOf(entity.getStatus()))
-                .createdAt(entity.getCreatedAt())
-                .lastUpdatedAt(entity.getLastUpdatedAt())
+                .paymentOrderId(row.get("payment_order_id", PaymentOrderId.class))
+                .paymentOrderReference(row.get("payment_order_reference", String.class))
+                .debtorAccount(row.get("debtor_account", IBAN.class))
+                .creditorAccount(row.get("creditor_account", IBAN.class))
+                .instructedAmount(Amount.of(row.get("amount", BigDecimal.class), row.get("currency", Currency.class)))
+                .remittanceInformation(row.get("remittance_information", String.class))
+                .requestedExecutionDateTime(row.get("requested_execution_date", LocalDate.class))
+                .status(row.get("status", PaymentStatus.class))
+                .createdAt(row.get("created_at", Instant.class))
+                .lastUpdatedAt(row.get("last_updated_at", Instant.class))
                 .build();
     }
+
+    /**
+     * A payment order and the version of the row it was read from.
+     */
+    record VersionedPaymentOrder(PaymentOrder paymentOrder, long version) {}
 }
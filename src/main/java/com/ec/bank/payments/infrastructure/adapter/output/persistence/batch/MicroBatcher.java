@@ -0,0 +1,223 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.batch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Coalesces concurrent writes into batches for group commit.
+ * Items submitted within {@code maxWait} of each other, up to {@code maxBatchSize},
+ * are handed to the batch writer together, so they share one statement or one
+ * transaction and a single commit. Each caller is completed with its own result.
+ * When a batch fails, its items are retried one by one with the single writer,
+ * so an invalid item fails only its own caller.
+ * <p>
+ * Submissions come from many event-loop threads at once. They are offered to a
+ * lock-free multi-producer queue, and whichever thread finds the drainer idle
+ * moves them into the sink; the others return at once. The sink is therefore
+ * only ever called by one thread at a time, and no caller waits or spins.
+ *
+ * @param <T> Item written
+ * @param <R> Result returned to the caller of each item
+ */
+@Slf4j
+public final class MicroBatcher<T, R> {
+
+    private final String name;
+    private final Function<List<T>, Mono<List<R>>> batchWriter;
+    private final Function<T, Mono<R>> singleWriter;
+    private final Queue<Pending<T, R>> submitted = Queues.<Pending<T, R>>unboundedMultiproducer().get();
+    private final AtomicInteger drainers = new AtomicInteger();
+    // Only called by the thread draining submitted, which serializes it
+    private final Sinks.Many<Pending<T, R>> queue = Sinks.unsafe().many().unicast().onBackpressureBuffer();
+    private final Disposable subscription;
+
+    private volatile boolean closed;
+    // Only touched by the thread draining submitted
+    private boolean completed;
+
+    private final DistributionSummary batchSizeSummary;
+    private final Timer queueWaitTimer;
+    private final Timer commitTimer;
+    private final Counter fallbackCounter;
+
+    /**
+     * @param name                 Tag identifying the batched write in metrics
+     * @param maxBatchSize         Items after which a batch is flushed without waiting
+     * @param maxWait              Longest an item waits for a batch to fill
+     * @param maxConcurrentBatches Batches written at the same time
+     * @param batchWriter          Writes a batch, returning one result per item in order
+     * @param singleWriter         Writes a single item, used for lone items and as fallback
+     */
+    public MicroBatcher(
+            String name,
+            int maxBatchSize,
+            Duration maxWait,
+            int maxConcurrentBatches,
+            Function<List<T>, Mono<List<R>>> batchWriter,
+            Function<T, Mono<R>> singleWriter,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.batchWriter = batchWriter;
+        this.singleWriter = singleWriter;
+
+        this.batchSizeSummary = DistributionSummary.builder("payment.group.commit.batch.size")
+                .description("Writes coalesced into a single group commit")
+                .tag("write", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        this.queueWaitTimer = Timer.builder("payment.group.commit.queue.wait")
+                .description("Time a write waited for its batch to be flushed")
+                .tag("write", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        this.commitTimer = Timer.builder("payment.group.commit.latency")
+                .description("Time to write and commit a batch")
+                .tag("write", name)
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+
+        this.fallbackCounter = Counter.builder("payment.group.commit.fallback")
+                .description("Batches that failed and were retried item by item")
+                .tag("write", name)
+                .register(meterRegistry);
+
+        this.subscription = queue.asFlux()
+                .bufferTimeout(maxBatchSize, maxWait, true)
+                .flatMap(this::flush, maxConcurrentBatches)
+                .subscribe(null, e -> log.error("Group commit of {} stopped", name, e));
+    }
+
+    /**
+     * Queues an item for the next batch.
+     *
+     * @return Result of writing the item, or the error that made it fail,
+     *         an IllegalStateException once the batcher is closed
+     */
+    public Mono<R> submit(T item) {
+        return Mono.defer(() -> {
+            if (closed) {
+                return Mono.error(closedError());
+            }
+            Sinks.One<R> result = Sinks.one();
+            submitted.offer(new Pending<>(item, result, System.nanoTime()));
+            drain();
+            return result.asMono();
+        });
+    }
+
+    /**
+     * Stops accepting items; batches already queued are still written.
+     */
+    public void close() {
+        closed = true;
+        drain();
+    }
+
+    /**
+     * Stops immediately, abandoning queued items.
+     */
+    public void dispose() {
+        subscription.dispose();
+    }
+
+    /**
+     * Moves submitted items into the sink. Only the thread that finds no other
+     * drainer running enters the loop; the others leave their work to it.
+     */
+    private void drain() {
+        if (drainers.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            Pending<T, R> pending;
+            while ((pending = submitted.poll()) != null) {
+                // Items racing close() past its check, or submitted after dispose()
+                if (completed || queue.tryEmitNext(pending).isFailure()) {
+                    pending.fail(closedError());
+                }
+            }
+            if (closed && !completed) {
+                completed = true;
+                queue.tryEmitComplete();
+            }
+            missed = drainers.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private IllegalStateException closedError() {
+        return new IllegalStateException("Group commit of " + name + " is closed");
+    }
+
+    private Mono<Void> flush(List<Pending<T, R>> batch) {
+        long flushedAt = System.nanoTime();
+        batch.forEach(pending -> queueWaitTimer.record(flushedAt - pending.enqueuedAt(), TimeUnit.NANOSECONDS));
+        batchSizeSummary.record(batch.size());
+
+        if (batch.size() == 1) {
+            return writeSingly(batch).doFinally(signal -> recordCommit(flushedAt));
+        }
+
+        return batchWriter.apply(batch.stream().map(Pending::item).toList())
+                .doFinally(signal -> recordCommit(flushedAt))
+                .doOnNext(results -> {
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).complete(results.get(i));
+                    }
+                })
+                .then()
+                .onErrorResume(e -> {
+                    fallbackCounter.increment();
+                    log.warn("Group commit of {} writes failed, retrying one by one: {}",
+                            batch.size(), e.getMessage());
+                    return writeSingly(batch);
+                });
+    }
+
+    private Mono<Void> writeSingly(List<Pending<T, R>> batch) {
+        return Flux.fromIterable(batch)
+                .flatMap(pending -> singleWriter.apply(pending.item())
+                        .doOnSuccess(pending::complete)
+                        .onErrorResume(e -> {
+                            pending.fail(e);
+                            return Mono.empty();
+                        }))
+                .then();
+    }
+
+    private void recordCommit(long startedAt) {
+        commitTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private record Pending<T, R>(T item, Sinks.One<R> result, long enqueuedAt) {
+
+        void complete(R value) {
+            if (value == null) {
+                result.tryEmitEmpty();
+            } else {
+                result.tryEmitValue(value);
+            }
+        }
+
+        void fail(Throwable error) {
+            result.tryEmitError(error);
+        }
+    }
+}
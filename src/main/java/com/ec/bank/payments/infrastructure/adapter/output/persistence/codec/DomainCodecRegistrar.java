@@ -0,0 +1,202 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.codec;
+
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.client.EncodedParameter;
+import io.r2dbc.postgresql.codec.Codec;
+import io.r2dbc.postgresql.codec.CodecRegistry;
+import io.r2dbc.postgresql.codec.PostgresqlObjectId;
+import io.r2dbc.postgresql.extension.CodecRegistrar;
+import io.r2dbc.postgresql.message.Format;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * Registers r2dbc-postgresql codecs that decode the compact columns of
+ * StorageCodec straight into domain types, so rows can be read with
+ * row.get(column, IBAN.class) and friends, skipping the entity and its
+ * intermediate String, UUID and byte[] copies.
+ * Values were validated when written, so decoding trusts them. The codecs
+ * only decode; writes keep binding the encodings of StorageCodec.
+ * Picked up by the driver through META-INF/services.
+ */
+public class DomainCodecRegistrar implements CodecRegistrar {
+
+    @Override
+    public Publisher<Void> register(PostgresqlConnection connection, ByteBufAllocator allocator, CodecRegistry registry) {
+        registry.addFirst(new PaymentOrderIdCodec());
+        registry.addFirst(new IbanCodec());
+        registry.addFirst(new CurrencyCodec());
+        registry.addFirst(new PaymentStatusCodec());
+        return Mono.empty();
+    }
+
+    /**
+     * Base for codecs that read one column type into one domain type.
+     */
+    abstract static class DecodingCodec<T> implements Codec<T> {
+
+        private final PostgresqlObjectId columnType;
+        private final Class<T> domainType;
+
+        DecodingCodec(PostgresqlObjectId columnType, Class<T> domainType) {
+            this.columnType = columnType;
+            this.domainType = domainType;
+        }
+
+        @Override
+        public boolean canDecode(int dataType, Format format, Class<?> type) {
+            // Exact type only: untyped reads (Object) keep the driver's own codecs
+            return dataType == columnType.getObjectId() && type == domainType;
+        }
+
+        @Override
+        public T decode(ByteBuf buffer, int dataType, Format format, Class<? extends T> type) {
+            if (buffer == null) {
+                return null;
+            }
+            return format == Format.FORMAT_BINARY ? decodeBinary(buffer) : decodeText(buffer);
+        }
+
+        abstract T decodeBinary(ByteBuf buffer);
+
+        abstract T decodeText(ByteBuf buffer);
+
+        @Override
+        public boolean canEncode(Object value) {
+            return false;
+        }
+
+        @Override
+        public boolean canEncodeNull(Class<?> type) {
+            return false;
+        }
+
+        @Override
+        public EncodedParameter encode(Object value) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " only decodes");
+        }
+
+        @Override
+        public EncodedParameter encode(Object value, int dataType) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " only decodes");
+        }
+
+        @Override
+        public EncodedParameter encodeNull() {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " only decodes");
+        }
+    }
+
+    /**
+     * uuid to PaymentOrderId. The text form is already the canonical uuid text.
+     */
+    static final class PaymentOrderIdCodec extends DecodingCodec<PaymentOrderId> {
+
+        PaymentOrderIdCodec() {
+            super(PostgresqlObjectId.UUID, PaymentOrderId.class);
+        }
+
+        @Override
+        PaymentOrderId decodeBinary(ByteBuf buffer) {
+            return StorageCodec.decodePaymentOrderId(new UUID(buffer.readLong(), buffer.readLong()));
+        }
+
+        @Override
+        PaymentOrderId decodeText(ByteBuf buffer) {
+            return StorageCodec.decodePaymentOrderId(buffer.toString(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Packed bytea to IBAN. The text form is hex (bytea_output = hex, the default).
+     */
+    static final class IbanCodec extends DecodingCodec<IBAN> {
+
+        IbanCodec() {
+            super(PostgresqlObjectId.BYTEA, IBAN.class);
+        }
+
+        @Override
+        IBAN decodeBinary(ByteBuf buffer) {
+            byte[] packed = new byte[buffer.readableBytes()];
+            buffer.readBytes(packed);
+            return StorageCodec.decodeIban(packed);
+        }
+
+        @Override
+        IBAN decodeText(ByteBuf buffer) {
+            if (buffer.readableBytes() < 2 || buffer.readByte() != '\\' || buffer.readByte() != 'x') {
+                throw new IllegalArgumentException("Expected hex bytea output");
+            }
+            byte[] packed = new byte[buffer.readableBytes() / 2];
+            for (int i = 0; i < packed.length; i++) {
+                packed[i] = (byte) (hexDigit(buffer.readByte()) << 4 | hexDigit(buffer.readByte()));
+            }
+            return StorageCodec.decodeIban(packed);
+        }
+
+        private static int hexDigit(byte c) {
+            return c <= '9' ? c - '0' : (c | 0x20) - 'a' + 10;
+        }
+    }
+
+    /**
+     * smallint ISO 4217 numeric code to Currency; the currency half of Amount.
+     */
+    static final class CurrencyCodec extends DecodingCodec<Currency> {
+
+        CurrencyCodec() {
+            super(PostgresqlObjectId.INT2, Currency.class);
+        }
+
+        @Override
+        Currency decodeBinary(ByteBuf buffer) {
+            return StorageCodec.decodeCurrency(buffer.readShort());
+        }
+
+        @Override
+        Currency decodeText(ByteBuf buffer) {
+            return StorageCodec.decodeCurrency(readTextShort(buffer));
+        }
+    }
+
+    /**
+     * smallint status code to PaymentStatus.
+     */
+    static final class PaymentStatusCodec extends DecodingCodec<PaymentStatus> {
+
+        PaymentStatusCodec() {
+            super(PostgresqlObjectId.INT2, PaymentStatus.class);
+        }
+
+        @Override
+        PaymentStatus decodeBinary(ByteBuf buffer) {
+            return StorageCodec.decodeStatus(buffer.readShort());
+        }
+
+        @Override
+        PaymentStatus decodeText(ByteBuf buffer) {
+            return StorageCodec.decodeStatus(readTextShort(buffer));
+        }
+    }
+
+    /**
+     * Parses a non-negative smallint in text form without building a String.
+     */
+    private static short readTextShort(ByteBuf buffer) {
+        int value = 0;
+        while (buffer.isReadable()) {
+            value = value * 10 + (buffer.readByte() - '0');
+        }
+        return (short) value;
+    }
+}
@@ -0,0 +1,217 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.codec;
+
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Compact column encodings used by the persistence adapters.
+ * <ul>
+ *     <li>Payment order IDs ("PO-" + UUID) and idempotency keys are stored as native uuid (16 bytes).</li>
+ *     <li>Payment status is stored as a fixed SMALLINT code; codes never change once assigned.</li>
+ *     <li>Currency is stored as its ISO 4217 numeric code in a SMALLINT.</li>
+ *     <li>IBANs are packed six bits per character into BYTEA.</li>
+ * </ul>
+ * The domain never sees these encodings.
+ */
+public final class StorageCodec {
+
+    private static final String PAYMENT_ORDER_ID_PREFIX = "PO-";
+
+    private static final Map<Integer, Currency> CURRENCIES_BY_NUMERIC_CODE = Currency.getAvailableCurrencies().stream()
+            .filter(currency -> currency.getNumericCode() > 0)
+            .collect(Collectors.toUnmodifiableMap(Currency::getNumericCode, Function.identity(),
+                    (a, b) -> a.getCurrencyCode().compareTo(b.getCurrencyCode()) <= 0 ? a : b));
+
+    private static final int IBAN_BITS_PER_CHAR = 6;
+    private static final int IBAN_PADDING = 0x3F;
+
+    private StorageCodec() {
+    }
+
+    // ==================== Identifiers ====================
+
+    /**
+     * Encodes a payment order ID, or returns empty if it was not issued by a
+     * PaymentOrderIdGenerator and therefore cannot exist in the store.
+     */
+    public static Optional<UUID> encodePaymentOrderId(PaymentOrderId paymentOrderId) {
+        String value = paymentOrderId.value();
+        if (!value.startsWith(PAYMENT_ORDER_ID_PREFIX)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(UUID.fromString(value.substring(PAYMENT_ORDER_ID_PREFIX.length())));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Encodes a payment order ID that is known to be a generated one.
+     *
+     * @throws IllegalArgumentException if the ID is not "PO-" followed by a UUID
+     */
+    public static UUID requirePaymentOrderId(PaymentOrderId paymentOrderId) {
+        return encodePaymentOrderId(paymentOrderId)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Payment order ID cannot be stored: " + paymentOrderId.value()));
+    }
+
+    public static PaymentOrderId decodePaymentOrderId(UUID uuid) {
+        return PaymentOrderId.of(PAYMENT_ORDER_ID_PREFIX + uuid);
+    }
+
+    /**
+     * Rebuilds a payment order ID from the canonical text of its stored uuid,
+     * as sent by PostgreSQL, without parsing it.
+     */
+    public static PaymentOrderId decodePaymentOrderId(String uuidText) {
+        return PaymentOrderId.of(PAYMENT_ORDER_ID_PREFIX.concat(uuidText));
+    }
+
+    /**
+     * Reads the millisecond timestamp of a time-ordered (version 7) payment
+     * order ID, which the generator takes when the order is created. Random
+     * IDs issued before carry no time and yield empty.
+     */
+    public static Optional<Instant> decodeCreationTime(UUID paymentOrderId) {
+        if (paymentOrderId.version() != 7) {
+            return Optional.empty();
+        }
+        return Optional.of(Instant.ofEpochMilli(paymentOrderId.getMostSignificantBits() >>> 16));
+    }
+
+    /**
+     * Encodes an idempotency key. The API only accepts UUID keys, which are
+     * stored as-is; any other key maps to a name-based (MD5) UUID of its bytes.
+     */
+    public static UUID encodeIdempotencyKey(String idempotencyKey) {
+        try {
+            UUID uuid = UUID.fromString(idempotencyKey);
+            // UUID.fromString is lenient about digit counts; only canonical forms are kept as-is
+            if (uuid.toString().equalsIgnoreCase(idempotencyKey)) {
+                return uuid;
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a UUID: fall through to the name-based form
+        }
+        return UUID.nameUUIDFromBytes(idempotencyKey.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ==================== Status ====================
+
+    public static short encodeStatus(PaymentStatus status) {
+        return switch (status) {
+            case PENDING -> 1;
+            case PROCESSING -> 2;
+            case SETTLED -> 3;
+            case REJECTED -> 4;
+            case CANCELLED -> 5;
+        };
+    }
+
+    public static PaymentStatus decodeStatus(short code) {
+        return switch (code) {
+            case 1 -> PaymentStatus.PENDING;
+            case 2 -> PaymentStatus.PROCESSING;
+            case 3 -> PaymentStatus.SETTLED;
+            case 4 -> PaymentStatus.REJECTED;
+            case 5 -> PaymentStatus.CANCELLED;
+            default -> throw new IllegalArgumentException("Unknown payment status code: " + code);
+        };
+    }
+
+    // ==================== Currency ====================
+
+    public static short encodeCurrency(Currency currency) {
+        int numericCode = currency.getNumericCode();
+        if (numericCode <= 0) {
+            throw new IllegalArgumentException("Currency has no ISO 4217 numeric code: " + currency);
+        }
+        return (short) numericCode;
+    }
+
+    public static Currency decodeCurrency(short numericCode) {
+        Currency currency = CURRENCIES_BY_NUMERIC_CODE.get((int) numericCode);
+        if (currency == null) {
+            throw new IllegalArgumentException("Unknown ISO 4217 numeric code: " + numericCode);
+        }
+        return currency;
+    }
+
+    // ==================== IBAN ====================
+
+    /**
+     * Packs a normalized IBAN (A-Z, 0-9) six bits per character.
+     * When the last byte leaves room for a whole extra character, that slot
+     * holds the padding code 63, so the length is recoverable from the bytes.
+     * A 24-character Spanish IBAN takes 18 bytes.
+     */
+    public static byte[] encodeIban(IBAN iban) {
+        String value = iban.value();
+        int chars = value.length();
+        int totalBits = chars * IBAN_BITS_PER_CHAR;
+        byte[] packed = new byte[(totalBits + 7) / 8];
+
+        int bit = 0;
+        for (int i = 0; i < chars; i++) {
+            bit = writeSlot(packed, bit, ibanCharCode(value.charAt(i)));
+        }
+        if (packed.length * 8 - bit >= IBAN_BITS_PER_CHAR) {
+            writeSlot(packed, bit, IBAN_PADDING);
+        }
+        return packed;
+    }
+
+    public static IBAN decodeIban(byte[] packed) {
+        int slots = packed.length * 8 / IBAN_BITS_PER_CHAR;
+        char[] value = new char[slots];
+        int length = 0;
+        while (length < slots) {
+            int code = readSlot(packed, length * IBAN_BITS_PER_CHAR);
+            if (code == IBAN_PADDING) {
+                break;
+            }
+            value[length++] = code < 10 ? (char) ('0' + code) : (char) ('A' + code - 10);
+        }
+        // Unpacked values are already normalized, so IBAN only checks their shape
+        return new IBAN(new String(value, 0, length));
+    }
+
+    private static int ibanCharCode(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 10;
+        }
+        throw new IllegalArgumentException("Invalid IBAN character: " + c);
+    }
+
+    private static int writeSlot(byte[] packed, int bit, int code) {
+        for (int i = IBAN_BITS_PER_CHAR - 1; i >= 0; i--, bit++) {
+            if ((code >> i & 1) != 0) {
+                packed[bit >> 3] |= (byte) (0x80 >>> (bit & 7));
+            }
+        }
+        return bit;
+    }
+
+    private static int readSlot(byte[] packed, int bit) {
+        int code = 0;
+        for (int i = 0; i < IBAN_BITS_PER_CHAR; i++, bit++) {
+            code = code << 1 | (packed[bit >> 3] >> (7 - (bit & 7)) & 1);
+        }
+        return code;
+    }
+}
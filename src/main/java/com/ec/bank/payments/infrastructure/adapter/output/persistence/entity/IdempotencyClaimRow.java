@@ -0,0 +1,17 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.entity;
+
+import org.springframework.data.relational.core.mapping.Column;
+
+import java.util.UUID;
+
+/**
+ * Read-only projection returned by the claim-and-insert statement.
+ * {@code claimed} is true when the row was inserted by this statement;
+ * the request hash and response are those of the claim holding the key.
+ */
+public record IdempotencyClaimRow(
+        @Column("payment_order_id") UUID paymentOrderId,
+        @Column("claimed") Boolean claimed,
+        @Column("request_hash") String requestHash,
+        @Column("response_body") byte[] responseBody
+) {}
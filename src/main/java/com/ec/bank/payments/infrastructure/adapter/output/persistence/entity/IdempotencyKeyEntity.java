@@ -9,6 +9,7 @@ import org.springframework.data.relational.core.mapping.Column;
 import org.springframework.data.relational.core.mapping.Table;
 
 import java.time.Instant;
+import java.util.UUID;
 
 /**
  * R2DBC entity for idempotency keys.
@@ -26,14 +27,20 @@ public class IdempotencyKeyEntity {
     private Long id;
 
     @Column("idempotency_key")
-    private String idempotencyKey;
+    private UUID idempotencyKey;
 
     @Column("payment_order_id")
-    private String paymentOrderId;
+    private UUID paymentOrderId;
 
     @Column("created_at")
     private Instant createdAt;
 
     @Column("expires_at")
     private Instant expiresAt;
+
+    @Column("request_hash")
+    private String requestHash;
+
+    @Column("response_body")
+    private byte[] responseBody;
 }
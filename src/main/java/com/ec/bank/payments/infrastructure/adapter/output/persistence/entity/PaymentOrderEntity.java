@@ -12,10 +12,12 @@ import org.springframework.data.relational.core.mapping.Table;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.UUID;
 
 /**
  * R2DBC entity for payment orders.
- * Maps to payment_orders table in PostgreSQL.
+ * Maps to payment_orders table in PostgreSQL, whose columns hold the compact
+ * encodings of StorageCodec: uuid ID, packed IBANs, numeric currency and status codes.
  */
 @Data
 @Builder
@@ -29,22 +31,22 @@ public class PaymentOrderEntity {
     private Long id;
     
     @Column("payment_order_id")
-    private String paymentOrderId;
+    private UUID paymentOrderId;
     
     @Column("payment_order_reference")
     private String paymentOrderReference;
     
     @Column("debtor_account")
-    private String debtorAccount;
+    private byte[] debtorAccount;
     
     @Column("creditor_account")
-    private String creditorAccount;
+    private byte[] creditorAccount;
     
     @Column("amount")
     private BigDecimal amount;
     
     @Column("currency")
-    private String currency;
+    private Short currency;
     
     @Column("remittance_information")
     private String remittanceInformation;
@@ -53,7 +55,7 @@ public class PaymentOrderEntity {
     private LocalDate requestedExecutionDate;
     
     @Column("status")
-    private String status;
+    private Short status;
     
     @Column("created_at")
     private Instant createdAt;
@@ -0,0 +1,153 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.filter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Scalable Bloom filter (Almeida et al.): when the current slice reaches its
+ * capacity a larger slice with a tighter false-positive rate is appended, so
+ * the compound rate stays bounded however many keys arrive.
+ * Bits are set with CAS; only growing takes a lock.
+ */
+public final class ScalableBloomFilter {
+
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final List<Slice> slices = new CopyOnWriteArrayList<>();
+
+    public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        // The first slice gets half the budget; the tightening series sums to the target
+        slices.add(new Slice(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+    }
+
+    /**
+     * Adds a pre-hashed key.
+     */
+    public void put(long hash) {
+        Slice current = slices.get(slices.size() - 1);
+        if (current.isFull()) {
+            current = grow(current);
+        }
+        current.put(hash);
+    }
+
+    /**
+     * Returns false only if the key was definitely never added.
+     */
+    public boolean mightContain(long hash) {
+        for (Slice slice : slices) {
+            if (slice.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estimated false-positive rate from the current fill of every slice.
+     */
+    public double expectedFalsePositiveRate() {
+        double none = 1.0;
+        for (Slice slice : slices) {
+            none *= 1.0 - slice.expectedFalsePositiveRate();
+        }
+        return 1.0 - none;
+    }
+
+    int sliceCount() {
+        return slices.size();
+    }
+
+    private synchronized Slice grow(Slice full) {
+        Slice last = slices.get(slices.size() - 1);
+        if (last != full) {
+            return last;
+        }
+        Slice next = new Slice(
+                (int) Math.min(Integer.MAX_VALUE / 64L, (long) full.capacity * GROWTH_FACTOR),
+                full.falsePositiveRate * TIGHTENING_RATIO);
+        slices.add(next);
+        return next;
+    }
+
+    /**
+     * Classic fixed-size Bloom filter using double hashing (Kirsch-Mitzenmacher).
+     */
+    private static final class Slice {
+
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final int numBits;
+        private final int numHashes;
+        private final AtomicLongArray bits;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder bitsSet = new LongAdder();
+
+        Slice(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long optimalBits = (long) Math.ceil(
+                    -capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.numBits = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63L));
+            this.numHashes = Math.max(1, (int) Math.round((double) numBits / capacity * Math.log(2)));
+            this.bits = new AtomicLongArray((numBits + 63) >>> 6);
+        }
+
+        boolean isFull() {
+            return count.sum() >= capacity;
+        }
+
+        void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < numHashes; i++) {
+                if (setBit(index(h1 + i * h2))) {
+                    bitsSet.increment();
+                }
+            }
+            count.increment();
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < numHashes; i++) {
+                int index = index(h1 + i * h2);
+                if ((bits.get(index >>> 6) & (1L << index)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        double expectedFalsePositiveRate() {
+            return Math.pow((double) bitsSet.sum() / numBits, numHashes);
+        }
+
+        private int index(int combined) {
+            return (combined & Integer.MAX_VALUE) % numBits;
+        }
+
+        private boolean setBit(int index) {
+            int word = index >>> 6;
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+                if ((current & mask) != 0) {
+                    return false;
+                }
+            } while (!bits.compareAndSet(word, current, current | mask));
+            return true;
+        }
+    }
+}
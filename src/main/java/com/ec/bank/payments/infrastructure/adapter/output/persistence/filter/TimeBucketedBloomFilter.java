@@ -0,0 +1,126 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.filter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring of scalable Bloom filters, one per time bucket, covering a sliding window.
+ * Keys go into the bucket of their creation time; buckets older than the window
+ * are ignored by lookups and recycled by the next insert that maps to their slot,
+ * so expired keys drop out without rebuilding anything.
+ */
+public final class TimeBucketedBloomFilter {
+
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final int bucketCapacity;
+    private final double bucketFalsePositiveRate;
+    private final AtomicReferenceArray<Bucket> ring;
+
+    /**
+     * @param window            How long a key must be remembered
+     * @param bucketWidth       Granularity at which keys are forgotten
+     * @param keysPerBucket     Expected insertions per bucket (the filter grows past it)
+     * @param falsePositiveRate Target rate for a lookup across the whole window
+     */
+    public TimeBucketedBloomFilter(Duration window, Duration bucketWidth,
+                                   int keysPerBucket, double falsePositiveRate) {
+        if (bucketWidth.isZero() || bucketWidth.isNegative() || window.compareTo(bucketWidth) < 0) {
+            throw new IllegalArgumentException("Window must span at least one positive bucket");
+        }
+        this.bucketMillis = bucketWidth.toMillis();
+        // One extra bucket: the oldest live key may sit in a bucket that started before the window
+        this.bucketCount = (int) (window.toMillis() / bucketMillis) + 1;
+        this.bucketCapacity = keysPerBucket;
+        // A lookup probes every bucket, so each gets a share of the target rate
+        this.bucketFalsePositiveRate = falsePositiveRate / bucketCount;
+        this.ring = new AtomicReferenceArray<>(bucketCount);
+    }
+
+    public void put(String key, Instant createdAt, Instant now) {
+        long bucketId = bucketOf(createdAt);
+        if (bucketId < oldestLiveBucket(now)) {
+            return;
+        }
+        Bucket bucket = bucketFor(bucketId);
+        if (bucket != null) {
+            bucket.filter().put(hash(key));
+        }
+    }
+
+    /**
+     * Returns false only if the key was definitely not added within the window.
+     */
+    public boolean mightContain(String key, Instant now) {
+        long hash = hash(key);
+        long oldest = oldestLiveBucket(now);
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.id() >= oldest && bucket.filter().mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Estimated false-positive rate of a lookup across all live buckets.
+     */
+    public double expectedFalsePositiveRate(Instant now) {
+        long oldest = oldestLiveBucket(now);
+        double none = 1.0;
+        for (int i = 0; i < bucketCount; i++) {
+            Bucket bucket = ring.get(i);
+            if (bucket != null && bucket.id() >= oldest) {
+                none *= 1.0 - bucket.filter().expectedFalsePositiveRate();
+            }
+        }
+        return 1.0 - none;
+    }
+
+    private Bucket bucketFor(long bucketId) {
+        int slot = (int) Math.floorMod(bucketId, (long) bucketCount);
+        while (true) {
+            Bucket current = ring.get(slot);
+            if (current != null && current.id() == bucketId) {
+                return current;
+            }
+            if (current != null && current.id() > bucketId) {
+                // Slot already recycled for a newer bucket; the key has expired
+                return null;
+            }
+            Bucket fresh = new Bucket(bucketId, new ScalableBloomFilter(bucketCapacity, bucketFalsePositiveRate));
+            if (ring.compareAndSet(slot, current, fresh)) {
+                return fresh;
+            }
+        }
+    }
+
+    private long bucketOf(Instant instant) {
+        return Math.floorDiv(instant.toEpochMilli(), bucketMillis);
+    }
+
+    private long oldestLiveBucket(Instant now) {
+        return bucketOf(now) - (bucketCount - 1);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 fmix64 avalanche.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h ^= key.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record Bucket(long id, ScalableBloomFilter filter) {}
+}
@@ -0,0 +1,93 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.notification;
+
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Wrapped;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Subscribes to PostgreSQL LISTEN/NOTIFY channels.
+ * Each listened channel holds one connection for as long as it has subscribers;
+ * the connection is re-established with backoff if it drops.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PostgresNotificationListener {
+
+    private static final Duration MIN_BACKOFF = Duration.ofMillis(500);
+    private static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+
+    private final ConnectionFactory connectionFactory;
+
+    /**
+     * Streams notification payloads published on a channel.
+     *
+     * @param channel   The channel name (a plain SQL identifier)
+     * @param onConnect Invoked each time LISTEN is (re)issued; notifications sent
+     *                  while disconnected are lost, so subscribers resync here
+     * @return Flux of payloads, hot and shared between subscribers
+     */
+    public Flux<String> listen(String channel, Runnable onConnect) {
+        Objects.requireNonNull(channel, "Channel cannot be null");
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Invalid channel name: " + channel);
+        }
+
+        return Flux.usingWhen(
+                        Mono.from(connectionFactory.create()),
+                        connection -> subscribe(connection, channel, onConnect),
+                        connection -> release(connection, channel),
+                        (connection, error) -> release(connection, channel),
+                        connection -> release(connection, channel))
+                .doOnError(e -> log.warn("Notification channel {} disconnected: {}", channel, e.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, MIN_BACKOFF).maxBackoff(MAX_BACKOFF))
+                .share();
+    }
+
+    private Flux<String> subscribe(Connection connection, String channel, Runnable onConnect) {
+        PostgresqlConnection postgres = unwrap(connection);
+
+        return postgres.createStatement("LISTEN " + channel)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .then(Mono.fromRunnable(() -> {
+                    log.info("Listening on notification channel: {}", channel);
+                    onConnect.run();
+                }))
+                .thenMany(postgres.getNotifications())
+                .map(Notification::getParameter)
+                .filter(Objects::nonNull);
+    }
+
+    private Mono<Void> release(Connection connection, String channel) {
+        return Mono.from(connection.createStatement("UNLISTEN " + channel).execute())
+                .then()
+                .onErrorResume(e -> Mono.empty())
+                .then(Mono.from(connection.close()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private PostgresqlConnection unwrap(Connection connection) {
+        Connection current = connection;
+        while (!(current instanceof PostgresqlConnection) && current instanceof Wrapped<?>) {
+            current = ((Wrapped<Connection>) current).unwrap();
+        }
+        if (current instanceof PostgresqlConnection postgres) {
+            return postgres;
+        }
+        throw new IllegalStateException("LISTEN/NOTIFY requires a PostgreSQL connection, got: "
+                + connection.getClass().getName());
+    }
+}
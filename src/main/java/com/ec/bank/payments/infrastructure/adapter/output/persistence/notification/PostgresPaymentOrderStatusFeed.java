@@ -0,0 +1,201 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.notification;
+
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderStatusChange;
+import com.ec.bank.payments.domain.port.output.PaymentOrderStatusFeed;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Feeds status subscriptions from the payment_orders notifications of
+ * notify_payment_order_change(). One LISTEN connection serves every
+ * subscriber of the instance: subscribers are indexed by the order IDs and
+ * debtor they watch, so each notification costs two map lookups however many
+ * subscriptions are idle. A subscriber reading slower than changes arrive
+ * keeps only its most recent ones.
+ */
+@Slf4j
+@Component
+public class PostgresPaymentOrderStatusFeed implements PaymentOrderStatusFeed {
+
+    static final String CHANNEL = "payment_orders";
+
+    private final PostgresNotificationListener notificationListener;
+    private final ObjectMapper objectMapper;
+    private final int maxPending;
+
+    private final Map<Object, Set<Consumer<PaymentOrderStatusChange>>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+    private final Counter deliveredCounter;
+    private final Counter droppedCounter;
+
+    private Disposable notifications;
+
+    public PostgresPaymentOrderStatusFeed(
+            PostgresNotificationListener notificationListener,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${application.status-feed.max-pending-per-subscriber:256}") int maxPending) {
+        this.notificationListener = notificationListener;
+        this.objectMapper = objectMapper;
+        this.maxPending = maxPending;
+
+        Gauge.builder("payment.order.status.subscriptions", subscriptions, AtomicInteger::get)
+                .description("Open payment order status subscriptions")
+                .register(meterRegistry);
+
+        this.deliveredCounter = Counter.builder("payment.order.status.feed.delivered")
+                .description("Status changes delivered to subscribers")
+                .register(meterRegistry);
+
+        this.droppedCounter = Counter.builder("payment.order.status.feed.dropped")
+                .description("Status changes dropped because a subscriber fell behind")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void subscribe() {
+        // Changes missed while disconnected are not replayed; see PaymentOrderStatusFeed.watch
+        notifications = notificationListener.listen(CHANNEL, () -> {})
+                .subscribe(this::onNotification,
+                        e -> log.error("Payment order status notifications stopped", e));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (notifications != null) {
+            notifications.dispose();
+        }
+    }
+
+    @Override
+    public Flux<PaymentOrderStatusChange> watch(Set<PaymentOrderId> paymentOrderIds, IBAN debtorAccount) {
+        List<Object> keys = new ArrayList<>();
+        // IDs that cannot be stored never change, so they need no subscription
+        paymentOrderIds.forEach(id -> StorageCodec.encodePaymentOrderId(id).ifPresent(keys::add));
+        if (debtorAccount != null) {
+            keys.add(new DebtorKey(HexFormat.of().formatHex(StorageCodec.encodeIban(debtorAccount))));
+        }
+        if (keys.isEmpty()) {
+            return Flux.never();
+        }
+
+        return Flux.<PaymentOrderStatusChange>create(sink -> {
+                    Consumer<PaymentOrderStatusChange> subscriber = sink::next;
+                    keys.forEach(key -> subscribers.compute(key, (k, watching) -> {
+                        Set<Consumer<PaymentOrderStatusChange>> set =
+                                watching != null ? watching : ConcurrentHashMap.newKeySet();
+                        set.add(subscriber);
+                        return set;
+                    }));
+                    subscriptions.incrementAndGet();
+                    sink.onDispose(() -> {
+                        keys.forEach(key -> subscribers.computeIfPresent(key, (k, watching) -> {
+                            watching.remove(subscriber);
+                            return watching.isEmpty() ? null : watching;
+                        }));
+                        subscriptions.decrementAndGet();
+                    });
+                })
+                .onBackpressureBuffer(maxPending, dropped -> droppedCounter.increment(),
+                        BufferOverflowStrategy.DROP_OLDEST);
+    }
+
+    void onNotification(String payload) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            StatusNotification notification = objectMapper.readValue(payload, StatusNotification.class);
+            if (notification.status() == null) {
+                // Deletes carry no status
+                return;
+            }
+            UUID paymentOrderId = UUID.fromString(notification.paymentOrderId());
+            Set<Consumer<PaymentOrderStatusChange>> byOrder = subscribers.get(paymentOrderId);
+            Set<Consumer<PaymentOrderStatusChange>> byDebtor = notification.debtorAccount() != null
+                    ? subscribers.get(new DebtorKey(notification.debtorAccount()))
+                    : null;
+            if (byOrder == null && byDebtor == null) {
+                return;
+            }
+
+            PaymentOrderStatusChange change = new PaymentOrderStatusChange(
+                    StorageCodec.decodePaymentOrderId(paymentOrderId),
+                    StorageCodec.decodeStatus(notification.status()),
+                    notification.version() != null ? notification.version() : 0L,
+                    toInstant(notification.lastUpdatedAt()));
+
+            // A subscriber watching both the order and its debtor gets the change once
+            Set<Consumer<PaymentOrderStatusChange>> targets = byOrder == null ? byDebtor
+                    : byDebtor == null ? byOrder
+                    : union(byOrder, byDebtor);
+            targets.forEach(subscriber -> subscriber.accept(change));
+            deliveredCounter.increment(targets.size());
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            log.warn("Ignoring malformed payment order status notification: {}", payload);
+        }
+    }
+
+    private static Set<Consumer<PaymentOrderStatusChange>> union(
+            Set<Consumer<PaymentOrderStatusChange>> first,
+            Set<Consumer<PaymentOrderStatusChange>> second) {
+        Set<Consumer<PaymentOrderStatusChange>> union = new HashSet<>(first);
+        union.addAll(second);
+        return union;
+    }
+
+    private static Instant toInstant(BigDecimal epochSeconds) {
+        if (epochSeconds == null) {
+            return Instant.now();
+        }
+        long seconds = epochSeconds.longValue();
+        long nanos = epochSeconds.subtract(BigDecimal.valueOf(seconds)).movePointRight(9).longValue();
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    /**
+     * Subscription key of a debtor, the hex of its packed account; distinct
+     * from the UUID keys of orders.
+     */
+    private record DebtorKey(String packedHex) {}
+
+    /**
+     * Payload published by notify_payment_order_change() for updates.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    record StatusNotification(
+            String paymentOrderId,
+            Long version,
+            Short status,
+            BigDecimal lastUpdatedAt,
+            String debtorAccount) {}
+}
@@ -0,0 +1,205 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.outbox;
+
+import com.ec.bank.payments.domain.model.PaymentOrderEvent;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentEventSink;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.notification.PostgresNotificationListener;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Row;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Relays the payment_order_events outbox to the PaymentEventSink.
+ * Each batch is read, published and deleted in one transaction, so an event
+ * leaves the outbox only after the sink accepted it; a failure anywhere
+ * publishes the batch again, hence at-least-once delivery.
+ * The relay drains when the outbox triggers notify, and polls at a slow pace
+ * in case a notification was missed. Every replica listens; a batch only
+ * proceeds on the replica that wins the relay advisory lock, which keeps the
+ * events of an order in order.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "application.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    static final String CHANNEL = "payment_order_events";
+
+    // Namespace 3 of the advisory locks listed in schema.sql
+    private static final String LOCK =
+            "SELECT pg_try_advisory_xact_lock(3, hashtext('payment_order_events_relay')) AS leader";
+
+    private static final String FETCH_BATCH = """
+            SELECT event_id, event_type, payment_order_id, status, previous_status, version, occurred_at
+            FROM payment_order_events
+            ORDER BY event_id
+            LIMIT :limit
+            """;
+
+    // By ID, not up to the last one: a lower event_id may still commit after the batch was read
+    private static final String DELETE_BATCH = "DELETE FROM payment_order_events WHERE event_id = ANY(:eventIds)";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final PostgresNotificationListener notificationListener;
+    private final PaymentEventSink sink;
+    private final int batchSize;
+    private final Duration pollInterval;
+
+    private final Counter publishedCounter;
+    private final Counter failedBatchCounter;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer lagTimer;
+
+    private Disposable schedule;
+
+    public OutboxRelay(
+            DatabaseClient databaseClient,
+            ReactiveTransactionManager transactionManager,
+            PostgresNotificationListener notificationListener,
+            PaymentEventSink sink,
+            MeterRegistry meterRegistry,
+            @Value("${application.outbox.relay.batch-size:500}") int batchSize,
+            @Value("${application.outbox.relay.poll-interval:10s}") Duration pollInterval) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.notificationListener = notificationListener;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.pollInterval = pollInterval;
+
+        this.publishedCounter = Counter.builder("payment.outbox.relay.published")
+                .description("Payment order events published from the outbox")
+                .register(meterRegistry);
+
+        this.failedBatchCounter = Counter.builder("payment.outbox.relay.failed")
+                .description("Outbox batches left in place after a failure, to be published again")
+                .register(meterRegistry);
+
+        this.batchSizeSummary = DistributionSummary.builder("payment.outbox.relay.batch.size")
+                .description("Number of events published per outbox batch")
+                .register(meterRegistry);
+
+        this.lagTimer = Timer.builder("payment.outbox.relay.lag")
+                .description("Time from a payment order change to the publication of its event")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        // Events recorded while the listener was disconnected are picked up by the poll
+        Flux<Object> notifications = notificationListener.listen(CHANNEL, () -> {}).cast(Object.class);
+        Flux<Object> polls = Flux.interval(Duration.ZERO, pollInterval).cast(Object.class);
+
+        // A wake-up arriving during a drain is kept, so the events behind it are not left waiting for the poll
+        schedule = Flux.merge(notifications, polls)
+                .onBackpressureLatest()
+                .concatMap(wakeUp -> drain()
+                        .onErrorResume(e -> {
+                            failedBatchCounter.increment();
+                            log.error("Outbox relay failed", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    /**
+     * Relays batches until one comes back partial, meaning the outbox is drained.
+     */
+    Mono<Void> drain() {
+        return relayBatch()
+                .expand(published -> published >= batchSize ? relayBatch() : Mono.empty())
+                .then();
+    }
+
+    /**
+     * Publishes one batch if this replica wins the lock.
+     *
+     * @return Mono emitting the number of events published
+     */
+    Mono<Integer> relayBatch() {
+        return databaseClient.sql(LOCK)
+                .map(row -> Boolean.TRUE.equals(row.get("leader", Boolean.class)))
+                .one()
+                .flatMap(leader -> {
+                    if (!leader) {
+                        log.debug("Outbox relay held by another replica, skipping");
+                        return Mono.just(0);
+                    }
+                    return databaseClient.sql(FETCH_BATCH)
+                            .bind("limit", batchSize)
+                            .map((row, metadata) -> toEvent(row))
+                            .all()
+                            .collectList()
+                            .flatMap(this::publish);
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Integer> publish(List<PaymentOrderEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.just(0);
+        }
+        Long[] eventIds = events.stream().map(PaymentOrderEvent::eventId).toArray(Long[]::new);
+
+        return sink.publish(events)
+                .then(databaseClient.sql(DELETE_BATCH)
+                        .bind("eventIds", eventIds)
+                        .fetch()
+                        .rowsUpdated())
+                .then(Mono.fromCallable(() -> {
+                    Instant now = Instant.now();
+                    events.forEach(event -> lagTimer.record(Duration.between(event.occurredAt(), now)));
+                    publishedCounter.increment(events.size());
+                    batchSizeSummary.record(events.size());
+                    log.debug("Published {} payment order events up to {}",
+                            events.size(), eventIds[eventIds.length - 1]);
+                    return events.size();
+                }));
+    }
+
+    private static PaymentOrderEvent toEvent(Row row) {
+        Short code = row.get("event_type", Short.class);
+        PaymentOrderEvent.Type type = switch (code == null ? 0 : code) {
+            case 1 -> PaymentOrderEvent.Type.CREATED;
+            case 2 -> PaymentOrderEvent.Type.STATUS_CHANGED;
+            default -> throw new IllegalStateException("Unknown payment order event type: " + code);
+        };
+        return new PaymentOrderEvent(
+                row.get("event_id", Long.class),
+                type,
+                row.get("payment_order_id", PaymentOrderId.class),
+                row.get("status", PaymentStatus.class),
+                row.get("previous_status", PaymentStatus.class),
+                row.get("version", Long.class),
+                row.get("occurred_at", Instant.class));
+    }
+}
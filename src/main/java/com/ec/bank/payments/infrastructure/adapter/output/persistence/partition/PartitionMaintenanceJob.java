@@ -0,0 +1,186 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.partition;
+
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter.IdempotencyRepositoryAdapter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps the partitions of partitioned tables in place.
+ * Each run pre-creates the partitions for the coming days or months and retires
+ * those whose whole range is past retention, which is O(1) per partition instead
+ * of a row-by-row DELETE. Daily partitions are dropped; monthly partitions of
+ * payment_orders are only detached, leaving a plain table to archive.
+ * Every replica schedules the job; a run only proceeds on the replica that wins
+ * the partition_maintenance advisory lock, the others skip until the next tick.
+ */
+@Slf4j
+@Component
+public class PartitionMaintenanceJob {
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final Duration interval;
+    private final List<PartitionPolicy> policies;
+
+    private final Counter leaderRunCounter;
+    private final Counter skippedRunCounter;
+    private final MeterRegistry meterRegistry;
+
+    private Disposable schedule;
+
+    public PartitionMaintenanceJob(
+            DatabaseClient databaseClient,
+            ReactiveTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${application.partitions.maintenance-interval:PT1H}") Duration interval,
+            @Value("${application.partitions.days-ahead:3}") int daysAhead,
+            @Value("${application.partitions.months-ahead:2}") int monthsAhead,
+            @Value("${application.partitions.payment-orders-retention:400d}") Duration paymentOrdersRetention) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.interval = interval;
+        this.meterRegistry = meterRegistry;
+        this.policies = List.of(
+                new PartitionPolicy("idempotency_keys", PartitionRange.DAILY, daysAhead,
+                        Duration.ofHours(IdempotencyRepositoryAdapter.EXPIRATION_HOURS)),
+                new PartitionPolicy("payment_orders", PartitionRange.MONTHLY, monthsAhead,
+                        paymentOrdersRetention));
+
+        this.leaderRunCounter = Counter.builder("payment.partition.maintenance.runs")
+                .description("Partition maintenance runs performed by this replica as leader")
+                .register(meterRegistry);
+
+        this.skippedRunCounter = Counter.builder("payment.partition.maintenance.skipped")
+                .description("Partition maintenance runs skipped because another replica held the lock")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        schedule = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> runOnce()
+                        .onErrorResume(e -> {
+                            log.error("Partition maintenance failed", e);
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    /**
+     * Runs maintenance for every policy if this replica wins the lock.
+     * The lock is transaction-scoped, so it is released however the run ends.
+     */
+    Mono<Void> runOnce() {
+        // Namespace 1, shared with the partition functions of schema.sql
+        return databaseClient.sql("SELECT pg_try_advisory_xact_lock(1, hashtext('partition_maintenance')) AS leader")
+                .map(row -> Boolean.TRUE.equals(row.get("leader", Boolean.class)))
+                .one()
+                .flatMap(leader -> {
+                    if (!leader) {
+                        skippedRunCounter.increment();
+                        log.debug("Partition maintenance held by another replica, skipping");
+                        return Mono.empty();
+                    }
+                    leaderRunCounter.increment();
+                    return Flux.fromIterable(policies)
+                            .concatMap(this::maintain)
+                            .then();
+                })
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Void> maintain(PartitionPolicy policy) {
+        PartitionRange range = policy.range();
+        Mono<Integer> created = databaseClient
+                .sql("""
+                        SELECT %s(:table,
+                                CAST(CURRENT_DATE - INTERVAL '1 %s' AS DATE),
+                                CAST(CURRENT_DATE + :ahead * INTERVAL '1 %s' AS DATE)) AS created
+                        """.formatted(range.createFunction, range.unit, range.unit))
+                .bind("table", policy.table())
+                .bind("ahead", policy.ahead())
+                .map(row -> row.get("created", Integer.class))
+                .one();
+
+        Mono<Integer> retired = databaseClient
+                .sql("""
+                        SELECT %s(:table,
+                                CAST(LOCALTIMESTAMP - make_interval(secs => :retentionSeconds) AS DATE)) AS retired
+                        """.formatted(range.retireFunction))
+                .bind("table", policy.table())
+                .bind("retentionSeconds", (double) policy.retention().toSeconds())
+                .map(row -> row.get("retired", Integer.class))
+                .one();
+
+        return created.zipWhen(count -> retired)
+                .doOnNext(counts -> {
+                    meterRegistry.counter("payment.partition.created", "table", policy.table())
+                            .increment(counts.getT1());
+                    meterRegistry.counter(range.retiredMetric, "table", policy.table())
+                            .increment(counts.getT2());
+                    if (counts.getT1() > 0 || counts.getT2() > 0) {
+                        log.info("Partitions of {}: created {}, {} {}",
+                                policy.table(), counts.getT1(), range.retiredVerb, counts.getT2());
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * Partition granularity, with the schema.sql functions that maintain it.
+     */
+    enum PartitionRange {
+        DAILY("day", "create_daily_partitions", "drop_daily_partitions_before",
+                "payment.partition.dropped", "dropped"),
+        MONTHLY("month", "create_monthly_partitions", "detach_monthly_partitions_before",
+                "payment.partition.detached", "detached");
+
+        private final String unit;
+        private final String createFunction;
+        private final String retireFunction;
+        private final String retiredMetric;
+        private final String retiredVerb;
+
+        PartitionRange(String unit, String createFunction, String retireFunction,
+                       String retiredMetric, String retiredVerb) {
+            this.unit = unit;
+            this.createFunction = createFunction;
+            this.retireFunction = retireFunction;
+            this.retiredMetric = retiredMetric;
+            this.retiredVerb = retiredVerb;
+        }
+    }
+
+    /**
+     * A table range-partitioned on its creation timestamp.
+     *
+     * @param table     Partitioned table name
+     * @param range     Size of each partition
+     * @param ahead     Days or months of partitions to keep created ahead of today
+     * @param retention Age past which a whole partition of rows is retired
+     */
+    record PartitionPolicy(String table, PartitionRange range, int ahead, Duration retention) {}
+}
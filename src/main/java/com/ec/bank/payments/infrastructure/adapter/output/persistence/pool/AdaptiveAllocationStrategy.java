@@ -0,0 +1,201 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.pool;
+
+import io.r2dbc.spi.Connection;
+import reactor.pool.AllocationStrategy;
+import reactor.pool.PoolBuilder;
+import reactor.pool.PoolConfig;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Pool allocation strategy whose size limit moves between fixed bounds.
+ * Permits are granted up to the current limit; the pool evicts connections on
+ * release while more are allocated than the limit allows. Each such eviction
+ * is claimed first, so releases racing each other evict only the excess.
+ * Each sizing window moves the limit:
+ * - down by a quarter when connections are held much longer than usual: the
+ *   database is slow, and more connections would only queue inside it;
+ * - up by a quarter when acquisitions had to wait while holds stayed normal:
+ *   the pool is starving callers the database could serve;
+ * - down by one when the busiest moment used under half of it.
+ */
+public class AdaptiveAllocationStrategy implements AllocationStrategy {
+
+    /**
+     * Weight of a window in the usual hold time while holds are normal. Slow windows
+     * weigh much less, so a lasting slowdown eventually becomes the new normal.
+     */
+    private static final double NORMAL_WEIGHT = 0.2;
+    private static final double SLOW_WEIGHT = 0.02;
+
+    private final int minSize;
+    private final int maxSize;
+    private final double slowQueryFactor;
+    private final AtomicInteger granted = new AtomicInteger();
+    // Connections already chosen for eviction whose permits are not yet returned
+    private final AtomicInteger evicting = new AtomicInteger();
+
+    private volatile int limit;
+    private double usualHoldNanos;
+
+    public AdaptiveAllocationStrategy(int minSize, int maxSize, int initialLimit, double slowQueryFactor) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Pool bounds must satisfy 1 <= min <= max");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.limit = Math.max(minSize, Math.min(maxSize, initialLimit));
+        this.slowQueryFactor = slowQueryFactor;
+    }
+
+    /**
+     * Why the limit moved in a window.
+     */
+    public enum Reason {
+        STARVATION, SLOW_QUERIES, IDLE
+    }
+
+    /**
+     * Moves the limit after a sizing window.
+     *
+     * @return Why the limit moved, or null when it stayed
+     */
+    synchronized Reason adjust(PoolWindow window) {
+        double meanHold = window.meanHoldNanos();
+        boolean slow = window.holds() > 0 && usualHoldNanos > 0 && meanHold > usualHoldNanos * slowQueryFactor;
+        if (window.holds() > 0) {
+            double weight = slow ? SLOW_WEIGHT : NORMAL_WEIGHT;
+            usualHoldNanos = usualHoldNanos == 0 ? meanHold : usualHoldNanos + weight * (meanHold - usualHoldNanos);
+        }
+
+        int current = limit;
+        int step = Math.max(1, current / 4);
+        if (slow) {
+            return resize(current - step, Reason.SLOW_QUERIES);
+        }
+        if (window.starvedAcquisitions() > 0) {
+            return resize(current + step, Reason.STARVATION);
+        }
+        if (window.peakAcquired() * 2 < current) {
+            return resize(current - 1, Reason.IDLE);
+        }
+        return null;
+    }
+
+    private Reason resize(int target, Reason reason) {
+        int bounded = Math.max(minSize, Math.min(maxSize, target));
+        if (bounded == limit) {
+            return null;
+        }
+        limit = bounded;
+        return reason;
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Installs this strategy in a pool. Connections are evicted as r2dbc-pool would
+     * (idle or life time exceeded, zero meaning always) and also while the pool is
+     * over the limit, which is how a lowered limit shrinks it. The pool returns
+     * the permit of an evicted connection as soon as it decides to destroy it, so
+     * every eviction decided here is claimed until that return.
+     *
+     * @param maxIdleTime Idle time after which a connection is evicted, null for never
+     * @param maxLifeTime Life time after which a connection is evicted, null for never
+     */
+    public Consumer<PoolBuilder<Connection, ? extends PoolConfig<? extends Connection>>> customizer(
+            Duration maxIdleTime, Duration maxLifeTime) {
+        return builder -> builder
+                .allocationStrategy(this)
+                .evictionPredicate((connection, metadata) -> {
+                    if (exceeded(maxIdleTime, metadata.idleTime()) || exceeded(maxLifeTime, metadata.lifeTime())) {
+                        evicting.incrementAndGet();
+                        return true;
+                    }
+                    return claimEviction();
+                });
+    }
+
+    private static boolean exceeded(Duration max, long millis) {
+        return max != null && !max.isNegative() && millis >= max.toMillis();
+    }
+
+    /**
+     * Whether more connections are allocated than the limit allows, counting
+     * those already being evicted as gone.
+     */
+    boolean overLimit() {
+        return granted.get() - evicting.get() > limit;
+    }
+
+    /**
+     * Claims the eviction of one connection while the pool is over the limit.
+     *
+     * @return Whether the caller should evict its connection
+     */
+    boolean claimEviction() {
+        for (;;) {
+            int claimed = evicting.get();
+            if (granted.get() - claimed <= limit) {
+                return false;
+            }
+            if (evicting.compareAndSet(claimed, claimed + 1)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public int estimatePermitCount() {
+        return Math.max(0, limit - granted.get());
+    }
+
+    @Override
+    public int getPermits(int desired) {
+        if (desired < 0) {
+            return 0;
+        }
+        for (;;) {
+            int current = granted.get();
+            // Up to the limit, but always enough to keep the minimum allocated
+            int toGrant = Math.min(Math.max(desired, minSize - current), limit - current);
+            if (toGrant <= 0) {
+                return 0;
+            }
+            if (granted.compareAndSet(current, current + toGrant)) {
+                return toGrant;
+            }
+        }
+    }
+
+    @Override
+    public int permitGranted() {
+        return granted.get();
+    }
+
+    @Override
+    public int permitMinimum() {
+        return minSize;
+    }
+
+    @Override
+    public int permitMaximum() {
+        return maxSize;
+    }
+
+    @Override
+    public void returnPermits(int returned) {
+        if (granted.addAndGet(-returned) < 0) {
+            granted.addAndGet(returned);
+            throw new IllegalArgumentException("Too many permits returned: " + returned);
+        }
+        // Permits also come back from failed allocations, which were never
+        // claimed: those release claims early, for the instant between an
+        // eviction decision and its return
+        evicting.getAndUpdate(claimed -> Math.max(0, claimed - returned));
+    }
+}
@@ -0,0 +1,300 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.pool;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.ValidationDepth;
+import io.r2dbc.spi.Wrapped;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Connection pool wrapper that separates waiting for a connection from using it:
+ * - payment.db.pool.acquire: time from asking for a connection until getting one;
+ * - payment.db.pool.hold: time from getting a connection until closing it, which
+ *   outside transactions is the time of a single query.
+ * A p99 spike in acquire with a flat hold means the pool is starving callers; a
+ * spike in hold means the database is slow. In-use and pending counts are the
+ * r2dbc.pool.acquired and r2dbc.pool.pending gauges of the wrapped pool.
+ * With an adaptive allocation strategy, adjust() moves the pool limit after each
+ * sizing window and payment.db.pool.limit reports it.
+ */
+@Slf4j
+public class InstrumentedConnectionPool implements ConnectionFactory, Wrapped<ConnectionFactory>, Closeable {
+
+    private final String name;
+    private final ConnectionPool pool;
+    private final AdaptiveAllocationStrategy strategy;
+    private final long starvationWaitNanos;
+    private final Timer acquireTimer;
+    private final Timer holdTimer;
+    private final Map<AdaptiveAllocationStrategy.Reason, Counter> resizeCounters =
+            new EnumMap<>(AdaptiveAllocationStrategy.Reason.class);
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder starvedAcquisitions = new LongAdder();
+    private final LongAdder holds = new LongAdder();
+    private final LongAdder holdNanos = new LongAdder();
+    private final AtomicInteger peakPending = new AtomicInteger();
+    private final AtomicInteger peakAcquired = new AtomicInteger();
+
+    /**
+     * @param strategy       Allocation strategy installed in the pool, or null for a fixed-size pool
+     * @param starvationWait Acquire wait above which an acquisition counts as starved
+     */
+    public InstrumentedConnectionPool(
+            String name,
+            ConnectionPool pool,
+            AdaptiveAllocationStrategy strategy,
+            Duration starvationWait,
+            MeterRegistry meterRegistry) {
+        this.name = name;
+        this.pool = pool;
+        this.strategy = strategy;
+        this.starvationWaitNanos = starvationWait.toNanos();
+
+        this.acquireTimer = Timer.builder("payment.db.pool.acquire")
+                .description("Time spent waiting for a pooled connection")
+                .tag("pool", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.holdTimer = Timer.builder("payment.db.pool.hold")
+                .description("Time a pooled connection is held before being given back")
+                .tag("pool", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        if (strategy != null) {
+            Gauge.builder("payment.db.pool.limit", strategy, AdaptiveAllocationStrategy::limit)
+                    .description("Current size limit of an adaptive connection pool")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+            for (AdaptiveAllocationStrategy.Reason reason : AdaptiveAllocationStrategy.Reason.values()) {
+                resizeCounters.put(reason, Counter.builder("payment.db.pool.resize")
+                        .description("Size limit changes of an adaptive connection pool")
+                        .tag("pool", name)
+                        .tag("reason", reason.name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                        .register(meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            samplePool();
+            return pool.create().map(connection -> {
+                long waited = System.nanoTime() - start;
+                acquireTimer.record(waited, TimeUnit.NANOSECONDS);
+                acquisitions.increment();
+                if (waited > starvationWaitNanos) {
+                    starvedAcquisitions.increment();
+                }
+                samplePool();
+                return new HeldConnection(connection);
+            });
+        });
+    }
+
+    /**
+     * Closes the current sizing window and moves the pool limit accordingly.
+     * Does nothing for a fixed-size pool.
+     */
+    public void adjust() {
+        if (strategy == null) {
+            return;
+        }
+        samplePool();
+        int before = strategy.limit();
+        AdaptiveAllocationStrategy.Reason reason = strategy.adjust(drainWindow());
+        if (reason != null) {
+            resizeCounters.get(reason).increment();
+            log.info("Pool {} limit {} -> {} ({})", name, before, strategy.limit(), reason);
+        }
+    }
+
+    PoolWindow drainWindow() {
+        int limit = strategy != null ? strategy.limit() : Integer.MAX_VALUE;
+        long starved = starvedAcquisitions.sumThenReset();
+        int pending = peakPending.getAndSet(0);
+        int acquired = peakAcquired.getAndSet(0);
+        // Waits while the pool had room were spent opening connections, not starving
+        boolean starving = pending > 0 || acquired >= limit;
+        return new PoolWindow(
+                acquisitions.sumThenReset(),
+                starving ? starved : 0,
+                pending,
+                acquired,
+                holds.sumThenReset(),
+                holdNanos.sumThenReset());
+    }
+
+    private void samplePool() {
+        pool.getMetrics().ifPresent((PoolMetrics metrics) -> {
+            peakPending.accumulateAndGet(metrics.pendingAcquireSize(), Math::max);
+            peakAcquired.accumulateAndGet(metrics.acquiredSize(), Math::max);
+        });
+    }
+
+    private void recordHold(long heldNanos) {
+        holdTimer.record(heldNanos, TimeUnit.NANOSECONDS);
+        holds.increment();
+        holdNanos.add(heldNanos);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return pool.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return pool;
+    }
+
+    @Override
+    public Mono<Void> close() {
+        return pool.close();
+    }
+
+    /**
+     * Pooled connection that records how long it was held when closed.
+     */
+    private final class HeldConnection implements Connection, Wrapped<Connection> {
+
+        private final Connection delegate;
+        private final long acquiredAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private HeldConnection(Connection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Publisher<Void> close() {
+            return Mono.defer(() -> {
+                if (released.compareAndSet(false, true)) {
+                    recordHold(System.nanoTime() - acquiredAt);
+                }
+                return Mono.from(delegate.close());
+            });
+        }
+
+        @Override
+        public Connection unwrap() {
+            return delegate;
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction() {
+            return delegate.beginTransaction();
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+            return delegate.beginTransaction(definition);
+        }
+
+        @Override
+        public Publisher<Void> commitTransaction() {
+            return delegate.commitTransaction();
+        }
+
+        @Override
+        public Batch createBatch() {
+            return delegate.createBatch();
+        }
+
+        @Override
+        public Publisher<Void> createSavepoint(String name) {
+            return delegate.createSavepoint(name);
+        }
+
+        @Override
+        public Statement createStatement(String sql) {
+            return delegate.createStatement(sql);
+        }
+
+        @Override
+        public boolean isAutoCommit() {
+            return delegate.isAutoCommit();
+        }
+
+        @Override
+        public ConnectionMetadata getMetadata() {
+            return delegate.getMetadata();
+        }
+
+        @Override
+        public IsolationLevel getTransactionIsolationLevel() {
+            return delegate.getTransactionIsolationLevel();
+        }
+
+        @Override
+        public Publisher<Void> releaseSavepoint(String name) {
+            return delegate.releaseSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransaction() {
+            return delegate.rollbackTransaction();
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+            return delegate.rollbackTransactionToSavepoint(name);
+        }
+
+        @Override
+        public Publisher<Void> setAutoCommit(boolean autoCommit) {
+            return delegate.setAutoCommit(autoCommit);
+        }
+
+        @Override
+        public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+            return delegate.setLockWaitTimeout(timeout);
+        }
+
+        @Override
+        public Publisher<Void> setStatementTimeout(Duration timeout) {
+            return delegate.setStatementTimeout(timeout);
+        }
+
+        @Override
+        public Publisher<Void> setTransactionIsolationLevel(IsolationLevel isolationLevel) {
+            return delegate.setTransactionIsolationLevel(isolationLevel);
+        }
+
+        @Override
+        public Publisher<Boolean> validate(ValidationDepth depth) {
+            return delegate.validate(depth);
+        }
+    }
+}
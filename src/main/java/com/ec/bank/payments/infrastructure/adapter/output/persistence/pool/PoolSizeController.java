@@ -0,0 +1,53 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.pool;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Closes a sizing window on every connection pool at a fixed interval, letting
+ * adaptive pools move their limit. Runs from application startup to shutdown.
+ */
+@Slf4j
+public class PoolSizeController {
+
+    private final List<InstrumentedConnectionPool> pools;
+    private final Duration interval;
+
+    private Disposable schedule;
+
+    public PoolSizeController(List<InstrumentedConnectionPool> pools, Duration interval) {
+        this.pools = List.copyOf(pools);
+        this.interval = interval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        schedule = Flux.interval(interval, interval)
+                .onBackpressureDrop()
+                .subscribe(tick -> adjustAll());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    void adjustAll() {
+        for (InstrumentedConnectionPool pool : pools) {
+            try {
+                pool.adjust();
+            } catch (RuntimeException e) {
+                log.warn("Sizing pool {} failed: {}", pool.getName(), e.getMessage());
+            }
+        }
+    }
+}
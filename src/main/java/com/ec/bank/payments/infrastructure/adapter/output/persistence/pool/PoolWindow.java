@@ -0,0 +1,26 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.pool;
+
+/**
+ * What a connection pool went through during one sizing window.
+ *
+ * @param acquisitions        Connections handed out
+ * @param starvedAcquisitions Acquisitions that waited longer than the starvation threshold while
+ *                            the pool was full or had a queue
+ * @param peakPending         Most acquisitions seen waiting at once
+ * @param peakAcquired        Most connections seen in use at once
+ * @param holds               Connections given back
+ * @param holdNanos           Total time those connections were held
+ */
+record PoolWindow(
+        long acquisitions,
+        long starvedAcquisitions,
+        int peakPending,
+        int peakAcquired,
+        long holds,
+        long holdNanos
+) {
+
+    double meanHoldNanos() {
+        return holds == 0 ? 0.0 : (double) holdNanos / holds;
+    }
+}
@@ -4,8 +4,11 @@ import com.ec.bank.payments.infrastructure.adapter.output.persistence.entity.Ide
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.UUID;
+
 /**
  * R2DBC reactive repository for IdempotencyKeyEntity.
  */
@@ -13,14 +16,26 @@ import reactor.core.publisher.Mono;
 public interface R2dbcIdempotencyKeyRepository extends R2dbcRepository<IdempotencyKeyEntity, Long> {
 
     /**
-     * Finds an idempotency key entry.
+     * Finds the latest idempotency key entry; expired claims may still be present.
      */
-    @Query("SELECT * FROM idempotency_keys WHERE idempotency_key = :idempotencyKey")
-    Mono<IdempotencyKeyEntity> findByIdempotencyKey(String idempotencyKey);
+    @Query("SELECT * FROM idempotency_keys WHERE idempotency_key = :idempotencyKey ORDER BY created_at DESC LIMIT 1")
+    Mono<IdempotencyKeyEntity> findByIdempotencyKey(UUID idempotencyKey);
 
     /**
      * Checks if an idempotency key exists and is not expired.
      */
     @Query("SELECT EXISTS(SELECT 1 FROM idempotency_keys WHERE idempotency_key = :idempotencyKey AND expires_at > NOW())")
-    Mono<Boolean> existsByIdempotencyKey(String idempotencyKey);
+    Mono<Boolean> existsByIdempotencyKey(UUID idempotencyKey);
+
+    /**
+     * Finds an idempotency key entry that has not expired.
+     */
+    @Query("SELECT * FROM idempotency_keys WHERE idempotency_key = :idempotencyKey AND expires_at > NOW() ORDER BY created_at DESC LIMIT 1")
+    Mono<IdempotencyKeyEntity> findActiveByIdempotencyKey(UUID idempotencyKey);
+
+    /**
+     * Streams every idempotency key that has not expired.
+     */
+    @Query("SELECT * FROM idempotency_keys WHERE expires_at > NOW()")
+    Flux<IdempotencyKeyEntity> findAllActive();
 }
@@ -1,11 +1,17 @@
 package com.ec.bank.payments.infrastructure.adapter.output.persistence.repository;
 
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.entity.IdempotencyClaimRow;
 import com.ec.bank.payments.infrastructure.adapter.output.persistence.entity.PaymentOrderEntity;
 import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.r2dbc.repository.R2dbcRepository;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
 /**
  * R2DBC reactive repository for PaymentOrderEntity.
  */
@@ -13,20 +19,34 @@ import reactor.core.publisher.Mono;
 public interface R2dbcPaymentOrderRepository extends R2dbcRepository<PaymentOrderEntity, Long> {
 
     /**
-     * Finds a payment order by its unique payment_order_id.
-     */
-    @Query("SELECT * FROM payment_orders WHERE payment_order_id = :paymentOrderId")
-    Mono<PaymentOrderEntity> findByPaymentOrderId(String paymentOrderId);
-
-    /**
-     * Finds a payment order by its external reference.
-     */
-    @Query("SELECT * FROM payment_orders WHERE payment_order_reference = :reference")
-    Mono<PaymentOrderEntity> findByPaymentOrderReference(String reference);
-
-    /**
-     * Checks if a payment order exists by its payment_order_id.
+     * Claims an idempotency key and inserts the payment order in a single round trip.
+     * The order row is only written when the key has no active claim; otherwise the
+     * claim already holding the key is returned. See claim_idempotency_key in schema.sql.
      */
-    @Query("SELECT EXISTS(SELECT 1 FROM payment_orders WHERE payment_order_id = :paymentOrderId)")
-    Mono<Boolean> existsByPaymentOrderId(String paymentOrderId);
+    @Query("""
+            SELECT holder_payment_order_id AS payment_order_id, claimed,
+                    holder_request_hash AS request_hash, holder_response_body AS response_body
+            FROM claim_idempotency_key(
+                    :idempotencyKey, CAST(:expiresAt AS TIMESTAMP), :requestHash, :responseBody,
+                    :paymentOrderId, :paymentOrderReference, :debtorAccount,
+                    :creditorAccount, :amount, :currency, :remittanceInformation,
+                    :requestedExecutionDate, :status,
+                    CAST(:createdAt AS TIMESTAMP), CAST(:lastUpdatedAt AS TIMESTAMP))
+            """)
+    Mono<IdempotencyClaimRow> insertClaimingIdempotencyKey(
+            UUID paymentOrderId,
+            String paymentOrderReference,
+            byte[] debtorAccount,
+            byte[] creditorAccount,
+            BigDecimal amount,
+            Short currency,
+            String remittanceInformation,
+            LocalDate requestedExecutionDate,
+            Short status,
+            Instant createdAt,
+            Instant lastUpdatedAt,
+            UUID idempotencyKey,
+            Instant expiresAt,
+            String requestHash,
+            byte[] responseBody);
 }
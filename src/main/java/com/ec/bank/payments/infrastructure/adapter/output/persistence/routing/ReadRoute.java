@@ -0,0 +1,35 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.routing;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Where the reads of a reactive pipeline may be served from, carried in the
+ * Reactor context. Pipelines without a route use the primary, so replicas
+ * are opt-in: only reads that tolerate a bounded lag ask for them.
+ */
+public enum ReadRoute {
+
+    PRIMARY,
+    REPLICA;
+
+    private static final Class<ReadRoute> CONTEXT_KEY = ReadRoute.class;
+
+    /**
+     * Context letting the reads of a pipeline be served by a replica.
+     */
+    public static Context replica() {
+        return Context.of(CONTEXT_KEY, REPLICA);
+    }
+
+    /**
+     * Context pinning the reads of a pipeline to the primary.
+     */
+    public static Context primary() {
+        return Context.of(CONTEXT_KEY, PRIMARY);
+    }
+
+    static ReadRoute current(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, PRIMARY);
+    }
+}
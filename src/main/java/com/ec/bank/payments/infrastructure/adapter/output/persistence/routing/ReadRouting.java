@@ -0,0 +1,85 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.routing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-your-writes on top of replica routing. Reads of one payment order that
+ * were allowed on a replica go to the primary instead when:
+ * - this instance wrote the order within the read-your-writes window, which
+ *   bounds how long a replica may take to catch up with it, or
+ * - the replica did not find the order, as happens for an order created moments
+ *   ago by any instance, before its row was replayed.
+ * Other reads are left as routed. Without replicas configured every read is
+ * already on the primary and passes through untouched.
+ */
+@Component
+public class ReadRouting {
+
+    private final boolean replicasConfigured;
+    private final Cache<UUID, Boolean> recentWrites;
+
+    private final Counter recentWriteFallbackCounter;
+    private final Counter replicaMissFallbackCounter;
+
+    public ReadRouting(
+            MeterRegistry meterRegistry,
+            @Value("${application.persistence.replicas.urls:}") List<String> replicaUrls,
+            @Value("${application.persistence.replicas.read-your-writes-window:5s}") Duration window,
+            @Value("${application.persistence.replicas.recent-writes-max-size:100000}") long maxSize) {
+        this.replicasConfigured = !replicaUrls.isEmpty();
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window)
+                .executor(Runnable::run)
+                .build();
+
+        this.recentWriteFallbackCounter = Counter.builder("payment.db.read.primary.fallback")
+                .description("Reads allowed on a replica that were served by the primary")
+                .tag("reason", "recent-write")
+                .register(meterRegistry);
+
+        this.replicaMissFallbackCounter = Counter.builder("payment.db.read.primary.fallback")
+                .description("Reads allowed on a replica that were served by the primary")
+                .tag("reason", "replica-miss")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records that this instance just wrote a payment order.
+     */
+    public void recordWrite(UUID paymentOrderId) {
+        recentWrites.put(paymentOrderId, Boolean.TRUE);
+    }
+
+    /**
+     * Runs a read of one payment order under the route of the pipeline, moving it
+     * to the primary when a replica could miss the latest write.
+     *
+     * @param query Lazy query, subscribed again on the primary after a replica miss
+     */
+    public <T> Mono<T> read(UUID paymentOrderId, Mono<T> query) {
+        return Mono.deferContextual(context -> {
+            if (!replicasConfigured || ReadRoute.current(context) != ReadRoute.REPLICA) {
+                return query;
+            }
+            if (recentWrites.getIfPresent(paymentOrderId) != null) {
+                recentWriteFallbackCounter.increment();
+                return query.contextWrite(ReadRoute.primary());
+            }
+            return query.switchIfEmpty(Mono.defer(() -> {
+                replicaMissFallbackCounter.increment();
+                return query.contextWrite(ReadRoute.primary());
+            }));
+        });
+    }
+}
@@ -0,0 +1,139 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how far each read replica lags behind the primary and hands out
+ * the replicas that are fresh enough to serve reads, round-robin.
+ * A replica is fresh when its last check succeeded and its replay lag was at
+ * most the configured maximum. Until the first check completes, and whenever
+ * no replica is fresh, reads go to the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    /**
+     * Seconds since the last replayed transaction, or 0 when everything received is
+     * replayed (an idle primary would otherwise look like growing lag). Null when
+     * nothing was replayed yet. Instances that are not in recovery report 0, so a
+     * second standalone Postgres can stand in for a replica locally.
+     */
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) AS DOUBLE PRECISION)
+            END AS lag
+            """;
+
+    private final Map<String, DatabaseClient> replicas;
+    private final double maxLagSeconds;
+    private final Duration interval;
+    private final Map<String, Double> lagSeconds = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> freshReplicas = List.of();
+    private Disposable schedule;
+
+    public ReplicaLagMonitor(
+            Map<String, ConnectionFactory> replicas,
+            Duration maxLag,
+            Duration interval,
+            MeterRegistry meterRegistry) {
+        this.replicas = replicas.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> DatabaseClient.create(e.getValue())));
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.interval = interval;
+
+        for (String replica : replicas.keySet()) {
+            Gauge.builder("payment.db.replica.lag", lagSeconds, lags -> lags.getOrDefault(replica, Double.NaN))
+                    .description("Replay lag of a read replica behind the primary; NaN while unreachable")
+                    .baseUnit("seconds")
+                    .tag("replica", replica)
+                    .register(meterRegistry);
+        }
+
+        Gauge.builder("payment.db.replica.available", this, monitor -> monitor.freshReplicas.size())
+                .description("Read replicas currently fresh enough to serve reads")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        schedule = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> checkOnce())
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    /**
+     * Picks the next fresh replica, or nothing when reads should go to the primary.
+     */
+    public Optional<String> nextReplica() {
+        List<String> candidates = freshReplicas;
+        if (candidates.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size())));
+    }
+
+    /**
+     * Measures every replica once and refreshes the set of fresh replicas.
+     */
+    Mono<Void> checkOnce() {
+        return Flux.fromIterable(replicas.entrySet())
+                .flatMap(replica -> measure(replica.getKey(), replica.getValue()))
+                .then(Mono.fromRunnable(() -> freshReplicas = replicas.keySet().stream()
+                        .filter(replica -> lagSeconds.getOrDefault(replica, Double.NaN) <= maxLagSeconds)
+                        .sorted()
+                        .toList()));
+    }
+
+    private Mono<Void> measure(String replica, DatabaseClient client) {
+        return client.sql(LAG_QUERY)
+                .map(row -> Optional.ofNullable(row.get("lag", Double.class)))
+                .one()
+                .map(lag -> lag.orElse(Double.POSITIVE_INFINITY))
+                .timeout(interval)
+                .onErrorResume(e -> {
+                    log.warn("Lag check of replica {} failed: {}", replica, e.getMessage());
+                    return Mono.just(Double.NaN);
+                })
+                .doOnNext(lag -> {
+                    Double previous = lagSeconds.put(replica, lag);
+                    boolean wasFresh = previous != null && previous <= maxLagSeconds;
+                    if (wasFresh != lag <= maxLagSeconds) {
+                        log.info("Replica {} {} (lag {} s)", replica, wasFresh ? "left rotation" : "joined rotation", lag);
+                    }
+                })
+                .then();
+    }
+}
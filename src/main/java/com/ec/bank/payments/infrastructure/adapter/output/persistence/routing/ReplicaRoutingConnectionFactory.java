@@ -0,0 +1,60 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.routing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Connection factory that hands out primary connections unless the pipeline
+ * asked for a replica with ReadRoute.replica(), in which case it picks a fresh
+ * replica from the lag monitor, falling back to the primary when none is.
+ * Connections bound to a transaction keep being reused whatever the route,
+ * so transactional reads always see their own writes.
+ * The pools it routes to are owned, and closed, by ConnectionRoutingConfig.
+ */
+public class ReplicaRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    public static final String PRIMARY = "primary";
+
+    private final boolean hasReplicas;
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter unavailableFallbackCounter;
+
+    public ReplicaRoutingConnectionFactory(
+            ConnectionFactory primary,
+            Map<String, ConnectionFactory> replicas,
+            ReplicaLagMonitor lagMonitor,
+            MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.hasReplicas = !replicas.isEmpty();
+
+        Map<String, ConnectionFactory> routes = new HashMap<>(replicas);
+        routes.put(PRIMARY, primary);
+        setTargetConnectionFactories(routes);
+        setDefaultTargetConnectionFactory(primary);
+
+        this.unavailableFallbackCounter = Counter.builder("payment.db.read.primary.fallback")
+                .description("Reads allowed on a replica that were served by the primary")
+                .tag("reason", "replica-unavailable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return Mono.deferContextual(context -> {
+            if (!hasReplicas || ReadRoute.current(context) != ReadRoute.REPLICA) {
+                return Mono.just(PRIMARY);
+            }
+            return Mono.just(lagMonitor.nextReplica()
+                    .orElseGet(() -> {
+                        unavailableFallbackCounter.increment();
+                        return PRIMARY;
+                    }));
+        });
+    }
+}
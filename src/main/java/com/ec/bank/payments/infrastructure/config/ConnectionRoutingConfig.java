@@ -0,0 +1,157 @@
+package com.ec.bank.payments.infrastructure.config;
+
+
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.pool.AdaptiveAllocationStrategy;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.pool.InstrumentedConnectionPool;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.pool.PoolSizeController;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.routing.ReplicaLagMonitor;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.routing.ReplicaRoutingConnectionFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration for the database connection pools.
+ * spring.r2dbc describes the primary, which serves every write and every read
+ * that did not ask for a replica. Each URL in application.persistence.replicas.urls
+ * adds a read replica with the same credentials and pool settings. Every pool
+ * publishes the r2dbc.pool and payment.db.pool metrics tagged with its route name
+ * (primary, replica-0, ...).
+ * With application.persistence.pool.adaptive.enabled, each pool starts at
+ * spring.r2dbc.pool.max-size and moves its limit between min-size and max-size.
+ * The pools are created with this configuration, before any bean that uses
+ * them, so they are closed with it as well, even when startup fails later.
+ */
+@Slf4j
+@Configuration
+public class ConnectionRoutingConfig {
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final R2dbcProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final PoolSizing sizing;
+    private final InstrumentedConnectionPool primary;
+    private final Map<String, ConnectionFactory> replicas = new LinkedHashMap<>();
+    private final List<InstrumentedConnectionPool> pools = new ArrayList<>();
+
+    public ConnectionRoutingConfig(
+            R2dbcProperties properties,
+            MeterRegistry meterRegistry,
+            @Value("${application.persistence.replicas.urls:}") List<String> replicaUrls,
+            @Value("${application.persistence.pool.adaptive.enabled:true}") boolean adaptive,
+            @Value("${application.persistence.pool.adaptive.min-size:10}") int minSize,
+            @Value("${application.persistence.pool.adaptive.max-size:80}") int maxSize,
+            @Value("${application.persistence.pool.adaptive.slow-query-factor:2.0}") double slowQueryFactor,
+            @Value("${application.persistence.pool.starvation-wait:5ms}") Duration starvationWait) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.sizing = new PoolSizing(adaptive, minSize, maxSize, slowQueryFactor, starvationWait);
+
+        this.primary = pool(ReplicaRoutingConnectionFactory.PRIMARY, properties.getUrl());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String name = "replica-" + i;
+            replicas.put(name, pool(name, replicaUrls.get(i)));
+        }
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${application.persistence.replicas.max-lag:1s}") Duration maxLag,
+            @Value("${application.persistence.replicas.lag-check-interval:1s}") Duration lagCheckInterval) {
+        return new ReplicaLagMonitor(replicas, maxLag, lagCheckInterval, meterRegistry);
+    }
+
+    @Bean
+    public ReplicaRoutingConnectionFactory connectionFactory(ReplicaLagMonitor replicaLagMonitor) {
+        log.info("Routing reads across {} replica(s)", replicas.size());
+        return new ReplicaRoutingConnectionFactory(primary, replicas, replicaLagMonitor, meterRegistry);
+    }
+
+    @Bean
+    public PoolSizeController poolSizeController(
+            @Value("${application.persistence.pool.adaptive.interval:5s}") Duration interval) {
+        return new PoolSizeController(pools, interval);
+    }
+
+    @PreDestroy
+    public void closePools() {
+        Flux.fromIterable(pools)
+                .flatMap(pool -> pool.close().onErrorResume(e -> {
+                    log.warn("Failed to close connection pool {}", pool.getName(), e);
+                    return Mono.empty();
+                }))
+                .then()
+                .block(CLOSE_TIMEOUT);
+    }
+
+    private InstrumentedConnectionPool pool(String name, String url) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (properties.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, properties.getUsername());
+        }
+        if (properties.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, properties.getPassword());
+        }
+
+        R2dbcProperties.Pool settings = properties.getPool();
+        ConnectionPoolConfiguration.Builder configuration = ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name(name)
+                .initialSize(settings.getInitialSize())
+                .maxSize(settings.getMaxSize())
+                .minIdle(settings.getMinIdle())
+                .validationDepth(settings.getValidationDepth());
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(settings.getMaxIdleTime()).to(configuration::maxIdleTime);
+        map.from(settings.getMaxLifeTime()).to(configuration::maxLifeTime);
+        map.from(settings.getMaxAcquireTime()).to(configuration::maxAcquireTime);
+        map.from(settings.getMaxCreateConnectionTime()).to(configuration::maxCreateConnectionTime);
+        map.from(settings.getMaxValidationTime()).to(configuration::maxValidationTime);
+        map.from(settings.getValidationQuery()).to(configuration::validationQuery);
+
+
+        AdaptiveAllocationStrategy strategy = null;
+        if (sizing.adaptive()) {
+            strategy = new AdaptiveAllocationStrategy(
+                    sizing.minSize(), sizing.maxSize(), settings.getMaxSize(), sizing.slowQueryFactor());
+            configuration.customizer(strategy.customizer(settings.getMaxIdleTime(), settings.getMaxLifeTime()));
+        }
+
+        ConnectionPool pool = new ConnectionPool(configuration.build());
+        new ConnectionPoolMetrics(pool, name, List.of()).bindTo(meterRegistry);
+        InstrumentedConnectionPool instrumented =
+                new InstrumentedConnectionPool(name, pool, strategy, sizing.starvationWait(), meterRegistry);
+        pools.add(instrumented);
+        return instrumented;
+    }
+
+    private record PoolSizing(
+            boolean adaptive,
+            int minSize,
+            int maxSize,
+            double slowQueryFactor,
+            Duration starvationWait
+    ) {
+    }
+}
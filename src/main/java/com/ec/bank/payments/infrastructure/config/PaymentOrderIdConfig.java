@@ -0,0 +1,28 @@
+package com.ec.bank.payments.infrastructure.config;
+
+
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the Payment Order ID generator.
+ */
+@Configuration
+public class PaymentOrderIdConfig {
+
+    /**
+     * Time-ordered IDs by default; "random" restores the former UUID v4 IDs.
+     * Both kinds coexist in the store, so switching needs no migration.
+     */
+    @Bean
+    public PaymentOrderIdGenerator paymentOrderIdGenerator(
+            @Value("${application.payment.id-generator:time-ordered}") String generator) {
+        return switch (generator) {
+            case "time-ordered" -> PaymentOrderIdGenerator.timeOrdered();
+            case "random" -> PaymentOrderIdGenerator.random();
+            default -> throw new IllegalArgumentException("Unknown payment order ID generator: " + generator);
+        };
+    }
+}
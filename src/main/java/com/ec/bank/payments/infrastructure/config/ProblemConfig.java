@@ -2,6 +2,7 @@ package com.ec.bank.payments.infrastructure.config;
 
 
 import com.ec.bank.payments.domain.exception.DuplicatePaymentOrderException;
+import com.ec.bank.payments.domain.exception.IdempotencyKeyReusedException;
 import com.ec.bank.payments.domain.exception.InvalidPaymentOrderException;
 import com.ec.bank.payments.domain.exception.PaymentOrderNotFoundException;
 import lombok.extern.slf4j.Slf4j;
@@ -73,6 +74,30 @@ public class ProblemConfig implements ProblemHandling {
                 });
     }
 
+    /**
+     * Custom exception handler for IdempotencyKeyReusedException.
+     */
+    @Bean
+    public org.springframework.web.reactive.function.server.HandlerFilterFunction<ServerResponse, ServerResponse>
+    idempotencyKeyReusedHandler() {
+        return (request, next) -> next.handle(request)
+                .onErrorResume(IdempotencyKeyReusedException.class, ex -> {
+                    log.warn("Idempotency key reused: idempotency={}", ex.getIdempotencyKey());
+
+                    ProblemDetail problem = ProblemDetail.forStatusAndDetail(
+                            HttpStatus.UNPROCESSABLE_ENTITY,
+                            ex.getMessage()
+                    );
+                    problem.setTitle("Idempotency Key Reused");
+                    problem.setType(URI.create("https://api.bank.com/problems/idempotency-key-reused"));
+                    problem.setProperty("idempotencyKey", ex.getIdempotencyKey());
+                    problem.setProperty("timestamp", Instant.now());
+
+                    return ServerResponse.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                            .bodyValue(problem);
+                });
+    }
+
     /**
      * Custom exception handler for InvalidPaymentOrderException.
      */
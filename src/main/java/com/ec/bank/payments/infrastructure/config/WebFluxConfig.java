@@ -19,7 +19,7 @@ public class WebFluxConfig implements WebFluxConfigurer {
                 .allowedOrigins("*")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
-                .exposedHeaders("Idempotency-Key")
+                .exposedHeaders("Idempotency-Key", "Idempotent-Replayed")
                 .maxAge(3600);
     }
 }
@@ -0,0 +1,21 @@
+-- src/main/resources/db/migration/amount_scale.sql
+--
+-- One-off migration widening payment_orders.amount from two to four decimals,
+-- so currencies with other minor units (KWD, CLF) keep their exact amount.
+-- Existing amounts are unchanged; 15 integer digits remain.
+--
+-- Step 2 of the runbook in db/migration/README.md, with the application stopped,
+-- while payment_orders is still a plain table: partition_payment_orders.sql
+-- creates the partitioned table with four decimals already, and attaching the
+-- old table as a partition requires the same column type. Changing the scale
+-- rewrites the table under an exclusive lock.
+
+BEGIN;
+
+LOCK TABLE payment_orders IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE payment_orders ALTER COLUMN amount TYPE DECIMAL(19, 4);
+
+COMMIT;
+
+ANALYZE payment_orders;
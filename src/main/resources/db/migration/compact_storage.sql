@@ -0,0 +1,165 @@
+-- src/main/resources/db/migration/compact_storage.sql
+--
+-- One-off migration of payment_orders and idempotency_keys from the text layout
+-- to the compact column encodings of schema.sql (see StorageCodec):
+--   payment_order_id   VARCHAR "PO-<uuid>"  -> UUID
+--   idempotency_key    VARCHAR              -> UUID (non-UUID keys: name-based MD5 UUID)
+--   debtor/creditor    VARCHAR(34)          -> BYTEA, six bits per character
+--   currency           VARCHAR(3)           -> SMALLINT ISO 4217 numeric code
+--   status             VARCHAR(20)          -> SMALLINT code
+-- The redundant idx_payment_order_id (a duplicate of the UNIQUE constraint index)
+-- is dropped, and so is fk_payment_order: the layout of schema.sql has no foreign
+-- key from idempotency_keys to payment_orders.
+--
+-- Step 1 of the runbook in db/migration/README.md, on the layout of the first
+-- release, with the application stopped. Both tables are rewritten under an
+-- exclusive lock.
+-- Currencies are mapped through pg_temp.iso_4217, every alphabetic code the JDK
+-- knows with its numeric code, as StorageCodec.encodeCurrency maps them. A value
+-- missing from it aborts the migration, naming the value, before any column changes.
+
+BEGIN;
+
+LOCK TABLE payment_orders, idempotency_keys IN ACCESS EXCLUSIVE MODE;
+
+-- Mirrors StorageCodec.encodeIban: 0-9 -> 0-9, A-Z -> 10-35, padding slot 63
+-- when the last byte has room for a whole character, zero bits after that.
+CREATE FUNCTION pg_temp.pack_iban(iban TEXT) RETURNS BYTEA AS '
+DECLARE
+    bits VARBIT := B'''';
+    packed BYTEA;
+    c TEXT;
+BEGIN
+    FOR i IN 1 .. length(iban) LOOP
+        c := substr(iban, i, 1);
+        bits := bits || (CASE WHEN c BETWEEN ''0'' AND ''9'' THEN ascii(c) - 48
+                              ELSE ascii(c) - 55 END)::bit(6);
+    END LOOP;
+    IF (8 - length(bits) % 8) % 8 = 6 THEN
+        bits := bits || B''111111'';
+    END IF;
+    bits := bits || repeat(''0'', (8 - length(bits) % 8) % 8)::varbit;
+    packed := decode(repeat(''00'', length(bits) / 8), ''hex'');
+    FOR i IN 0 .. length(bits) / 8 - 1 LOOP
+        packed := set_byte(packed, i, substring(bits FROM i * 8 + 1 FOR 8)::bit(8)::int);
+    END LOOP;
+    RETURN packed;
+END;
+'
+LANGUAGE plpgsql IMMUTABLE STRICT;
+
+-- Mirrors java.util.UUID.nameUUIDFromBytes over the UTF-8 bytes of the key.
+CREATE FUNCTION pg_temp.name_uuid(name TEXT) RETURNS UUID AS '
+DECLARE
+    h TEXT := md5(convert_to(name, ''UTF8''));
+BEGIN
+    RETURN (substr(h, 1, 12) || ''3'' || substr(h, 14, 3)
+            || to_hex((get_byte(decode(substr(h, 17, 2), ''hex''), 0) & 63) | 128)
+            || substr(h, 19))::uuid;
+END;
+'
+LANGUAGE plpgsql IMMUTABLE STRICT;
+
+-- ISO 4217 alphabetic codes with their numeric codes, current and historic
+CREATE TEMP TABLE iso_4217 (
+    alpha_code CHAR(3) PRIMARY KEY,
+    numeric_code SMALLINT NOT NULL
+);
+
+INSERT INTO pg_temp.iso_4217 (alpha_code, numeric_code) VALUES
+    ('ADP', 20), ('AED', 784), ('AFA', 4), ('AFN', 971), ('ALL', 8), ('AMD', 51),
+    ('ANG', 532), ('AOA', 973), ('ARS', 32), ('ATS', 40), ('AUD', 36), ('AWG', 533),
+    ('AYM', 945), ('AZM', 31), ('AZN', 944), ('BAM', 977), ('BBD', 52), ('BDT', 50),
+    ('BEF', 56), ('BGL', 100), ('BGN', 975), ('BHD', 48), ('BIF', 108), ('BMD', 60),
+    ('BND', 96), ('BOB', 68), ('BOV', 984), ('BRL', 986), ('BSD', 44), ('BTN', 64),
+    ('BWP', 72), ('BYB', 112), ('BYN', 933), ('BYR', 974), ('BZD', 84), ('CAD', 124),
+    ('CDF', 976), ('CHE', 947), ('CHF', 756), ('CHW', 948), ('CLF', 990), ('CLP', 152),
+    ('CNY', 156), ('COP', 170), ('COU', 970), ('CRC', 188), ('CSD', 891), ('CUC', 931),
+    ('CUP', 192), ('CVE', 132), ('CYP', 196), ('CZK', 203), ('DEM', 276), ('DJF', 262),
+    ('DKK', 208), ('DOP', 214), ('DZD', 12), ('EEK', 233), ('EGP', 818), ('ERN', 232),
+    ('ESP', 724), ('ETB', 230), ('EUR', 978), ('FIM', 246), ('FJD', 242), ('FKP', 238),
+    ('FRF', 250), ('GBP', 826), ('GEL', 981), ('GHC', 288), ('GHS', 936), ('GIP', 292),
+    ('GMD', 270), ('GNF', 324), ('GRD', 300), ('GTQ', 320), ('GWP', 624), ('GYD', 328),
+    ('HKD', 344), ('HNL', 340), ('HRK', 191), ('HTG', 332), ('HUF', 348), ('IDR', 360),
+    ('IEP', 372), ('ILS', 376), ('INR', 356), ('IQD', 368), ('IRR', 364), ('ISK', 352),
+    ('ITL', 380), ('JMD', 388), ('JOD', 400), ('JPY', 392), ('KES', 404), ('KGS', 417),
+    ('KHR', 116), ('KMF', 174), ('KPW', 408), ('KRW', 410), ('KWD', 414), ('KYD', 136),
+    ('KZT', 398), ('LAK', 418), ('LBP', 422), ('LKR', 144), ('LRD', 430), ('LSL', 426),
+    ('LTL', 440), ('LUF', 442), ('LVL', 428), ('LYD', 434), ('MAD', 504), ('MDL', 498),
+    ('MGA', 969), ('MGF', 450), ('MKD', 807), ('MMK', 104), ('MNT', 496), ('MOP', 446),
+    ('MRO', 478), ('MRU', 929), ('MTL', 470), ('MUR', 480), ('MVR', 462), ('MWK', 454),
+    ('MXN', 484), ('MXV', 979), ('MYR', 458), ('MZM', 508), ('MZN', 943), ('NAD', 516),
+    ('NGN', 566), ('NIO', 558), ('NLG', 528), ('NOK', 578), ('NPR', 524), ('NZD', 554),
+    ('OMR', 512), ('PAB', 590), ('PEN', 604), ('PGK', 598), ('PHP', 608), ('PKR', 586),
+    ('PLN', 985), ('PTE', 620), ('PYG', 600), ('QAR', 634), ('ROL', 642), ('RON', 946),
+    ('RSD', 941), ('RUB', 643), ('RUR', 810), ('RWF', 646), ('SAR', 682), ('SBD', 90),
+    ('SCR', 690), ('SDD', 736), ('SDG', 938), ('SEK', 752), ('SGD', 702), ('SHP', 654),
+    ('SIT', 705), ('SKK', 703), ('SLE', 925), ('SLL', 694), ('SOS', 706), ('SRD', 968),
+    ('SRG', 740), ('SSP', 728), ('STD', 678), ('STN', 930), ('SVC', 222), ('SYP', 760),
+    ('SZL', 748), ('THB', 764), ('TJS', 972), ('TMM', 795), ('TMT', 934), ('TND', 788),
+    ('TOP', 776), ('TPE', 626), ('TRL', 792), ('TRY', 949), ('TTD', 780), ('TWD', 901),
+    ('TZS', 834), ('UAH', 980), ('UGX', 800), ('USD', 840), ('USN', 997), ('USS', 998),
+    ('UYI', 940), ('UYU', 858), ('UZS', 860), ('VEB', 862), ('VED', 926), ('VEF', 937),
+    ('VES', 928), ('VND', 704), ('VUV', 548), ('WST', 882), ('XAF', 950), ('XAG', 961),
+    ('XAU', 959), ('XBA', 955), ('XBB', 956), ('XBC', 957), ('XBD', 958), ('XCD', 951),
+    ('XDR', 960), ('XOF', 952), ('XPD', 964), ('XPF', 953), ('XPT', 962), ('XSU', 994),
+    ('XTS', 963), ('XUA', 965), ('XXX', 999), ('YER', 886), ('YUM', 891), ('ZAR', 710),
+    ('ZMK', 894), ('ZMW', 967), ('ZWD', 716), ('ZWL', 932), ('ZWN', 942), ('ZWR', 935);
+
+-- Mirrors StorageCodec.encodeCurrency; codes are matched exactly, as Currency.getInstance does.
+CREATE FUNCTION pg_temp.currency_code(p_currency TEXT) RETURNS SMALLINT AS '
+DECLARE
+    code SMALLINT;
+BEGIN
+    SELECT c.numeric_code INTO code FROM pg_temp.iso_4217 c WHERE c.alpha_code = p_currency;
+    IF code IS NULL THEN
+        RAISE EXCEPTION ''Unknown ISO 4217 currency code: %'', p_currency;
+    END IF;
+    RETURN code;
+END;
+'
+LANGUAGE plpgsql STABLE STRICT;
+
+-- Lists every unknown value at once, rather than failing on the first row rewritten
+DO '
+DECLARE
+    unknown TEXT;
+BEGIN
+    SELECT string_agg(DISTINCT p.currency, '', '') INTO unknown
+    FROM payment_orders p
+    WHERE NOT EXISTS (SELECT 1 FROM pg_temp.iso_4217 c WHERE c.alpha_code = p.currency);
+    IF unknown IS NOT NULL THEN
+        RAISE EXCEPTION ''Unknown ISO 4217 currency codes in payment_orders: %'', unknown;
+    END IF;
+END;
+';
+
+SELECT pg_relation_size('payment_orders') AS payment_orders_heap_before,
+       pg_indexes_size('payment_orders') AS payment_orders_indexes_before;
+
+ALTER TABLE idempotency_keys DROP CONSTRAINT IF EXISTS fk_payment_order;
+ALTER TABLE payment_orders DROP CONSTRAINT chk_status_valid;
+DROP INDEX IF EXISTS idx_payment_order_id;
+
+ALTER TABLE payment_orders
+    ALTER COLUMN payment_order_id TYPE UUID USING substring(payment_order_id FROM 4)::uuid,
+    ALTER COLUMN debtor_account TYPE BYTEA USING pg_temp.pack_iban(debtor_account),
+    ALTER COLUMN creditor_account TYPE BYTEA USING pg_temp.pack_iban(creditor_account),
+    ALTER COLUMN currency TYPE SMALLINT USING pg_temp.currency_code(currency),
+    ALTER COLUMN status TYPE SMALLINT USING CASE status
+        WHEN 'PENDING' THEN 1 WHEN 'PROCESSING' THEN 2 WHEN 'SETTLED' THEN 3
+        WHEN 'REJECTED' THEN 4 WHEN 'CANCELLED' THEN 5 END;
+
+ALTER TABLE payment_orders ADD CONSTRAINT chk_status_valid CHECK (status BETWEEN 1 AND 5);
+
+ALTER TABLE idempotency_keys
+    ALTER COLUMN idempotency_key TYPE UUID USING CASE
+        WHEN idempotency_key ~ '^[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}$'
+        THEN idempotency_key::uuid
+        ELSE pg_temp.name_uuid(idempotency_key) END,
+    ALTER COLUMN payment_order_id TYPE UUID USING substring(payment_order_id FROM 4)::uuid;
+
+SELECT pg_relation_size('payment_orders') AS payment_orders_heap_after,
+       pg_indexes_size('payment_orders') AS payment_orders_indexes_after;
+
+COMMIT;
@@ -0,0 +1,24 @@
+-- src/main/resources/db/migration/covering_status_index.sql
+--
+-- One-off migration replacing the plain UNIQUE constraint on
+-- payment_orders.payment_order_id with uq_payment_order_id, which INCLUDEs
+-- status and last_updated_at so status reads become index-only scans.
+-- The foreign key from idempotency_keys that depended on the old constraint
+-- index is already gone (compact_storage.sql).
+--
+-- Step 3 of the runbook in db/migration/README.md, with the application stopped.
+-- The new index is built under an exclusive lock; the VACUUM below lets the
+-- visibility map spare the planner heap fetches.
+
+BEGIN;
+
+LOCK TABLE payment_orders IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE payment_orders DROP CONSTRAINT payment_orders_payment_order_id_key;
+
+ALTER TABLE payment_orders ADD CONSTRAINT uq_payment_order_id
+    UNIQUE (payment_order_id) INCLUDE (status, last_updated_at);
+
+COMMIT;
+
+VACUUM (ANALYZE) payment_orders;
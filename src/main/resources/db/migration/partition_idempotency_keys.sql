@@ -0,0 +1,79 @@
+-- src/main/resources/db/migration/partition_idempotency_keys.sql
+--
+-- One-off migration of an existing idempotency_keys table to the daily-partitioned
+-- layout of schema.sql. schema.sql only creates missing objects, so installs made
+-- before partitioning keep the plain table until this script is run.
+--
+-- Step 6 of the runbook in db/migration/README.md, with the application stopped,
+-- after compact_storage.sql has turned keys and payment order IDs into UUIDs.
+-- Only active claims are copied, keeping their IDs; the table is locked for the
+-- duration of the copy. Afterwards clean_expired_idempotency_keys() is no longer
+-- needed. The script brings its own partition helper in pg_temp and installs no
+-- trigger: trg_idempotency_keys_notify is created by schema.sql when the new
+-- version starts, as on a fresh install.
+--
+-- The partitioned table has no unique index on idempotency_key (it would have to
+-- include created_at), and no foreign key to payment_orders (see schema.sql).
+-- From here on a key stays unique only because every claim goes through
+-- claim_idempotency_key and its advisory lock.
+
+BEGIN;
+
+LOCK TABLE idempotency_keys IN ACCESS EXCLUSIVE MODE;
+
+-- Same partitions as create_daily_partitions in schema.sql
+CREATE FUNCTION pg_temp.create_daily_partitions(parent TEXT, from_day DATE, to_day DATE)
+RETURNS INTEGER AS '
+DECLARE
+    d DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    FOR d IN SELECT generate_series(from_day, to_day, INTERVAL ''1 day'')::date LOOP
+        partition_name := parent || ''_p'' || to_char(d, ''YYYYMMDD'');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(''CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)'',
+                partition_name, parent, d, d + 1);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+'
+LANGUAGE plpgsql;
+
+ALTER TABLE idempotency_keys RENAME TO idempotency_keys_unpartitioned;
+ALTER INDEX IF EXISTS idx_idempotency_key RENAME TO idx_idempotency_key_unpartitioned;
+
+CREATE TABLE idempotency_keys (
+    id BIGINT NOT NULL DEFAULT nextval('idempotency_keys_id_seq'),
+    idempotency_key UUID NOT NULL,
+    payment_order_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    request_hash VARCHAR(64),
+    response_body BYTEA,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Moved before the old table is dropped, which would drop it too
+ALTER SEQUENCE idempotency_keys_id_seq OWNED BY idempotency_keys.id;
+
+CREATE INDEX idx_idempotency_key ON idempotency_keys(idempotency_key, created_at DESC);
+
+SELECT pg_temp.create_daily_partitions('idempotency_keys',
+        COALESCE((SELECT MIN(created_at)::date FROM idempotency_keys_unpartitioned
+                  WHERE expires_at > LOCALTIMESTAMP), CURRENT_DATE - 1),
+        CURRENT_DATE + 3);
+
+-- Claims made by the first release carry no request fingerprint or response
+INSERT INTO idempotency_keys (id, idempotency_key, payment_order_id, created_at, expires_at)
+SELECT id, idempotency_key, payment_order_id, created_at, expires_at
+FROM idempotency_keys_unpartitioned
+WHERE expires_at > LOCALTIMESTAMP;
+
+DROP TABLE idempotency_keys_unpartitioned;
+
+COMMIT;
+
+ANALYZE idempotency_keys;
@@ -0,0 +1,130 @@
+-- src/main/resources/db/migration/partition_payment_orders.sql
+--
+-- One-off migration of an existing payment_orders table to the monthly-partitioned
+-- layout of schema.sql. Rows are not copied: the existing table becomes the first
+-- partition, payment_orders_legacy, covering everything before the start of next
+-- month. New months get their own partitions.
+--
+-- Step 5 of the runbook in db/migration/README.md, with the application stopped.
+-- Phase 1 builds the indexes the partitioned table needs and proves the legacy
+-- range with a validated CHECK, so ATTACH PARTITION neither builds an index nor
+-- scans the table. Phase 2 swaps the tables in a few catalog updates. Every
+-- statement of phase 1 can be repeated, so a failed run can simply be run again.
+--
+-- The script brings its own partition helper in pg_temp and installs no trigger:
+-- the triggers on payment_orders (version, notifications, outbox, ID guard) are
+-- created by schema.sql when the new version starts, as on a fresh install.
+--
+-- The partitioned table can only enforce (payment_order_id, created_at), so phase 1
+-- also fills payment_order_ids, the global guard on payment_order_id.
+--
+-- payment_orders_legacy is never detached automatically (its name carries no
+-- month). Detach it by hand once all of its rows are past retention.
+
+\set ON_ERROR_STOP on
+
+SELECT to_char(date_trunc('month', LOCALTIMESTAMP) + INTERVAL '1 month', 'YYYY-MM-DD') AS legacy_bound \gset
+
+-- ==================== Phase 1: indexes and ID guard ====================
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS payment_orders_legacy_id_created_at
+    ON payment_orders (id, created_at);
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS payment_orders_legacy_payment_order_id_created_at
+    ON payment_orders (payment_order_id, created_at) INCLUDE (status, last_updated_at);
+
+ALTER TABLE payment_orders DROP CONSTRAINT IF EXISTS payment_orders_legacy_range;
+ALTER TABLE payment_orders ADD CONSTRAINT payment_orders_legacy_range
+    CHECK (created_at < CAST(:'legacy_bound' AS TIMESTAMP)) NOT VALID;
+ALTER TABLE payment_orders VALIDATE CONSTRAINT payment_orders_legacy_range;
+
+CREATE TABLE IF NOT EXISTS payment_order_ids (
+    payment_order_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_payment_order_ids PRIMARY KEY (payment_order_id)
+);
+
+INSERT INTO payment_order_ids (payment_order_id, created_at)
+SELECT payment_order_id, created_at
+FROM payment_orders
+ON CONFLICT (payment_order_id) DO NOTHING;
+
+-- ==================== Phase 2: swap ====================
+
+BEGIN;
+
+LOCK TABLE payment_orders IN ACCESS EXCLUSIVE MODE;
+
+-- Same partitions as create_monthly_partitions in schema.sql, months covered by
+-- the legacy partition excepted
+CREATE FUNCTION pg_temp.create_monthly_partitions(parent TEXT, from_day DATE, to_day DATE)
+RETURNS INTEGER AS '
+DECLARE
+    m DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    FOR m IN SELECT generate_series(date_trunc(''month'', from_day), to_day, INTERVAL ''1 month'')::date LOOP
+        partition_name := parent || ''_p'' || to_char(m, ''YYYYMM'');
+        IF to_regclass(partition_name) IS NULL THEN
+            BEGIN
+                EXECUTE format(''CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)'',
+                    partition_name, parent, m, (m + INTERVAL ''1 month'')::date);
+                created := created + 1;
+            EXCEPTION WHEN invalid_object_definition THEN
+                -- Overlaps the legacy partition
+                NULL;
+            END;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+'
+LANGUAGE plpgsql;
+
+ALTER TABLE payment_orders RENAME TO payment_orders_legacy;
+ALTER TABLE payment_orders_legacy DROP CONSTRAINT uq_payment_order_id;
+ALTER INDEX idx_payment_order_reference RENAME TO payment_orders_legacy_reference;
+ALTER INDEX idx_payment_order_created_at_id RENAME TO payment_orders_legacy_created_at_id;
+ALTER INDEX idx_payment_order_status_created_at RENAME TO payment_orders_legacy_status_created_at;
+ALTER INDEX idx_payment_order_debtor_created_at RENAME TO payment_orders_legacy_debtor_created_at;
+ALTER INDEX idx_payment_order_creditor_created_at RENAME TO payment_orders_legacy_creditor_created_at;
+
+CREATE TABLE payment_orders (
+    id BIGINT NOT NULL DEFAULT nextval('payment_orders_id_seq'),
+    payment_order_id UUID NOT NULL,
+    payment_order_reference VARCHAR(100) NOT NULL,
+    debtor_account BYTEA NOT NULL,
+    creditor_account BYTEA NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    currency SMALLINT NOT NULL,
+    remittance_information VARCHAR(500),
+    requested_execution_date DATE NOT NULL,
+    status SMALLINT NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    last_updated_at TIMESTAMP NOT NULL,
+    version BIGINT DEFAULT 0,
+    CONSTRAINT pk_payment_orders PRIMARY KEY (id, created_at),
+    CONSTRAINT chk_amount_positive CHECK (amount > 0),
+    CONSTRAINT chk_status_valid CHECK (status BETWEEN 1 AND 5),
+    CONSTRAINT uq_payment_order_id UNIQUE (payment_order_id, created_at) INCLUDE (status, last_updated_at)
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE payment_orders_id_seq OWNED BY payment_orders.id;
+
+CREATE INDEX idx_payment_order_reference ON payment_orders(payment_order_reference);
+CREATE INDEX idx_payment_order_created_at_id ON payment_orders(created_at, id);
+CREATE INDEX idx_payment_order_status_created_at ON payment_orders(status, created_at, id);
+CREATE INDEX idx_payment_order_debtor_created_at ON payment_orders(debtor_account, created_at, id);
+CREATE INDEX idx_payment_order_creditor_created_at ON payment_orders(creditor_account, created_at, id);
+
+-- Matching indexes of the legacy table are adopted, and the validated CHECK
+-- proves the bound, so this neither builds an index nor scans the table
+ALTER TABLE payment_orders ATTACH PARTITION payment_orders_legacy
+    FOR VALUES FROM (MINVALUE) TO (:'legacy_bound');
+ALTER TABLE payment_orders_legacy DROP CONSTRAINT payment_orders_legacy_range;
+
+SELECT pg_temp.create_monthly_partitions('payment_orders', CURRENT_DATE - 1, CURRENT_DATE + 62);
+
+COMMIT;
+
+ANALYZE payment_orders;
@@ -0,0 +1,25 @@
+-- src/main/resources/db/migration/search_indexes.sql
+--
+-- One-off migration adding the composite indexes behind keyset search on
+-- payment_orders, and dropping the single-column status and created_at indexes
+-- they make redundant.
+--
+-- Step 4 of the runbook in db/migration/README.md. The indexes are built
+-- CONCURRENTLY, so the statements must run outside a transaction block. They
+-- would not block writers, but no version of the application can run between
+-- step 1 and the start of the new version. If a build fails, drop the INVALID
+-- index it leaves behind and run the script again.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payment_order_created_at_id
+    ON payment_orders(created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payment_order_status_created_at
+    ON payment_orders(status, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payment_order_debtor_created_at
+    ON payment_orders(debtor_account, created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_payment_order_creditor_created_at
+    ON payment_orders(creditor_account, created_at, id);
+
+DROP INDEX CONCURRENTLY IF EXISTS idx_payment_order_status;
+DROP INDEX CONCURRENTLY IF EXISTS idx_payment_order_created_at;
+
+ANALYZE payment_orders;
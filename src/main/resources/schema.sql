@@ -1,50 +1,489 @@
 -- src/main/resources/schema.sql
+-- Runs on every start and only creates what is missing. It cannot run on the
+-- layout of the first release: those installs are upgraded first, with the
+-- application stopped, by the runbook in db/migration/README.md.
 
 -- Payment Orders Table
+-- Columns use the compact encodings of StorageCodec: payment_order_id is the UUID
+-- of "PO-<uuid>", IBANs are packed six bits per character, currency is the
+-- ISO 4217 numeric code and status a fixed code (1 PENDING, 2 PROCESSING,
+-- 3 SETTLED, 4 REJECTED, 5 CANCELLED). Installs created with the text layout
+-- are converted by db/migration/compact_storage.sql.
+-- amount holds four decimals, the most any ISO 4217 currency uses (CLF); each
+-- order carries no more than its currency allows (2 for EUR, 0 for JPY, 3 for KWD). Installs created with two
+-- decimals are converted by db/migration/amount_scale.sql.
+-- Range-partitioned by month on created_at, so vacuum and index maintenance work
+-- on one month at a time and old months leave by detaching whole partitions.
+-- Unique constraints on a partitioned table must contain created_at, so
+-- uq_payment_order_id alone would let the same payment_order_id in twice with
+-- different creation times; payment_order_ids below keeps it unique across the
+-- whole table. Generated IDs are time-ordered UUIDs (version 7), so new rows land
+-- on the right edge of its index, as they do for created_at. Rows created with
+-- random (version 4) IDs are left as they are.
+-- Installs created before are converted by db/migration/partition_payment_orders.sql.
 CREATE TABLE IF NOT EXISTS payment_orders (
-    id BIGSERIAL PRIMARY KEY,
-    payment_order_id VARCHAR(100) UNIQUE NOT NULL,
+    id BIGSERIAL,
+    payment_order_id UUID NOT NULL,
     payment_order_reference VARCHAR(100) NOT NULL,
-    debtor_account VARCHAR(34) NOT NULL,
-    creditor_account VARCHAR(34) NOT NULL,
-    amount DECIMAL(19, 2) NOT NULL,
-    currency VARCHAR(3) NOT NULL,
+    debtor_account BYTEA NOT NULL,
+    creditor_account BYTEA NOT NULL,
+    amount DECIMAL(19, 4) NOT NULL,
+    currency SMALLINT NOT NULL,
     remittance_information VARCHAR(500),
     requested_execution_date DATE NOT NULL,
-    status VARCHAR(20) NOT NULL,
+    status SMALLINT NOT NULL,
     created_at TIMESTAMP NOT NULL,
     last_updated_at TIMESTAMP NOT NULL,
     version BIGINT DEFAULT 0,
+    CONSTRAINT pk_payment_orders PRIMARY KEY (id, created_at),
     CONSTRAINT chk_amount_positive CHECK (amount > 0),
-    CONSTRAINT chk_status_valid CHECK (status IN ('PENDING', 'PROCESSING', 'SETTLED', 'REJECTED', 'CANCELLED'))
-);
+    CONSTRAINT chk_status_valid CHECK (status BETWEEN 1 AND 5),
+    -- Covering: status reads are answered by an index-only scan
+    CONSTRAINT uq_payment_order_id UNIQUE (payment_order_id, created_at) INCLUDE (status, last_updated_at)
+) PARTITION BY RANGE (created_at);
 
 -- Indexes for performance
-CREATE INDEX IF NOT EXISTS idx_payment_order_id ON payment_orders(payment_order_id);
+-- payment_order_id is served by the index behind its UNIQUE constraint, which also
+-- carries status and last_updated_at. Installs created before are converted by
+-- db/migration/covering_status_index.sql. A lookup by payment_order_id alone would
+-- probe that index once per attached partition, so lookups by a time-ordered ID
+-- also bound created_at by the time the ID carries and only touch the partitions
+-- in range. Random IDs carry no time and are still looked up in every partition.
 CREATE INDEX IF NOT EXISTS idx_payment_order_reference ON payment_orders(payment_order_reference);
-CREATE INDEX IF NOT EXISTS idx_payment_order_status ON payment_orders(status);
-CREATE INDEX IF NOT EXISTS idx_payment_order_created_at ON payment_orders(created_at);
+
+-- Search indexes: each filter is an equality prefix followed by the keyset
+-- (created_at, id), so a filtered search seeks straight to its cursor and reads
+-- rows already in order, without sorting. Currency is too coarse to deserve its
+-- own index and is filtered on top of one of these.
+-- They replace the single-column status and created_at indexes; installs created
+-- before are converted by db/migration/search_indexes.sql.
+CREATE INDEX IF NOT EXISTS idx_payment_order_created_at_id ON payment_orders(created_at, id);
+CREATE INDEX IF NOT EXISTS idx_payment_order_status_created_at ON payment_orders(status, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_payment_order_debtor_created_at ON payment_orders(debtor_account, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_payment_order_creditor_created_at ON payment_orders(creditor_account, created_at, id);
+
+-- Global guard on payment_order_id: one row per order in payment_orders, kept by
+-- the statement-level triggers below in the statement that inserts or deletes the
+-- order, so a repeated ID fails that statement on pk_payment_order_ids whatever
+-- the writer (claim_idempotency_key, bulk insert, group commit). Not partitioned,
+-- so its primary key covers every month; detach_monthly_partitions_before
+-- releases the IDs of the months it detaches.
+CREATE TABLE IF NOT EXISTS payment_order_ids (
+    payment_order_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_payment_order_ids PRIMARY KEY (payment_order_id)
+);
+
+-- Settlement queue: pending orders in the order they are claimed for settlement.
+-- Partial, so it only holds the backlog and shrinks as orders are settled.
+-- Claims of PROCESSING orders gone stale are served by the status index above.
+CREATE INDEX IF NOT EXISTS idx_payment_order_due ON payment_orders(requested_execution_date, created_at, id)
+    WHERE status = 1;
 
 -- Idempotency Keys Table
+-- Range-partitioned by day on created_at: expired keys leave by dropping whole
+-- partitions (see drop_daily_partitions_before) instead of row-by-row deletes.
+-- A unique index on a partitioned table must contain created_at, so no index
+-- keeps a key unique: uniqueness among active claims depends entirely on the
+-- advisory lock (namespace 2) that claim_idempotency_key takes before looking
+-- the key up. Keys must only be written through that function; a plain INSERT
+-- skips the lock and can claim a key twice.
+-- For the same reason there is no foreign key to payment_orders: its unique key
+-- includes created_at, which a key does not always share with its order.
+-- claim_idempotency_key writes a key and its order in one transaction, and keys
+-- expire long before their order partition is detached.
 CREATE TABLE IF NOT EXISTS idempotency_keys (
-    id BIGSERIAL PRIMARY KEY,
-    idempotency_key VARCHAR(255) UNIQUE NOT NULL,
-    payment_order_id VARCHAR(100) NOT NULL,
+    id BIGSERIAL,
+    idempotency_key UUID NOT NULL,
+    payment_order_id UUID NOT NULL,
     created_at TIMESTAMP NOT NULL,
     expires_at TIMESTAMP NOT NULL,
-    CONSTRAINT fk_payment_order FOREIGN KEY (payment_order_id)
-        REFERENCES payment_orders(payment_order_id) ON DELETE CASCADE
-);
+    request_hash VARCHAR(64),
+    response_body BYTEA,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Request fingerprint and stored response, replayed to retries of the same request
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS request_hash VARCHAR(64);
+ALTER TABLE idempotency_keys ADD COLUMN IF NOT EXISTS response_body BYTEA;
 
 -- Indexes for idempotency
-CREATE INDEX IF NOT EXISTS idx_idempotency_key ON idempotency_keys(idempotency_key);
-CREATE INDEX IF NOT EXISTS idx_idempotency_expires ON idempotency_keys(expires_at);
+CREATE INDEX IF NOT EXISTS idx_idempotency_key ON idempotency_keys(idempotency_key, created_at DESC);
+
+-- Advisory locks use the two-key form, the first key naming the subsystem, so the
+-- hash of one subsystem never collides with the lock of another:
+--   1 partition maintenance (these functions and PartitionMaintenanceJob)
+--   2 idempotency key claims (claim_idempotency_key)
+--   3 payment order events relay (OutboxRelay)
+
+-- Creates the missing daily partitions of a table range-partitioned on a timestamp,
+-- one per day in [from_day, to_day], named <table>_pYYYYMMDD.
+-- Does nothing on a table that is not partitioned (installs not migrated yet).
+CREATE OR REPLACE FUNCTION create_daily_partitions(parent TEXT, from_day DATE, to_day DATE)
+RETURNS INTEGER AS '
+DECLARE
+    d DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(parent)) THEN
+        RETURN 0;
+    END IF;
+    PERFORM pg_advisory_xact_lock(1, hashtext(''partition_maintenance''));
+    FOR d IN SELECT generate_series(from_day, to_day, INTERVAL ''1 day'')::date LOOP
+        partition_name := parent || ''_p'' || to_char(d, ''YYYYMMDD'');
+        IF to_regclass(partition_name) IS NULL THEN
+            EXECUTE format(''CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)'',
+                partition_name, parent, d, d + 1);
+            created := created + 1;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+'
+LANGUAGE plpgsql;
+
+-- Drops the daily partitions of a table whose whole range lies before cutoff.
+CREATE OR REPLACE FUNCTION drop_daily_partitions_before(parent TEXT, cutoff DATE)
+RETURNS INTEGER AS '
+DECLARE
+    partition_name TEXT;
+    dropped INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(1, hashtext(''partition_maintenance''));
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass(parent)
+          AND c.relname ~ (''^'' || parent || ''_p[0-9]{8}$'')
+          AND to_date(right(c.relname, 8), ''YYYYMMDD'') + 1 <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format(''DROP TABLE %I'', partition_name);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+'
+LANGUAGE plpgsql;
+
+-- Creates the missing monthly partitions of a table range-partitioned on a
+-- timestamp, one per month overlapping [from_day, to_day], named <table>_pYYYYMM.
+-- Months already covered by another partition (such as the legacy partition left
+-- by db/migration/partition_payment_orders.sql) are skipped.
+-- Does nothing on a table that is not partitioned (installs not migrated yet).
+CREATE OR REPLACE FUNCTION create_monthly_partitions(parent TEXT, from_day DATE, to_day DATE)
+RETURNS INTEGER AS '
+DECLARE
+    m DATE;
+    partition_name TEXT;
+    created INTEGER := 0;
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(parent)) THEN
+        RETURN 0;
+    END IF;
+    PERFORM pg_advisory_xact_lock(1, hashtext(''partition_maintenance''));
+    FOR m IN SELECT generate_series(date_trunc(''month'', from_day), to_day, INTERVAL ''1 month'')::date LOOP
+        partition_name := parent || ''_p'' || to_char(m, ''YYYYMM'');
+        IF to_regclass(partition_name) IS NULL THEN
+            BEGIN
+                EXECUTE format(''CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)'',
+                    partition_name, parent, m, (m + INTERVAL ''1 month'')::date);
+                created := created + 1;
+            EXCEPTION WHEN invalid_object_definition THEN
+                -- Overlaps a partition with another name
+                NULL;
+            END;
+        END IF;
+    END LOOP;
+    RETURN created;
+END;
+'
+LANGUAGE plpgsql;
 
--- Optional: Create function to clean expired idempotency keys
+-- Detaches the monthly partitions of a table whose whole month lies before cutoff.
+-- Detached partitions stay behind as plain tables, for archiving or dropping.
+-- The IDs of detached payment orders leave payment_order_ids with them.
+CREATE OR REPLACE FUNCTION detach_monthly_partitions_before(parent TEXT, cutoff DATE)
+RETURNS INTEGER AS '
+DECLARE
+    partition_name TEXT;
+    detached INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(1, hashtext(''partition_maintenance''));
+    FOR partition_name IN
+        SELECT c.relname
+        FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = to_regclass(parent)
+          AND c.relname ~ (''^'' || parent || ''_p[0-9]{6}$'')
+          AND to_date(right(c.relname, 6), ''YYYYMM'') + INTERVAL ''1 month'' <= cutoff
+        ORDER BY c.relname
+    LOOP
+        EXECUTE format(''ALTER TABLE %I DETACH PARTITION %I'', parent, partition_name);
+        IF parent = ''payment_orders'' THEN
+            EXECUTE format(''DELETE FROM payment_order_ids g USING %I p''
+                || '' WHERE g.payment_order_id = p.payment_order_id'', partition_name);
+        END IF;
+        detached := detached + 1;
+    END LOOP;
+    RETURN detached;
+END;
+'
+LANGUAGE plpgsql;
+
+SELECT create_daily_partitions('idempotency_keys', CURRENT_DATE - 1, CURRENT_DATE + 3);
+SELECT create_monthly_partitions('payment_orders', CURRENT_DATE - 1, CURRENT_DATE + 62);
+
+-- Deletes expired idempotency keys row by row. Only needed until
+-- db/migration/partition_idempotency_keys.sql has run: on the partitioned table
+-- expired keys leave with their daily partitions.
 CREATE OR REPLACE FUNCTION clean_expired_idempotency_keys()
 RETURNS void AS '
 BEGIN
     DELETE FROM idempotency_keys WHERE expires_at < NOW();
 END;
 '
-LANGUAGE plpgsql;
\ No newline at end of file
+LANGUAGE plpgsql;
+
+-- Claims an idempotency key and inserts its payment order in one round trip.
+-- Claims of the same key are serialized by a transaction-level advisory lock;
+-- each statement of the function takes a fresh snapshot, so the lookup below
+-- sees any claim committed by the previous lock holder. Returns the claim
+-- holding the key, and whether it was made by this call.
+DROP FUNCTION IF EXISTS claim_idempotency_key(TEXT, TIMESTAMP, TEXT, TEXT, TEXT, TEXT, NUMERIC,
+        TEXT, TEXT, DATE, TEXT, TIMESTAMP, TIMESTAMP);
+DROP FUNCTION IF EXISTS claim_idempotency_key(TEXT, TIMESTAMP, TEXT, BYTEA, TEXT, TEXT, TEXT, TEXT,
+        NUMERIC, TEXT, TEXT, DATE, TEXT, TIMESTAMP, TIMESTAMP);
+
+CREATE OR REPLACE FUNCTION claim_idempotency_key(
+    p_idempotency_key UUID,
+    p_expires_at TIMESTAMP,
+    p_request_hash TEXT,
+    p_response_body BYTEA,
+    p_payment_order_id UUID,
+    p_payment_order_reference TEXT,
+    p_debtor_account BYTEA,
+    p_creditor_account BYTEA,
+    p_amount NUMERIC,
+    p_currency SMALLINT,
+    p_remittance_information TEXT,
+    p_requested_execution_date DATE,
+    p_status SMALLINT,
+    p_created_at TIMESTAMP,
+    p_last_updated_at TIMESTAMP)
+RETURNS TABLE (holder_payment_order_id UUID, claimed BOOLEAN,
+               holder_request_hash TEXT, holder_response_body BYTEA) AS '
+DECLARE
+    existing RECORD;
+BEGIN
+    PERFORM pg_advisory_xact_lock(2, hashtext(p_idempotency_key::TEXT));
+
+    SELECT k.payment_order_id, k.request_hash, k.response_body INTO existing
+    FROM idempotency_keys k
+    WHERE k.idempotency_key = p_idempotency_key
+      AND k.expires_at > p_created_at
+    ORDER BY k.created_at DESC
+    LIMIT 1;
+
+    IF FOUND THEN
+        RETURN QUERY SELECT existing.payment_order_id::UUID, FALSE,
+                            existing.request_hash::TEXT, existing.response_body;
+        RETURN;
+    END IF;
+
+    INSERT INTO payment_orders (payment_order_id, payment_order_reference, debtor_account,
+            creditor_account, amount, currency, remittance_information,
+            requested_execution_date, status, created_at, last_updated_at, version)
+    VALUES (p_payment_order_id, p_payment_order_reference, p_debtor_account,
+            p_creditor_account, p_amount, p_currency, p_remittance_information,
+            p_requested_execution_date, p_status, p_created_at, p_last_updated_at, 0);
+
+    INSERT INTO idempotency_keys (idempotency_key, payment_order_id, created_at, expires_at,
+            request_hash, response_body)
+    VALUES (p_idempotency_key, p_payment_order_id, p_created_at, p_expires_at,
+            p_request_hash, p_response_body);
+
+    RETURN QUERY SELECT p_payment_order_id, TRUE, p_request_hash, p_response_body;
+END;
+'
+LANGUAGE plpgsql;
+
+-- Publishes new claims so every replica keeps its idempotency near-cache coherent.
+-- Deletes are not published: cached entries expire locally at expires_at.
+-- The stored response is left out when it would not fit in a notification, and
+-- responseOmitted then tells receivers the claim has a body they did not get.
+CREATE OR REPLACE FUNCTION notify_idempotency_key_change()
+RETURNS trigger AS '
+BEGIN
+    PERFORM pg_notify(''idempotency_keys'', json_build_object(
+        ''idempotencyKey'', NEW.idempotency_key,
+        ''paymentOrderId'', NEW.payment_order_id,
+        ''ttlMillis'', floor(extract(epoch from (NEW.expires_at - LOCALTIMESTAMP)) * 1000),
+        ''requestHash'', NEW.request_hash,
+        ''response'', CASE WHEN octet_length(NEW.response_body) <= 4096
+                          THEN encode(NEW.response_body, ''base64'') END,
+        ''responseOmitted'', COALESCE(octet_length(NEW.response_body) > 4096, FALSE)
+    )::text);
+    RETURN NEW;
+END;
+'
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_idempotency_keys_notify
+    AFTER INSERT OR UPDATE ON idempotency_keys
+    FOR EACH ROW EXECUTE FUNCTION notify_idempotency_key_change();
+
+-- Keeps version moving on every change to a payment order, also for writers that
+-- do not bump it themselves, so read caches can trust version comparisons.
+CREATE OR REPLACE FUNCTION bump_payment_order_version()
+RETURNS trigger AS '
+BEGIN
+    IF NEW.version IS NOT DISTINCT FROM OLD.version THEN
+        NEW.version := COALESCE(OLD.version, 0) + 1;
+    END IF;
+    RETURN NEW;
+END;
+'
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_payment_orders_version
+    BEFORE UPDATE ON payment_orders
+    FOR EACH ROW WHEN (OLD.* IS DISTINCT FROM NEW.*)
+    EXECUTE FUNCTION bump_payment_order_version();
+
+-- Publishes the new version of changed payment orders so every replica drops
+-- stale entries from its read cache. Inserts are not published: a missing order
+-- is never cached. Deletes carry no version and always invalidate.
+-- Updates also carry the status, the time of the change (epoch seconds) and the
+-- debtor account (hex of its packed bytes), which feed status subscriptions.
+CREATE OR REPLACE FUNCTION notify_payment_order_change()
+RETURNS trigger AS '
+BEGIN
+    IF TG_OP = ''DELETE'' THEN
+        PERFORM pg_notify(''payment_orders'', json_build_object(
+            ''paymentOrderId'', OLD.payment_order_id
+        )::text);
+        RETURN OLD;
+    END IF;
+    PERFORM pg_notify(''payment_orders'', json_build_object(
+        ''paymentOrderId'', NEW.payment_order_id,
+        ''version'', NEW.version,
+        ''status'', NEW.status,
+        ''lastUpdatedAt'', extract(epoch FROM NEW.last_updated_at),
+        ''debtorAccount'', encode(NEW.debtor_account, ''hex'')
+    )::text);
+    RETURN NEW;
+END;
+'
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_payment_orders_notify
+    AFTER UPDATE OR DELETE ON payment_orders
+    FOR EACH ROW EXECUTE FUNCTION notify_payment_order_change();
+
+-- Payment Order Events Table (transactional outbox)
+-- Written by the triggers below in the transaction that changes payment_orders,
+-- so an event exists if and only if its change committed, whatever the writer.
+-- The relay publishes events in event_id order and deletes them once published.
+-- Rows churn quickly, so autovacuum visits the table long before the default
+-- 20 percent of it is dead.
+-- event_type: 1 CREATED, 2 STATUS_CHANGED. Statuses use the payment_orders codes.
+CREATE TABLE IF NOT EXISTS payment_order_events (
+    event_id BIGSERIAL PRIMARY KEY,
+    event_type SMALLINT NOT NULL,
+    payment_order_id UUID NOT NULL,
+    status SMALLINT NOT NULL,
+    previous_status SMALLINT,
+    version BIGINT NOT NULL,
+    occurred_at TIMESTAMP NOT NULL
+) WITH (autovacuum_vacuum_scale_factor = 0.01, autovacuum_vacuum_threshold = 1000);
+
+-- Statement-level, reading the rows of the statement from its transition tables:
+-- a bulk insert or a set-based transition records all its events with one INSERT
+-- and sends one notification, instead of one of each per row.
+-- Transition tables allow a single event per trigger, hence one function for
+-- inserts and one for updates.
+CREATE OR REPLACE FUNCTION record_payment_orders_created()
+RETURNS trigger AS '
+DECLARE
+    recorded INTEGER;
+BEGIN
+    INSERT INTO payment_order_events (event_type, payment_order_id, status, version, occurred_at)
+    SELECT 1, n.payment_order_id, n.status, COALESCE(n.version, 0), n.created_at
+    FROM inserted n
+    ORDER BY n.id;
+    GET DIAGNOSTICS recorded = ROW_COUNT;
+    IF recorded > 0 THEN
+        PERFORM pg_notify(''payment_order_events'', '''');
+    END IF;
+    RETURN NULL;
+END;
+'
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_payment_orders_status_changed()
+RETURNS trigger AS '
+DECLARE
+    recorded INTEGER;
+BEGIN
+    INSERT INTO payment_order_events (event_type, payment_order_id, status, previous_status, version, occurred_at)
+    SELECT 2, n.payment_order_id, n.status, o.status, COALESCE(n.version, 0), n.last_updated_at
+    FROM updated n
+    JOIN previous o ON o.id = n.id AND o.created_at = n.created_at
+    WHERE n.status IS DISTINCT FROM o.status
+    ORDER BY n.id;
+    GET DIAGNOSTICS recorded = ROW_COUNT;
+    IF recorded > 0 THEN
+        PERFORM pg_notify(''payment_order_events'', '''');
+    END IF;
+    RETURN NULL;
+END;
+'
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_payment_orders_created_event
+    AFTER INSERT ON payment_orders
+    REFERENCING NEW TABLE AS inserted
+    FOR EACH STATEMENT EXECUTE FUNCTION record_payment_orders_created();
+
+CREATE OR REPLACE TRIGGER trg_payment_orders_status_event
+    AFTER UPDATE ON payment_orders
+    REFERENCING OLD TABLE AS previous NEW TABLE AS updated
+    FOR EACH STATEMENT EXECUTE FUNCTION record_payment_orders_status_changed();
+
+-- Keep payment_order_ids in step with payment_orders, one INSERT or DELETE per
+-- statement. A bulk insert that repeats an ID, within itself or against an
+-- existing order, fails as a whole.
+CREATE OR REPLACE FUNCTION reserve_payment_order_ids()
+RETURNS trigger AS '
+BEGIN
+    INSERT INTO payment_order_ids (payment_order_id, created_at)
+    SELECT n.payment_order_id, n.created_at
+    FROM inserted n;
+    RETURN NULL;
+END;
+'
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION release_payment_order_ids()
+RETURNS trigger AS '
+BEGIN
+    DELETE FROM payment_order_ids g
+    USING deleted o
+    WHERE g.payment_order_id = o.payment_order_id;
+    RETURN NULL;
+END;
+'
+LANGUAGE plpgsql;
+
+CREATE OR REPLACE TRIGGER trg_payment_orders_reserve_id
+    AFTER INSERT ON payment_orders
+    REFERENCING NEW TABLE AS inserted
+    FOR EACH STATEMENT EXECUTE FUNCTION reserve_payment_order_ids();
+
+CREATE OR REPLACE TRIGGER trg_payment_orders_release_id
+    AFTER DELETE ON payment_orders
+    REFERENCING OLD TABLE AS deleted
+    FOR EACH STATEMENT EXECUTE FUNCTION release_payment_order_ids();
@@ -26,7 +26,8 @@ class AmountTest {
             Amount amount = Amount.of(BigDecimal.valueOf(1500.00), "EUR");
 
             // Then
-            assertThat(amount.value()).isEqualByComparingTo(BigDecimal.valueOf(1500.00));
+            assertThat(amount.minorUnits()).isEqualTo(150000);
+            assertThat(amount.toBigDecimal()).isEqualByComparingTo(BigDecimal.valueOf(1500.00));
             assertThat(amount.currencyCode()).isEqualTo("EUR");
         }
 
@@ -37,7 +38,42 @@ class AmountTest {
             Amount amount = Amount.of(BigDecimal.valueOf(1500.12345), "EUR");
 
             // Then
-            assertThat(amount.value()).isEqualByComparingTo(BigDecimal.valueOf(1500.12));
+            assertThat(amount.toBigDecimal()).isEqualByComparingTo(BigDecimal.valueOf(1500.12));
+        }
+
+        @Test
+        @DisplayName("Should scale amounts to the minor unit of their currency")
+        void shouldScaleToCurrencyMinorUnit() {
+            // When
+            Amount yen = Amount.of(new BigDecimal("1500"), "JPY");
+            Amount dinars = Amount.of(new BigDecimal("1500.125"), "KWD");
+
+            // Then
+            assertThat(yen.minorUnits()).isEqualTo(1500);
+            assertThat(yen.toBigDecimal()).isEqualTo(new BigDecimal("1500"));
+            assertThat(dinars.minorUnits()).isEqualTo(1500125);
+            assertThat(dinars.toBigDecimal()).isEqualTo(new BigDecimal("1500.125"));
+        }
+
+        @Test
+        @DisplayName("Should refuse exact amounts with more decimals than the currency has")
+        void shouldRefuseExcessDecimalsWhenExact() {
+            // When/Then
+            assertThat(Amount.ofExact(new BigDecimal("1500.10"), "EUR").minorUnits()).isEqualTo(150010);
+            assertThatThrownBy(() -> Amount.ofExact(new BigDecimal("1500.5"), "JPY"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("more decimals than JPY allows");
+            assertThatThrownBy(() -> Amount.ofExact(new BigDecimal("1500.125"), "EUR"))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should fail with amounts beyond the range of minor units")
+        void shouldFailOutOfRange() {
+            // When/Then
+            assertThatThrownBy(() -> Amount.of(new BigDecimal("1E+17"), "EUR"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("out of range");
         }
 
         @Test
@@ -104,5 +140,21 @@ class AmountTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("different currencies");
         }
+
+        @Test
+        @DisplayName("Should add amounts of the same currency")
+        void shouldAddAmounts() {
+            // Given
+            Amount amount1 = Amount.of(new BigDecimal("1500.25"), "EUR");
+            Amount amount2 = Amount.ofMinorUnits(75, "EUR");
+
+            // When
+            Amount sum = amount1.plus(amount2);
+
+            // Then
+            assertThat(sum).isEqualTo(Amount.ofMinorUnits(150100, "EUR"));
+            assertThatThrownBy(() -> amount1.plus(Amount.ofMinorUnits(1, "USD")))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
     }
 }
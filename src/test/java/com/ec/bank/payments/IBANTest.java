@@ -21,7 +21,9 @@ class IBANTest {
             "ES7921000813610123456789",
             "GB82WEST12345698765432",
             "DE89370400440532013000",
-            "FR1420041010050500013M02606"
+            "FR1420041010050500013M02606",
+            "MT84MALT011000012345MTLCAST001S",
+            "NO9386011117947"
     })
     void shouldAcceptValidIbans(String validIban) {
         // When
@@ -59,6 +61,54 @@ class IBANTest {
                 .hasMessageContaining("Invalid IBAN format");
     }
 
+    @ParameterizedTest
+    @DisplayName("Should reject IBANs with wrong check digits")
+    @ValueSource(strings = {
+            "ES7821000813610123456789",
+            "ES7921000813610123456798",
+            "GB82WEST12345698765433"
+    })
+    void shouldRejectWrongCheckDigits(String invalidIban) {
+        // When/Then
+        assertThatThrownBy(() -> IBAN.of(invalidIban))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid IBAN check digits");
+    }
+
+    @Test
+    @DisplayName("Should reject IBANs not of the length registered for their country")
+    void shouldRejectWrongCountryLength() {
+        // When/Then
+        assertThatThrownBy(() -> IBAN.of("ES792100081361012345678"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid IBAN length for country ES");
+        assertThatThrownBy(() -> IBAN.of("ZZ7921000813610123456789"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid IBAN country");
+    }
+
+    @Test
+    @DisplayName("Should normalize lower case and any whitespace")
+    void shouldNormalizeCaseAndWhitespace() {
+        // When
+        IBAN iban = IBAN.of(" gb82 west\t1234 5698 7654 32 ");
+
+        // Then
+        assertThat(iban.value()).isEqualTo("GB82WEST12345698765432");
+    }
+
+    @Test
+    @DisplayName("Should return equal IBANs for repeated input")
+    void shouldReturnEqualIbansForRepeatedInput() {
+        // When
+        IBAN first = IBAN.of("DE89370400440532013000");
+        IBAN second = IBAN.of("DE89370400440532013000");
+
+        // Then
+        assertThat(second).isEqualTo(first);
+        assertThat(second.value()).isEqualTo("DE89370400440532013000");
+    }
+
     @Test
     @DisplayName("Should fail with null value")
     void shouldFailWithNull() {
@@ -0,0 +1,108 @@
+package com.ec.bank.payments;
+
+
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for PaymentOrderId value object and its generators.
+ */
+@DisplayName("PaymentOrderId Value Object Tests")
+class PaymentOrderIdTest {
+
+    @Test
+    @DisplayName("Should generate version 7 UUIDs carrying the creation time")
+    void shouldGenerateTimeOrderedUuids() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        UUID uuid = uuidOf(PaymentOrderId.generate());
+
+        // Then
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        // The counter may borrow a few milliseconds ahead under a burst
+        assertThat(uuid.getMostSignificantBits() >>> 16).isBetween(before, System.currentTimeMillis() + 100);
+    }
+
+    @Test
+    @DisplayName("Should generate strictly increasing IDs within a thread")
+    void shouldIncreaseWithinThread() {
+        // Given
+        PaymentOrderIdGenerator generator = PaymentOrderIdGenerator.timeOrdered();
+        long previous = uuidOf(generator.generate()).getMostSignificantBits();
+
+        // When/Then
+        for (int i = 0; i < 100_000; i++) {
+            long current = uuidOf(generator.generate()).getMostSignificantBits();
+            assertThat(current).isGreaterThan(previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    @DisplayName("Should generate unique IDs across threads")
+    void shouldBeUniqueAcrossThreads() throws Exception {
+        // Given
+        int threads = 8;
+        int perThread = 50_000;
+        Set<PaymentOrderId> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // When
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        ids.add(PaymentOrderId.generate());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Then
+        assertThat(ids).hasSize(threads * perThread);
+    }
+
+    @Test
+    @DisplayName("Should keep issuing random IDs with the random generator")
+    void shouldGenerateRandomUuids() {
+        // When
+        UUID uuid = uuidOf(PaymentOrderIdGenerator.random().generate());
+
+        // Then
+        assertThat(uuid.version()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should reject blank IDs")
+    void shouldRejectBlankIds() {
+        assertThatThrownBy(() -> PaymentOrderId.of(" "))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static UUID uuidOf(PaymentOrderId id) {
+        assertThat(id.value()).startsWith("PO-");
+        return UUID.fromString(id.value().substring(3));
+    }
+}
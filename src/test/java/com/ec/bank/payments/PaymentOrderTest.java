@@ -30,7 +30,7 @@ class PaymentOrderTest {
             // Given
             String reference = "REF-2025-001";
             IBAN debtorIban = IBAN.of("ES7921000813610123456789");
-            IBAN creditorIban = IBAN.of("ES1420805801101234567891");
+            IBAN creditorIban = IBAN.of("ES9420805801101234567891");
             Amount amount = Amount.of(BigDecimal.valueOf(1500.00), "EUR");
             String remittance = "Invoice payment";
             LocalDate executionDate = LocalDate.now().plusDays(1);
@@ -74,7 +74,7 @@ class PaymentOrderTest {
         void shouldFailWhenExecutionDateInPast() {
             // Given
             IBAN debtorIban = IBAN.of("ES7921000813610123456789");
-            IBAN creditorIban = IBAN.of("ES1420805801101234567891");
+            IBAN creditorIban = IBAN.of("ES9420805801101234567891");
             Amount amount = Amount.of(BigDecimal.valueOf(1500.00), "EUR");
             LocalDate pastDate = LocalDate.now().minusDays(1);
 
@@ -95,7 +95,7 @@ class PaymentOrderTest {
             return PaymentOrder.create(
                     "REF-001",
                     IBAN.of("ES7921000813610123456789"),
-                    IBAN.of("ES1420805801101234567891"),
+                    IBAN.of("ES9420805801101234567891"),
                     Amount.of(BigDecimal.valueOf(1500.00), "EUR"),
                     "Test payment",
                     LocalDate.now().plusDays(1)
@@ -167,6 +167,25 @@ class PaymentOrderTest {
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessageContaining("Cannot cancel");
         }
+
+        @Test
+        @DisplayName("Should allow cancelling only from PENDING")
+        void shouldAllowCancellingOnlyFromPending() {
+            // When/Then
+            assertThat(PaymentStatus.PENDING.canTransitionTo(PaymentStatus.CANCELLED)).isTrue();
+            assertThat(PaymentStatus.PROCESSING.canTransitionTo(PaymentStatus.CANCELLED)).isFalse();
+            assertThat(PaymentStatus.sourcesOf(PaymentStatus.CANCELLED)).containsExactly(PaymentStatus.PENDING);
+        }
+
+        @Test
+        @DisplayName("Should never move back to PENDING nor out of a final status")
+        void shouldNotTransitionBackOrFromFinal() {
+            // When/Then
+            assertThat(PaymentStatus.sourcesOf(PaymentStatus.PENDING)).isEmpty();
+            assertThat(PaymentStatus.SETTLED.canTransitionTo(PaymentStatus.REJECTED)).isFalse();
+            assertThat(PaymentStatus.sourcesOf(PaymentStatus.SETTLED))
+                    .containsExactlyInAnyOrder(PaymentStatus.PENDING, PaymentStatus.PROCESSING);
+        }
     }
 
     @Nested
@@ -180,7 +199,7 @@ class PaymentOrderTest {
             PaymentOrder order1 = PaymentOrder.create(
                     "REF-001",
                     IBAN.of("ES7921000813610123456789"),
-                    IBAN.of("ES1420805801101234567891"),
+                    IBAN.of("ES9420805801101234567891"),
                     Amount.of(BigDecimal.valueOf(1500.00), "EUR"),
                     "Test",
                     LocalDate.now().plusDays(1)
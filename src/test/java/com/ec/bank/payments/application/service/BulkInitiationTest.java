@@ -0,0 +1,205 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.application.port.input.BulkInitiatePaymentOrdersUseCase.BulkInitiationLine;
+import com.ec.bank.payments.application.port.input.BulkInitiatePaymentOrdersUseCase.BulkInitiationResult;
+import com.ec.bank.payments.application.port.input.InitiatePaymentOrderUseCase.InitiatePaymentOrderCommand;
+import com.ec.bank.payments.domain.exception.SuspectedDuplicatePaymentException;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for bulk initiation in PaymentOrderService, against mocked
+ * collaborators.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Bulk Initiation Tests")
+class BulkInitiationTest {
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private DebtorLimitService debtorLimitService;
+
+    @Mock
+    private DuplicatePaymentDetector duplicatePaymentDetector;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentOrderService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PaymentOrderService(
+                paymentOrderRepository,
+                idempotencyService,
+                debtorLimitService,
+                duplicatePaymentDetector,
+                PaymentOrderIdGenerator.timeOrdered(),
+                meterRegistry
+        );
+        lenient().when(duplicatePaymentDetector.check(any(PaymentOrder.class), any())).thenReturn(Mono.empty());
+    }
+
+    @Nested
+    @DisplayName("Bulk Initiate Tests")
+    class BulkInitiateTests {
+
+        @Test
+        @DisplayName("Should persist valid lines in one bulk insert and reject invalid ones")
+        void shouldPersistValidLinesAndRejectInvalidOnes() {
+            // Given
+            InitiatePaymentOrderCommand valid = createValidCommand();
+            InitiatePaymentOrderCommand negativeAmount = new InitiatePaymentOrderCommand(
+                    valid.paymentOrderReference(), valid.debtorAccount(), valid.creditorAccount(),
+                    new BigDecimal("-1"), valid.currency(), valid.remittanceInformation(),
+                    valid.requestedExecutionDateTime(), null);
+
+            when(paymentOrderRepository.bulkInsert(any()))
+                    .thenAnswer(invocation -> Mono.just((long) invocation.<List<PaymentOrder>>getArgument(0).size()));
+
+            // When/Then
+            StepVerifier.create(service.initiateAll(Flux.just(
+                            BulkInitiationLine.parsed(1, valid),
+                            BulkInitiationLine.unreadable(2, "Line is not a valid payment order request"),
+                            BulkInitiationLine.parsed(3, negativeAmount),
+                            BulkInitiationLine.parsed(4, valid))))
+                    .assertNext(result -> {
+                        assertThat(result.lineNumber()).isEqualTo(1);
+                        assertThat(result.isAccepted()).isTrue();
+                        assertThat(result.paymentOrder().getStatus()).isEqualTo(PaymentStatus.PENDING);
+                    })
+                    .assertNext(result -> {
+                        assertThat(result.lineNumber()).isEqualTo(2);
+                        assertThat(result.error()).isEqualTo("Line is not a valid payment order request");
+                    })
+                    .assertNext(result -> {
+                        assertThat(result.lineNumber()).isEqualTo(3);
+                        assertThat(result.isAccepted()).isFalse();
+                    })
+                    .assertNext(result -> assertThat(result.lineNumber()).isEqualTo(4))
+                    .verifyComplete();
+
+            verify(paymentOrderRepository, times(1)).bulkInsert(argThat(orders -> orders.size() == 2));
+            verifyNoInteractions(idempotencyService);
+            assertThat(meterRegistry.counter("payment.order.bulk.accepted").count()).isEqualTo(2.0);
+            assertThat(meterRegistry.counter("payment.order.bulk.rejected").count()).isEqualTo(2.0);
+        }
+
+        @Test
+        @DisplayName("Should reject every valid line of a chunk that fails to persist")
+        void shouldRejectChunkThatFailsToPersist() {
+            // Given
+            when(paymentOrderRepository.bulkInsert(any()))
+                    .thenReturn(Mono.error(new RuntimeException("connection lost")));
+
+            // When/Then
+            StepVerifier.create(service.initiateAll(Flux.just(
+                            BulkInitiationLine.parsed(1, createValidCommand()),
+                            BulkInitiationLine.parsed(2, createValidCommand()))))
+                    .assertNext(result -> assertThat(result.error()).isEqualTo("Payment order could not be persisted"))
+                    .assertNext(result -> assertThat(result.isAccepted()).isFalse())
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should give back the limits counted for a chunk that fails to persist")
+        void shouldReleaseLimitsOfFailedChunk() {
+            // Given
+            when(paymentOrderRepository.bulkInsert(any()))
+                    .thenReturn(Mono.error(new RuntimeException("connection lost")));
+
+            // When
+            StepVerifier.create(service.initiateAll(Flux.just(
+                            BulkInitiationLine.parsed(1, createValidCommand()),
+                            BulkInitiationLine.parsed(2, createValidCommand()))))
+                    .expectNextCount(2)
+                    .verifyComplete();
+
+            // Then
+            verify(debtorLimitService, times(2)).reserve(any(PaymentOrder.class));
+            verify(debtorLimitService, times(2)).release(any(PaymentOrder.class));
+        }
+
+        @Test
+        @DisplayName("Should reject a line repeating a recent order and persist the others")
+        void shouldRejectSuspectedDuplicateLine() {
+            // Given
+            InitiatePaymentOrderCommand duplicate = new InitiatePaymentOrderCommand(
+                    "REF-DUPLICATE", "ES7921000813610123456789", "ES9420805801101234567891",
+                    new BigDecimal("1500.00"), "EUR", "Invoice payment", LocalDate.now().plusDays(1), null);
+
+            when(duplicatePaymentDetector.check(argThat(order -> order.getPaymentOrderReference().equals("REF-DUPLICATE")), isNull()))
+                    .thenReturn(Mono.error(new SuspectedDuplicatePaymentException(PaymentOrderId.of("PO-001"))));
+            when(paymentOrderRepository.bulkInsert(any()))
+                    .thenAnswer(invocation -> Mono.just((long) invocation.<List<PaymentOrder>>getArgument(0).size()));
+
+            // When/Then
+            StepVerifier.create(service.initiateAll(Flux.just(
+                            BulkInitiationLine.parsed(1, createValidCommand()),
+                            BulkInitiationLine.parsed(2, duplicate))))
+                    .assertNext(result -> assertThat(result.isAccepted()).isTrue())
+                    .assertNext(result -> {
+                        assertThat(result.isAccepted()).isFalse();
+                        assertThat(result.error()).contains("PO-001");
+                    })
+                    .verifyComplete();
+
+            verify(paymentOrderRepository).bulkInsert(argThat(orders -> orders.size() == 1));
+            verify(duplicatePaymentDetector, times(1)).record(any(PaymentOrder.class));
+        }
+
+        @Test
+        @DisplayName("Should not touch the repository when every line is invalid")
+        void shouldSkipRepositoryWhenNoLineIsValid() {
+            // When/Then
+            StepVerifier.create(service.initiateAll(Flux.just(BulkInitiationLine.unreadable(1, "Instructed amount is required"))))
+                    .assertNext(result -> assertThat(result).isEqualTo(
+                            BulkInitiationResult.rejected(1, "Instructed amount is required")))
+                    .verifyComplete();
+
+            verifyNoInteractions(paymentOrderRepository);
+        }
+    }
+
+    // Helper methods
+
+    private InitiatePaymentOrderCommand createValidCommand() {
+        return new InitiatePaymentOrderCommand(
+                "REF-2025-001",
+                "ES7921000813610123456789",
+                "ES9420805801101234567891",
+                new BigDecimal("1500.00"),
+                "EUR",
+                "Invoice payment",
+                LocalDate.now().plusDays(1),
+                "idempotency-key-123"
+        );
+    }
+}
@@ -0,0 +1,100 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Latency of checking and counting an order against the debtor limits with
+ * one million debtors active in the counters. Each call reserves the order of
+ * the next debtor in turn, so every check lands on a different entry. The
+ * limits are set high enough that no order is refused, which keeps the
+ * exception path out of the measurement.
+ * Not part of the test run. After mvn test-compile, run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main DebtorLimitCheckBenchmark}
+ * and read the p0.99 line of the sample-time result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class DebtorLimitCheckBenchmark {
+
+    private static final int DEBTORS = 1 << 20;
+    private static final BigInteger NINETY_SEVEN = BigInteger.valueOf(97);
+
+    private DebtorLimitService service;
+    private PaymentOrder[] orders;
+    private int next;
+
+    @Setup
+    public void populateDebtors() {
+        service = new DebtorLimitService(
+                mock(PaymentOrderRepository.class),
+                new SimpleMeterRegistry(),
+                new BigDecimal("1000000"),
+                Set.of("EUR"),
+                new BigDecimal("100000000000"),
+                60_000,
+                Duration.ofMinutes(1));
+
+        IBAN creditor = IBAN.of("ES9420805801101234567891");
+        PaymentOrderIdGenerator idGenerator = PaymentOrderIdGenerator.timeOrdered();
+        Instant now = Instant.now();
+        orders = new PaymentOrder[DEBTORS];
+        for (int i = 0; i < DEBTORS; i++) {
+            orders[i] = PaymentOrder.builder()
+                    .paymentOrderId(idGenerator.generate())
+                    .paymentOrderReference("REF-" + i)
+                    .debtorAccount(IBAN.of(account(i)))
+                    .creditorAccount(creditor)
+                    .instructedAmount(Amount.ofMinorUnits(100, "EUR"))
+                    .requestedExecutionDateTime(LocalDate.now().plusDays(1))
+                    .status(PaymentStatus.PENDING)
+                    .createdAt(now)
+                    .lastUpdatedAt(now)
+                    .build();
+            service.reserve(orders[i]);
+        }
+    }
+
+    @Benchmark
+    public PaymentOrder reserve() {
+        PaymentOrder order = orders[next];
+        next = (next + 1) & (DEBTORS - 1);
+        service.reserve(order);
+        return order;
+    }
+
+    private static String account(int i) {
+        String bban = String.format("2100081361%010d", i);
+        int check = 98 - new BigInteger(bban + "142800").mod(NINETY_SEVEN).intValue();
+        return String.format("ES%02d%s", check, bban);
+    }
+}
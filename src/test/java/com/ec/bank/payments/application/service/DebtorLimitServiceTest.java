@@ -0,0 +1,270 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.domain.exception.InvalidPaymentOrderException;
+import com.ec.bank.payments.domain.exception.PaymentLimitExceededException;
+import com.ec.bank.payments.domain.exception.PaymentLimitExceededException.Limit;
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Cursor;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria.Hit;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for DebtorLimitService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DebtorLimitService Tests")
+class DebtorLimitServiceTest {
+
+    private static final IBAN DEBTOR = IBAN.of("ES9121000418450200051332");
+    private static final IBAN OTHER_DEBTOR = IBAN.of("GB82WEST12345698765432");
+    private static final IBAN CREDITOR = IBAN.of("DE89370400440532013000");
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private DebtorLimitService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new DebtorLimitService(
+                paymentOrderRepository,
+                meterRegistry,
+                new BigDecimal("1000"),
+                Set.of("EUR", "USD"),
+                new BigDecimal("2500"),
+                3,
+                Duration.ofMinutes(1));
+    }
+
+    @Nested
+    @DisplayName("Reserve Tests")
+    class ReserveTests {
+
+        @Test
+        @DisplayName("Should accept orders within every limit")
+        void shouldAcceptOrdersWithinLimits() {
+            // When/Then
+            assertThatCode(() -> {
+                service.reserve(order(DEBTOR, "1000.00", "EUR"));
+                service.reserve(order(DEBTOR, "500.00", "EUR"));
+            }).doesNotThrowAnyException();
+            assertThat(meterRegistry.get("payment.limits.check").timer().count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should reject an order above the maximum amount")
+        void shouldRejectOrderAboveMaxAmount() {
+            // When/Then
+            assertThatThrownBy(() -> service.reserve(order(DEBTOR, "1000.01", "EUR")))
+                    .isInstanceOf(PaymentLimitExceededException.class)
+                    .satisfies(e -> assertThat(((PaymentLimitExceededException) e).getLimit())
+                            .isEqualTo(Limit.MAX_AMOUNT));
+            assertThat(meterRegistry.get("payment.limits.rejected").tag("limit", "max_amount").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should reject an order in an unsupported currency")
+        void shouldRejectUnsupportedCurrency() {
+            // When/Then
+            assertThatThrownBy(() -> service.reserve(order(DEBTOR, "10.00", "GBP")))
+                    .isInstanceOf(InvalidPaymentOrderException.class)
+                    .hasMessageContaining("GBP");
+        }
+
+        @Test
+        @DisplayName("Should reject the order beyond the orders per minute of a debtor")
+        void shouldRejectOrdersBeyondPerMinute() {
+            // Given
+            for (int i = 0; i < 3; i++) {
+                service.reserve(order(DEBTOR, "1.00", "EUR"));
+            }
+
+            // When/Then
+            assertThatThrownBy(() -> service.reserve(order(DEBTOR, "1.00", "EUR")))
+                    .isInstanceOf(PaymentLimitExceededException.class)
+                    .satisfies(e -> assertThat(((PaymentLimitExceededException) e).getLimit())
+                            .isEqualTo(Limit.ORDERS_PER_MINUTE));
+            // Other debtors and other currencies keep their own counters
+            assertThatCode(() -> {
+                service.reserve(order(OTHER_DEBTOR, "1.00", "EUR"));
+                service.reserve(order(DEBTOR, "1.00", "USD"));
+            }).doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Should reject the order taking a debtor beyond its daily total")
+        void shouldRejectOrderBeyondDailyTotal() {
+            // Given
+            service.reserve(order(DEBTOR, "1000.00", "EUR"));
+            service.reserve(order(DEBTOR, "1000.00", "EUR"));
+
+            // When/Then
+            assertThatThrownBy(() -> service.reserve(order(DEBTOR, "500.01", "EUR")))
+                    .isInstanceOf(PaymentLimitExceededException.class)
+                    .satisfies(e -> assertThat(((PaymentLimitExceededException) e).getLimit())
+                            .isEqualTo(Limit.DAILY_TOTAL));
+            // The rejected order does not use up the per-minute limit
+            assertThatCode(() -> service.reserve(order(DEBTOR, "500.00", "EUR")))
+                    .doesNotThrowAnyException();
+        }
+
+        @Test
+        @DisplayName("Should give back what a released order counted")
+        void shouldGiveBackReleasedOrder() {
+            // Given
+            PaymentOrder first = order(DEBTOR, "1000.00", "EUR");
+            service.reserve(first);
+            service.reserve(order(DEBTOR, "1000.00", "EUR"));
+            PaymentOrder third = order(DEBTOR, "500.00", "EUR");
+            service.reserve(third);
+
+            // When
+            service.release(third);
+            service.release(third);
+
+            // Then
+            assertThatCode(() -> service.reserve(order(DEBTOR, "500.00", "EUR")))
+                    .doesNotThrowAnyException();
+        }
+    }
+
+    @Nested
+    @DisplayName("Reconcile Tests")
+    class ReconcileTests {
+
+        @Test
+        @DisplayName("Should count orders of other instances once and skip its own")
+        void shouldCountOrdersOfOtherInstancesOnce() {
+            // Given
+            PaymentOrder own = order(DEBTOR, "1.00", "EUR");
+            service.reserve(own);
+            PaymentOrder fromOtherInstance = order(DEBTOR, "1.00", "EUR");
+            when(paymentOrderRepository.search(any(PaymentOrderSearchCriteria.class)))
+                    .thenAnswer(invocation -> Flux.just(hit(own, 1), hit(fromOtherInstance, 2)));
+
+            // When/Then
+            StepVerifier.create(service.reconcile())
+                    .expectNext(1L)
+                    .verifyComplete();
+            StepVerifier.create(service.reconcile())
+                    .expectNext(0L)
+                    .verifyComplete();
+
+            service.reserve(order(DEBTOR, "1.00", "EUR"));
+            assertThatThrownBy(() -> service.reserve(order(DEBTOR, "1.00", "EUR")))
+                    .isInstanceOf(PaymentLimitExceededException.class);
+            assertThat(meterRegistry.get("payment.limits.debtors").gauge().value()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should search from the previous run minus the overlap")
+        void shouldSearchFromPreviousRunMinusOverlap() {
+            // Given
+            Instant before = Instant.now();
+            when(paymentOrderRepository.search(any(PaymentOrderSearchCriteria.class)))
+                    .thenReturn(Flux.empty());
+            service.reconcile().block();
+
+            // When
+            when(paymentOrderRepository.search(any(PaymentOrderSearchCriteria.class)))
+                    .thenAnswer(invocation -> {
+                        PaymentOrderSearchCriteria criteria = invocation.getArgument(0);
+                        assertThat(criteria.createdFrom()).isAfterOrEqualTo(before.minus(Duration.ofMinutes(1)));
+                        assertThat(criteria.createdTo()).isNull();
+                        assertThat(criteria.limit()).isNull();
+                        return Flux.empty();
+                    });
+
+            // Then
+            StepVerifier.create(service.reconcile())
+                    .expectNext(0L)
+                    .verifyComplete();
+        }
+    }
+
+    @Nested
+    @DisplayName("Prune Tests")
+    class PruneTests {
+
+        @Test
+        @DisplayName("Should keep the orders the next reconciliation reads again")
+        void shouldKeepOrdersWithinOverlap() {
+            // Given
+            service.reserve(order(DEBTOR, "1.00", "EUR"));
+            when(paymentOrderRepository.search(any(PaymentOrderSearchCriteria.class))).thenReturn(Flux.empty());
+            service.reconcile().block();
+
+            // When
+            service.prune();
+
+            // Then
+            assertThat(meterRegistry.get("payment.limits.counted").gauge().value()).isEqualTo(1.0);
+            assertThat(meterRegistry.get("payment.limits.debtors").gauge().value()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should prune past the limit windows while reconciliation keeps failing")
+        void shouldPruneWithoutSuccessfulReconciliation() {
+            // Given
+            service.reserve(order(DEBTOR, "1.00", "EUR"));
+            service.reserve(order(OTHER_DEBTOR, "1.00", "EUR"));
+            when(paymentOrderRepository.search(any(PaymentOrderSearchCriteria.class)))
+                    .thenReturn(Flux.error(new IllegalStateException("database unavailable")));
+            StepVerifier.create(service.reconcile())
+                    .expectError(IllegalStateException.class)
+                    .verify();
+
+            // When
+            service.prune(Instant.now().plus(Duration.ofDays(2)));
+
+            // Then
+            assertThat(meterRegistry.get("payment.limits.counted").gauge().value()).isZero();
+            assertThat(meterRegistry.get("payment.limits.debtors").gauge().value()).isZero();
+        }
+    }
+
+    private static PaymentOrder order(IBAN debtor, String amount, String currency) {
+        return PaymentOrder.create(
+                "REF-" + System.nanoTime(),
+                debtor,
+                CREDITOR,
+                Amount.of(new BigDecimal(amount), currency),
+                "Limits",
+                LocalDate.now().plusDays(1));
+    }
+
+    private static Hit hit(PaymentOrder order, long sequence) {
+        return new Hit(order.toBuilder().status(PaymentStatus.PENDING).build(),
+                new Cursor(order.getCreatedAt(), sequence));
+    }
+}
@@ -0,0 +1,188 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.domain.exception.SuspectedDuplicatePaymentException;
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentFingerprint;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.port.output.IdempotencyRepository;
+import com.ec.bank.payments.domain.port.output.PaymentFingerprintIndex;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DuplicatePaymentDetector.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DuplicatePaymentDetector Tests")
+class DuplicatePaymentDetectorTest {
+
+    private static final IBAN DEBTOR = IBAN.of("ES9121000418450200051332");
+    private static final IBAN CREDITOR = IBAN.of("DE89370400440532013000");
+    private static final LocalDate EXECUTION_DATE = LocalDate.now().plusDays(1);
+
+    @Mock
+    private PaymentFingerprintIndex fingerprintIndex;
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Mock
+    private IdempotencyRepository idempotencyRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private DuplicatePaymentDetector detector(boolean reject) {
+        return new DuplicatePaymentDetector(fingerprintIndex, paymentOrderRepository, idempotencyRepository,
+                meterRegistry, Duration.ofHours(24), reject);
+    }
+
+    @Nested
+    @DisplayName("Check Tests")
+    class CheckTests {
+
+        @Test
+        @DisplayName("Should pass new content without querying the store")
+        void shouldPassNewContentWithoutQuery() {
+            // Given
+            when(fingerprintIndex.mightContain(any(PaymentFingerprint.class))).thenReturn(false);
+
+            // When/Then
+            StepVerifier.create(detector(true).check(order("REF-001", "100.00"), null))
+                    .verifyComplete();
+            verifyNoInteractions(paymentOrderRepository, idempotencyRepository);
+        }
+
+        @Test
+        @DisplayName("Should refuse an order repeating a recent one when configured to")
+        void shouldRefuseConfirmedDuplicate() {
+            // Given
+            PaymentOrder existing = order("REF-001", "100.00");
+            when(fingerprintIndex.mightContain(PaymentFingerprint.of(existing))).thenReturn(true);
+            when(paymentOrderRepository.findByReference(eq("REF-001"), any(Instant.class))).thenReturn(Flux.just(existing));
+
+            PaymentOrder candidate = order("REF-001", "100.00");
+
+            // When/Then
+            StepVerifier.create(detector(true).check(candidate, null))
+                    .expectErrorSatisfies(e -> assertThat(e)
+                            .isInstanceOf(SuspectedDuplicatePaymentException.class)
+                            .hasMessageContaining(existing.getPaymentOrderId().value()))
+                    .verify();
+            verify(paymentOrderRepository).findByReference("REF-001", candidate.getCreatedAt().minus(Duration.ofHours(24)));
+            assertThat(meterRegistry.get("payment.order.duplicate.suspected").tag("action", "rejected")
+                    .counter().count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should only flag an order repeating a recent one by default")
+        void shouldFlagConfirmedDuplicate() {
+            // Given
+            PaymentOrder existing = order("REF-001", "100.00");
+            when(fingerprintIndex.mightContain(any(PaymentFingerprint.class))).thenReturn(true);
+            when(paymentOrderRepository.findByReference(eq("REF-001"), any(Instant.class))).thenReturn(Flux.just(existing));
+            when(idempotencyRepository.findPaymentOrderId("key-2")).thenReturn(Mono.empty());
+
+            // When/Then
+            StepVerifier.create(detector(false).check(order("REF-001", "100.00"), "key-2"))
+                    .verifyComplete();
+            assertThat(meterRegistry.get("payment.order.duplicate.suspected").tag("action", "flagged")
+                    .counter().count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should count a possible match with other content as a false positive")
+        void shouldCountUnconfirmedMatchAsFalsePositive() {
+            // Given
+            when(fingerprintIndex.mightContain(any(PaymentFingerprint.class))).thenReturn(true);
+            when(paymentOrderRepository.findByReference(eq("REF-001"), any(Instant.class)))
+                    .thenReturn(Flux.just(order("REF-001", "100.01")));
+
+            // When/Then
+            StepVerifier.create(detector(true).check(order("REF-001", "100.00"), null))
+                    .verifyComplete();
+            assertThat(meterRegistry.get("payment.order.duplicate.false.positive").counter().count())
+                    .isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should leave a retry under the key of the matching order to idempotency")
+        void shouldLeaveRetryUnderSameKey() {
+            // Given
+            PaymentOrder existing = order("REF-001", "100.00");
+            when(fingerprintIndex.mightContain(any(PaymentFingerprint.class))).thenReturn(true);
+            when(paymentOrderRepository.findByReference(eq("REF-001"), any(Instant.class))).thenReturn(Flux.just(existing));
+            when(idempotencyRepository.findPaymentOrderId("key-1"))
+                    .thenReturn(Mono.just(existing.getPaymentOrderId().value()));
+
+            // When/Then
+            StepVerifier.create(detector(true).check(order("REF-001", "100.00"), "key-1"))
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    @DisplayName("Should remember the fingerprint of a saved order")
+    void shouldRecordSavedOrder() {
+        // Given
+        PaymentOrder order = order("REF-001", "100.00");
+
+        // When
+        detector(false).record(order);
+
+        // Then
+        verify(fingerprintIndex).put(PaymentFingerprint.of(order), order.getCreatedAt());
+    }
+
+    @Test
+    @DisplayName("Should fingerprint content regardless of ID and creation time")
+    void shouldFingerprintContentOnly() {
+        // Given
+        PaymentOrder first = order("REF-001", "100.00");
+        PaymentOrder second = order("REF-001", "100.0");
+
+        // Then
+        assertThat(PaymentFingerprint.of(first)).isEqualTo(PaymentFingerprint.of(second));
+        assertThat(PaymentFingerprint.of(first).matches(order("REF-002", "100.00"))).isFalse();
+        assertThat(PaymentFingerprint.of(first).matches(order("REF-001", "100.00", "USD"))).isFalse();
+    }
+
+    private static PaymentOrder order(String reference, String amount) {
+        return order(reference, amount, "EUR");
+    }
+
+    private static PaymentOrder order(String reference, String amount, String currency) {
+        return PaymentOrder.create(
+                reference,
+                DEBTOR,
+                CREDITOR,
+                Amount.of(new BigDecimal(amount), currency),
+                "Invoice",
+                EXECUTION_DATE);
+    }
+}
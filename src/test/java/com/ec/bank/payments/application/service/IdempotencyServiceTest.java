@@ -2,6 +2,9 @@ package com.ec.bank.payments.application.service;
 
 
 import com.ec.bank.payments.domain.exception.DuplicatePaymentOrderException;
+import com.ec.bank.payments.domain.exception.IdempotencyKeyReusedException;
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
 import com.ec.bank.payments.domain.port.output.IdempotencyRepository;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
@@ -14,6 +17,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
@@ -36,75 +41,74 @@ class IdempotencyServiceTest {
     }
 
     @Test
-    @DisplayName("Should pass check when idempotency key does not exist")
-    void shouldPassWhenKeyDoesNotExist() {
-        // Given
-        String idempotencyKey = "key-123";
-        when(idempotencyRepository.exists(idempotencyKey))
-                .thenReturn(Mono.just(false));
-
+    @DisplayName("Should reject duplicate and count it")
+    void shouldRejectDuplicate() {
         // When/Then
-        StepVerifier.create(service.checkIdempotency(idempotencyKey))
-                .verifyComplete();
+        StepVerifier.create(service.rejectDuplicate("key-123", "PO-001"))
+                .expectErrorSatisfies(e -> {
+                    assertThat(e).isInstanceOf(DuplicatePaymentOrderException.class);
+                    assertThat(((DuplicatePaymentOrderException) e).getExistingPaymentOrderId())
+                            .isEqualTo("PO-001");
+                })
+                .verify();
 
-        verify(idempotencyRepository).exists(idempotencyKey);
+        assertThat(meterRegistry.counter("payment.idempotency.duplicate", "type", "payment-order").count())
+                .isEqualTo(1.0);
+        verifyNoInteractions(idempotencyRepository);
     }
 
     @Test
-    @DisplayName("Should fail when idempotency key already exists")
-    void shouldFailWhenKeyExists() {
+    @DisplayName("Should return claim already known locally")
+    void shouldReturnKnownClaim() {
         // Given
-        String idempotencyKey = "key-123";
-        String existingOrderId = "PO-001";
-
-        when(idempotencyRepository.exists(idempotencyKey))
-                .thenReturn(Mono.just(true));
-        when(idempotencyRepository.findPaymentOrderId(idempotencyKey))
-                .thenReturn(Mono.just(existingOrderId));
+        IdempotencyClaim known = IdempotencyClaim.existing("key-123", PaymentOrderId.of("PO-001"));
+        when(idempotencyRepository.peekClaim("key-123"))
+                .thenReturn(Mono.just(known));
 
         // When/Then
-        StepVerifier.create(service.checkIdempotency(idempotencyKey))
-                .expectError(DuplicatePaymentOrderException.class)
-                .verify();
+        StepVerifier.create(service.peekClaim("key-123"))
+                .expectNext(known)
+                .verifyComplete();
 
-        verify(idempotencyRepository).exists(idempotencyKey);
-        verify(idempotencyRepository).findPaymentOrderId(idempotencyKey);
+        verify(idempotencyRepository, never()).exists(anyString());
     }
 
     @Test
-    @DisplayName("Should successfully save idempotency key")
-    void shouldSaveIdempotencyKey() {
+    @DisplayName("Should complete empty for key not known locally")
+    void shouldPassUnknownKey() {
         // Given
-        String idempotencyKey = "key-123";
-        String paymentOrderId = "PO-001";
-
-        when(idempotencyRepository.save(idempotencyKey, paymentOrderId))
+        when(idempotencyRepository.peekClaim("key-123"))
                 .thenReturn(Mono.empty());
 
         // When/Then
-        StepVerifier.create(service.saveIdempotencyKey(idempotencyKey, paymentOrderId))
+        StepVerifier.create(service.peekClaim("key-123"))
                 .verifyComplete();
-
-        verify(idempotencyRepository).save(idempotencyKey, paymentOrderId);
     }
 
     @Test
-    @DisplayName("Should skip check when idempotency key is null")
-    void shouldSkipCheckWhenKeyIsNull() {
+    @DisplayName("Should replay stored response and count it")
+    void shouldReplayStoredResponse() {
+        // Given
+        byte[] response = "{\"paymentOrderId\":\"PO-001\"}".getBytes();
+
         // When/Then
-        StepVerifier.create(service.checkIdempotency(null))
+        StepVerifier.create(service.replay("key-123", response))
+                .expectNext(response)
                 .verifyComplete();
 
-        verifyNoInteractions(idempotencyRepository);
+        assertThat(meterRegistry.counter("payment.idempotency.replayed", "type", "payment-order").count())
+                .isEqualTo(1.0);
     }
 
     @Test
-    @DisplayName("Should skip save when idempotency key is blank")
-    void shouldSkipSaveWhenKeyIsBlank() {
+    @DisplayName("Should reject key reused with a different payload")
+    void shouldRejectReusedKey() {
         // When/Then
-        StepVerifier.create(service.saveIdempotencyKey("", "PO-001"))
-                .verifyComplete();
+        StepVerifier.create(service.rejectReusedKey("key-123"))
+                .expectError(IdempotencyKeyReusedException.class)
+                .verify();
 
-        verifyNoInteractions(idempotencyRepository);
+        assertThat(meterRegistry.counter("payment.idempotency.key.reused", "type", "payment-order").count())
+                .isEqualTo(1.0);
     }
 }
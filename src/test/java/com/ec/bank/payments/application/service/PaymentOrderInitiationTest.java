@@ -0,0 +1,494 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.application.port.input.InitiatePaymentOrderUseCase.InitiatePaymentOrderCommand;
+import com.ec.bank.payments.domain.exception.DuplicatePaymentOrderException;
+import com.ec.bank.payments.domain.exception.IdempotencyKeyReusedException;
+import com.ec.bank.payments.domain.exception.PaymentLimitExceededException;
+import com.ec.bank.payments.domain.exception.SuspectedDuplicatePaymentException;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for single payment order initiation in PaymentOrderService,
+ * against mocked collaborators.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Order Initiation Tests")
+class PaymentOrderInitiationTest {
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private DebtorLimitService debtorLimitService;
+
+    @Mock
+    private DuplicatePaymentDetector duplicatePaymentDetector;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentOrderService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PaymentOrderService(
+                paymentOrderRepository,
+                idempotencyService,
+                debtorLimitService,
+                duplicatePaymentDetector,
+                PaymentOrderIdGenerator.timeOrdered(),
+                meterRegistry
+        );
+        lenient().when(idempotencyService.peekClaim(anyString())).thenReturn(Mono.empty());
+        lenient().when(duplicatePaymentDetector.check(any(PaymentOrder.class), any())).thenReturn(Mono.empty());
+    }
+
+    @Nested
+    @DisplayName("Idempotency Claim Tests")
+    class ClaimTests {
+
+        @Test
+        @DisplayName("Should claim the key and insert the order with one repository call")
+        void shouldClaimKeyAndInsertOrder() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(paymentOrderRepository.saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull()))
+                    .thenAnswer(invocation -> Mono.just(IdempotencyClaim.claimed(
+                            command.idempotencyKey(), invocation.<PaymentOrder>getArgument(0).getPaymentOrderId())));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .assertNext(order -> {
+                        assertThat(order.getPaymentOrderReference()).isEqualTo(command.paymentOrderReference());
+                        assertThat(order.getStatus()).isEqualTo(PaymentStatus.PENDING);
+                    })
+                    .verifyComplete();
+
+            verify(paymentOrderRepository).saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull());
+            verify(paymentOrderRepository, never()).save(any(PaymentOrder.class));
+            verify(idempotencyService, never()).rejectDuplicate(anyString(), anyString());
+            assertThat(meterRegistry.counter("payment.order.initiated").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should reject duplicate when idempotency key is already claimed")
+        void shouldRejectDuplicateIdempotencyKey() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+            PaymentOrderId existingId = PaymentOrderId.of("PO-001");
+
+            when(paymentOrderRepository.saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull()))
+                    .thenReturn(Mono.just(IdempotencyClaim.existing(command.idempotencyKey(), existingId)));
+            when(idempotencyService.rejectDuplicate(command.idempotencyKey(), existingId.value()))
+                    .thenReturn(Mono.error(new DuplicatePaymentOrderException(
+                            command.idempotencyKey(), existingId.value())));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectError(DuplicatePaymentOrderException.class)
+                    .verify();
+
+            verify(idempotencyService).rejectDuplicate(command.idempotencyKey(), existingId.value());
+            assertThat(meterRegistry.counter("payment.order.initiated").count()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should insert the order alone when no idempotency key is given")
+        void shouldSaveWithoutKey() {
+            // Given
+            InitiatePaymentOrderCommand command = createCommand(null);
+
+            when(paymentOrderRepository.save(any(PaymentOrder.class)))
+                    .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .assertNext(order -> assertThat(order.getStatus()).isEqualTo(PaymentStatus.PENDING))
+                    .verifyComplete();
+
+            verify(paymentOrderRepository, never()).saveWithIdempotencyKey(any(), any(), any(), any());
+            verifyNoInteractions(idempotencyService);
+        }
+    }
+
+    @Nested
+    @DisplayName("Near-Cache Tests")
+    class NearCacheTests {
+
+        @Test
+        @DisplayName("Should short-circuit known duplicate without touching the repository")
+        void shouldShortCircuitKnownDuplicate() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(idempotencyService.peekClaim(command.idempotencyKey()))
+                    .thenReturn(Mono.just(IdempotencyClaim.existing(command.idempotencyKey(), PaymentOrderId.of("PO-001"))));
+            when(idempotencyService.rejectDuplicate(command.idempotencyKey(), "PO-001"))
+                    .thenReturn(Mono.error(new DuplicatePaymentOrderException(command.idempotencyKey(), "PO-001")));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectError(DuplicatePaymentOrderException.class)
+                    .verify();
+
+            verifyNoInteractions(paymentOrderRepository);
+            verifyNoInteractions(debtorLimitService);
+        }
+
+        @Test
+        @DisplayName("Should fall through to the claim when the key is not known locally")
+        void shouldClaimUnknownKey() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(paymentOrderRepository.saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull()))
+                    .thenAnswer(invocation -> Mono.just(IdempotencyClaim.claimed(
+                            command.idempotencyKey(), invocation.<PaymentOrder>getArgument(0).getPaymentOrderId())));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            verify(idempotencyService).peekClaim(command.idempotencyKey());
+            verify(paymentOrderRepository).saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull());
+        }
+    }
+
+    @Nested
+    @DisplayName("Idempotent Replay Tests")
+    class ReplayTests {
+
+        private final Function<PaymentOrder, byte[]> renderer =
+                order -> order.getPaymentOrderId().value().getBytes(StandardCharsets.UTF_8);
+
+        @Test
+        @DisplayName("Should store the request hash and rendered response with the claim")
+        void shouldStoreHashAndResponse() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(idempotencyService.peekClaim(command.idempotencyKey()))
+                    .thenReturn(Mono.empty());
+            when(paymentOrderRepository.saveWithIdempotencyKey(
+                    any(PaymentOrder.class), eq(command.idempotencyKey()), eq(RequestHash.of(command)), any(byte[].class)))
+                    .thenAnswer(invocation -> {
+                        PaymentOrder order = invocation.getArgument(0);
+                        assertThat(invocation.<byte[]>getArgument(3)).isEqualTo(renderer.apply(order));
+                        return Mono.just(IdempotencyClaim.claimed(command.idempotencyKey(), order.getPaymentOrderId()));
+                    });
+
+            // When/Then
+            StepVerifier.create(service.initiate(command, renderer))
+                    .assertNext(outcome -> {
+                        assertThat(outcome.isReplay()).isFalse();
+                        assertThat(outcome.paymentOrder().getPaymentOrderReference())
+                                .isEqualTo(command.paymentOrderReference());
+                    })
+                    .verifyComplete();
+        }
+
+        @Test
+        @DisplayName("Should replay the stored response for a retry with the same payload")
+        void shouldReplayStoredResponse() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+            byte[] stored = "stored-response".getBytes(StandardCharsets.UTF_8);
+
+            when(idempotencyService.peekClaim(command.idempotencyKey()))
+                    .thenReturn(Mono.empty());
+            when(paymentOrderRepository.saveWithIdempotencyKey(
+                    any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), any(byte[].class)))
+                    .thenReturn(Mono.just(IdempotencyClaim.existing(
+                            command.idempotencyKey(), PaymentOrderId.of("PO-001"), RequestHash.of(command), stored)));
+            when(idempotencyService.replay(command.idempotencyKey(), stored))
+                    .thenReturn(Mono.just(stored));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command, renderer))
+                    .assertNext(outcome -> {
+                        assertThat(outcome.isReplay()).isTrue();
+                        assertThat(outcome.replayedResponse()).isEqualTo(stored);
+                    })
+                    .verifyComplete();
+
+            verify(paymentOrderRepository, never()).findById(any(PaymentOrderId.class));
+            verify(idempotencyService, never()).rejectDuplicate(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should replay from the near-cache without touching the repository")
+        void shouldReplayKnownClaim() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+            byte[] stored = "stored-response".getBytes(StandardCharsets.UTF_8);
+
+            when(idempotencyService.peekClaim(command.idempotencyKey()))
+                    .thenReturn(Mono.just(IdempotencyClaim.existing(
+                            command.idempotencyKey(), PaymentOrderId.of("PO-001"), RequestHash.of(command), stored)));
+            when(idempotencyService.replay(command.idempotencyKey(), stored))
+                    .thenReturn(Mono.just(stored));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command, renderer))
+                    .assertNext(outcome -> assertThat(outcome.replayedResponse()).isEqualTo(stored))
+                    .verifyComplete();
+
+            verifyNoInteractions(paymentOrderRepository);
+        }
+
+        @Test
+        @DisplayName("Should report a duplicate instead of rendering the order when no response was stored")
+        void shouldRejectClaimWithoutStoredResponse() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+            PaymentOrderId existingId = PaymentOrderId.of("PO-001");
+
+            when(idempotencyService.peekClaim(command.idempotencyKey()))
+                    .thenReturn(Mono.just(IdempotencyClaim.existing(
+                            command.idempotencyKey(), existingId, RequestHash.of(command), null)));
+            when(idempotencyService.rejectDuplicate(command.idempotencyKey(), "PO-001"))
+                    .thenReturn(Mono.error(new DuplicatePaymentOrderException(command.idempotencyKey(), "PO-001")));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command, renderer))
+                    .expectError(DuplicatePaymentOrderException.class)
+                    .verify();
+
+            verifyNoInteractions(paymentOrderRepository);
+            verify(idempotencyService, never()).replay(anyString(), any(byte[].class));
+        }
+
+        @Test
+        @DisplayName("Should reject a key reused with a different payload")
+        void shouldRejectDifferentPayload() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(idempotencyService.peekClaim(command.idempotencyKey()))
+                    .thenReturn(Mono.just(IdempotencyClaim.existing(
+                            command.idempotencyKey(), PaymentOrderId.of("PO-001"), "other-hash", new byte[0])));
+            when(idempotencyService.rejectReusedKey(command.idempotencyKey()))
+                    .thenReturn(Mono.error(new IdempotencyKeyReusedException(command.idempotencyKey())));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command, renderer))
+                    .expectError(IdempotencyKeyReusedException.class)
+                    .verify();
+
+            verify(idempotencyService, never()).replay(anyString(), any(byte[].class));
+        }
+
+        @Test
+        @DisplayName("Should hash equal payloads equally regardless of amount scale")
+        void shouldHashEqualPayloadsEqually() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+            InitiatePaymentOrderCommand sameAmount = new InitiatePaymentOrderCommand(
+                    command.paymentOrderReference(), command.debtorAccount(), command.creditorAccount(),
+                    new BigDecimal("1500.0"), command.currency(), command.remittanceInformation(),
+                    command.requestedExecutionDateTime(), "another-key");
+            InitiatePaymentOrderCommand otherAmount = new InitiatePaymentOrderCommand(
+                    command.paymentOrderReference(), command.debtorAccount(), command.creditorAccount(),
+                    new BigDecimal("1500.01"), command.currency(), command.remittanceInformation(),
+                    command.requestedExecutionDateTime(), command.idempotencyKey());
+
+            // When/Then
+            assertThat(RequestHash.of(sameAmount)).isEqualTo(RequestHash.of(command));
+            assertThat(RequestHash.of(otherAmount)).isNotEqualTo(RequestHash.of(command));
+        }
+    }
+
+    @Nested
+    @DisplayName("Debtor Limit Tests")
+    class DebtorLimitTests {
+
+        @Test
+        @DisplayName("Should count a claimed order against the debtor limits")
+        void shouldReserveClaimedOrder() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(paymentOrderRepository.saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull()))
+                    .thenAnswer(invocation -> Mono.just(IdempotencyClaim.claimed(
+                            command.idempotencyKey(), invocation.<PaymentOrder>getArgument(0).getPaymentOrderId())));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            verify(debtorLimitService).reserve(any(PaymentOrder.class));
+            verify(debtorLimitService, never()).release(any(PaymentOrder.class));
+        }
+
+        @Test
+        @DisplayName("Should refuse an order over the limits without writing it")
+        void shouldRefuseOrderOverLimits() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            doThrow(new PaymentLimitExceededException(IBAN.of(command.debtorAccount()),
+                    PaymentLimitExceededException.Limit.DAILY_TOTAL, "daily total reached"))
+                    .when(debtorLimitService).reserve(any(PaymentOrder.class));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectError(PaymentLimitExceededException.class)
+                    .verify();
+
+            verify(paymentOrderRepository, never()).saveWithIdempotencyKey(any(), any(), any(), any());
+            verify(debtorLimitService, never()).release(any(PaymentOrder.class));
+        }
+
+        @Test
+        @DisplayName("Should give the count back when the key turns out to be claimed")
+        void shouldReleaseWhenKeyAlreadyClaimed() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(paymentOrderRepository.saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull()))
+                    .thenReturn(Mono.just(IdempotencyClaim.existing(command.idempotencyKey(), PaymentOrderId.of("PO-001"))));
+            when(idempotencyService.rejectDuplicate(command.idempotencyKey(), "PO-001"))
+                    .thenReturn(Mono.error(new DuplicatePaymentOrderException(command.idempotencyKey(), "PO-001")));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectError(DuplicatePaymentOrderException.class)
+                    .verify();
+
+            verify(debtorLimitService).reserve(any(PaymentOrder.class));
+            verify(debtorLimitService).release(any(PaymentOrder.class));
+        }
+
+        @Test
+        @DisplayName("Should give the count back when the write fails")
+        void shouldReleaseWhenWriteFails() {
+            // Given
+            InitiatePaymentOrderCommand command = createCommand(null);
+
+            when(paymentOrderRepository.save(any(PaymentOrder.class)))
+                    .thenReturn(Mono.error(new IllegalStateException("connection lost")));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectError(IllegalStateException.class)
+                    .verify();
+
+            verify(debtorLimitService).reserve(any(PaymentOrder.class));
+            verify(debtorLimitService).release(any(PaymentOrder.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Duplicate Content Tests")
+    class DuplicateContentTests {
+
+        @Test
+        @DisplayName("Should refuse an order repeating a recent one without writing it")
+        void shouldRefuseSuspectedDuplicate() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(duplicatePaymentDetector.check(any(PaymentOrder.class), eq(command.idempotencyKey())))
+                    .thenReturn(Mono.error(new SuspectedDuplicatePaymentException(PaymentOrderId.of("PO-001"))));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectError(SuspectedDuplicatePaymentException.class)
+                    .verify();
+
+            verify(paymentOrderRepository, never()).saveWithIdempotencyKey(any(), any(), any(), any());
+            verifyNoInteractions(debtorLimitService);
+            verify(duplicatePaymentDetector, never()).record(any(PaymentOrder.class));
+        }
+
+        @Test
+        @DisplayName("Should record the content of a claimed order")
+        void shouldRecordClaimedOrder() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(paymentOrderRepository.saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull()))
+                    .thenAnswer(invocation -> Mono.just(IdempotencyClaim.claimed(
+                            command.idempotencyKey(), invocation.<PaymentOrder>getArgument(0).getPaymentOrderId())));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectNextCount(1)
+                    .verifyComplete();
+
+            verify(duplicatePaymentDetector).check(any(PaymentOrder.class), eq(command.idempotencyKey()));
+            verify(duplicatePaymentDetector).record(any(PaymentOrder.class));
+        }
+
+        @Test
+        @DisplayName("Should not record an order whose key was already claimed")
+        void shouldNotRecordUnclaimedOrder() {
+            // Given
+            InitiatePaymentOrderCommand command = createValidCommand();
+
+            when(paymentOrderRepository.saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull()))
+                    .thenReturn(Mono.just(IdempotencyClaim.existing(command.idempotencyKey(), PaymentOrderId.of("PO-001"))));
+            when(idempotencyService.rejectDuplicate(command.idempotencyKey(), "PO-001"))
+                    .thenReturn(Mono.error(new DuplicatePaymentOrderException(command.idempotencyKey(), "PO-001")));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command))
+                    .expectError(DuplicatePaymentOrderException.class)
+                    .verify();
+
+            verify(duplicatePaymentDetector, never()).record(any(PaymentOrder.class));
+        }
+    }
+
+    // Helper methods
+
+    private InitiatePaymentOrderCommand createValidCommand() {
+        return createCommand("idempotency-key-123");
+    }
+
+    private InitiatePaymentOrderCommand createCommand(String idempotencyKey) {
+        return new InitiatePaymentOrderCommand(
+                "REF-2025-001",
+                "ES7921000813610123456789",
+                "ES9420805801101234567891",
+                new BigDecimal("1500.00"),
+                "EUR",
+                "Invoice payment",
+                LocalDate.now().plusDays(1),
+                idempotencyKey
+        );
+    }
+}
@@ -0,0 +1,147 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.domain.exception.PaymentOrderNotFoundException;
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderField;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import com.ec.bank.payments.domain.model.PaymentOrderView;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the projected reads of PaymentOrderService, against mocked
+ * collaborators.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Order Retrieval Tests")
+class PaymentOrderRetrievalTest {
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private DebtorLimitService debtorLimitService;
+
+    @Mock
+    private DuplicatePaymentDetector duplicatePaymentDetector;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentOrderService service;
+
+    private final PaymentOrderId orderId = PaymentOrderId.of("PO-001");
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PaymentOrderService(
+                paymentOrderRepository,
+                idempotencyService,
+                debtorLimitService,
+                duplicatePaymentDetector,
+                PaymentOrderIdGenerator.timeOrdered(),
+                meterRegistry
+        );
+    }
+
+    @Nested
+    @DisplayName("Projected Read Tests")
+    class ProjectedReadTests {
+
+        @Test
+        @DisplayName("Should read the status columns only")
+        void shouldRetrieveStatusWithoutFullRow() {
+            // Given
+            when(paymentOrderRepository.findStatusById(orderId))
+                    .thenReturn(Mono.just(PaymentOrderView.of(createTestPaymentOrder(orderId), PaymentOrderField.STATUS_FIELDS)));
+
+            // When/Then
+            StepVerifier.create(service.retrieveStatus(orderId))
+                    .assertNext(status -> {
+                        assertThat(status.paymentOrderId()).isEqualTo(orderId);
+                        assertThat(status.status()).isEqualTo(PaymentStatus.PENDING);
+                        assertThat(status.lastUpdatedAt()).isNotNull();
+                    })
+                    .verifyComplete();
+
+            verify(paymentOrderRepository, never()).findById(any());
+            assertThat(meterRegistry.counter("payment.order.retrieved").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should retrieve only the requested fields")
+        void shouldRetrieveRequestedFields() {
+            // Given
+            Set<PaymentOrderField> fields = EnumSet.of(PaymentOrderField.PAYMENT_ORDER_REFERENCE);
+
+            when(paymentOrderRepository.findProjectedById(orderId, fields))
+                    .thenReturn(Mono.just(PaymentOrderView.of(createTestPaymentOrder(orderId), fields)));
+
+            // When/Then
+            StepVerifier.create(service.retrieve(orderId, fields))
+                    .assertNext(view -> {
+                        assertThat(view.paymentOrderReference()).isEqualTo("REF-2025-001");
+                        assertThat(view.status()).isNull();
+                    })
+                    .verifyComplete();
+
+            verify(paymentOrderRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Should fail when the projected order is not found")
+        void shouldFailWhenProjectionNotFound() {
+            // Given
+            Set<PaymentOrderField> fields = EnumSet.of(PaymentOrderField.PAYMENT_ORDER_REFERENCE);
+
+            when(paymentOrderRepository.findProjectedById(orderId, fields))
+                    .thenReturn(Mono.empty());
+
+            // When/Then
+            StepVerifier.create(service.retrieve(orderId, fields))
+                    .expectError(PaymentOrderNotFoundException.class)
+                    .verify();
+
+            assertThat(meterRegistry.counter("payment.order.not.found").count()).isEqualTo(1.0);
+        }
+    }
+
+    // Helper methods
+
+    private PaymentOrder createTestPaymentOrder(PaymentOrderId paymentOrderId) {
+        return PaymentOrder.create(
+                        "REF-2025-001",
+                        IBAN.of("ES7921000813610123456789"),
+                        IBAN.of("ES9420805801101234567891"),
+                        Amount.of(new BigDecimal("1500.00"), "EUR"),
+                        "Invoice payment",
+                        LocalDate.now().plusDays(1))
+                .toBuilder()
+                .paymentOrderId(paymentOrderId)
+                .build();
+    }
+}
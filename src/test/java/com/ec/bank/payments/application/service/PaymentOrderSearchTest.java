@@ -0,0 +1,117 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for payment order search in PaymentOrderService, against mocked
+ * collaborators.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Order Search Tests")
+class PaymentOrderSearchTest {
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private DebtorLimitService debtorLimitService;
+
+    @Mock
+    private DuplicatePaymentDetector duplicatePaymentDetector;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentOrderService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PaymentOrderService(
+                paymentOrderRepository,
+                idempotencyService,
+                debtorLimitService,
+                duplicatePaymentDetector,
+                PaymentOrderIdGenerator.timeOrdered(),
+                meterRegistry
+        );
+    }
+
+    @Nested
+    @DisplayName("Search Tests")
+    class SearchTests {
+
+        @Test
+        @DisplayName("Should stream the hits of the repository and count them")
+        void shouldStreamHits() {
+            // Given
+            PaymentOrderSearchCriteria criteria = new PaymentOrderSearchCriteria(
+                    PaymentStatus.PENDING, null, null, null, null, null, null, 10);
+            PaymentOrder order = createTestPaymentOrder(PaymentOrderId.of("PO-001"));
+            PaymentOrderSearchCriteria.Hit hit = new PaymentOrderSearchCriteria.Hit(
+                    order, new PaymentOrderSearchCriteria.Cursor(order.getCreatedAt(), 1L));
+
+            when(paymentOrderRepository.search(criteria)).thenReturn(Flux.just(hit, hit));
+
+            // When/Then
+            StepVerifier.create(service.search(criteria))
+                    .expectNext(hit, hit)
+                    .verifyComplete();
+
+            assertThat(meterRegistry.counter("payment.order.search").count()).isEqualTo(1.0);
+            assertThat(meterRegistry.counter("payment.order.search.results").count()).isEqualTo(2.0);
+        }
+
+        @Test
+        @DisplayName("Should reject an empty creation time range")
+        void shouldRejectEmptyRange() {
+            // Given
+            Instant now = Instant.now();
+
+            // When/Then
+            Assertions.assertThrows(IllegalArgumentException.class, () -> new PaymentOrderSearchCriteria(
+                    null, null, null, null, now, now, null, null));
+        }
+    }
+
+    // Helper methods
+
+    private PaymentOrder createTestPaymentOrder(PaymentOrderId orderId) {
+        return PaymentOrder.create(
+                        "REF-2025-001",
+                        IBAN.of("ES7921000813610123456789"),
+                        IBAN.of("ES9420805801101234567891"),
+                        Amount.of(new BigDecimal("1500.00"), "EUR"),
+                        "Invoice payment",
+                        LocalDate.now().plusDays(1))
+                .toBuilder()
+                .paymentOrderId(orderId)
+                .build();
+    }
+}
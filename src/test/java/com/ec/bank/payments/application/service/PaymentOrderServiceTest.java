@@ -13,11 +13,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 /**
@@ -34,6 +37,12 @@ class PaymentOrderServiceTest {
     @Mock
     private IdempotencyService idempotencyService;
 
+    @Mock
+    private DebtorLimitService debtorLimitService;
+
+    @Mock
+    private DuplicatePaymentDetector duplicatePaymentDetector;
+
     private SimpleMeterRegistry meterRegistry;
     private PaymentOrderService service;
 
@@ -43,8 +52,12 @@ class PaymentOrderServiceTest {
         service = new PaymentOrderService(
                 paymentOrderRepository,
                 idempotencyService,
+                debtorLimitService,
+                duplicatePaymentDetector,
+                PaymentOrderIdGenerator.timeOrdered(),
                 meterRegistry
         );
+        lenient().when(duplicatePaymentDetector.check(any(PaymentOrder.class), any())).thenReturn(Mono.empty());
     }
 
     @Nested
@@ -66,12 +79,11 @@ class PaymentOrderServiceTest {
                     command.requestedExecutionDateTime()
             );
 
-            when(idempotencyService.checkIdempotency(command.idempotencyKey()))
-                    .thenReturn(Mono.empty());
-            when(paymentOrderRepository.save(any(PaymentOrder.class)))
-                    .thenReturn(Mono.just(expectedOrder));
-            when(idempotencyService.saveIdempotencyKey(anyString(), anyString()))
+            when(idempotencyService.peekClaim(command.idempotencyKey()))
                     .thenReturn(Mono.empty());
+            when(paymentOrderRepository.saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull()))
+                    .thenReturn(Mono.just(IdempotencyClaim.claimed(
+                            command.idempotencyKey(), expectedOrder.getPaymentOrderId())));
 
             // When/Then
             StepVerifier.create(service.initiate(command))
@@ -82,9 +94,9 @@ class PaymentOrderServiceTest {
                     })
                     .verifyComplete();
 
-            verify(idempotencyService).checkIdempotency(command.idempotencyKey());
-            verify(paymentOrderRepository).save(any(PaymentOrder.class));
-            verify(idempotencyService).saveIdempotencyKey(anyString(), anyString());
+            verify(paymentOrderRepository).saveWithIdempotencyKey(any(PaymentOrder.class), eq(command.idempotencyKey()), anyString(), isNull());
+            verify(paymentOrderRepository, never()).save(any(PaymentOrder.class));
+            verify(idempotencyService, never()).rejectDuplicate(anyString(), anyString());
         }
 
         @Test
@@ -103,8 +115,8 @@ class PaymentOrderServiceTest {
             InitiatePaymentOrderCommand command = new InitiatePaymentOrderCommand(
                     null, // missing reference
                     "ES7921000813610123456789",
-                    "ES1420805801101234567891",
-                    1500.00,
+                    "ES9420805801101234567891",
+                    new BigDecimal("1500.00"),
                     "EUR",
                     "Test",
                     LocalDate.now().plusDays(1),
@@ -126,7 +138,7 @@ class PaymentOrderServiceTest {
                     command.paymentOrderReference(),
                     command.debtorAccount(),
                     command.creditorAccount(),
-                    -100.00, // negative amount
+                    new BigDecimal("-100.00"), // negative amount
                     command.currency(),
                     command.remittanceInformation(),
                     command.requestedExecutionDateTime(),
@@ -146,8 +158,8 @@ class PaymentOrderServiceTest {
             InitiatePaymentOrderCommand command = new InitiatePaymentOrderCommand(
                     "REF-001",
                     "INVALID-IBAN",
-                    "ES1420805801101234567891",
-                    1500.00,
+                    "ES9420805801101234567891",
+                    new BigDecimal("1500.00"),
                     "EUR",
                     "Test",
                     LocalDate.now().plusDays(1),
@@ -214,8 +226,8 @@ class PaymentOrderServiceTest {
             PaymentOrderId orderId = PaymentOrderId.of("PO-001");
             PaymentOrder order = createTestPaymentOrder(orderId);
 
-            when(paymentOrderRepository.findById(orderId))
-                    .thenReturn(Mono.just(order));
+            when(paymentOrderRepository.findStatusById(orderId))
+                    .thenReturn(Mono.just(PaymentOrderView.of(order, PaymentOrderField.STATUS_FIELDS)));
 
             // When/Then
             StepVerifier.create(service.retrieveStatus(orderId))
@@ -225,6 +237,23 @@ class PaymentOrderServiceTest {
                         assertThat(status.status()).isEqualTo(PaymentStatus.PENDING);
                     })
                     .verifyComplete();
+
+            verify(paymentOrderRepository, never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("Should fail when payment order not found")
+        void shouldFailWhenNotFound() {
+            // Given
+            PaymentOrderId orderId = PaymentOrderId.of("PO-999");
+
+            when(paymentOrderRepository.findStatusById(orderId))
+                    .thenReturn(Mono.empty());
+
+            // When/Then
+            StepVerifier.create(service.retrieveStatus(orderId))
+                    .expectError(PaymentOrderNotFoundException.class)
+                    .verify();
         }
     }
 
@@ -234,8 +263,8 @@ class PaymentOrderServiceTest {
         return new InitiatePaymentOrderCommand(
                 "REF-2025-001",
                 "ES7921000813610123456789",
-                "ES1420805801101234567891",
-                1500.00,
+                "ES9420805801101234567891",
+                new BigDecimal("1500.00"),
                 "EUR",
                 "Invoice payment",
                 LocalDate.now().plusDays(1),
@@ -247,7 +276,7 @@ class PaymentOrderServiceTest {
         PaymentOrder order = PaymentOrder.create(
                 "REF-2025-001",
                 IBAN.of("ES7921000813610123456789"),
-                IBAN.of("ES1420805801101234567891"),
+                IBAN.of("ES9420805801101234567891"),
                 Amount.of(1500.00, "EUR"),
                 "Invoice payment",
                 LocalDate.now().plusDays(1)
@@ -0,0 +1,224 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.domain.exception.InvalidStatusTransitionException;
+import com.ec.bank.payments.domain.exception.PaymentOrderNotFoundException;
+import com.ec.bank.payments.domain.exception.StatusTransitionConflictException;
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import com.ec.bank.payments.domain.model.PaymentOrderSearchCriteria;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.model.StatusTransition;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for status transitions in PaymentOrderService, against mocked
+ * collaborators.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Payment Order Status Transition Tests")
+class PaymentOrderStatusTransitionTest {
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private DebtorLimitService debtorLimitService;
+
+    @Mock
+    private DuplicatePaymentDetector duplicatePaymentDetector;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentOrderService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PaymentOrderService(
+                paymentOrderRepository,
+                idempotencyService,
+                debtorLimitService,
+                duplicatePaymentDetector,
+                PaymentOrderIdGenerator.timeOrdered(),
+                meterRegistry
+        );
+    }
+
+    @Nested
+    @DisplayName("Status Transition Tests")
+    class StatusTransitionTests {
+
+        private final PaymentOrderId orderId = PaymentOrderId.of("PO-001");
+
+        @Test
+        @DisplayName("Should return the transition applied by the repository")
+        void shouldApplyTransition() {
+            // Given
+            PaymentOrder order = createTestPaymentOrder(orderId).markAsProcessing();
+
+            when(paymentOrderRepository.transitionStatus(orderId, PaymentStatus.PROCESSING, PaymentStatus.PENDING, 1L))
+                    .thenReturn(Mono.just(new StatusTransition(order, PaymentStatus.PENDING, 2L, true)));
+
+            // When/Then
+            StepVerifier.create(service.transition(orderId, PaymentStatus.PROCESSING, PaymentStatus.PENDING, 1L))
+                    .assertNext(transition -> {
+                        assertThat(transition.previousStatus()).isEqualTo(PaymentStatus.PENDING);
+                        assertThat(transition.paymentOrder().getStatus()).isEqualTo(PaymentStatus.PROCESSING);
+                        assertThat(transition.version()).isEqualTo(2L);
+                    })
+                    .verifyComplete();
+
+            assertThat(meterRegistry.counter("payment.order.status.transitioned").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should reject an expected status that cannot move to the target without a round trip")
+        void shouldRejectImpossibleExpectedStatus() {
+            // When/Then
+            StepVerifier.create(service.transition(orderId, PaymentStatus.CANCELLED, PaymentStatus.PROCESSING, null))
+                    .expectError(InvalidStatusTransitionException.class)
+                    .verify();
+
+            verifyNoInteractions(paymentOrderRepository);
+        }
+
+        @Test
+        @DisplayName("Should report the lifecycle refusal when the order is already final")
+        void shouldRejectFromFinalStatus() {
+            // Given
+            PaymentOrder settled = createTestPaymentOrder(orderId).markAsProcessing().markAsSettled();
+
+            when(paymentOrderRepository.transitionStatus(orderId, PaymentStatus.PROCESSING, null, null))
+                    .thenReturn(Mono.just(new StatusTransition(settled, PaymentStatus.SETTLED, 3L, false)));
+
+            // When/Then
+            StepVerifier.create(service.transition(orderId, PaymentStatus.PROCESSING, null, null))
+                    .expectError(InvalidStatusTransitionException.class)
+                    .verify();
+
+            assertThat(meterRegistry.counter("payment.order.status.transition.rejected").count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should report a version mismatch with the current version")
+        void shouldReportVersionMismatch() {
+            // Given
+            PaymentOrder order = createTestPaymentOrder(orderId);
+
+            when(paymentOrderRepository.transitionStatus(orderId, PaymentStatus.CANCELLED, null, 1L))
+                    .thenReturn(Mono.just(new StatusTransition(order, PaymentStatus.PENDING, 4L, false)));
+
+            // When/Then
+            StepVerifier.create(service.transition(orderId, PaymentStatus.CANCELLED, null, 1L))
+                    .expectErrorSatisfies(error -> {
+                        assertThat(error).isInstanceOf(StatusTransitionConflictException.class);
+                        StatusTransitionConflictException conflict = (StatusTransitionConflictException) error;
+                        assertThat(conflict.isVersionMismatch()).isTrue();
+                        assertThat(conflict.getCurrentVersion()).isEqualTo(4L);
+                    })
+                    .verify();
+        }
+
+        @Test
+        @DisplayName("Should report an order found in another status than expected")
+        void shouldReportStatusMismatch() {
+            // Given
+            PaymentOrder order = createTestPaymentOrder(orderId).markAsProcessing();
+
+            when(paymentOrderRepository.transitionStatus(orderId, PaymentStatus.REJECTED, PaymentStatus.PENDING, null))
+                    .thenReturn(Mono.just(new StatusTransition(order, PaymentStatus.PROCESSING, 2L, false)));
+
+            // When/Then
+            StepVerifier.create(service.transition(orderId, PaymentStatus.REJECTED, PaymentStatus.PENDING, null))
+                    .expectErrorSatisfies(error -> {
+                        assertThat(error).isInstanceOf(StatusTransitionConflictException.class);
+                        assertThat(((StatusTransitionConflictException) error).isVersionMismatch()).isFalse();
+                        assertThat(((StatusTransitionConflictException) error).getCurrentStatus())
+                                .isEqualTo(PaymentStatus.PROCESSING);
+                    })
+                    .verify();
+        }
+
+        @Test
+        @DisplayName("Should fail when payment order not found")
+        void shouldFailWhenNotFound() {
+            // Given
+            when(paymentOrderRepository.transitionStatus(orderId, PaymentStatus.CANCELLED, null, null))
+                    .thenReturn(Mono.empty());
+
+            // When/Then
+            StepVerifier.create(service.transition(orderId, PaymentStatus.CANCELLED, null, null))
+                    .expectError(PaymentOrderNotFoundException.class)
+                    .verify();
+        }
+
+        @Test
+        @DisplayName("Should count the orders moved by a bulk transition")
+        void shouldTransitionAll() {
+            // Given
+            PaymentOrderSearchCriteria criteria = new PaymentOrderSearchCriteria(
+                    PaymentStatus.PENDING, IBAN.of("ES7921000813610123456789"), null, null, null, null, null, null);
+
+            when(paymentOrderRepository.transitionStatusAll(criteria, PaymentStatus.CANCELLED))
+                    .thenReturn(Mono.just(3L));
+
+            // When/Then
+            StepVerifier.create(service.transitionAll(criteria, PaymentStatus.CANCELLED))
+                    .expectNext(3L)
+                    .verifyComplete();
+
+            assertThat(meterRegistry.counter("payment.order.status.transitioned.bulk").count()).isEqualTo(3.0);
+        }
+
+        @Test
+        @DisplayName("Should reject a bulk transition not limited to an account")
+        void shouldRejectUnboundedBulkTransition() {
+            // Given
+            PaymentOrderSearchCriteria criteria = new PaymentOrderSearchCriteria(
+                    PaymentStatus.PENDING, null, null, null, null, null, null, null);
+
+            // When/Then
+            StepVerifier.create(service.transitionAll(criteria, PaymentStatus.CANCELLED))
+                    .expectError(IllegalArgumentException.class)
+                    .verify();
+
+            verifyNoInteractions(paymentOrderRepository);
+        }
+    }
+
+    // Helper methods
+
+    private PaymentOrder createTestPaymentOrder(PaymentOrderId orderId) {
+        return PaymentOrder.create(
+                        "REF-2025-001",
+                        IBAN.of("ES7921000813610123456789"),
+                        IBAN.of("ES9420805801101234567891"),
+                        Amount.of(new BigDecimal("1500.00"), "EUR"),
+                        "Invoice payment",
+                        LocalDate.now().plusDays(1))
+                .toBuilder()
+                .paymentOrderId(orderId)
+                .build();
+    }
+}
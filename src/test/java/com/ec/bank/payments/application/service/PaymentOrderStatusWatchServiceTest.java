@@ -0,0 +1,165 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.application.port.input.RetrievePaymentOrderStatusUseCase;
+import com.ec.bank.payments.application.port.input.RetrievePaymentOrderStatusUseCase.PaymentOrderStatusInfo;
+import com.ec.bank.payments.domain.exception.PaymentOrderNotFoundException;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderStatusChange;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentOrderStatusFeed;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PaymentOrderStatusWatchService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PaymentOrderStatusWatchService Tests")
+class PaymentOrderStatusWatchServiceTest {
+
+    private static final PaymentOrderId ORDER_ID = PaymentOrderId.of("PO-001");
+    private static final Instant CREATED = Instant.parse("2025-11-24T10:00:00Z");
+    private static final Set<PaymentStatus> FINAL = EnumSet.of(PaymentStatus.SETTLED, PaymentStatus.REJECTED);
+
+    @Mock
+    private RetrievePaymentOrderStatusUseCase retrievePaymentOrderStatusUseCase;
+
+    @Mock
+    private PaymentOrderStatusFeed statusFeed;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PaymentOrderStatusWatchService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PaymentOrderStatusWatchService(
+                retrievePaymentOrderStatusUseCase, statusFeed, meterRegistry, 100, Duration.ofSeconds(60));
+    }
+
+    @Test
+    @DisplayName("Should answer at once when the order already has an awaited status")
+    void shouldAnswerWhenAlreadyReached() {
+        // Given
+        when(statusFeed.watch(Set.of(ORDER_ID), null)).thenReturn(Flux.never());
+        when(retrievePaymentOrderStatusUseCase.retrieveStatus(ORDER_ID))
+                .thenReturn(Mono.just(info(PaymentStatus.SETTLED, 5)));
+
+        // When/Then
+        StepVerifier.create(service.awaitStatus(ORDER_ID, FINAL, Duration.ofSeconds(30)))
+                .assertNext(info -> assertThat(info.status()).isEqualTo(PaymentStatus.SETTLED))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should answer as soon as the feed announces an awaited status")
+    void shouldAnswerOnChange() {
+        // Given
+        Sinks.Many<PaymentOrderStatusChange> changes = Sinks.many().multicast().directBestEffort();
+        when(statusFeed.watch(Set.of(ORDER_ID), null)).thenReturn(changes.asFlux());
+        when(retrievePaymentOrderStatusUseCase.retrieveStatus(ORDER_ID))
+                .thenReturn(Mono.just(info(PaymentStatus.PENDING, 0)));
+
+        // When/Then
+        StepVerifier.create(service.awaitStatus(ORDER_ID, FINAL, Duration.ofSeconds(30)))
+                .then(() -> changes.tryEmitNext(change(PaymentStatus.PROCESSING, 1)))
+                .then(() -> changes.tryEmitNext(change(PaymentStatus.REJECTED, 2)))
+                .assertNext(info -> assertThat(info.status()).isEqualTo(PaymentStatus.REJECTED))
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("payment.order.status.wait").tag("outcome", "reached").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should answer with the latest status seen when the timeout elapses")
+    void shouldAnswerLatestOnTimeout() {
+        // Given
+        Sinks.Many<PaymentOrderStatusChange> changes = Sinks.many().multicast().directBestEffort();
+        when(statusFeed.watch(Set.of(ORDER_ID), null)).thenReturn(changes.asFlux());
+        when(retrievePaymentOrderStatusUseCase.retrieveStatus(ORDER_ID))
+                .thenReturn(Mono.just(info(PaymentStatus.PENDING, 0)));
+
+        // When/Then
+        StepVerifier.withVirtualTime(() -> service.awaitStatus(ORDER_ID, FINAL, Duration.ofSeconds(5)))
+                .expectSubscription()
+                .then(() -> changes.tryEmitNext(change(PaymentStatus.PROCESSING, 1)))
+                .thenAwait(Duration.ofSeconds(5))
+                .assertNext(info -> assertThat(info.status()).isEqualTo(PaymentStatus.PROCESSING))
+                .verifyComplete();
+
+        verify(retrievePaymentOrderStatusUseCase, times(1)).retrieveStatus(ORDER_ID);
+    }
+
+    @Test
+    @DisplayName("Should fail when the awaited payment order does not exist")
+    void shouldFailWhenNotFound() {
+        // Given
+        when(statusFeed.watch(Set.of(ORDER_ID), null)).thenReturn(Flux.never());
+        when(retrievePaymentOrderStatusUseCase.retrieveStatus(ORDER_ID))
+                .thenReturn(Mono.error(new PaymentOrderNotFoundException(ORDER_ID)));
+
+        // When/Then
+        StepVerifier.create(service.awaitStatus(ORDER_ID, FINAL, Duration.ofSeconds(30)))
+                .expectError(PaymentOrderNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should stream the current status, then only newer changes")
+    void shouldWatchCurrentThenNewer() {
+        // Given
+        Sinks.Many<PaymentOrderStatusChange> changes = Sinks.many().multicast().directBestEffort();
+        when(statusFeed.watch(eq(Set.of(ORDER_ID)), isNull())).thenReturn(changes.asFlux());
+        when(retrievePaymentOrderStatusUseCase.retrieveStatus(ORDER_ID))
+                .thenReturn(Mono.just(info(PaymentStatus.PROCESSING, 1)));
+
+        // When/Then
+        StepVerifier.create(service.watch(Set.of(ORDER_ID), null))
+                .assertNext(info -> assertThat(info.status()).isEqualTo(PaymentStatus.PROCESSING))
+                .then(() -> changes.tryEmitNext(change(PaymentStatus.PENDING, 0)))
+                .then(() -> changes.tryEmitNext(change(PaymentStatus.SETTLED, 2)))
+                .assertNext(info -> assertThat(info.status()).isEqualTo(PaymentStatus.SETTLED))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Should reject a watch of nothing")
+    void shouldRejectEmptyWatch() {
+        // When/Then
+        StepVerifier.create(service.watch(Set.of(), null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(statusFeed, never()).watch(any(), any());
+    }
+
+    private static PaymentOrderStatusInfo info(PaymentStatus status, int minutes) {
+        return new PaymentOrderStatusInfo(ORDER_ID, status, CREATED.plusSeconds(60L * minutes));
+    }
+
+    private static PaymentOrderStatusChange change(PaymentStatus status, int minutes) {
+        return new PaymentOrderStatusChange(ORDER_ID, status, minutes, CREATED.plusSeconds(60L * minutes));
+    }
+}
@@ -0,0 +1,152 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.application.port.input.SettlePaymentOrdersUseCase.SettlementBatchResult;
+import com.ec.bank.payments.domain.model.*;
+import com.ec.bank.payments.domain.port.output.ClearingPort;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for SettlementService.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SettlementService Tests")
+class SettlementServiceTest {
+
+    @Mock
+    private PaymentOrderRepository paymentOrderRepository;
+
+    @Mock
+    private ClearingPort clearingPort;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SettlementService service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new SettlementService(paymentOrderRepository, clearingPort, meterRegistry,
+                Duration.ofMinutes(5), Duration.ofSeconds(1), 4);
+    }
+
+    @Test
+    @DisplayName("Should settle accepted orders and reject refused ones, comparing the claim version")
+    void shouldSettleClaimedBatch() {
+        // Given
+        StatusTransition accepted = claim(PaymentStatus.PENDING, 2L);
+        StatusTransition refused = claim(PaymentStatus.PENDING, 7L);
+        PaymentOrderId acceptedId = accepted.paymentOrder().getPaymentOrderId();
+        PaymentOrderId refusedId = refused.paymentOrder().getPaymentOrderId();
+
+        when(paymentOrderRepository.claimForProcessing(any(LocalDate.class), any(), eq(10)))
+                .thenReturn(Flux.just(accepted, refused));
+        when(clearingPort.clear(accepted.paymentOrder())).thenReturn(Mono.just(ClearingResult.accepted(acceptedId)));
+        when(clearingPort.clear(refused.paymentOrder()))
+                .thenReturn(Mono.just(ClearingResult.rejected(refusedId, "Insufficient funds")));
+        when(paymentOrderRepository.transitionStatus(acceptedId, PaymentStatus.SETTLED, PaymentStatus.PROCESSING, 2L))
+                .thenReturn(Mono.just(finished(accepted, PaymentStatus.SETTLED, true)));
+        when(paymentOrderRepository.transitionStatus(refusedId, PaymentStatus.REJECTED, PaymentStatus.PROCESSING, 7L))
+                .thenReturn(Mono.just(finished(refused, PaymentStatus.REJECTED, true)));
+
+        // When/Then
+        StepVerifier.create(service.settleBatch(10))
+                .assertNext(result -> {
+                    assertThat(result).isEqualTo(new SettlementBatchResult(10, 1, 1, 0, 0));
+                    assertThat(result.full()).isFalse();
+                })
+                .verifyComplete();
+
+        assertThat(meterRegistry.get("payment.settlement.orders").tag("outcome", "settled").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should drop the outcome of an order claimed again meanwhile")
+    void shouldDropSupersededOutcome() {
+        // Given
+        StatusTransition claim = claim(PaymentStatus.PENDING, 2L);
+        PaymentOrderId id = claim.paymentOrder().getPaymentOrderId();
+
+        when(paymentOrderRepository.claimForProcessing(any(LocalDate.class), any(), anyInt()))
+                .thenReturn(Flux.just(claim));
+        when(clearingPort.clear(claim.paymentOrder())).thenReturn(Mono.just(ClearingResult.accepted(id)));
+        when(paymentOrderRepository.transitionStatus(id, PaymentStatus.SETTLED, PaymentStatus.PROCESSING, 2L))
+                .thenReturn(Mono.just(new StatusTransition(claim.paymentOrder(), PaymentStatus.PROCESSING, 3L, false)));
+
+        // When/Then
+        StepVerifier.create(service.settleBatch(1))
+                .assertNext(result -> {
+                    assertThat(result.superseded()).isEqualTo(1);
+                    assertThat(result.full()).isTrue();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should leave an order in PROCESSING when clearing does not answer")
+    void shouldLeaveOrderWhenClearingFails() {
+        // Given
+        StatusTransition claim = claim(PaymentStatus.PROCESSING, 5L);
+
+        when(paymentOrderRepository.claimForProcessing(any(LocalDate.class), any(), anyInt()))
+                .thenReturn(Flux.just(claim));
+        when(clearingPort.clear(claim.paymentOrder())).thenReturn(Mono.error(new IllegalStateException("down")));
+
+        // When/Then
+        StepVerifier.create(service.settleBatch(10))
+                .assertNext(result -> assertThat(result.failed()).isEqualTo(1))
+                .verifyComplete();
+
+        verify(paymentOrderRepository, never()).transitionStatus(any(), any(), any(), any());
+        assertThat(meterRegistry.get("payment.settlement.reclaimed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should refuse a claim timeout that clearing could outlast")
+    void shouldRejectShortClaimTimeout() {
+        // When/Then
+        assertThatThrownBy(() -> new SettlementService(paymentOrderRepository, clearingPort, meterRegistry,
+                Duration.ofSeconds(10), Duration.ofSeconds(30), 4))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // Helper methods
+
+    private StatusTransition claim(PaymentStatus previousStatus, long version) {
+        PaymentOrder order = PaymentOrder.create(
+                "REF-2025-001",
+                IBAN.of("ES7921000813610123456789"),
+                IBAN.of("ES9420805801101234567891"),
+                Amount.of(1500.00, "EUR"),
+                "Invoice payment",
+                LocalDate.now().plusDays(1)
+        ).markAsProcessing();
+        return new StatusTransition(order, previousStatus, version, true);
+    }
+
+    private StatusTransition finished(StatusTransition claim, PaymentStatus target, boolean applied) {
+        PaymentOrder order = target == PaymentStatus.SETTLED
+                ? claim.paymentOrder().markAsSettled()
+                : claim.paymentOrder().markAsRejected();
+        return new StatusTransition(order, PaymentStatus.PROCESSING, claim.version() + 1, applied);
+    }
+}
@@ -0,0 +1,245 @@
+package com.ec.bank.payments.application.service;
+
+import com.ec.bank.payments.application.port.input.InitiatePaymentOrderUseCase.InitiatePaymentOrderCommand;
+import com.ec.bank.payments.domain.exception.DuplicatePaymentOrderException;
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import com.ec.bank.payments.domain.port.output.IdempotencyRepository;
+import com.ec.bank.payments.domain.port.output.PaymentOrderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit and concurrency stress tests for single-flight initiation.
+ */
+@DisplayName("Single-Flight Initiation Tests")
+class SingleFlightTest {
+
+    @Nested
+    @DisplayName("SingleFlight Tests")
+    class SingleFlightBehaviourTests {
+
+        @Test
+        @DisplayName("Should start a fresh execution once the previous one terminated")
+        void shouldNotCacheCompletedExecutions() {
+            // Given
+            SingleFlight<Integer> singleFlight = new SingleFlight<>(10);
+            AtomicInteger calls = new AtomicInteger();
+
+            // When
+            Integer first = singleFlight.execute("key", () -> Mono.fromCallable(calls::incrementAndGet), () -> {}).block();
+            Integer second = singleFlight.execute("key", () -> Mono.fromCallable(calls::incrementAndGet), () -> {}).block();
+
+            // Then
+            assertThat(first).isEqualTo(1);
+            assertThat(second).isEqualTo(2);
+            assertThat(singleFlight.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should share errors with joined callers and then forget them")
+        void shouldShareErrors() {
+            // Given
+            SingleFlight<Integer> singleFlight = new SingleFlight<>(10);
+            Mono<Integer> failing = Mono.delay(Duration.ofMillis(50))
+                    .then(Mono.error(new IllegalStateException("boom")));
+            AtomicInteger joined = new AtomicInteger();
+
+            // When/Then
+            StepVerifier.create(Flux.merge(
+                            singleFlight.execute("key", () -> failing, joined::incrementAndGet),
+                            singleFlight.execute("key", () -> failing, joined::incrementAndGet)))
+                    .expectError(IllegalStateException.class)
+                    .verify();
+            assertThat(joined.get()).isEqualTo(1);
+            assertThat(singleFlight.size()).isZero();
+        }
+
+        @Test
+        @DisplayName("Should run uncoalesced beyond the in-flight bound")
+        void shouldRespectBound() {
+            // Given
+            SingleFlight<Long> singleFlight = new SingleFlight<>(1);
+            AtomicInteger calls = new AtomicInteger();
+
+            // When
+            List<Long> results = Flux.merge(
+                            singleFlight.execute("a", () -> Mono.delay(Duration.ofMillis(50)).doOnNext(v -> calls.incrementAndGet()), () -> {}),
+                            singleFlight.execute("b", () -> Mono.delay(Duration.ofMillis(50)).doOnNext(v -> calls.incrementAndGet()), () -> {}))
+                    .collectList()
+                    .block();
+
+            // Then
+            assertThat(results).hasSize(2);
+            assertThat(calls.get()).isEqualTo(2);
+            assertThat(singleFlight.size()).isZero();
+        }
+    }
+
+    @Nested
+    @ExtendWith(MockitoExtension.class)
+    @DisplayName("Concurrent Initiation Stress Tests")
+    class StressTests {
+
+        private static final int KEYS = 16;
+        private static final int REQUESTS_PER_KEY = 32;
+
+        @Mock
+        private PaymentOrderRepository paymentOrderRepository;
+
+        @Mock
+        private IdempotencyRepository idempotencyRepository;
+
+        @Mock
+        private DebtorLimitService debtorLimitService;
+
+        @Mock
+        private DuplicatePaymentDetector duplicatePaymentDetector;
+
+        private final Map<String, PaymentOrderId> claims = new ConcurrentHashMap<>();
+        private final Map<String, AtomicInteger> insertsPerKey = new ConcurrentHashMap<>();
+        private SimpleMeterRegistry meterRegistry;
+        private PaymentOrderService service;
+        private Mono<Void> databaseLatency = Mono.delay(Duration.ofMillis(100)).then();
+
+        @BeforeEach
+        void setUp() {
+            meterRegistry = new SimpleMeterRegistry();
+            service = new PaymentOrderService(
+                    paymentOrderRepository,
+                    new IdempotencyService(idempotencyRepository, meterRegistry),
+                    debtorLimitService,
+                    duplicatePaymentDetector,
+                    PaymentOrderIdGenerator.timeOrdered(),
+                    meterRegistry);
+
+            lenient().when(idempotencyRepository.peekClaim(anyString())).thenReturn(Mono.empty());
+            lenient().when(duplicatePaymentDetector.check(any(PaymentOrder.class), anyString())).thenReturn(Mono.empty());
+            when(paymentOrderRepository.saveWithIdempotencyKey(any(PaymentOrder.class), anyString(), anyString(), isNull()))
+                    .thenAnswer(invocation -> {
+                        PaymentOrder order = invocation.getArgument(0);
+                        String key = invocation.getArgument(1);
+                        return databaseLatency.then(Mono.fromCallable(() -> {
+                            insertsPerKey.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+                            PaymentOrderId holder = claims.putIfAbsent(key, order.getPaymentOrderId());
+                            return holder == null
+                                    ? IdempotencyClaim.claimed(key, order.getPaymentOrderId())
+                                    : IdempotencyClaim.existing(key, holder);
+                        }));
+                    });
+        }
+
+        @Test
+        @DisplayName("Should insert exactly once per idempotency key under concurrent retries")
+        void shouldInsertExactlyOncePerKey() throws Exception {
+            // Given
+            List<String> keys = Flux.range(0, KEYS).map(i -> UUID.randomUUID().toString()).collectList().block();
+            // Simulated database: held until every duplicate has joined its flight
+            Sinks.Empty<Void> database = Sinks.empty();
+            databaseLatency = database.asMono();
+
+            // When
+            CompletableFuture<List<PaymentOrder>> pending = Flux.fromIterable(keys)
+                    .flatMap(key -> Flux.range(0, REQUESTS_PER_KEY).map(i -> key))
+                    .flatMap(key -> service.initiate(command(key)).subscribeOn(Schedulers.parallel()),
+                            KEYS * REQUESTS_PER_KEY)
+                    .collectList()
+                    .toFuture();
+            awaitCoalesced(KEYS * (REQUESTS_PER_KEY - 1));
+            database.tryEmitEmpty();
+            List<PaymentOrder> results = pending.get(10, TimeUnit.SECONDS);
+
+            // Then
+            assertThat(results).hasSize(KEYS * REQUESTS_PER_KEY);
+            assertThat(insertsPerKey).hasSize(KEYS);
+            assertThat(insertsPerKey.values()).allSatisfy(count -> assertThat(count.get()).isEqualTo(1));
+            assertThat(results.stream().map(PaymentOrder::getPaymentOrderId).distinct()).hasSize(KEYS);
+            assertThat(meterRegistry.counter("payment.order.initiation.coalesced").count())
+                    .isEqualTo(KEYS * (REQUESTS_PER_KEY - 1));
+            verify(paymentOrderRepository, times(KEYS)).saveWithIdempotencyKey(any(PaymentOrder.class), anyString(), anyString(), isNull());
+        }
+
+        @Test
+        @DisplayName("Should treat a retry after completion as a duplicate, not a new flight")
+        void shouldRejectSequentialRetry() {
+            // Given
+            String key = UUID.randomUUID().toString();
+            service.initiate(command(key)).block(Duration.ofSeconds(5));
+
+            // When/Then
+            StepVerifier.create(service.initiate(command(key)))
+                    .expectError(DuplicatePaymentOrderException.class)
+                    .verify(Duration.ofSeconds(5));
+        }
+
+        @Test
+        @DisplayName("Should complete the shared initiation for joined callers when the first caller cancels")
+        void shouldCompleteWhenFirstCallerCancels() throws Exception {
+            // Given
+            String key = UUID.randomUUID().toString();
+            Disposable first = service.initiate(command(key)).subscribe();
+            CompletableFuture<PaymentOrder> joined = service.initiate(command(key)).toFuture();
+
+            // When
+            first.dispose();
+            PaymentOrder order = joined.get(5, TimeUnit.SECONDS);
+
+            // Then
+            assertThat(order.getPaymentOrderId()).isEqualTo(claims.get(key));
+            assertThat(insertsPerKey.get(key).get()).isEqualTo(1);
+            assertThat(meterRegistry.counter("payment.order.initiation.coalesced").count()).isEqualTo(1);
+        }
+
+        private void awaitCoalesced(int expected) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (meterRegistry.counter("payment.order.initiation.coalesced").count() < expected
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        private InitiatePaymentOrderCommand command(String idempotencyKey) {
+            return new InitiatePaymentOrderCommand(
+                    "REF-2025-001",
+                    "ES7921000813610123456789",
+                    "ES9420805801101234567891",
+                    new BigDecimal("1500.00"),
+                    "EUR",
+                    "Invoice payment",
+                    LocalDate.now().plusDays(1),
+                    idempotencyKey
+            );
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.ec.bank.payments.domain.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of validating and formatting an IBAN. The regex path checks the shape
+ * with a regular expression and the check digits with BigInteger, the usual
+ * way; IBAN.of checks the country length and check digits in one pass over
+ * the characters, and skips both for accounts it has seen recently.
+ * Distinct accounts outnumber its cache, so every call of
+ * ofDistinctAccounts runs the full checks.
+ * Not part of the test run. After mvn test-compile, run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main IbanValidationBenchmark -prof gc}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IbanValidationBenchmark {
+
+    private static final Pattern SHAPE = Pattern.compile("^[A-Z]{2}[0-9]{2}[A-Z0-9]{1,30}$");
+    private static final BigInteger NINETY_SEVEN = BigInteger.valueOf(97);
+    private static final int DISTINCT_ACCOUNTS = 16_384;
+
+    private final String account = "ES7921000813610123456789";
+    private final IBAN iban = IBAN.of(account);
+    private String[] accounts;
+    private int next;
+
+    @Setup
+    public void generateAccounts() {
+        accounts = new String[DISTINCT_ACCOUNTS];
+        for (int i = 0; i < DISTINCT_ACCOUNTS; i++) {
+            String bban = String.format("2100081361%010d", i);
+            int check = 98 - new BigInteger(bban + "142800").mod(NINETY_SEVEN).intValue();
+            accounts[i] = String.format("ES%02d%s", check, bban);
+        }
+    }
+
+    @Benchmark
+    public boolean regexWithBigIntegerChecksum() {
+        String value = account.replaceAll("\\s+", "").toUpperCase();
+        if (!SHAPE.matcher(value).matches()) {
+            return false;
+        }
+        String rearranged = value.substring(4) + value.substring(0, 4);
+        StringBuilder digits = new StringBuilder(rearranged.length() * 2);
+        for (int i = 0; i < rearranged.length(); i++) {
+            digits.append(Character.getNumericValue(rearranged.charAt(i)));
+        }
+        return new BigInteger(digits.toString()).mod(NINETY_SEVEN).intValue() == 1;
+    }
+
+    @Benchmark
+    public IBAN ofRepeatedAccount() {
+        return IBAN.of(account);
+    }
+
+    @Benchmark
+    public IBAN ofDistinctAccounts() {
+        String value = accounts[next];
+        next = (next + 1) & (DISTINCT_ACCOUNTS - 1);
+        return IBAN.of(value);
+    }
+
+    @Benchmark
+    public String regexFormatted() {
+        return iban.value().replaceAll("(.{4})", "$1 ").trim();
+    }
+
+    @Benchmark
+    public String formatted() {
+        return iban.formatted();
+    }
+}
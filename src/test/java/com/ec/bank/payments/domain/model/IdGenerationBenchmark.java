@@ -0,0 +1,56 @@
+package com.ec.bank.payments.domain.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing a payment order ID. UUID.randomUUID draws 16 bytes from one
+ * SecureRandom shared by every thread; nextUuid reads the clock and fills the
+ * random bits from ThreadLocalRandom, with its counter kept per thread, so
+ * threads never wait on each other. The generate benchmarks add the "PO-"
+ * prefix and the PaymentOrderId around each, as the service issues them.
+ * Not part of the test run. After mvn test-compile, run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main IdGenerationBenchmark -t 8}
+ * and compare against {@code -t 1} to see how each scales with threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IdGenerationBenchmark {
+
+    private final TimeOrderedPaymentOrderIdGenerator timeOrdered = TimeOrderedPaymentOrderIdGenerator.INSTANCE;
+    private final PaymentOrderIdGenerator random = PaymentOrderIdGenerator.random();
+
+    @Benchmark
+    public UUID randomUuid() {
+        return UUID.randomUUID();
+    }
+
+    @Benchmark
+    public UUID nextUuid() {
+        return timeOrdered.nextUuid(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public PaymentOrderId generateRandom() {
+        return random.generate();
+    }
+
+    @Benchmark
+    public PaymentOrderId generateTimeOrdered() {
+        return timeOrdered.generate();
+    }
+}
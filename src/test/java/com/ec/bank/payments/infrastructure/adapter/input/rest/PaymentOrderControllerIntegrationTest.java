@@ -10,7 +10,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -63,11 +66,45 @@ class PaymentOrderControllerIntegrationTest extends IntegrationTestBase {
 
         @Test
         @Order(2)
-        @DisplayName("Should return 409 Conflict for duplicate idempotency key")
-        void shouldReturnConflictForDuplicateKey() {
+        @DisplayName("Should replay the original 201 response for a retry with the same payload")
+        void shouldReplayResponseForRetry() {
             // Given
             InitiatePaymentOrderRequestDto request = createValidRequest();
-            String idempotencyKey = "duplicate-key-" + UUID.randomUUID();
+            String idempotencyKey = UUID.randomUUID().toString();
+
+            // First request
+            InitiatePaymentOrderResponseDto original = webTestClient.post()
+                    .uri("/payment-initiation/payment-orders")
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectHeader().doesNotExist("Idempotent-Replayed")
+                    .expectBody(InitiatePaymentOrderResponseDto.class)
+                    .returnResult()
+                    .getResponseBody();
+
+            // Retry with same key and payload
+            webTestClient.post()
+                    .uri("/payment-initiation/payment-orders")
+                    .header("Idempotency-Key", idempotencyKey)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(request)
+                    .exchange()
+                    .expectStatus().isCreated()
+                    .expectHeader().valueEquals("Idempotent-Replayed", "true")
+                    .expectBody(InitiatePaymentOrderResponseDto.class)
+                    .value(replayed -> assertThat(replayed).isEqualTo(original));
+        }
+
+        @Test
+        @Order(3)
+        @DisplayName("Should return 422 for an idempotency key reused with a different payload")
+        void shouldRejectKeyReusedWithDifferentPayload() {
+            // Given
+            InitiatePaymentOrderRequestDto request = createValidRequest();
+            String idempotencyKey = UUID.randomUUID().toString();
 
             // First request
             webTestClient.post()
@@ -78,19 +115,20 @@ class PaymentOrderControllerIntegrationTest extends IntegrationTestBase {
                     .exchange()
                     .expectStatus().isCreated();
 
-            // Second request with same key
+            // Second request with same key and another amount
+            request.getInstructedAmount().setAmount(request.getInstructedAmount().getAmount().add(BigDecimal.ONE));
             webTestClient.post()
                     .uri("/payment-initiation/payment-orders")
                     .header("Idempotency-Key", idempotencyKey)
                     .contentType(MediaType.APPLICATION_JSON)
                     .bodyValue(request)
                     .exchange()
-                    .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                    .expectStatus().isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY)
                     .expectHeader().contentType("application/problem+json")
                     .expectBody(ProblemDetail.class)
                     .value(problem -> {
-                        assertThat(problem.getTitle()).isEqualTo("Duplicate Payment Order");
-                        assertThat(problem.getStatus()).isEqualTo(409);
+                        assertThat(problem.getTitle()).isEqualTo("Idempotency Key Reused");
+                        assertThat(problem.getStatus()).isEqualTo(422);
                     });
         }
 
@@ -136,7 +174,7 @@ class PaymentOrderControllerIntegrationTest extends IntegrationTestBase {
                     {
                         "paymentOrderReference": "REF-TEST-NEG",
                         "debtorAccount": "ES7921000813610123456789",
-                        "creditorAccount": "ES1420805801101234567891",
+                        "creditorAccount": "ES9420805801101234567891",
                         "instructedAmount": {
                             "value": -100.00,
                             "currency": "EUR"
@@ -246,16 +284,119 @@ class PaymentOrderControllerIntegrationTest extends IntegrationTestBase {
             }
         }
 
+        @Nested
+        @DisplayName("POST /payment-initiation/payment-orders/bulk")
+        class BulkInitiatePaymentOrdersTests {
+
+            @Test
+            @DisplayName("Should stream one result per line, rejecting only the invalid lines")
+            void shouldStreamResultPerLine() {
+                // Given
+                String line = """
+                        {"paymentOrderReference":"REF-%s","debtorAccount":"ES7921000813610123456789",\
+                        "creditorAccount":"ES9420805801101234567891",\
+                        "instructedAmount":{"amount":%s,"currency":"EUR"},\
+                        "requestedExecutionDateTime":"%s"}
+                        """;
+                String tomorrow = LocalDate.now().plusDays(1).toString();
+                String body = line.formatted(UUID.randomUUID(), "150.00", tomorrow)
+                        + "not json\n"
+                        + "\n"
+                        + line.formatted(UUID.randomUUID(), "-1", tomorrow)
+                        + line.formatted(UUID.randomUUID(), "99.99", tomorrow);
+
+                // When/Then
+                webTestClient.post()
+                        .uri("/payment-initiation/payment-orders/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .bodyValue(body)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                        .expectBodyList(BulkInitiationResultDto.class)
+                        .value(results -> {
+                            assertThat(results).extracting(BulkInitiationResultDto::getLine)
+                                    .containsExactly(1L, 2L, 4L, 5L);
+                            assertThat(results).extracting(BulkInitiationResultDto::getAccepted)
+                                    .containsExactly(true, false, false, true);
+                            assertThat(results.get(0).getPaymentOrderId()).startsWith("PO-");
+                            assertThat(results.get(0).getPaymentOrderStatus()).isEqualTo(PaymentStatusDto.PENDING);
+                            assertThat(results.get(1).getError()).isNotBlank();
+                        });
+            }
+        }
+
+        @Nested
+        @DisplayName("GET /payment-initiation/payment-orders")
+        class SearchPaymentOrdersTests {
+
+            @Test
+            @DisplayName("Should page through matching orders with the cursor of the last result")
+            void shouldPageWithCursor() {
+                // Given
+                String debtor = "DE89370400440532013000";
+                for (int i = 0; i < 3; i++) {
+                    InitiatePaymentOrderRequestDto request = createValidRequest();
+                    request.setDebtorAccount(debtor);
+                    webTestClient.post()
+                            .uri("/payment-initiation/payment-orders")
+                            .bodyValue(request)
+                            .exchange()
+                            .expectStatus().isCreated();
+                }
+
+                // When
+                List<PaymentOrderSearchResultDto> firstPage = search(debtor, null, 2);
+                List<PaymentOrderSearchResultDto> secondPage = search(debtor,
+                        firstPage.get(firstPage.size() - 1).getCursor(), 2);
+
+                // Then
+                assertThat(firstPage).hasSize(2);
+                assertThat(secondPage).isNotEmpty();
+                assertThat(secondPage).extracting(result -> result.getPaymentOrder().getPaymentOrderId())
+                        .doesNotContainAnyElementsOf(firstPage.stream()
+                                .map(result -> result.getPaymentOrder().getPaymentOrderId())
+                                .toList());
+                assertThat(secondPage).allSatisfy(result ->
+                        assertThat(result.getPaymentOrder().getDebtorAccount()).isEqualTo(debtor));
+            }
+
+            @Test
+            @DisplayName("Should return 400 for a malformed cursor")
+            void shouldRejectMalformedCursor() {
+                // When/Then
+                webTestClient.get()
+                        .uri("/payment-initiation/payment-orders?after={after}", "not-a-cursor")
+                        .exchange()
+                        .expectStatus().isBadRequest();
+            }
+
+            private List<PaymentOrderSearchResultDto> search(String debtor, String after, int limit) {
+                return webTestClient.get()
+                        .uri(uri -> uri.path("/payment-initiation/payment-orders")
+                                .queryParam("debtorAccount", debtor)
+                                .queryParamIfPresent("after", Optional.ofNullable(after))
+                                .queryParam("limit", limit)
+                                .build())
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .expectBodyList(PaymentOrderSearchResultDto.class)
+                        .returnResult()
+                        .getResponseBody();
+            }
+        }
+
         // Helper methods
         private InitiatePaymentOrderRequestDto createValidRequest() {
             InitiatePaymentOrderRequestDto request = new InitiatePaymentOrderRequestDto();
             request.setPaymentOrderReference("REF-" + UUID.randomUUID());
             request.setDebtorAccount("ES7921000813610123456789");
-            request.setCreditorAccount("ES1420805801101234567891");
+            request.setCreditorAccount("ES9420805801101234567891");
 
             // Use the REST API Amount class (the generated one)
             AmountDto amount = new AmountDto();
-            amount.setAmount(1500.00);
+            amount.setAmount(new BigDecimal("1500.00"));
             amount.setCurrency("EUR");
             request.setInstructedAmount(amount);
 
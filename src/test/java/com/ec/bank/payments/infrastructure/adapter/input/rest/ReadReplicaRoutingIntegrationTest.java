@@ -0,0 +1,194 @@
+package com.ec.bank.payments.infrastructure.adapter.input.rest;
+
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.AmountDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.InitiatePaymentOrderRequestDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.InitiatePaymentOrderResponseDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.PaymentOrderStatusDto;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.dto.PaymentStatusDto;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.connection.init.ResourceDatabasePopulator;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read routing against two Postgres instances. The second one stands in for a
+ * replica: it is not streaming from the primary, so rows are copied into it by
+ * hand, which lets each test tell which instance answered.
+ */
+@Disabled("Integration tests are disabled by default")
+@DisplayName("Read Replica Routing Integration Tests")
+class ReadReplicaRoutingIntegrationTest extends IntegrationTestBase {
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>("postgres:15-alpine")
+            .withDatabaseName("test_payments_db")
+            .withUsername("test")
+            .withPassword("test");
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        registry.add("application.persistence.replicas.urls", ReadReplicaRoutingIntegrationTest::replicaUrl);
+        registry.add("application.persistence.replicas.lag-check-interval", () -> "200ms");
+        // No read-your-writes window, so orders created by the tests may be read from the replica
+        registry.add("application.persistence.replicas.read-your-writes-window", () -> "0s");
+    }
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static DatabaseClient replicaClient;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.parse(replicaUrl())
+                .mutate()
+                .option(ConnectionFactoryOptions.USER, replica.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, replica.getPassword())
+                .build());
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).populate(connectionFactory).block();
+        replicaClient = DatabaseClient.create(connectionFactory);
+    }
+
+    @Test
+    @DisplayName("Should serve status reads from the replica")
+    void shouldServeStatusFromReplica() {
+        // Given
+        String paymentOrderId = createOrder();
+        copyToReplica(paymentOrderId);
+        databaseClient.sql("UPDATE payment_orders SET status = :status WHERE payment_order_id = :id")
+                .bind("status", StorageCodec.encodeStatus(PaymentStatus.SETTLED))
+                .bind("id", uuid(paymentOrderId))
+                .then()
+                .block();
+        awaitFreshReplica();
+
+        // When/Then: the replica still holds the copy taken before the update
+        webTestClient.get()
+                .uri("/payment-initiation/payment-orders/{id}/status", paymentOrderId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PaymentOrderStatusDto.class)
+                .value(status -> assertThat(status.getPaymentOrderStatus()).isEqualTo(PaymentStatusDto.PENDING));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the primary for orders the replica has not replayed yet")
+    void shouldFallBackToPrimaryOnReplicaMiss() {
+        // Given
+        String paymentOrderId = createOrder();
+        awaitFreshReplica();
+        double misses = meterRegistry.counter("payment.db.read.primary.fallback", "reason", "replica-miss").count();
+
+        // When/Then
+        webTestClient.get()
+                .uri("/payment-initiation/payment-orders/{id}/status", paymentOrderId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PaymentOrderStatusDto.class)
+                .value(status -> assertThat(status.getPaymentOrderStatus()).isEqualTo(PaymentStatusDto.PENDING));
+        assertThat(meterRegistry.counter("payment.db.read.primary.fallback", "reason", "replica-miss").count())
+                .isEqualTo(misses + 1);
+    }
+
+    // Helper methods
+
+    private String createOrder() {
+        InitiatePaymentOrderRequestDto request = new InitiatePaymentOrderRequestDto();
+        request.setPaymentOrderReference("REF-" + UUID.randomUUID());
+        request.setDebtorAccount("ES7921000813610123456789");
+        request.setCreditorAccount("ES9420805801101234567891");
+        AmountDto amount = new AmountDto();
+        amount.setAmount(new BigDecimal("1500.00"));
+        amount.setCurrency("EUR");
+        request.setInstructedAmount(amount);
+        request.setRequestedExecutionDateTime(LocalDate.now().plusDays(1));
+
+        return webTestClient.post()
+                .uri("/payment-initiation/payment-orders")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(InitiatePaymentOrderResponseDto.class)
+                .returnResult()
+                .getResponseBody()
+                .getPaymentOrderId();
+    }
+
+    /**
+     * Copies the row of an order from the primary into the stand-in replica.
+     */
+    private void copyToReplica(String paymentOrderId) {
+        Map<String, Object> row = databaseClient.sql("SELECT * FROM payment_orders WHERE payment_order_id = :id")
+                .bind("id", uuid(paymentOrderId))
+                .fetch()
+                .one()
+                .block();
+        row.remove("id");
+
+        DatabaseClient.GenericExecuteSpec insert = replicaClient.sql("INSERT INTO payment_orders ("
+                + String.join(", ", row.keySet()) + ") VALUES ("
+                + row.keySet().stream().map(column -> ":" + column).collect(Collectors.joining(", ")) + ")");
+        for (Map.Entry<String, Object> column : row.entrySet()) {
+            insert = column.getValue() != null
+                    ? insert.bind(column.getKey(), column.getValue())
+                    : insert.bindNull(column.getKey(), String.class);
+        }
+        insert.then().block();
+    }
+
+    private void awaitFreshReplica() {
+        for (int attempt = 0; attempt < 50; attempt++) {
+            if (meterRegistry.get("payment.db.replica.available").gauge().value() > 0) {
+                return;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalStateException("Replica never joined the rotation");
+    }
+
+    private static UUID uuid(String paymentOrderId) {
+        return UUID.fromString(paymentOrderId.substring("PO-".length()));
+    }
+
+    private static String replicaUrl() {
+        return String.format("r2dbc:postgresql://%s:%d/%s",
+                replica.getHost(), replica.getFirstMappedPort(), replica.getDatabaseName());
+    }
+}
@@ -0,0 +1,62 @@
+package com.ec.bank.payments.infrastructure.adapter.input.scheduler;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for AdaptiveBatchSize.
+ */
+@DisplayName("Adaptive Batch Size Tests")
+class AdaptiveBatchSizeTest {
+
+    private static final Duration FAST = Duration.ofMillis(100);
+    private static final Duration SLOW = Duration.ofSeconds(3);
+
+    private AdaptiveBatchSize batchSize;
+
+    @BeforeEach
+    void setUp() {
+        batchSize = new AdaptiveBatchSize(10, 100, 50, 10, Duration.ofSeconds(1));
+    }
+
+    @Test
+    @DisplayName("Should grow by the increment after a full batch within the target latency")
+    void shouldGrowAfterFastFullBatch() {
+        // When/Then
+        assertThat(batchSize.observe(50, 50, FAST)).isEqualTo(60);
+        assertThat(batchSize.observe(60, 60, FAST)).isEqualTo(70);
+    }
+
+    @Test
+    @DisplayName("Should keep the size after a partial batch")
+    void shouldKeepSizeAfterPartialBatch() {
+        // When/Then
+        assertThat(batchSize.observe(50, 12, FAST)).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Should halve the size after a batch over the target latency, down to the minimum")
+    void shouldHalveAfterSlowBatch() {
+        // When/Then
+        assertThat(batchSize.observe(50, 50, SLOW)).isEqualTo(25);
+        assertThat(batchSize.observe(25, 3, SLOW)).isEqualTo(12);
+        assertThat(batchSize.observe(12, 12, SLOW)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Should never grow past the maximum")
+    void shouldRespectMaximum() {
+        // When
+        for (int i = 0; i < 20; i++) {
+            batchSize.observe(batchSize.current(), batchSize.current(), FAST);
+        }
+
+        // Then
+        assertThat(batchSize.current()).isEqualTo(100);
+    }
+}
@@ -0,0 +1,216 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
+
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.entity.IdempotencyKeyEntity;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.notification.PostgresNotificationListener;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CachingIdempotencyRepositoryAdapter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingIdempotencyRepositoryAdapter Tests")
+class CachingIdempotencyRepositoryAdapterTest {
+
+    @Mock
+    private IdempotencyRepositoryAdapter delegate;
+
+    @Mock
+    private PostgresNotificationListener notificationListener;
+
+    @Mock
+    private IdempotencyKeyFilter keyFilter;
+
+    private static final String KEY = "3f2b6a1e-9c4d-4e8f-a1b2-c3d4e5f60718";
+    private static final String ORDER_UUID = "7d9e2c41-5a6b-4c8d-9e0f-1a2b3c4d5e6f";
+    private static final String ORDER_ID = "PO-" + ORDER_UUID;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingIdempotencyRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new CachingIdempotencyRepositoryAdapter(
+                delegate, notificationListener, keyFilter, new ObjectMapper(), meterRegistry,
+                100L * CachingIdempotencyRepositoryAdapter.ENTRY_OVERHEAD_BYTES);
+    }
+
+    @Test
+    @DisplayName("Should answer repeated lookups from cache after first store hit")
+    void shouldCacheStoreHit() {
+        // Given
+        when(delegate.findActive(KEY))
+                .thenReturn(Mono.just(activeEntity(KEY, ORDER_UUID, 3600)));
+
+        // When/Then
+        StepVerifier.create(adapter.exists(KEY)).expectNext(true).verifyComplete();
+        StepVerifier.create(adapter.exists(KEY)).expectNext(true).verifyComplete();
+        StepVerifier.create(adapter.findPaymentOrderId(KEY)).expectNext(ORDER_ID).verifyComplete();
+
+        verify(delegate, times(1)).findActive(KEY);
+        verify(delegate, never()).findPaymentOrderId(KEY);
+        assertThat(meterRegistry.counter("payment.idempotency.cache.hit").count()).isEqualTo(2.0);
+        assertThat(meterRegistry.counter("payment.idempotency.cache.miss").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should fall through to store for unknown key")
+    void shouldFallThroughForUnknownKey() {
+        // Given
+        when(delegate.findActive(KEY)).thenReturn(Mono.empty());
+
+        // When/Then
+        StepVerifier.create(adapter.exists(KEY)).expectNext(false).verifyComplete();
+        StepVerifier.create(adapter.peekClaim(KEY)).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should learn claims from other replicas via notifications")
+    void shouldApplyNotification() {
+        // When
+        adapter.onNotification(notification(KEY, ORDER_UUID) + "\"ttlMillis\":60000}");
+
+        // Then
+        StepVerifier.create(adapter.peekClaim(KEY))
+                .assertNext(claim -> {
+                    assertThat(claim.claimed()).isFalse();
+                    assertThat(claim.paymentOrderId().value()).isEqualTo(ORDER_ID);
+                    assertThat(claim.requestHash()).isNull();
+                })
+                .verifyComplete();
+        verify(keyFilter).put(eq(KEY), any(Instant.class));
+        verifyNoInteractions(delegate);
+    }
+
+    @Test
+    @DisplayName("Should keep request hash and decoded response from notifications")
+    void shouldApplyNotificationWithResponse() {
+        // Given
+        String response = "{\"paymentOrderId\":\"" + ORDER_ID + "\"}";
+        String encoded = Base64.getEncoder().encodeToString(response.getBytes(StandardCharsets.UTF_8));
+
+        // When
+        adapter.onNotification(notification(KEY, ORDER_UUID) + "\"ttlMillis\":60000,"
+                + "\"requestHash\":\"abc\",\"response\":\"" + encoded + "\"}");
+
+        // Then
+        StepVerifier.create(adapter.peekClaim(KEY))
+                .assertNext(claim -> {
+                    assertThat(claim.matches("abc")).isTrue();
+                    assertThat(new String(claim.response(), StandardCharsets.UTF_8)).isEqualTo(response);
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should leave claims whose response was too large to publish to the store")
+    void shouldSkipNotificationWithOmittedResponse() {
+        // Given
+        adapter.onNotification(notification(KEY, ORDER_UUID) + "\"ttlMillis\":60000}");
+
+        // When
+        adapter.onNotification(notification(KEY, ORDER_UUID) + "\"ttlMillis\":60000,"
+                + "\"requestHash\":\"abc\",\"response\":null,\"responseOmitted\":true}");
+
+        // Then
+        StepVerifier.create(adapter.peekClaim(KEY)).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should not cache claims that already expired")
+    void shouldIgnoreExpiredClaims() {
+        // When
+        adapter.onNotification(notification(KEY, ORDER_UUID) + "\"ttlMillis\":-5}");
+        adapter.onNotification("not json");
+
+        // Then
+        StepVerifier.create(adapter.peekClaim(KEY)).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Should count evictions when weight bound is exceeded")
+    void shouldCountEvictions() {
+        // When
+        for (int i = 0; i < 500; i++) {
+            adapter.onNotification(notification(UUID.randomUUID().toString(), UUID.randomUUID().toString())
+                    + "\"ttlMillis\":60000}");
+        }
+
+        // Then
+        assertThat(meterRegistry.counter("payment.idempotency.cache.eviction").count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should weigh entries by their stored response")
+    void shouldBoundCacheByResponseBytes() {
+        // Given
+        String encoded = Base64.getEncoder().encodeToString(new byte[4096]);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            adapter.onNotification(notification(UUID.randomUUID().toString(), UUID.randomUUID().toString())
+                    + "\"ttlMillis\":60000,\"requestHash\":\"abc\",\"response\":\"" + encoded + "\"}");
+        }
+
+        // Then
+        long bound = 100L * CachingIdempotencyRepositoryAdapter.ENTRY_OVERHEAD_BYTES
+                / (CachingIdempotencyRepositoryAdapter.ENTRY_OVERHEAD_BYTES + 4096);
+        assertThat(meterRegistry.get("payment.idempotency.cache.size").gauge().value()).isLessThanOrEqualTo(bound);
+        assertThat(meterRegistry.counter("payment.idempotency.cache.eviction").count()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should share entries between a non-UUID key and its stored form")
+    void shouldMatchNonUuidKeyToStoredForm() {
+        // Given
+        String stored = UUID.nameUUIDFromBytes("key-123".getBytes(StandardCharsets.UTF_8)).toString();
+
+        // When
+        adapter.onNotification(notification(stored, ORDER_UUID) + "\"ttlMillis\":60000}");
+
+        // Then
+        StepVerifier.create(adapter.peekClaim("key-123"))
+                .assertNext(claim -> {
+                    assertThat(claim.idempotencyKey()).isEqualTo("key-123");
+                    assertThat(claim.paymentOrderId().value()).isEqualTo(ORDER_ID);
+                })
+                .verifyComplete();
+    }
+
+    /**
+     * Opening of a payload as published by the trigger: stored uuid forms, no "PO-" prefix.
+     */
+    private String notification(String key, String paymentOrderUuid) {
+        return "{\"idempotencyKey\":\"" + key + "\",\"paymentOrderId\":\"" + paymentOrderUuid + "\",";
+    }
+
+    private IdempotencyKeyEntity activeEntity(String key, String paymentOrderUuid, long ttlSeconds) {
+        Instant now = Instant.now();
+        return IdempotencyKeyEntity.builder()
+                .idempotencyKey(UUID.fromString(key))
+                .paymentOrderId(UUID.fromString(paymentOrderUuid))
+                .createdAt(now)
+                .expiresAt(now.plus(ttlSeconds, ChronoUnit.SECONDS))
+                .build();
+    }
+}
@@ -0,0 +1,265 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
+
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderField;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderView;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter.PaymentOrderRepositoryAdapter.VersionedPaymentOrder;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.notification.PostgresNotificationListener;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.routing.ReadRoute;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CachingPaymentOrderRepositoryAdapter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("CachingPaymentOrderRepositoryAdapter Tests")
+class CachingPaymentOrderRepositoryAdapterTest {
+
+    @Mock
+    private PaymentOrderRepositoryAdapter store;
+
+    @Mock
+    private PostgresNotificationListener notificationListener;
+
+    private static final UUID ORDER_UUID = UUID.fromString("7d9e2c41-5a6b-4c8d-9e0f-1a2b3c4d5e6f");
+    private static final PaymentOrderId ORDER_ID = PaymentOrderId.of("PO-" + ORDER_UUID);
+
+    private SimpleMeterRegistry meterRegistry;
+    private CachingPaymentOrderRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new CachingPaymentOrderRepositoryAdapter(
+                store, Optional.empty(), notificationListener, new ObjectMapper(), meterRegistry,
+                100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Should answer repeated lookups from cache after first load")
+    void shouldCacheLoadedOrder() {
+        // Given
+        PaymentOrder order = createOrder();
+        when(store.findVersionedById(ORDER_UUID))
+                .thenReturn(Mono.just(new VersionedPaymentOrder(order, 0)));
+
+        // When/Then
+        StepVerifier.create(adapter.findById(ORDER_ID)).expectNext(order).verifyComplete();
+        StepVerifier.create(adapter.findById(ORDER_ID)).expectNext(order).verifyComplete();
+
+        verify(store, times(1)).findVersionedById(ORDER_UUID);
+        assertThat(meterRegistry.counter("payment.order.cache.hit").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("payment.order.cache.miss").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("payment.order.cache.hit.ratio").gauge().value()).isEqualTo(0.5);
+        assertThat(meterRegistry.get("payment.order.cache.load").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should share one load between concurrent lookups of the same order")
+    void shouldCoalesceConcurrentLoads() {
+        // Given
+        PaymentOrder order = createOrder();
+        Sinks.One<VersionedPaymentOrder> row = Sinks.one();
+        when(store.findVersionedById(ORDER_UUID)).thenReturn(row.asMono());
+
+        // When
+        Mono<PaymentOrder> first = adapter.findById(ORDER_ID).cache();
+        Mono<PaymentOrder> second = adapter.findById(ORDER_ID).cache();
+        first.subscribe();
+        second.subscribe();
+        row.tryEmitValue(new VersionedPaymentOrder(order, 0));
+
+        // Then
+        StepVerifier.create(first).expectNext(order).verifyComplete();
+        StepVerifier.create(second).expectNext(order).verifyComplete();
+        verify(store, times(1)).findVersionedById(ORDER_UUID);
+    }
+
+    @Test
+    @DisplayName("Should not cache orders that are not found")
+    void shouldNotCacheMissingOrder() {
+        // Given
+        when(store.findVersionedById(ORDER_UUID)).thenReturn(Mono.empty());
+
+        // When/Then
+        StepVerifier.create(adapter.findById(ORDER_ID)).verifyComplete();
+        StepVerifier.create(adapter.findById(ORDER_ID)).verifyComplete();
+
+        verify(store, times(2)).findVersionedById(ORDER_UUID);
+    }
+
+    @Test
+    @DisplayName("Should never look up IDs that cannot be stored")
+    void shouldSkipUnstorableId() {
+        // When/Then
+        StepVerifier.create(adapter.findById(PaymentOrderId.of("PO-001"))).verifyComplete();
+
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    @DisplayName("Should drop the entry when a newer version is published")
+    void shouldInvalidateOnNewerVersion() {
+        // Given
+        PaymentOrder order = createOrder();
+        when(store.findVersionedById(ORDER_UUID))
+                .thenReturn(Mono.just(new VersionedPaymentOrder(order, 1)));
+        adapter.findById(ORDER_ID).block();
+
+        // When
+        adapter.onNotification(notification(1));
+        adapter.findById(ORDER_ID).block();
+        adapter.onNotification(notification(2));
+        adapter.findById(ORDER_ID).block();
+
+        // Then
+        verify(store, times(2)).findVersionedById(ORDER_UUID);
+    }
+
+    @Test
+    @DisplayName("Should drop the entry when the order is deleted")
+    void shouldInvalidateOnDelete() {
+        // Given
+        when(store.findVersionedById(ORDER_UUID))
+                .thenReturn(Mono.just(new VersionedPaymentOrder(createOrder(), 0)));
+        adapter.findById(ORDER_ID).block();
+
+        // When
+        adapter.onNotification("{\"paymentOrderId\":\"" + ORDER_UUID + "\"}");
+        adapter.findById(ORDER_ID).block();
+
+        // Then
+        verify(store, times(2)).findVersionedById(ORDER_UUID);
+    }
+
+    @Test
+    @DisplayName("Should ignore malformed notifications")
+    void shouldIgnoreMalformedNotification() {
+        // When/Then
+        adapter.onNotification("not json");
+        adapter.onNotification("{\"paymentOrderId\":\"PO-001\",\"version\":1}");
+
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    @DisplayName("Should answer status reads from a cached order")
+    void shouldProjectCachedOrder() {
+        // Given
+        PaymentOrder order = createOrder();
+        when(store.findVersionedById(ORDER_UUID))
+                .thenReturn(Mono.just(new VersionedPaymentOrder(order, 0)));
+        adapter.findById(ORDER_ID).block();
+
+        // When/Then
+        StepVerifier.create(adapter.findStatusById(ORDER_ID))
+                .assertNext(view -> {
+                    assertThat(view.fields()).isEqualTo(PaymentOrderField.STATUS_FIELDS);
+                    assertThat(view.status()).isEqualTo(PaymentStatus.PENDING);
+                    assertThat(view.paymentOrderReference()).isNull();
+                })
+                .verifyComplete();
+
+        verify(store, never()).findStatusById(any());
+    }
+
+    @Test
+    @DisplayName("Should run the narrow query under the caller's route without caching it on a miss")
+    void shouldRunNarrowQueryOnMiss() {
+        // Given
+        PaymentOrderView view = PaymentOrderView.of(createOrder(), PaymentOrderField.STATUS_FIELDS);
+        List<ReadRoute> routes = new ArrayList<>();
+        when(store.findStatusById(ORDER_ID)).thenReturn(Mono.deferContextual(context -> {
+            routes.add(context.getOrDefault(ReadRoute.class, ReadRoute.PRIMARY));
+            return Mono.just(view);
+        }));
+
+        // When/Then
+        StepVerifier.create(adapter.findStatusById(ORDER_ID).contextWrite(ReadRoute.replica()))
+                .expectNext(view)
+                .verifyComplete();
+        StepVerifier.create(adapter.findStatusById(ORDER_ID)).expectNext(view).verifyComplete();
+
+        assertThat(routes).containsExactly(ReadRoute.REPLICA, ReadRoute.PRIMARY);
+        verify(store, times(2)).findStatusById(ORDER_ID);
+        verify(store, never()).findVersionedById(any());
+        assertThat(meterRegistry.counter("payment.order.cache.miss").count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("Should run the projected query under the caller's route on a miss")
+    void shouldRunProjectedQueryUnderCallerRoute() {
+        // Given
+        Set<PaymentOrderField> fields = Set.of(PaymentOrderField.PAYMENT_ORDER_REFERENCE);
+        PaymentOrderView view = PaymentOrderView.of(createOrder(), fields);
+        List<ReadRoute> routes = new ArrayList<>();
+        when(store.findProjectedById(ORDER_ID, fields)).thenReturn(Mono.deferContextual(context -> {
+            routes.add(context.getOrDefault(ReadRoute.class, ReadRoute.PRIMARY));
+            return Mono.just(view);
+        }));
+
+        // When/Then
+        StepVerifier.create(adapter.findProjectedById(ORDER_ID, fields).contextWrite(ReadRoute.replica()))
+                .expectNext(view)
+                .verifyComplete();
+
+        assertThat(routes).containsExactly(ReadRoute.REPLICA);
+        verify(store, never()).findVersionedById(any());
+    }
+
+    @Test
+    @DisplayName("Should send writes to the store when group commit is disabled")
+    void shouldWriteThroughStore() {
+        // Given
+        PaymentOrder order = createOrder();
+        when(store.save(any(PaymentOrder.class))).thenReturn(Mono.just(order));
+
+        // When/Then
+        StepVerifier.create(adapter.save(order)).expectNext(order).verifyComplete();
+
+        verify(store).save(order);
+    }
+
+    private String notification(long version) {
+        return "{\"paymentOrderId\":\"" + ORDER_UUID + "\",\"version\":" + version + "}";
+    }
+
+    private PaymentOrder createOrder() {
+        return PaymentOrder.create(
+                        "REF-2025-001",
+                        IBAN.of("ES7921000813610123456789"),
+                        IBAN.of("ES9420805801101234567891"),
+                        Amount.of(1500.00, "EUR"),
+                        "Invoice payment",
+                        LocalDate.now().plusDays(1))
+                .toBuilder()
+                .paymentOrderId(ORDER_ID)
+                .build();
+    }
+}
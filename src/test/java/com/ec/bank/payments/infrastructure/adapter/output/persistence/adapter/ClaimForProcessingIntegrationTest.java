@@ -0,0 +1,136 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
+
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.model.StatusTransition;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.IntegrationTestBase;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the settlement claim against Postgres, which is the only place its
+ * locking clauses are checked. Skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = "application.settlement.enabled=false")
+@DisplayName("Claim For Processing Integration Tests")
+class ClaimForProcessingIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private PaymentOrderRepositoryAdapter repository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void clearOrders() {
+        databaseClient.sql("DELETE FROM payment_orders").then().block();
+    }
+
+    @Test
+    @DisplayName("Should claim due orders once")
+    void shouldClaimDueOrdersOnce() {
+        // Given
+        List<PaymentOrderId> due = saveOrders(3);
+
+        // When
+        List<StatusTransition> first = claim(10);
+        List<StatusTransition> second = claim(10);
+
+        // Then
+        assertThat(first).extracting(claim -> claim.paymentOrder().getPaymentOrderId())
+                .containsExactlyInAnyOrderElementsOf(due);
+        assertThat(first).allSatisfy(claim -> {
+            assertThat(claim.previousStatus()).isEqualTo(PaymentStatus.PENDING);
+            assertThat(claim.paymentOrder().getStatus()).isEqualTo(PaymentStatus.PROCESSING);
+        });
+        assertThat(second).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should claim stale processing orders before due ones, up to the limit")
+    void shouldClaimStaleOrdersFirst() {
+        // Given
+        List<PaymentOrderId> orders = saveOrders(3);
+        databaseClient.sql("UPDATE payment_orders SET status = :status, last_updated_at = CAST(:updatedAt AS TIMESTAMP)"
+                        + " WHERE payment_order_id = :id")
+                .bind("status", StorageCodec.encodeStatus(PaymentStatus.PROCESSING))
+                .bind("updatedAt", Instant.now().minus(Duration.ofHours(1)))
+                .bind("id", StorageCodec.requirePaymentOrderId(orders.get(2)))
+                .then()
+                .block();
+
+        // When
+        List<StatusTransition> claimed = claim(2);
+
+        // Then
+        assertThat(claimed).hasSize(2);
+        assertThat(claimed).filteredOn(claim -> claim.previousStatus() == PaymentStatus.PROCESSING)
+                .extracting(claim -> claim.paymentOrder().getPaymentOrderId())
+                .containsExactly(orders.get(2));
+        assertThat(claimed).filteredOn(claim -> claim.previousStatus() == PaymentStatus.PENDING).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should never hand the same order to concurrent claimers")
+    void shouldNotShareOrdersBetweenClaimers() {
+        // Given
+        List<PaymentOrderId> due = saveOrders(40);
+
+        // When
+        List<PaymentOrderId> claimed = Flux.range(0, 8)
+                .flatMap(i -> repository.claimForProcessing(LocalDate.now().plusDays(1), staleBefore(), 10))
+                .map(claim -> claim.paymentOrder().getPaymentOrderId())
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        // Then
+        assertThat(claimed).doesNotHaveDuplicates();
+        assertThat(claimed).containsExactlyInAnyOrderElementsOf(due);
+    }
+
+    // Helper methods
+
+    private List<StatusTransition> claim(int limit) {
+        return repository.claimForProcessing(LocalDate.now().plusDays(1), staleBefore(), limit)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static Instant staleBefore() {
+        return Instant.now().minus(Duration.ofMinutes(5));
+    }
+
+    private List<PaymentOrderId> saveOrders(int count) {
+        return Flux.range(0, count)
+                .concatMap(i -> repository.save(PaymentOrder.create(
+                        "REF-" + UUID.randomUUID(),
+                        IBAN.of("ES7921000813610123456789"),
+                        IBAN.of("ES9420805801101234567891"),
+                        Amount.of(new BigDecimal("1500.00"), "EUR"),
+                        "Invoice payment",
+                        LocalDate.now().plusDays(1))))
+                .map(PaymentOrder::getPaymentOrderId)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+}
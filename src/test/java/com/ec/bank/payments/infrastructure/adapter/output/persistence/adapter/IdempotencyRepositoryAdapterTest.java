@@ -0,0 +1,120 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
+
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.entity.IdempotencyKeyEntity;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.repository.R2dbcIdempotencyKeyRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for IdempotencyRepositoryAdapter lookups behind the idempotency key filter.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("IdempotencyRepositoryAdapter Tests")
+class IdempotencyRepositoryAdapterTest {
+
+    @Mock
+    private R2dbcIdempotencyKeyRepository r2dbcRepository;
+
+    private static final String KEY = "3f2b6a1e-9c4d-4e8f-a1b2-c3d4e5f60718";
+    private static final UUID ORDER_UUID = UUID.fromString("7d9e2c41-5a6b-4c8d-9e0f-1a2b3c4d5e6f");
+
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyKeyFilter keyFilter;
+    private IdempotencyRepositoryAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        keyFilter = new IdempotencyKeyFilter(r2dbcRepository, meterRegistry, 1000, 0.01);
+        adapter = new IdempotencyRepositoryAdapter(r2dbcRepository, keyFilter);
+    }
+
+    @Test
+    @DisplayName("Should fall through to the store until the filter is rebuilt")
+    void shouldQueryStoreBeforeRebuild() {
+        // Given
+        when(r2dbcRepository.findByIdempotencyKey(any(UUID.class))).thenReturn(Mono.empty());
+
+        // When/Then
+        StepVerifier.create(adapter.findPaymentOrderId(KEY)).verifyComplete();
+        verify(r2dbcRepository).findByIdempotencyKey(StorageCodec.encodeIdempotencyKey(KEY));
+        assertThat(meterRegistry.counter("payment.idempotency.filter.false.positive").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should answer a key never claimed without querying the store")
+    void shouldSkipStoreForNewKey() {
+        // Given
+        rebuildWith();
+
+        // When/Then
+        StepVerifier.create(adapter.findPaymentOrderId(KEY)).verifyComplete();
+        StepVerifier.create(adapter.exists(KEY)).expectNext(false).verifyComplete();
+        StepVerifier.create(adapter.findActive(KEY)).verifyComplete();
+        verify(r2dbcRepository, never()).findByIdempotencyKey(any());
+        verify(r2dbcRepository, never()).existsByIdempotencyKey(any());
+        verify(r2dbcRepository, never()).findActiveByIdempotencyKey(any());
+        assertThat(meterRegistry.counter("payment.idempotency.filter.negative").count()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should query the store for a claimed key")
+    void shouldQueryStoreForClaimedKey() {
+        // Given
+        rebuildWith(entity(KEY));
+        when(r2dbcRepository.findByIdempotencyKey(StorageCodec.encodeIdempotencyKey(KEY)))
+                .thenReturn(Mono.just(entity(KEY)));
+
+        // When/Then
+        StepVerifier.create(adapter.findPaymentOrderId(KEY))
+                .expectNext(StorageCodec.decodePaymentOrderId(ORDER_UUID).value())
+                .verifyComplete();
+        assertThat(meterRegistry.counter("payment.idempotency.filter.false.positive").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should count a possible match the store does not confirm")
+    void shouldRecordFalsePositive() {
+        // Given
+        rebuildWith();
+        keyFilter.put(KEY, Instant.now());
+        when(r2dbcRepository.findByIdempotencyKey(any(UUID.class))).thenReturn(Mono.empty());
+
+        // When/Then
+        StepVerifier.create(adapter.findPaymentOrderId(KEY)).verifyComplete();
+        assertThat(meterRegistry.counter("payment.idempotency.filter.false.positive").count()).isEqualTo(1.0);
+    }
+
+    // Helper methods
+
+    private void rebuildWith(IdempotencyKeyEntity... active) {
+        when(r2dbcRepository.findAllActive()).thenReturn(Flux.just(active));
+        keyFilter.rebuild();
+    }
+
+    private static IdempotencyKeyEntity entity(String idempotencyKey) {
+        Instant now = Instant.now();
+        return IdempotencyKeyEntity.builder()
+                .idempotencyKey(StorageCodec.encodeIdempotencyKey(idempotencyKey))
+                .paymentOrderId(ORDER_UUID)
+                .createdAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .build();
+    }
+}
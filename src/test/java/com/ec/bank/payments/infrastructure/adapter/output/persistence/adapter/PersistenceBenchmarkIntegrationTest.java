@@ -0,0 +1,472 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter;
+
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.IdempotencyClaim;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.IntegrationTestBase;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.repository.R2dbcIdempotencyKeyRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the persistence changes against Postgres: the single-statement claim,
+ * daily partitions of idempotency_keys, the compact column layout, COPY bulk
+ * inserts, index-only status reads and monthly partitions of payment_orders.
+ * Each test prints its numbers and asserts only the direction of the change.
+ * Sizes are kept small enough for a CI run; the bench.* system properties scale
+ * them up. Skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "application.outbox.relay.enabled=false",
+        "application.settlement.enabled=false"
+})
+@DisplayName("Persistence Benchmark Integration Tests")
+class PersistenceBenchmarkIntegrationTest extends IntegrationTestBase {
+
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 2_000;
+
+    @Autowired
+    private PaymentOrderRepositoryAdapter repository;
+
+    @Autowired
+    private R2dbcIdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Test
+    @DisplayName("Claim-and-insert vs exists, insert order, insert key (new keys)")
+    void claimAndInsertVersusThreeRoundTrips() {
+        // Given: the initiation flow before the claim, one statement per step
+        Stats separate = measure(() -> {
+            String key = UUID.randomUUID().toString();
+            return idempotencyKeyRepository.existsByIdempotencyKey(StorageCodec.encodeIdempotencyKey(key))
+                    .then(repository.save(newOrder()))
+                    .flatMap(saved -> insertKey(key, saved.getPaymentOrderId()));
+        });
+
+        // When
+        Stats claim = measure(() -> repository
+                .saveWithIdempotencyKey(newOrder(), UUID.randomUUID().toString(), null, null)
+                .then());
+
+        // Then
+        print("exists + insert order + insert key", separate);
+        print("claim-and-insert", claim);
+        assertThat(claim.p50()).isLessThan(separate.p50());
+    }
+
+    @Test
+    @DisplayName("Claim-and-insert vs exists, find (duplicate keys)")
+    void duplicateClaimVersusTwoRoundTrips() {
+        // Given
+        String key = UUID.randomUUID().toString();
+        IdempotencyClaim first = repository.saveWithIdempotencyKey(newOrder(), key, null, null).block();
+        assertThat(first.claimed()).isTrue();
+        UUID storedKey = StorageCodec.encodeIdempotencyKey(key);
+
+        Stats separate = measure(() -> idempotencyKeyRepository.existsByIdempotencyKey(storedKey)
+                .flatMap(exists -> idempotencyKeyRepository.findByIdempotencyKey(storedKey))
+                .then());
+
+        // When
+        Stats claim = measure(() -> repository.saveWithIdempotencyKey(newOrder(), key, null, null)
+                .doOnNext(result -> assertThat(result.claimed()).isFalse())
+                .then());
+
+        // Then
+        print("exists + find", separate);
+        print("claim-and-insert duplicate", claim);
+    }
+
+    @Test
+    @DisplayName("Partition drop vs row DELETE expiry over a simulated week")
+    void partitionDropVersusRowDelete() {
+        // Given
+        final int days = 7;
+        final int keysPerDay = Integer.getInteger("bench.idempotency-keys.per-day", 100_000);
+        final int batchSize = 1_000;
+
+        // Both tables stand alone so only the key table layout is compared
+        execute("DROP TABLE IF EXISTS bench_keys_plain, bench_keys_partitioned");
+        execute("""
+                CREATE TABLE bench_keys_plain (
+                    id BIGSERIAL PRIMARY KEY,
+                    idempotency_key UUID UNIQUE NOT NULL,
+                    payment_order_id UUID NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                    expires_at TIMESTAMP NOT NULL)
+                """);
+        execute("CREATE INDEX ON bench_keys_plain(expires_at)");
+        execute("""
+                CREATE TABLE bench_keys_partitioned (
+                    id BIGSERIAL,
+                    idempotency_key UUID NOT NULL,
+                    payment_order_id UUID NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                    expires_at TIMESTAMP NOT NULL,
+                    PRIMARY KEY (id, created_at)) PARTITION BY RANGE (created_at)
+                """);
+        execute("CREATE INDEX ON bench_keys_partitioned(idempotency_key, created_at DESC)");
+
+        // When: the simulated clock starts well in the past so no real partition is touched
+        LocalDate start = LocalDate.now().minusDays(60);
+        long plainInsertNanos = 0;
+        long partitionedInsertNanos = 0;
+        long plainExpiryNanos = 0;
+        long partitionedExpiryNanos = 0;
+
+        for (int day = 0; day < days; day++) {
+            LocalDate today = start.plusDays(day);
+            execute("SELECT create_daily_partitions('bench_keys_partitioned', '%s', '%s')"
+                    .formatted(today, today.plusDays(1)));
+
+            for (int offset = 0; offset < keysPerDay; offset += batchSize) {
+                String rows = """
+                        SELECT gen_random_uuid(), gen_random_uuid(), ts, ts + INTERVAL '24 hours'
+                        FROM (SELECT TIMESTAMP '%s' + (g * INTERVAL '86399 seconds' / %d) AS ts
+                              FROM generate_series(%d, %d) g) s
+                        """.formatted(today, keysPerDay, offset, offset + batchSize - 1);
+                String columns = "(idempotency_key, payment_order_id, created_at, expires_at) ";
+                plainInsertNanos += timed("INSERT INTO bench_keys_plain " + columns + rows);
+                partitionedInsertNanos += timed("INSERT INTO bench_keys_partitioned " + columns + rows);
+            }
+
+            // End of the simulated day: expire everything older than 24 hours
+            LocalDate endOfDay = today.plusDays(1);
+            plainExpiryNanos += timed("DELETE FROM bench_keys_plain WHERE expires_at < TIMESTAMP '%s'"
+                    .formatted(endOfDay));
+            partitionedExpiryNanos += timed("SELECT drop_daily_partitions_before('bench_keys_partitioned', '%s')"
+                    .formatted(endOfDay.minusDays(1)));
+        }
+
+        long plainBytes = relationSize("SELECT pg_total_relation_size('bench_keys_plain')");
+        long partitionedBytes = relationSize("""
+                SELECT CAST(COALESCE(SUM(pg_total_relation_size(inhrelid)), 0) AS BIGINT)
+                FROM pg_inherits WHERE inhparent = 'bench_keys_partitioned'::regclass
+                """);
+
+        // Then
+        long totalKeys = (long) days * keysPerDay;
+        System.out.printf("%-45s %8d keys/s  expiry=%6d ms  size=%6d KiB%n", "plain table + DELETE",
+                totalKeys * 1_000_000_000L / plainInsertNanos, plainExpiryNanos / 1_000_000, plainBytes / 1024);
+        System.out.printf("%-45s %8d keys/s  expiry=%6d ms  size=%6d KiB%n", "daily partitions + DROP",
+                totalKeys * 1_000_000_000L / partitionedInsertNanos, partitionedExpiryNanos / 1_000_000,
+                partitionedBytes / 1024);
+
+        execute("DROP TABLE IF EXISTS bench_keys_plain, bench_keys_partitioned");
+        assertThat(partitionedExpiryNanos).isLessThan(plainExpiryNanos);
+        assertThat(partitionedBytes).isLessThan(plainBytes);
+    }
+
+    @Test
+    @DisplayName("Text vs compact column layout: heap and index sizes")
+    void compactVersusTextColumnLayout() {
+        // Given
+        final int rows = Integer.getInteger("bench.layout.rows", 200_000);
+
+        execute("DROP TABLE IF EXISTS bench_orders_text, bench_orders_compact, bench_keys_text, bench_keys_compact");
+
+        // Layout of the first release, including the duplicate index on payment_order_id
+        execute("""
+                CREATE TABLE bench_orders_text (
+                    id BIGSERIAL PRIMARY KEY,
+                    payment_order_id VARCHAR(100) UNIQUE NOT NULL,
+                    debtor_account VARCHAR(34) NOT NULL,
+                    creditor_account VARCHAR(34) NOT NULL,
+                    amount DECIMAL(19, 2) NOT NULL,
+                    currency VARCHAR(3) NOT NULL,
+                    status VARCHAR(20) NOT NULL)
+                """);
+        execute("CREATE INDEX ON bench_orders_text(payment_order_id)");
+        execute("CREATE INDEX ON bench_orders_text(status)");
+        execute("""
+                CREATE TABLE bench_orders_compact (
+                    id BIGSERIAL PRIMARY KEY,
+                    payment_order_id UUID UNIQUE NOT NULL,
+                    debtor_account BYTEA NOT NULL,
+                    creditor_account BYTEA NOT NULL,
+                    amount DECIMAL(19, 2) NOT NULL,
+                    currency SMALLINT NOT NULL,
+                    status SMALLINT NOT NULL)
+                """);
+        execute("CREATE INDEX ON bench_orders_compact(status)");
+        execute("CREATE TABLE bench_keys_text (idempotency_key VARCHAR(255) NOT NULL, created_at TIMESTAMP NOT NULL)");
+        execute("CREATE INDEX ON bench_keys_text(idempotency_key, created_at DESC)");
+        execute("CREATE TABLE bench_keys_compact (idempotency_key UUID NOT NULL, created_at TIMESTAMP NOT NULL)");
+        execute("CREATE INDEX ON bench_keys_compact(idempotency_key, created_at DESC)");
+
+        // When
+        IBAN debtor = IBAN.of("ES7921000813610123456789");
+        IBAN creditor = IBAN.of("ES9420805801101234567891");
+        execute("""
+                INSERT INTO bench_orders_text (payment_order_id, debtor_account, creditor_account, amount, currency, status)
+                SELECT 'PO-' || gen_random_uuid(), '%s', '%s', 1500.00, 'EUR', 'PENDING'
+                FROM generate_series(1, %d)
+                """.formatted(debtor.value(), creditor.value(), rows));
+        execute("""
+                INSERT INTO bench_orders_compact (payment_order_id, debtor_account, creditor_account, amount, currency, status)
+                SELECT gen_random_uuid(), '\\x%s'::bytea, '\\x%s'::bytea, 1500.00, %d, %d
+                FROM generate_series(1, %d)
+                """.formatted(
+                HexFormat.of().formatHex(StorageCodec.encodeIban(debtor)),
+                HexFormat.of().formatHex(StorageCodec.encodeIban(creditor)),
+                StorageCodec.encodeCurrency(Currency.getInstance("EUR")),
+                StorageCodec.encodeStatus(PaymentStatus.PENDING),
+                rows));
+        execute("INSERT INTO bench_keys_text SELECT gen_random_uuid()::text, LOCALTIMESTAMP FROM generate_series(1, %d)"
+                .formatted(rows));
+        execute("INSERT INTO bench_keys_compact SELECT gen_random_uuid(), LOCALTIMESTAMP FROM generate_series(1, %d)"
+                .formatted(rows));
+        execute("VACUUM ANALYZE bench_orders_text, bench_orders_compact, bench_keys_text, bench_keys_compact");
+
+        long[] ordersText = heapAndIndexSize("bench_orders_text");
+        long[] ordersCompact = heapAndIndexSize("bench_orders_compact");
+        long[] keysText = heapAndIndexSize("bench_keys_text");
+        long[] keysCompact = heapAndIndexSize("bench_keys_compact");
+
+        // Then
+        printSizes("payment_orders text", ordersText);
+        printSizes("payment_orders compact", ordersCompact);
+        printSizes("idempotency_keys text", keysText);
+        printSizes("idempotency_keys compact", keysCompact);
+
+        execute("DROP TABLE IF EXISTS bench_orders_text, bench_orders_compact, bench_keys_text, bench_keys_compact");
+        assertThat(ordersCompact[0]).isLessThan(ordersText[0]);
+        assertThat(ordersCompact[1]).isLessThan(ordersText[1]);
+        assertThat(keysCompact[1]).isLessThan(keysText[1]);
+    }
+
+    @Test
+    @DisplayName("COPY bulk insert vs one insert per order for a payroll-sized run")
+    void copyVersusInsertPerOrder() {
+        // Given
+        final int orders = Integer.getInteger("bench.bulk.orders", 20_000);
+        final int chunk = 1_000;
+
+        long insertNanos = timed(() -> Flux.range(0, orders)
+                .flatMap(i -> repository.save(newOrder()), 64)
+                .then());
+
+        // When
+        long copyNanos = timed(() -> Flux.range(0, orders / chunk)
+                .concatMap(i -> repository.bulkInsert(newOrders(chunk)))
+                .then());
+
+        // Then
+        System.out.printf("%-45s %8d orders/s%n", "one insert per order", orders * 1_000_000_000L / insertNanos);
+        System.out.printf("%-45s %8d orders/s%n", "COPY FROM STDIN", orders * 1_000_000_000L / copyNanos);
+        assertThat(copyNanos).isLessThan(insertNanos);
+    }
+
+    @Test
+    @DisplayName("Status read is an index-only scan, and no slower than loading the order")
+    void statusReadVersusFullLoad() {
+        // Given
+        List<PaymentOrder> orders = newOrders(1_000);
+        repository.bulkInsert(orders).block();
+        execute("VACUUM (ANALYZE) payment_orders");
+        PaymentOrderId id = orders.get(0).getPaymentOrderId();
+
+        // When
+        String plan = databaseClient.sql("EXPLAIN SELECT payment_order_id, status, last_updated_at "
+                        + "FROM payment_orders WHERE payment_order_id = :id")
+                .bind("id", StorageCodec.requirePaymentOrderId(id))
+                .map(row -> row.get(0, String.class))
+                .all()
+                .collect(Collectors.joining("\n"))
+                .block();
+        Stats full = measure(() -> repository.findById(id));
+        Stats status = measure(() -> repository.findStatusById(id));
+
+        // Then
+        System.out.println(plan);
+        print("full row + aggregate rebuild", full);
+        print("status projection", status);
+        // Partitions get their own index names, so only the scan type is checked
+        assertThat(plan).contains("Index Only Scan using");
+        assertThat(status.p50()).isLessThanOrEqualTo(full.p50());
+    }
+
+    @Test
+    @DisplayName("Monthly partitions vs one plain table: insert and point lookup")
+    void partitionedVersusPlainPaymentOrders() {
+        // Given: production reaches 100M rows in a couple of years; raise bench.payment-orders.rows to match
+        final long rows = Long.getLong("bench.payment-orders.rows", 2_000_000L);
+        final int months = 24;
+        final long batchSize = 500_000;
+
+        execute("DROP TABLE IF EXISTS bench_orders_plain, bench_orders_partitioned");
+        String columns = """
+                    id BIGSERIAL,
+                    payment_order_id UUID NOT NULL,
+                    debtor_account BYTEA NOT NULL,
+                    amount DECIMAL(19, 4) NOT NULL,
+                    status SMALLINT NOT NULL,
+                    created_at TIMESTAMP NOT NULL,
+                """;
+        execute("CREATE TABLE bench_orders_plain (" + columns
+                + " PRIMARY KEY (id), UNIQUE (payment_order_id))");
+        execute("CREATE TABLE bench_orders_partitioned (" + columns
+                + " PRIMARY KEY (id, created_at), UNIQUE (payment_order_id, created_at))"
+                + " PARTITION BY RANGE (created_at)");
+        execute("CREATE INDEX ON bench_orders_plain(created_at, id)");
+        execute("CREATE INDEX ON bench_orders_partitioned(created_at, id)");
+
+        LocalDate start = LocalDate.now().withDayOfMonth(1).minusMonths(months - 1);
+        execute("SELECT create_monthly_partitions('bench_orders_partitioned', '%s', '%s')"
+                .formatted(start, LocalDate.now().plusMonths(1)));
+
+        // Rows spread evenly over the months, oldest first, as the application writes them
+        long spanSeconds = Duration.between(start.atStartOfDay(), LocalDate.now().atStartOfDay()).toSeconds();
+        for (long offset = 0; offset < rows; offset += batchSize) {
+            String batch = """
+                    SELECT gen_random_uuid(), '\\x0102'::bytea, 1500.00, 1,
+                           TIMESTAMP '%s' + make_interval(secs => g * %d.0 / %d)
+                    FROM generate_series(%d, %d) g
+                    """.formatted(start, spanSeconds, rows, offset, Math.min(offset + batchSize, rows) - 1);
+            String target = " (payment_order_id, debtor_account, amount, status, created_at) ";
+            execute("INSERT INTO bench_orders_plain" + target + batch);
+            execute("INSERT INTO bench_orders_partitioned" + target + batch);
+        }
+        execute("VACUUM ANALYZE bench_orders_plain, bench_orders_partitioned");
+
+        UUID recent = databaseClient.sql("SELECT payment_order_id FROM bench_orders_plain ORDER BY id DESC LIMIT 1")
+                .map(row -> row.get(0, UUID.class))
+                .one()
+                .block();
+        String insert = "(payment_order_id, debtor_account, amount, status, created_at)"
+                + " VALUES (gen_random_uuid(), '\\x0102'::bytea, 1500.00, 1, LOCALTIMESTAMP)";
+
+        // When
+        Stats plainInsert = measure(() -> databaseClient.sql("INSERT INTO bench_orders_plain " + insert).then());
+        Stats partitionedInsert = measure(() -> databaseClient.sql("INSERT INTO bench_orders_partitioned " + insert).then());
+        Stats plainLookup = measure(() -> pointLookup("bench_orders_plain", recent, ""));
+        Stats partitionedLookup = measure(() -> pointLookup("bench_orders_partitioned", recent, ""));
+        Stats prunedLookup = measure(() -> pointLookup("bench_orders_partitioned", recent,
+                " AND created_at >= LOCALTIMESTAMP - INTERVAL '1 month'"));
+
+        // Then
+        System.out.printf("%d rows over %d months%n", rows, months);
+        print("plain insert", plainInsert);
+        print("partitioned insert", partitionedInsert);
+        print("plain lookup by id", plainLookup);
+        print("partitioned lookup by id (all partitions)", partitionedLookup);
+        print("partitioned lookup by id (pruned)", prunedLookup);
+
+        execute("DROP TABLE IF EXISTS bench_orders_plain, bench_orders_partitioned");
+        assertThat(prunedLookup.p50()).isLessThan(partitionedLookup.p50());
+    }
+
+    // Helper methods
+
+    private Mono<Void> insertKey(String idempotencyKey, PaymentOrderId paymentOrderId) {
+        return databaseClient.sql("INSERT INTO idempotency_keys (idempotency_key, payment_order_id, created_at, expires_at)"
+                        + " VALUES (:key, :orderId, LOCALTIMESTAMP, LOCALTIMESTAMP + INTERVAL '24 hours')")
+                .bind("key", StorageCodec.encodeIdempotencyKey(idempotencyKey))
+                .bind("orderId", StorageCodec.requirePaymentOrderId(paymentOrderId))
+                .then();
+    }
+
+    private List<PaymentOrder> newOrders(int count) {
+        return IntStream.range(0, count).mapToObj(i -> newOrder()).toList();
+    }
+
+    private long[] heapAndIndexSize(String table) {
+        return new long[] {
+                relationSize("SELECT pg_relation_size('%s')".formatted(table)),
+                relationSize("SELECT pg_indexes_size('%s')".formatted(table))
+        };
+    }
+
+    private Mono<UUID> pointLookup(String table, UUID paymentOrderId, String extraPredicate) {
+        return databaseClient.sql("SELECT status FROM " + table + " WHERE payment_order_id = :id" + extraPredicate)
+                .bind("id", paymentOrderId)
+                .map(row -> paymentOrderId)
+                .one();
+    }
+
+    private void execute(String sql) {
+        databaseClient.sql(sql).then().block();
+    }
+
+    private long timed(String sql) {
+        return timed(() -> databaseClient.sql(sql).then());
+    }
+
+    private long timed(Supplier<Mono<Void>> operation) {
+        long start = System.nanoTime();
+        operation.get().block();
+        return System.nanoTime() - start;
+    }
+
+    private long relationSize(String sql) {
+        return databaseClient.sql(sql)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block();
+    }
+
+    private Stats measure(Supplier<Mono<?>> operation) {
+        for (int i = 0; i < WARMUP; i++) {
+            operation.get().block();
+        }
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            operation.get().block();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return new Stats(
+                Duration.ofNanos(samples[ITERATIONS / 2]),
+                Duration.ofNanos(samples[(int) (ITERATIONS * 0.99)]));
+    }
+
+    private static void print(String label, Stats stats) {
+        System.out.printf("%-45s p50=%6d us  p99=%6d us%n",
+                label, stats.p50().toNanos() / 1_000, stats.p99().toNanos() / 1_000);
+    }
+
+    private static void printSizes(String label, long[] sizes) {
+        System.out.printf("%-45s heap=%6d KiB  indexes=%6d KiB%n", label, sizes[0] / 1024, sizes[1] / 1024);
+    }
+
+    private static PaymentOrder newOrder() {
+        return PaymentOrder.create(
+                "REF-" + UUID.randomUUID(),
+                IBAN.of("ES7921000813610123456789"),
+                IBAN.of("ES9420805801101234567891"),
+                Amount.of(new BigDecimal("1500.00"), "EUR"),
+                "Benchmark payment",
+                LocalDate.now().plusDays(1));
+    }
+
+    private record Stats(Duration p50, Duration p99) {}
+}
@@ -0,0 +1,152 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.batch;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for MicroBatcher.
+ */
+@DisplayName("MicroBatcher Tests")
+class MicroBatcherTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private List<List<Integer>> batches;
+    private AtomicInteger singleWrites;
+    private MicroBatcher<Integer, String> batcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batches = new CopyOnWriteArrayList<>();
+        singleWrites = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.dispose();
+    }
+
+    @Test
+    @DisplayName("Should coalesce concurrent submissions and complete each with its own result")
+    void shouldCoalesceConcurrentSubmissions() {
+        // Given
+        batcher = batcher(items -> Mono.just(items.stream().map(i -> "ok-" + i).toList()), Duration.ofMillis(50));
+
+        // When
+        List<String> results = Flux.range(0, 20)
+                .flatMap(i -> batcher.submit(i).subscribeOn(Schedulers.parallel()))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        // Then
+        assertThat(results).hasSize(20).allMatch(r -> r.startsWith("ok-"));
+        assertThat(batches).isNotEmpty().allMatch(batch -> batch.size() <= 8);
+        assertThat(batches.stream().mapToInt(List::size).sum() + singleWrites.get()).isEqualTo(20);
+        assertThat(batches.size()).isLessThan(20);
+        assertThat(meterRegistry.summary("payment.group.commit.batch.size", "write", "test").count())
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("Should flush a lone submission after the wait window with the single writer")
+    void shouldFlushLoneSubmission() {
+        // Given
+        batcher = batcher(items -> Mono.error(new AssertionError("not batched")), Duration.ofMillis(5));
+
+        // When/Then
+        StepVerifier.create(batcher.submit(7))
+                .expectNext("single-7")
+                .verifyComplete();
+        assertThat(singleWrites.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should retry a failed batch item by item so only the bad item fails")
+    void shouldFallBackToSingleWritesOnBatchFailure() {
+        // Given
+        batcher = batcher(items -> Mono.error(new IllegalStateException("batch rejected")), Duration.ofMillis(50));
+
+        // When
+        List<Mono<String>> submissions = List.of(batcher.submit(1), batcher.submit(-1), batcher.submit(2));
+        Flux.merge(submissions.stream().map(m -> m.onErrorReturn("failed")).toList()).collectList()
+                .as(StepVerifier::create)
+                // Then
+                .assertNext(results -> assertThat(results)
+                        .containsExactlyInAnyOrder("single-1", "failed", "single-2"))
+                .verifyComplete();
+        assertThat(meterRegistry.counter("payment.group.commit.fallback", "write", "test").count())
+                .isPositive();
+    }
+
+    @Test
+    @DisplayName("Should accept submissions racing on many threads without losing any")
+    void shouldAcceptRacingSubmissions() {
+        // Given
+        batcher = batcher(items -> Mono.just(items.stream().map(i -> "ok-" + i).toList()), Duration.ofMillis(5));
+
+        // When
+        List<String> results = Flux.range(0, 2000)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(i -> batcher.submit(i))
+                .sequential()
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // Then
+        assertThat(results).hasSize(2000);
+        assertThat(batches.stream().mapToInt(List::size).sum() + singleWrites.get()).isEqualTo(2000);
+    }
+
+    @Test
+    @DisplayName("Should write queued items on close and refuse later submissions")
+    void shouldDrainOnCloseAndRefuseLater() {
+        // Given
+        batcher = batcher(items -> Mono.just(items.stream().map(i -> "ok-" + i).toList()), Duration.ofSeconds(10));
+        Mono<String> queued = batcher.submit(1).cache();
+        queued.subscribe();
+
+        // When
+        batcher.close();
+
+        // Then
+        StepVerifier.create(queued)
+                .expectNext("single-1")
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        StepVerifier.create(batcher.submit(2))
+                .expectError(IllegalStateException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private MicroBatcher<Integer, String> batcher(Function<List<Integer>, Mono<List<String>>> batchWriter,
+                                                  Duration maxWait) {
+        return new MicroBatcher<>("test", 8, maxWait, 2,
+                items -> {
+                    batches.add(items);
+                    return batchWriter.apply(items);
+                },
+                item -> {
+                    singleWrites.incrementAndGet();
+                    return item < 0
+                            ? Mono.error(new IllegalArgumentException("negative"))
+                            : Mono.just("single-" + item);
+                },
+                meterRegistry);
+    }
+}
@@ -0,0 +1,138 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.codec;
+
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.DomainCodecRegistrar.CurrencyCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.DomainCodecRegistrar.IbanCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.DomainCodecRegistrar.PaymentOrderIdCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.DomainCodecRegistrar.PaymentStatusCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.codec.PostgresqlObjectId;
+import io.r2dbc.postgresql.message.Format;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import java.util.HexFormat;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for the decode-only codecs of DomainCodecRegistrar.
+ */
+@DisplayName("DomainCodecRegistrar Tests")
+class DomainCodecRegistrarTest {
+
+    private static final UUID ORDER_UUID = UUID.fromString("7d9e2c41-5a6b-4c8d-9e0f-1a2b3c4d5e6f");
+    private static final IBAN DEBTOR = IBAN.of("ES7921000813610123456789");
+
+    @Nested
+    @DisplayName("Decoding")
+    class DecodingTests {
+
+        @Test
+        @DisplayName("Should decode payment order IDs from binary and text uuid")
+        void shouldDecodePaymentOrderId() {
+            // Given
+            PaymentOrderIdCodec codec = new PaymentOrderIdCodec();
+            PaymentOrderId expected = PaymentOrderId.of("PO-" + ORDER_UUID);
+            ByteBuf binary = Unpooled.buffer(16)
+                    .writeLong(ORDER_UUID.getMostSignificantBits())
+                    .writeLong(ORDER_UUID.getLeastSignificantBits());
+
+            // When/Then
+            assertThat(codec.decode(binary, PostgresqlObjectId.UUID.getObjectId(), Format.FORMAT_BINARY,
+                    PaymentOrderId.class)).isEqualTo(expected);
+            assertThat(codec.decode(text(ORDER_UUID.toString()), PostgresqlObjectId.UUID.getObjectId(),
+                    Format.FORMAT_TEXT, PaymentOrderId.class)).isEqualTo(expected);
+        }
+
+        @Test
+        @DisplayName("Should decode packed IBANs from binary and hex text bytea")
+        void shouldDecodeIban() {
+            // Given
+            IbanCodec codec = new IbanCodec();
+            byte[] packed = StorageCodec.encodeIban(DEBTOR);
+
+            // When/Then
+            assertThat(codec.decode(Unpooled.wrappedBuffer(packed), PostgresqlObjectId.BYTEA.getObjectId(),
+                    Format.FORMAT_BINARY, IBAN.class)).isEqualTo(DEBTOR);
+            assertThat(codec.decode(text("\\x" + HexFormat.of().formatHex(packed)),
+                    PostgresqlObjectId.BYTEA.getObjectId(), Format.FORMAT_TEXT, IBAN.class)).isEqualTo(DEBTOR);
+        }
+
+        @Test
+        @DisplayName("Should decode currencies from their numeric code")
+        void shouldDecodeCurrency() {
+            // Given
+            CurrencyCodec codec = new CurrencyCodec();
+
+            // When/Then
+            assertThat(codec.decode(Unpooled.buffer(2).writeShort(978), PostgresqlObjectId.INT2.getObjectId(),
+                    Format.FORMAT_BINARY, Currency.class)).isEqualTo(Currency.getInstance("EUR"));
+            assertThat(codec.decode(text("840"), PostgresqlObjectId.INT2.getObjectId(),
+                    Format.FORMAT_TEXT, Currency.class)).isEqualTo(Currency.getInstance("USD"));
+        }
+
+        @ParameterizedTest
+        @EnumSource(PaymentStatus.class)
+        @DisplayName("Should decode every payment status code")
+        void shouldDecodeStatus(PaymentStatus status) {
+            // Given
+            PaymentStatusCodec codec = new PaymentStatusCodec();
+            short code = StorageCodec.encodeStatus(status);
+
+            // When/Then
+            assertThat(codec.decode(Unpooled.buffer(2).writeShort(code), PostgresqlObjectId.INT2.getObjectId(),
+                    Format.FORMAT_BINARY, PaymentStatus.class)).isEqualTo(status);
+            assertThat(codec.decode(text(Short.toString(code)), PostgresqlObjectId.INT2.getObjectId(),
+                    Format.FORMAT_TEXT, PaymentStatus.class)).isEqualTo(status);
+        }
+
+        @Test
+        @DisplayName("Should decode NULL as null")
+        void shouldDecodeNull() {
+            // When/Then
+            assertThat(new IbanCodec().decode(null, PostgresqlObjectId.BYTEA.getObjectId(),
+                    Format.FORMAT_BINARY, IBAN.class)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Codec selection")
+    class SelectionTests {
+
+        @Test
+        @DisplayName("Should only claim reads asking for the exact domain type")
+        void shouldOnlyClaimDomainType() {
+            // Given
+            int int2 = PostgresqlObjectId.INT2.getObjectId();
+
+            // When/Then
+            assertThat(new PaymentStatusCodec().canDecode(int2, Format.FORMAT_BINARY, PaymentStatus.class)).isTrue();
+            assertThat(new PaymentStatusCodec().canDecode(int2, Format.FORMAT_BINARY, Object.class)).isFalse();
+            assertThat(new PaymentStatusCodec().canDecode(int2, Format.FORMAT_BINARY, Short.class)).isFalse();
+            assertThat(new CurrencyCodec().canDecode(PostgresqlObjectId.INT4.getObjectId(),
+                    Format.FORMAT_BINARY, Currency.class)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should never encode")
+        void shouldNeverEncode() {
+            // When/Then
+            assertThat(new IbanCodec().canEncode(DEBTOR)).isFalse();
+            assertThat(new IbanCodec().canEncodeNull(IBAN.class)).isFalse();
+        }
+    }
+
+    private static ByteBuf text(String value) {
+        return Unpooled.wrappedBuffer(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,123 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.codec;
+
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.DomainCodecRegistrar.CurrencyCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.DomainCodecRegistrar.IbanCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.DomainCodecRegistrar.PaymentOrderIdCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.DomainCodecRegistrar.PaymentStatusCodec;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.entity.PaymentOrderEntity;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.r2dbc.postgresql.codec.PostgresqlObjectId;
+import io.r2dbc.postgresql.message.Format;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Per-row cost of rehydrating the domain columns of a payment order, as the
+ * driver sends them in text format. The legacy path decodes into the driver
+ * types, builds the entity and converts it, validating the IBANs with the
+ * regular expression IBAN used before; the codec path decodes straight into
+ * domain types.
+ * Not part of the test run. After mvn test-compile, run with
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main RowRehydrationBenchmark -prof gc}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowRehydrationBenchmark {
+
+    private static final Pattern LEGACY_IBAN_PATTERN = Pattern.compile("^[A-Z]{2}[0-9]{2}[A-Z0-9]{1,30}$");
+
+    private static final PaymentOrderIdCodec ID_CODEC = new PaymentOrderIdCodec();
+    private static final IbanCodec IBAN_CODEC = new IbanCodec();
+    private static final CurrencyCodec CURRENCY_CODEC = new CurrencyCodec();
+    private static final PaymentStatusCodec STATUS_CODEC = new PaymentStatusCodec();
+
+    private final String uuid = UUID.fromString("7d9e2c41-5a6b-4c8d-9e0f-1a2b3c4d5e6f").toString();
+    private final String hexIban = "\\x" + HexFormat.of().formatHex(
+            StorageCodec.encodeIban(IBAN.of("ES7921000813610123456789")));
+    private final String currency = "978";
+    private final String status = "1";
+
+    @Benchmark
+    public PaymentOrder legacyEntityMapping() {
+        PaymentOrderEntity entity = PaymentOrderEntity.builder()
+                .paymentOrderId(UUID.fromString(text(uuid).toString(StandardCharsets.US_ASCII)))
+                .debtorAccount(HexFormat.of().parseHex(text(hexIban).toString(StandardCharsets.US_ASCII), 2, hexIban.length()))
+                .creditorAccount(HexFormat.of().parseHex(text(hexIban).toString(StandardCharsets.US_ASCII), 2, hexIban.length()))
+                .amount(BigDecimal.valueOf(150000, 2))
+                .currency(Short.valueOf(text(currency).toString(StandardCharsets.US_ASCII)))
+                .status(Short.valueOf(text(status).toString(StandardCharsets.US_ASCII)))
+                .build();
+        IBAN debtor = StorageCodec.decodeIban(entity.getDebtorAccount());
+        IBAN creditor = StorageCodec.decodeIban(entity.getCreditorAccount());
+        legacyValidate(debtor);
+        legacyValidate(creditor);
+        return order(
+                StorageCodec.decodePaymentOrderId(entity.getPaymentOrderId()),
+                debtor,
+                creditor,
+                StorageCodec.decodeCurrency(entity.getCurrency()),
+                StorageCodec.decodeStatus(entity.getStatus()));
+    }
+
+    @Benchmark
+    public PaymentOrder codecRehydration() {
+        return order(
+                ID_CODEC.decode(text(uuid), PostgresqlObjectId.UUID.getObjectId(), Format.FORMAT_TEXT, PaymentOrderId.class),
+                IBAN_CODEC.decode(text(hexIban), PostgresqlObjectId.BYTEA.getObjectId(), Format.FORMAT_TEXT, IBAN.class),
+                IBAN_CODEC.decode(text(hexIban), PostgresqlObjectId.BYTEA.getObjectId(), Format.FORMAT_TEXT, IBAN.class),
+                CURRENCY_CODEC.decode(text(currency), PostgresqlObjectId.INT2.getObjectId(), Format.FORMAT_TEXT, Currency.class),
+                STATUS_CODEC.decode(text(status), PostgresqlObjectId.INT2.getObjectId(), Format.FORMAT_TEXT, PaymentStatus.class));
+    }
+
+    private static void legacyValidate(IBAN iban) {
+        if (!LEGACY_IBAN_PATTERN.matcher(iban.value().replaceAll("\\s+", "").toUpperCase()).matches()) {
+            throw new IllegalStateException("Invalid IBAN");
+        }
+    }
+
+    private static PaymentOrder order(PaymentOrderId id, IBAN debtor, IBAN creditor, Currency currency,
+                                      PaymentStatus status) {
+        return PaymentOrder.builder()
+                .paymentOrderId(id)
+                .paymentOrderReference("REF-2025-001")
+                .debtorAccount(debtor)
+                .creditorAccount(creditor)
+                .instructedAmount(new Amount(150000, currency))
+                .requestedExecutionDateTime(LocalDate.of(2025, 1, 1))
+                .status(status)
+                .createdAt(Instant.EPOCH)
+                .lastUpdatedAt(Instant.EPOCH)
+                .build();
+    }
+
+    private static ByteBuf text(String value) {
+        return Unpooled.wrappedBuffer(value.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,173 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.codec;
+
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderIdGenerator;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Currency;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for StorageCodec.
+ */
+@DisplayName("StorageCodec Tests")
+class StorageCodecTest {
+
+    @Nested
+    @DisplayName("Identifiers")
+    class IdentifierTests {
+
+        @Test
+        @DisplayName("Should round-trip generated payment order IDs through uuid")
+        void shouldRoundTripPaymentOrderId() {
+            // Given
+            PaymentOrderId id = PaymentOrderId.generate();
+
+            // When
+            UUID stored = StorageCodec.requirePaymentOrderId(id);
+
+            // Then
+            assertThat(StorageCodec.decodePaymentOrderId(stored)).isEqualTo(id);
+        }
+
+        @Test
+        @DisplayName("Should read the creation time of time-ordered IDs")
+        void shouldDecodeCreationTime() {
+            // Given
+            Instant before = Instant.now();
+            UUID generated = StorageCodec.requirePaymentOrderId(PaymentOrderIdGenerator.timeOrdered().generate());
+            Instant after = Instant.now();
+
+            // When/Then
+            assertThat(StorageCodec.decodeCreationTime(generated)).hasValueSatisfying(time ->
+                    assertThat(time).isBetween(before.minusMillis(1), after.plusMillis(1)));
+            // Example of RFC 9562, appendix A.6
+            assertThat(StorageCodec.decodeCreationTime(UUID.fromString("017f22e2-79b0-7cc3-98c4-dc0c0c07398f")))
+                    .contains(Instant.parse("2022-02-22T19:22:22Z"));
+        }
+
+        @Test
+        @DisplayName("Should not read a creation time from random IDs")
+        void shouldNotDecodeCreationTimeOfRandomIds() {
+            // Given
+            UUID random = StorageCodec.requirePaymentOrderId(PaymentOrderIdGenerator.random().generate());
+
+            // When/Then
+            assertThat(StorageCodec.decodeCreationTime(random)).isEmpty();
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"PO-999999", "ORDER-1", "PO-"})
+        @DisplayName("Should not encode payment order IDs that were never generated")
+        void shouldRejectForeignPaymentOrderIds(String value) {
+            // When/Then
+            assertThat(StorageCodec.encodePaymentOrderId(PaymentOrderId.of(value))).isEmpty();
+            assertThatThrownBy(() -> StorageCodec.requirePaymentOrderId(PaymentOrderId.of(value)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should keep UUID idempotency keys as-is")
+        void shouldKeepUuidKeys() {
+            // Given
+            UUID key = UUID.randomUUID();
+
+            // When/Then
+            assertThat(StorageCodec.encodeIdempotencyKey(key.toString())).isEqualTo(key);
+            assertThat(StorageCodec.encodeIdempotencyKey(key.toString().toUpperCase())).isEqualTo(key);
+        }
+
+        @Test
+        @DisplayName("Should map other idempotency keys to a stable name-based UUID")
+        void shouldHashOtherKeys() {
+            // When
+            UUID stored = StorageCodec.encodeIdempotencyKey("key-123");
+
+            // Then
+            assertThat(stored).isEqualTo(UUID.nameUUIDFromBytes("key-123".getBytes(StandardCharsets.UTF_8)));
+            assertThat(StorageCodec.encodeIdempotencyKey("key-124")).isNotEqualTo(stored);
+        }
+    }
+
+    @Nested
+    @DisplayName("Status and currency")
+    class CodeTests {
+
+        @ParameterizedTest
+        @EnumSource(PaymentStatus.class)
+        @DisplayName("Should round-trip every payment status")
+        void shouldRoundTripStatus(PaymentStatus status) {
+            // When/Then
+            assertThat(StorageCodec.decodeStatus(StorageCodec.encodeStatus(status))).isEqualTo(status);
+        }
+
+        @Test
+        @DisplayName("Should reject unknown status codes")
+        void shouldRejectUnknownStatusCode() {
+            // When/Then
+            assertThatThrownBy(() -> StorageCodec.decodeStatus((short) 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @ParameterizedTest
+        @ValueSource(strings = {"EUR", "USD", "GBP"})
+        @DisplayName("Should store currencies as their ISO 4217 numeric code")
+        void shouldRoundTripCurrency(String code) {
+            // Given
+            Currency currency = Currency.getInstance(code);
+
+            // When
+            short stored = StorageCodec.encodeCurrency(currency);
+
+            // Then
+            assertThat((int) stored).isEqualTo(currency.getNumericCode());
+            assertThat(StorageCodec.decodeCurrency(stored)).isEqualTo(currency);
+        }
+    }
+
+    @Nested
+    @DisplayName("IBAN packing")
+    class IbanTests {
+
+        @ParameterizedTest
+        @ValueSource(strings = {
+                "ES7921000813610123456789",
+                "DE89370400440532013000",
+                "GB82WEST12345698765432",
+                "NO9386011117947",
+                "MT84MALT011000012345MTLCAST001S",
+                "LC55HEMM000100010012001200023015"
+        })
+        @DisplayName("Should round-trip IBANs of every length")
+        void shouldRoundTripIban(String value) {
+            // Given
+            IBAN iban = IBAN.of(value);
+
+            // When
+            byte[] packed = StorageCodec.encodeIban(iban);
+
+            // Then
+            assertThat(packed).hasSize((value.length() * 6 + 7) / 8);
+            assertThat(StorageCodec.decodeIban(packed)).isEqualTo(iban);
+        }
+
+        @Test
+        @DisplayName("Should pack a Spanish IBAN into 18 bytes")
+        void shouldPackSpanishIban() {
+            // When/Then
+            assertThat(StorageCodec.encodeIban(IBAN.of("ES7921000813610123456789"))).hasSize(18);
+        }
+    }
+}
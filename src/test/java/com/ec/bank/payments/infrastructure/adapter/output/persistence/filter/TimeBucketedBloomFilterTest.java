@@ -0,0 +1,116 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.filter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Unit tests for the Bloom filters backing the idempotency key and payment fingerprint filters.
+ */
+@DisplayName("Bloom Filter Tests")
+class TimeBucketedBloomFilterTest {
+
+    private static final Instant NOW = Instant.parse("2025-11-24T10:30:00Z");
+
+    @Nested
+    @DisplayName("Scalable Bloom Filter Tests")
+    class ScalableTests {
+
+        @Test
+        @DisplayName("Should never report a false negative")
+        void shouldNeverReportFalseNegative() {
+            // Given
+            ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+            long[] hashes = new long[5_000];
+            for (int i = 0; i < hashes.length; i++) {
+                hashes[i] = TimeBucketedBloomFilter.hash(UUID.randomUUID().toString());
+                filter.put(hashes[i]);
+            }
+
+            // Then
+            for (long hash : hashes) {
+                assertThat(filter.mightContain(hash)).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("Should grow past capacity and keep false-positive rate bounded")
+        void shouldGrowAndStayBounded() {
+            // Given
+            ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+
+            // When
+            for (int i = 0; i < 10_000; i++) {
+                filter.put(TimeBucketedBloomFilter.hash(UUID.randomUUID().toString()));
+            }
+            int falsePositives = 0;
+            for (int i = 0; i < 10_000; i++) {
+                if (filter.mightContain(TimeBucketedBloomFilter.hash(UUID.randomUUID().toString()))) {
+                    falsePositives++;
+                }
+            }
+
+            // Then
+            assertThat(filter.sliceCount()).isGreaterThan(1);
+            assertThat(falsePositives / 10_000.0).isLessThan(0.02);
+            assertThat(filter.expectedFalsePositiveRate()).isLessThan(0.02);
+        }
+    }
+
+    @Nested
+    @DisplayName("Time Bucket Tests")
+    class TimeBucketTests {
+
+        @Test
+        @DisplayName("Should remember keys within the window")
+        void shouldRememberKeysWithinWindow() {
+            // Given
+            TimeBucketedBloomFilter filter = newFilter();
+            filter.put("key-123", NOW.minus(Duration.ofHours(23)), NOW);
+
+            // Then
+            assertThat(filter.mightContain("key-123", NOW)).isTrue();
+            assertThat(filter.mightContain("key-456", NOW)).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should forget keys once their bucket leaves the window")
+        void shouldForgetExpiredKeys() {
+            // Given
+            TimeBucketedBloomFilter filter = newFilter();
+            filter.put("key-123", NOW, NOW);
+
+            // When
+            Instant later = NOW.plus(Duration.ofHours(26));
+            filter.put("key-456", later, later);
+
+            // Then
+            assertThat(filter.mightContain("key-123", later)).isFalse();
+            assertThat(filter.mightContain("key-456", later)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Should ignore keys created before the window")
+        void shouldIgnoreKeysOlderThanWindow() {
+            // Given
+            TimeBucketedBloomFilter filter = newFilter();
+
+            // When
+            filter.put("key-123", NOW.minus(Duration.ofHours(30)), NOW);
+
+            // Then
+            assertThat(filter.mightContain("key-123", NOW)).isFalse();
+            assertThat(filter.expectedFalsePositiveRate(NOW)).isZero();
+        }
+
+        private TimeBucketedBloomFilter newFilter() {
+            return new TimeBucketedBloomFilter(Duration.ofHours(24), Duration.ofHours(1), 1_000, 0.01);
+        }
+    }
+}
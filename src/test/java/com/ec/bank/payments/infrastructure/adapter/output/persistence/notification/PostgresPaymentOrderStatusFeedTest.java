@@ -0,0 +1,126 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.notification;
+
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentOrderStatusChange;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.Disposable;
+
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for PostgresPaymentOrderStatusFeed.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PostgresPaymentOrderStatusFeed Tests")
+class PostgresPaymentOrderStatusFeedTest {
+
+    @Mock
+    private PostgresNotificationListener notificationListener;
+
+    private static final UUID ORDER_UUID = UUID.fromString("7d9e2c41-5a6b-4c8d-9e0f-1a2b3c4d5e6f");
+    private static final PaymentOrderId ORDER_ID = PaymentOrderId.of("PO-" + ORDER_UUID);
+    private static final UUID OTHER_UUID = UUID.fromString("0b1c2d3e-4f50-4617-8293-a4b5c6d7e8f9");
+    private static final IBAN DEBTOR = IBAN.of("ES7921000813610123456789");
+
+    private SimpleMeterRegistry meterRegistry;
+    private PostgresPaymentOrderStatusFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        feed = new PostgresPaymentOrderStatusFeed(notificationListener, new ObjectMapper(), meterRegistry, 16);
+    }
+
+    @Test
+    @DisplayName("Should deliver only the changes of the watched orders")
+    void shouldRouteByOrder() {
+        // Given
+        List<PaymentOrderStatusChange> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = feed.watch(Set.of(ORDER_ID), null).subscribe(received::add);
+
+        // When
+        feed.onNotification(notification(OTHER_UUID, 2, 3, DEBTOR));
+        feed.onNotification(notification(ORDER_UUID, 3, 3, DEBTOR));
+
+        // Then
+        assertThat(received).singleElement().satisfies(change -> {
+            assertThat(change.paymentOrderId()).isEqualTo(ORDER_ID);
+            assertThat(change.status()).isEqualTo(PaymentStatus.SETTLED);
+            assertThat(change.version()).isEqualTo(3);
+            assertThat(change.lastUpdatedAt()).isEqualTo(Instant.ofEpochSecond(1764000000, 123456000));
+        });
+        subscription.dispose();
+    }
+
+    @Test
+    @DisplayName("Should deliver a change once to a subscriber watching the order and its debtor")
+    void shouldDeliverOnceForOrderAndDebtor() {
+        // Given
+        List<PaymentOrderStatusChange> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = feed.watch(Set.of(ORDER_ID), DEBTOR).subscribe(received::add);
+
+        // When
+        feed.onNotification(notification(ORDER_UUID, 2, 2, DEBTOR));
+        feed.onNotification(notification(OTHER_UUID, 2, 2, DEBTOR));
+
+        // Then
+        assertThat(received).hasSize(2);
+        subscription.dispose();
+    }
+
+    @Test
+    @DisplayName("Should release the subscription when the subscriber cancels")
+    void shouldReleaseOnCancel() {
+        // Given
+        List<PaymentOrderStatusChange> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = feed.watch(Set.of(ORDER_ID), null).subscribe(received::add);
+        assertThat(meterRegistry.get("payment.order.status.subscriptions").gauge().value()).isEqualTo(1.0);
+
+        // When
+        subscription.dispose();
+        feed.onNotification(notification(ORDER_UUID, 2, 2, DEBTOR));
+
+        // Then
+        assertThat(received).isEmpty();
+        assertThat(meterRegistry.get("payment.order.status.subscriptions").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should ignore deletes and malformed payloads")
+    void shouldIgnoreDeletesAndMalformedPayloads() {
+        // Given
+        List<PaymentOrderStatusChange> received = new CopyOnWriteArrayList<>();
+        Disposable subscription = feed.watch(Set.of(ORDER_ID), null).subscribe(received::add);
+
+        // When
+        feed.onNotification("{\"paymentOrderId\":\"" + ORDER_UUID + "\"}");
+        feed.onNotification("not json");
+
+        // Then
+        assertThat(received).isEmpty();
+        subscription.dispose();
+    }
+
+    private static String notification(UUID paymentOrderId, long version, int status, IBAN debtor) {
+        return "{\"paymentOrderId\":\"" + paymentOrderId + "\",\"version\":" + version
+                + ",\"status\":" + status + ",\"lastUpdatedAt\":1764000000.123456"
+                + ",\"debtorAccount\":\"" + HexFormat.of().formatHex(StorageCodec.encodeIban(debtor)) + "\"}";
+    }
+}
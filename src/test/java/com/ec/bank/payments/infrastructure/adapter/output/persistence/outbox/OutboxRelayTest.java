@@ -0,0 +1,217 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.outbox;
+
+import com.ec.bank.payments.domain.model.PaymentOrderEvent;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.domain.port.output.PaymentEventSink;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.notification.PostgresNotificationListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.FetchSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.ReactiveTransactionManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboxRelay, against an in-memory outbox standing in for
+ * payment_order_events: the batch query reads its head and the delete
+ * removes the published events only when it runs.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Tests")
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock
+    private DatabaseClient databaseClient;
+
+    @Mock
+    private ReactiveTransactionManager transactionManager;
+
+    @Mock
+    private PostgresNotificationListener notificationListener;
+
+    @Mock
+    private PaymentEventSink sink;
+
+    @Mock
+    private GenericExecuteSpec lockSpec;
+
+    @Mock
+    private GenericExecuteSpec fetchSpec;
+
+    @Mock
+    private GenericExecuteSpec deleteSpec;
+
+    @Mock
+    private RowsFetchSpec<Boolean> lockResult;
+
+    @Mock
+    private RowsFetchSpec<PaymentOrderEvent> fetchResult;
+
+    @Mock
+    private FetchSpec<Map<String, Object>> deleteResult;
+
+    private final List<PaymentOrderEvent> outbox = new ArrayList<>();
+    private boolean leader = true;
+    private Long[] boundEventIds;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(databaseClient, transactionManager, notificationListener, sink, meterRegistry,
+                BATCH_SIZE, Duration.ofSeconds(10));
+
+        lenient().when(transactionManager.getReactiveTransaction(any()))
+                .thenReturn(Mono.just(mock(ReactiveTransaction.class)));
+        lenient().when(transactionManager.commit(any())).thenReturn(Mono.empty());
+        lenient().when(transactionManager.rollback(any())).thenReturn(Mono.empty());
+
+        when(databaseClient.sql(anyString())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            return sql.contains("pg_try_advisory_xact_lock") ? lockSpec
+                    : sql.startsWith("DELETE") ? deleteSpec
+                    : fetchSpec;
+        });
+        when(lockSpec.map(any(Function.class))).thenReturn((RowsFetchSpec) lockResult);
+        when(lockResult.one()).thenAnswer(invocation -> Mono.just(leader));
+
+        lenient().when(fetchSpec.bind(eq("limit"), anyInt())).thenReturn(fetchSpec);
+        lenient().when(fetchSpec.map(any(BiFunction.class))).thenReturn((RowsFetchSpec) fetchResult);
+        lenient().when(fetchResult.all()).thenAnswer(invocation ->
+                Flux.fromIterable(List.copyOf(outbox.subList(0, Math.min(BATCH_SIZE, outbox.size())))));
+
+        lenient().when(deleteSpec.bind(eq("eventIds"), any())).thenAnswer(invocation -> {
+            boundEventIds = invocation.getArgument(1);
+            return deleteSpec;
+        });
+        lenient().when(deleteSpec.fetch()).thenReturn(deleteResult);
+        lenient().when(deleteResult.rowsUpdated()).thenAnswer(invocation -> {
+            Set<Long> eventIds = Set.of(boundEventIds);
+            return Mono.fromCallable(() -> {
+                outbox.removeIf(event -> eventIds.contains(event.eventId()));
+                return (long) eventIds.size();
+            });
+        });
+    }
+
+    @Test
+    @DisplayName("Should publish and delete a batch when leading")
+    void shouldPublishBatchWhenLeader() {
+        // Given
+        recordEvents(3);
+        when(sink.publish(any())).thenReturn(Mono.empty());
+
+        // When/Then
+        StepVerifier.create(relay.relayBatch()).expectNext(BATCH_SIZE).verifyComplete();
+        verify(sink).publish(argThat(events -> events.stream().map(PaymentOrderEvent::eventId).toList()
+                .equals(List.of(1L, 2L))));
+        assertThat(outbox).extracting(PaymentOrderEvent::eventId).containsExactly(3L);
+        assertThat(meterRegistry.counter("payment.outbox.relay.published").count()).isEqualTo(2.0);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should leave the outbox alone when another replica holds the lock")
+    void shouldSkipWhenNotLeader() {
+        // Given
+        recordEvents(3);
+        leader = false;
+
+        // When/Then
+        StepVerifier.create(relay.drain()).verifyComplete();
+        verify(databaseClient, times(1)).sql(anyString());
+        verifyNoInteractions(sink);
+        assertThat(outbox).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Should keep the batch in the outbox when the sink fails")
+    void shouldKeepBatchOnSinkError() {
+        // Given
+        recordEvents(3);
+        when(sink.publish(any())).thenReturn(Mono.error(new IllegalStateException("broker unavailable")));
+
+        // When/Then
+        StepVerifier.create(relay.drain()).expectError(IllegalStateException.class).verify();
+        assertThat(outbox).hasSize(3);
+        assertThat(meterRegistry.counter("payment.outbox.relay.published").count()).isZero();
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    @DisplayName("Should drain full batches and stop after a partial one")
+    void shouldStopDrainingAfterPartialBatch() {
+        // Given
+        recordEvents(5);
+        when(sink.publish(any())).thenReturn(Mono.empty());
+
+        // When/Then
+        StepVerifier.create(relay.drain()).verifyComplete();
+        assertThat(outbox).isEmpty();
+        verify(sink, times(3)).publish(any());
+        verify(lockResult, times(3)).one();
+        assertThat(meterRegistry.summary("payment.outbox.relay.batch.size").count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should stop draining on an empty batch after a full one")
+    void shouldStopDrainingOnEmptyBatch() {
+        // Given
+        recordEvents(BATCH_SIZE);
+        when(sink.publish(any())).thenReturn(Mono.empty());
+
+        // When/Then
+        StepVerifier.create(relay.drain()).verifyComplete();
+        assertThat(outbox).isEmpty();
+        verify(sink, times(1)).publish(any());
+        verify(lockResult, times(2)).one();
+    }
+
+    // Helper methods
+
+    private void recordEvents(int count) {
+        LongStream.rangeClosed(1, count).forEach(eventId -> outbox.add(new PaymentOrderEvent(
+                eventId,
+                PaymentOrderEvent.Type.CREATED,
+                PaymentOrderId.of("PO-" + UUID.randomUUID()),
+                PaymentStatus.PENDING,
+                null,
+                0,
+                Instant.now())));
+    }
+}
@@ -0,0 +1,152 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.outbox;
+
+import com.ec.bank.payments.domain.model.Amount;
+import com.ec.bank.payments.domain.model.IBAN;
+import com.ec.bank.payments.domain.model.PaymentOrder;
+import com.ec.bank.payments.domain.model.PaymentOrderId;
+import com.ec.bank.payments.domain.model.PaymentStatus;
+import com.ec.bank.payments.infrastructure.adapter.input.rest.IntegrationTestBase;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.adapter.PaymentOrderRepositoryAdapter;
+import com.ec.bank.payments.infrastructure.adapter.output.persistence.codec.StorageCodec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the outbox triggers on payment_orders against Postgres. The relay is
+ * disabled so recorded events stay in payment_order_events to be inspected.
+ * Skipped where Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "application.outbox.relay.enabled=false",
+        "application.settlement.enabled=false"
+})
+@DisplayName("Outbox Trigger Integration Tests")
+class OutboxTriggerIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private PaymentOrderRepositoryAdapter repository;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @BeforeEach
+    void clearOutbox() {
+        databaseClient.sql("DELETE FROM payment_order_events").then().block();
+    }
+
+    @Test
+    @DisplayName("Should record a CREATED event for an inserted order")
+    void shouldRecordCreatedEvent() {
+        // Given
+        PaymentOrder order = order();
+
+        // When
+        repository.save(order).block(Duration.ofSeconds(10));
+
+        // Then
+        List<Map<String, Object>> events = eventsOf(order.getPaymentOrderId());
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.get("event_type")).isEqualTo((short) 1);
+            assertThat(event.get("status")).isEqualTo(StorageCodec.encodeStatus(PaymentStatus.PENDING));
+            assertThat(event.get("previous_status")).isNull();
+            assertThat(event.get("version")).isEqualTo(0L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should record one CREATED event per order of a bulk insert")
+    void shouldRecordCreatedEventsOfBulkInsert() {
+        // Given
+        List<PaymentOrder> orders = IntStream.range(0, 5).mapToObj(i -> order()).toList();
+
+        // When
+        repository.bulkInsert(orders).block(Duration.ofSeconds(10));
+
+        // Then
+        List<UUID> recorded = databaseClient.sql("SELECT payment_order_id FROM payment_order_events"
+                        + " WHERE event_type = 1 ORDER BY event_id")
+                .map(row -> row.get("payment_order_id", UUID.class))
+                .all()
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertThat(recorded).containsExactlyInAnyOrderElementsOf(
+                orders.stream().map(order -> StorageCodec.requirePaymentOrderId(order.getPaymentOrderId())).toList());
+    }
+
+    @Test
+    @DisplayName("Should record a STATUS_CHANGED event with the previous status")
+    void shouldRecordStatusChangedEvent() {
+        // Given
+        PaymentOrder order = order();
+        repository.save(order).block(Duration.ofSeconds(10));
+
+        // When
+        repository.transitionStatus(order.getPaymentOrderId(), PaymentStatus.CANCELLED, null, null)
+                .block(Duration.ofSeconds(10));
+
+        // Then
+        List<Map<String, Object>> events = eventsOf(order.getPaymentOrderId());
+        assertThat(events).hasSize(2);
+        assertThat(events.get(1)).satisfies(event -> {
+            assertThat(event.get("event_type")).isEqualTo((short) 2);
+            assertThat(event.get("status")).isEqualTo(StorageCodec.encodeStatus(PaymentStatus.CANCELLED));
+            assertThat(event.get("previous_status")).isEqualTo(StorageCodec.encodeStatus(PaymentStatus.PENDING));
+            assertThat(event.get("version")).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should record nothing for an update that keeps the status")
+    void shouldIgnoreUpdateKeepingStatus() {
+        // Given
+        PaymentOrder order = order();
+        repository.save(order).block(Duration.ofSeconds(10));
+
+        // When
+        databaseClient.sql("UPDATE payment_orders SET remittance_information = 'Amended' WHERE payment_order_id = :id")
+                .bind("id", StorageCodec.requirePaymentOrderId(order.getPaymentOrderId()))
+                .then()
+                .block(Duration.ofSeconds(10));
+
+        // Then
+        assertThat(eventsOf(order.getPaymentOrderId())).hasSize(1);
+    }
+
+    // Helper methods
+
+    private List<Map<String, Object>> eventsOf(PaymentOrderId paymentOrderId) {
+        return databaseClient.sql("SELECT event_type, status, previous_status, version FROM payment_order_events"
+                        + " WHERE payment_order_id = :id ORDER BY event_id")
+                .bind("id", StorageCodec.requirePaymentOrderId(paymentOrderId))
+                .fetch()
+                .all()
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static PaymentOrder order() {
+        return PaymentOrder.create(
+                "REF-" + UUID.randomUUID(),
+                IBAN.of("ES7921000813610123456789"),
+                IBAN.of("ES9420805801101234567891"),
+                Amount.of(new BigDecimal("1500.00"), "EUR"),
+                "Invoice payment",
+                LocalDate.now().plusDays(1));
+    }
+}
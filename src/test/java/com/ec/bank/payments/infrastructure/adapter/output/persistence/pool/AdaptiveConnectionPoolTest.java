@@ -0,0 +1,255 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.pool;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Wrapped;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the adaptive connection pool: AdaptiveAllocationStrategy and InstrumentedConnectionPool.
+ */
+@DisplayName("Adaptive Connection Pool Tests")
+class AdaptiveConnectionPoolTest {
+
+    private static final long USUAL_HOLD = TimeUnit.MILLISECONDS.toNanos(2);
+
+    @Nested
+    @DisplayName("Allocation strategy")
+    class AllocationStrategyTests {
+
+        private AdaptiveAllocationStrategy strategy;
+
+        @BeforeEach
+        void setUp() {
+            strategy = new AdaptiveAllocationStrategy(2, 16, 8, 2.0);
+        }
+
+        @Test
+        @DisplayName("Should grant permits up to the current limit only")
+        void shouldGrantPermitsUpToLimit() {
+            // When/Then
+            assertThat(strategy.getPermits(5)).isEqualTo(5);
+            assertThat(strategy.getPermits(5)).isEqualTo(3);
+            assertThat(strategy.getPermits(1)).isZero();
+            assertThat(strategy.estimatePermitCount()).isZero();
+            assertThat(strategy.permitMaximum()).isEqualTo(16);
+        }
+
+        @Test
+        @DisplayName("Should always grant enough permits to reach the minimum")
+        void shouldGrantMinimum() {
+            // When/Then
+            assertThat(strategy.getPermits(0)).isEqualTo(2);
+            assertThat(strategy.getPermits(0)).isZero();
+        }
+
+        @Test
+        @DisplayName("Should reject returning more permits than were granted")
+        void shouldRejectExcessReturns() {
+            // Given
+            strategy.getPermits(3);
+
+            // When/Then
+            assertThatThrownBy(() -> strategy.returnPermits(4)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(strategy.permitGranted()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Should grow the limit when acquisitions starve while holds stay usual")
+        void shouldGrowOnStarvation() {
+            // Given
+            strategy.adjust(window(0, 8, USUAL_HOLD));
+
+            // When
+            AdaptiveAllocationStrategy.Reason reason = strategy.adjust(window(12, 8, USUAL_HOLD));
+
+            // Then
+            assertThat(reason).isEqualTo(AdaptiveAllocationStrategy.Reason.STARVATION);
+            assertThat(strategy.limit()).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("Should shrink the limit when holds show the database is slow, even while starving")
+        void shouldShrinkOnSlowQueries() {
+            // Given
+            strategy.adjust(window(0, 8, USUAL_HOLD));
+
+            // When
+            AdaptiveAllocationStrategy.Reason reason = strategy.adjust(window(12, 8, USUAL_HOLD * 5));
+
+            // Then
+            assertThat(reason).isEqualTo(AdaptiveAllocationStrategy.Reason.SLOW_QUERIES);
+            assertThat(strategy.limit()).isEqualTo(6);
+        }
+
+        @Test
+        @DisplayName("Should decay the limit one by one while mostly unused, down to the minimum")
+        void shouldDecayWhenIdle() {
+            // When
+            for (int i = 0; i < 20; i++) {
+                strategy.adjust(window(0, 1, USUAL_HOLD));
+            }
+
+            // Then
+            assertThat(strategy.limit()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should never grow the limit past the maximum")
+        void shouldRespectMaximum() {
+            // When
+            for (int i = 0; i < 20; i++) {
+                strategy.adjust(window(5, strategy.limit(), USUAL_HOLD));
+            }
+
+            // Then
+            assertThat(strategy.limit()).isEqualTo(16);
+            assertThat(strategy.adjust(window(5, 16, USUAL_HOLD))).isNull();
+        }
+
+        @Test
+        @DisplayName("Should report the pool over its limit after the limit shrinks")
+        void shouldReportOverLimit() {
+            // Given
+            strategy.getPermits(8);
+            strategy.adjust(window(0, 8, USUAL_HOLD));
+
+            // When
+            strategy.adjust(window(0, 8, USUAL_HOLD * 5));
+
+            // Then
+            assertThat(strategy.overLimit()).isTrue();
+            strategy.returnPermits(2);
+            assertThat(strategy.overLimit()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should let racing releases evict only the connections over the limit")
+        void shouldClaimOnlyExcessEvictions() {
+            // Given
+            strategy.getPermits(8);
+            strategy.adjust(window(0, 8, USUAL_HOLD));
+            strategy.adjust(window(0, 8, USUAL_HOLD * 5));
+            int excess = strategy.permitGranted() - strategy.limit();
+
+            // When
+            long claimed = IntStream.range(0, 8).parallel()
+                    .filter(i -> strategy.claimEviction())
+                    .count();
+
+            // Then
+            assertThat(claimed).isEqualTo(excess);
+            assertThat(strategy.overLimit()).isFalse();
+            strategy.returnPermits(excess);
+            assertThat(strategy.claimEviction()).isFalse();
+            assertThat(strategy.permitGranted()).isEqualTo(strategy.limit());
+        }
+
+        private PoolWindow window(long starved, int peakAcquired, long meanHold) {
+            return new PoolWindow(100, starved, starved > 0 ? 1 : 0, peakAcquired, 100, meanHold * 100);
+        }
+    }
+
+    @Nested
+    @ExtendWith(MockitoExtension.class)
+    @DisplayName("Instrumentation")
+    class InstrumentationTests {
+
+        @Mock
+        private ConnectionPool pool;
+
+        @Mock
+        private PoolMetrics poolMetrics;
+
+        @Mock
+        private Connection connection;
+
+        private SimpleMeterRegistry meterRegistry;
+        private InstrumentedConnectionPool instrumented;
+
+        @BeforeEach
+        void setUp() {
+            meterRegistry = new SimpleMeterRegistry();
+            instrumented = new InstrumentedConnectionPool("primary", pool,
+                    new AdaptiveAllocationStrategy(2, 16, 8, 2.0), Duration.ZERO, meterRegistry);
+        }
+
+        @Test
+        @DisplayName("Should time the acquire wait and the hold of each connection")
+        void shouldTimeAcquireAndHold() {
+            // Given
+            when(pool.create()).thenReturn(Mono.just(connection));
+            doReturn(Mono.empty()).when(connection).close();
+
+            // When
+            StepVerifier.create(instrumented.create().flatMap(held -> Mono.from(held.close()).thenReturn(held)))
+                    .assertNext(held -> assertThat(((Wrapped<?>) held).unwrap()).isSameAs(connection))
+                    .verifyComplete();
+
+            // Then
+            assertThat(meterRegistry.get("payment.db.pool.acquire").tag("pool", "primary").timer().count())
+                    .isEqualTo(1);
+            assertThat(meterRegistry.get("payment.db.pool.hold").tag("pool", "primary").timer().count())
+                    .isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should count a wait as starvation only when the pool was full or had a queue")
+        void shouldTellStarvationFromConnectionOpening() {
+            // Given
+            when(pool.create()).thenReturn(Mono.just(connection));
+            when(pool.getMetrics()).thenReturn(Optional.of(poolMetrics));
+            when(poolMetrics.acquiredSize()).thenReturn(3);
+
+            // When: waits while the pool had room
+            instrumented.create().block();
+
+            // Then
+            assertThat(instrumented.drainWindow().starvedAcquisitions()).isZero();
+
+            // When: waits with others queued
+            when(poolMetrics.pendingAcquireSize()).thenReturn(4);
+            instrumented.create().block();
+
+            // Then
+            PoolWindow window = instrumented.drainWindow();
+            assertThat(window.starvedAcquisitions()).isEqualTo(1);
+            assertThat(window.peakPending()).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Should publish the current limit and count resizes by reason")
+        void shouldPublishLimitAndResizes() {
+            // Given
+            when(pool.getMetrics()).thenReturn(Optional.of(poolMetrics));
+
+            // When: a window without any use
+            instrumented.adjust();
+
+            // Then
+            assertThat(meterRegistry.get("payment.db.pool.limit").tag("pool", "primary").gauge().value())
+                    .isEqualTo(7.0);
+            assertThat(meterRegistry.get("payment.db.pool.resize").tag("reason", "idle").counter().count())
+                    .isEqualTo(1.0);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.ec.bank.payments.infrastructure.adapter.output.persistence.routing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for replica routing: ReplicaRoutingConnectionFactory and ReadRouting.
+ */
+@DisplayName("Replica Routing Tests")
+class ReplicaRoutingTest {
+
+    private static final UUID ORDER_ID = UUID.fromString("7d9e2c41-5a6b-4c8d-9e0f-1a2b3c4d5e6f");
+
+    @Nested
+    @ExtendWith(MockitoExtension.class)
+    @DisplayName("Connection routing")
+    class ConnectionRoutingTests {
+
+        @Mock
+        private ConnectionFactory primary;
+
+        @Mock
+        private ConnectionFactory replica;
+
+        @Mock
+        private Connection primaryConnection;
+
+        @Mock
+        private Connection replicaConnection;
+
+        @Mock
+        private ReplicaLagMonitor lagMonitor;
+
+        private SimpleMeterRegistry meterRegistry;
+        private ReplicaRoutingConnectionFactory connectionFactory;
+
+        @BeforeEach
+        void setUp() {
+            meterRegistry = new SimpleMeterRegistry();
+            connectionFactory = new ReplicaRoutingConnectionFactory(
+                    primary, Map.of("replica-0", replica), lagMonitor, meterRegistry);
+            connectionFactory.afterPropertiesSet();
+        }
+
+        @Test
+        @DisplayName("Should use the primary when the pipeline did not ask for a replica")
+        void shouldUsePrimaryByDefault() {
+            // Given
+            doReturn(Mono.just(primaryConnection)).when(primary).create();
+
+            // When/Then
+            StepVerifier.create(Mono.from(connectionFactory.create()))
+                    .expectNext(primaryConnection)
+                    .verifyComplete();
+            verifyNoInteractions(replica, lagMonitor);
+        }
+
+        @Test
+        @DisplayName("Should use a fresh replica when the pipeline allows it")
+        void shouldUseFreshReplica() {
+            // Given
+            when(lagMonitor.nextReplica()).thenReturn(Optional.of("replica-0"));
+            doReturn(Mono.just(replicaConnection)).when(replica).create();
+
+            // When/Then
+            StepVerifier.create(Mono.from(connectionFactory.create()).contextWrite(ReadRoute.replica()))
+                    .expectNext(replicaConnection)
+                    .verifyComplete();
+            verify(primary, never()).create();
+        }
+
+        @Test
+        @DisplayName("Should fall back to the primary when no replica is fresh")
+        void shouldFallBackWhenNoReplicaIsFresh() {
+            // Given
+            when(lagMonitor.nextReplica()).thenReturn(Optional.empty());
+            doReturn(Mono.just(primaryConnection)).when(primary).create();
+
+            // When/Then
+            StepVerifier.create(Mono.from(connectionFactory.create()).contextWrite(ReadRoute.replica()))
+                    .expectNext(primaryConnection)
+                    .verifyComplete();
+            assertThat(meterRegistry.counter("payment.db.read.primary.fallback", "reason", "replica-unavailable")
+                    .count()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("Read-your-writes")
+    class ReadYourWritesTests {
+
+        private SimpleMeterRegistry meterRegistry;
+        private ReadRouting readRouting;
+
+        @BeforeEach
+        void setUp() {
+            meterRegistry = new SimpleMeterRegistry();
+            readRouting = new ReadRouting(meterRegistry, List.of("r2dbc:postgresql://replica/payments_db"),
+                    Duration.ofSeconds(5), 100);
+        }
+
+        @Test
+        @DisplayName("Should keep the replica route when the replica finds the order")
+        void shouldKeepReplicaRouteOnHit() {
+            // Given
+            AtomicInteger queries = new AtomicInteger();
+            Mono<ReadRoute> query = routedQuery(queries, true);
+
+            // When/Then
+            StepVerifier.create(readRouting.read(ORDER_ID, query).contextWrite(ReadRoute.replica()))
+                    .expectNext(ReadRoute.REPLICA)
+                    .verifyComplete();
+            assertThat(queries).hasValue(1);
+        }
+
+        @Test
+        @DisplayName("Should retry on the primary when the replica misses the order")
+        void shouldRetryOnPrimaryAfterReplicaMiss() {
+            // Given
+            AtomicInteger queries = new AtomicInteger();
+            Mono<ReadRoute> query = routedQuery(queries, false);
+
+            // When/Then
+            StepVerifier.create(readRouting.read(ORDER_ID, query).contextWrite(ReadRoute.replica()))
+                    .expectNext(ReadRoute.PRIMARY)
+                    .verifyComplete();
+            assertThat(queries).hasValue(2);
+            assertThat(meterRegistry.counter("payment.db.read.primary.fallback", "reason", "replica-miss")
+                    .count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should read orders written by this instance from the primary")
+        void shouldReadRecentWritesFromPrimary() {
+            // Given
+            AtomicInteger queries = new AtomicInteger();
+            readRouting.recordWrite(ORDER_ID);
+
+            // When/Then
+            StepVerifier.create(readRouting.read(ORDER_ID, routedQuery(queries, true))
+                            .contextWrite(ReadRoute.replica()))
+                    .expectNext(ReadRoute.PRIMARY)
+                    .verifyComplete();
+            assertThat(queries).hasValue(1);
+            assertThat(meterRegistry.counter("payment.db.read.primary.fallback", "reason", "recent-write")
+                    .count()).isEqualTo(1.0);
+        }
+
+        @Test
+        @DisplayName("Should leave reads that never asked for a replica on the primary")
+        void shouldLeavePrimaryReadsAlone() {
+            // Given
+            AtomicInteger queries = new AtomicInteger();
+
+            // When/Then
+            StepVerifier.create(readRouting.read(ORDER_ID, routedQuery(queries, false)))
+                    .expectNext(ReadRoute.PRIMARY)
+                    .verifyComplete();
+            assertThat(queries).hasValue(1);
+        }
+
+        /**
+         * Query emitting the route it ran under; on a replica it finds the order only if asked to.
+         */
+        private Mono<ReadRoute> routedQuery(AtomicInteger queries, boolean foundOnReplica) {
+            return Mono.deferContextual((ContextView context) -> {
+                queries.incrementAndGet();
+                ReadRoute route = ReadRoute.current(context);
+                return route == ReadRoute.REPLICA && !foundOnReplica ? Mono.empty() : Mono.just(route);
+            });
+        }
+    }
+}